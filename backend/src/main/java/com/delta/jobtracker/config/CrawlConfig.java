@@ -32,6 +32,19 @@ public class CrawlConfig {
     return Executors.newSingleThreadExecutor();
   }
 
+  @Bean(name = "robotsExecutor", destroyMethod = "shutdown")
+  public ExecutorService robotsExecutor() {
+    return Executors.newFixedThreadPool(2);
+  }
+
+  // Shared by concurrent company crawls; each discovery keeps its own fetches under
+  // crawler.sitemap.fetch-concurrency.
+  @Bean(name = "sitemapExecutor", destroyMethod = "shutdown")
+  public ExecutorService sitemapExecutor(CrawlerProperties properties) {
+    int size = Math.max(4, properties.getSitemap().getFetchConcurrency() * 2);
+    return Executors.newFixedThreadPool(size);
+  }
+
   @Bean(name = "discoveryExecutor", destroyMethod = "shutdown")
   public ExecutorService discoveryExecutor(CrawlerProperties properties) {
     int size = Math.max(2, properties.getGlobalConcurrency());
@@ -11,6 +11,7 @@ public class CrawlerProperties {
 
   private String userAgent;
   private int perHostDelayMs = 1000;
+  private double perHostRequestsPerSecond = 0.0;
   private int perHostConcurrency = 2;
   private int globalConcurrency = 5;
   private int requestTimeoutSeconds = 60;
@@ -36,6 +37,12 @@ public class CrawlerProperties {
   private Run run = new Run();
   private Canary canary = new Canary();
   private Frontier frontier = new Frontier();
+  private HostState hostState = new HostState();
+  private Adaptive adaptive = new Adaptive();
+  private ResponseCache responseCache = new ResponseCache();
+  private DiskCache diskCache = new DiskCache();
+  private Http2 http2 = new Http2();
+  private Admission admission = new Admission();
 
   public String getUserAgent() {
     return normalizeUserAgent(userAgent);
@@ -53,6 +60,14 @@ public class CrawlerProperties {
     this.perHostDelayMs = Math.max(1, perHostDelayMs);
   }
 
+  public double getPerHostRequestsPerSecond() {
+    return Math.max(0.0, perHostRequestsPerSecond);
+  }
+
+  public void setPerHostRequestsPerSecond(double perHostRequestsPerSecond) {
+    this.perHostRequestsPerSecond = Math.max(0.0, perHostRequestsPerSecond);
+  }
+
   public int getPerHostConcurrency() {
     return Math.max(1, perHostConcurrency);
   }
@@ -253,6 +268,55 @@ public class CrawlerProperties {
     this.frontier = frontier;
   }
 
+  public HostState getHostState() {
+    return hostState;
+  }
+
+  public void setHostState(HostState hostState) {
+    this.hostState = hostState;
+  }
+
+  public Adaptive getAdaptive() {
+    return adaptive;
+  }
+
+  public void setAdaptive(Adaptive adaptive) {
+    this.adaptive = adaptive;
+  }
+
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
+  public void setResponseCache(ResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
+  public DiskCache getDiskCache() {
+    return diskCache;
+  }
+
+  public void setDiskCache(DiskCache diskCache) {
+    this.diskCache = diskCache;
+  }
+
+  public Http2 getHttp2() {
+    return http2;
+  }
+
+  public void setHttp2(Http2 http2) {
+    this.http2 = http2;
+  }
+
+  public Admission getAdmission() {
+    return admission;
+  }
+
+  public void setAdmission(Admission admission) {
+    this.admission = admission;
+  }
+
+
   public static String normalizeUserAgent(String candidate) {
     if (candidate == null || candidate.isBlank()) {
       return DEFAULT_USER_AGENT;
@@ -612,6 +676,12 @@ public class CrawlerProperties {
   public static class Robots {
     private boolean failOpen = false;
     private boolean allowAtsAdapterWhenUnavailable = true;
+    private boolean persistentCache = false;
+    private int cacheMaxEntries = 10_000;
+    private int cacheTtlHours = 24;
+    private int unavailableTtlHours = 6;
+    private int cacheRetentionDays = 30;
+    private long loadTimeoutMs = 0;
 
     public boolean isFailOpen() {
       return failOpen;
@@ -628,12 +698,67 @@ public class CrawlerProperties {
     public void setAllowAtsAdapterWhenUnavailable(boolean allowAtsAdapterWhenUnavailable) {
       this.allowAtsAdapterWhenUnavailable = allowAtsAdapterWhenUnavailable;
     }
+
+    public boolean isPersistentCache() {
+      return persistentCache;
+    }
+
+    public void setPersistentCache(boolean persistentCache) {
+      this.persistentCache = persistentCache;
+    }
+
+    public int getCacheMaxEntries() {
+      return Math.max(1, cacheMaxEntries);
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+      this.cacheMaxEntries = Math.max(1, cacheMaxEntries);
+    }
+
+    public int getCacheTtlHours() {
+      return Math.max(1, cacheTtlHours);
+    }
+
+    public void setCacheTtlHours(int cacheTtlHours) {
+      this.cacheTtlHours = Math.max(1, cacheTtlHours);
+    }
+
+    public int getUnavailableTtlHours() {
+      return Math.max(1, unavailableTtlHours);
+    }
+
+    public void setUnavailableTtlHours(int unavailableTtlHours) {
+      this.unavailableTtlHours = Math.max(1, unavailableTtlHours);
+    }
+
+    public int getCacheRetentionDays() {
+      return Math.max(1, cacheRetentionDays);
+    }
+
+    public void setCacheRetentionDays(int cacheRetentionDays) {
+      this.cacheRetentionDays = Math.max(1, cacheRetentionDays);
+    }
+
+    // 0 waits for the robots load however long it takes.
+    public long getLoadTimeoutMs() {
+      return Math.max(0L, loadTimeoutMs);
+    }
+
+    public void setLoadTimeoutMs(long loadTimeoutMs) {
+      this.loadTimeoutMs = Math.max(0L, loadTimeoutMs);
+    }
   }
 
   public static class Sitemap {
     private int maxDepth = 3;
     private int maxSitemaps = 50;
     private int maxUrlsPerDomain = 200;
+    // The sitemap protocol allows 50MB uncompressed; larger bodies are still body_too_large.
+    private int maxBytes = 52_428_800;
+    private int spillThresholdBytes = 1_048_576;
+    private String spillDirectory = "";
+    private int fetchConcurrency = 8;
+    private int perHostFetchConcurrency = 2;
 
     public int getMaxDepth() {
       return maxDepth;
@@ -658,6 +783,49 @@ public class CrawlerProperties {
     public void setMaxUrlsPerDomain(int maxUrlsPerDomain) {
       this.maxUrlsPerDomain = maxUrlsPerDomain;
     }
+
+    public int getMaxBytes() {
+      return Math.max(1, maxBytes);
+    }
+
+    public void setMaxBytes(int maxBytes) {
+      this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    // Sitemap bodies beyond this many bytes are written to a temp file while they download.
+    public int getSpillThresholdBytes() {
+      return Math.max(1, spillThresholdBytes);
+    }
+
+    public void setSpillThresholdBytes(int spillThresholdBytes) {
+      this.spillThresholdBytes = Math.max(1, spillThresholdBytes);
+    }
+
+    // Blank uses the system temp directory.
+    public String getSpillDirectory() {
+      return spillDirectory;
+    }
+
+    public void setSpillDirectory(String spillDirectory) {
+      this.spillDirectory = spillDirectory == null ? "" : spillDirectory.trim();
+    }
+
+    // Child sitemaps one discovery fetches at once, across all hosts.
+    public int getFetchConcurrency() {
+      return Math.max(1, fetchConcurrency);
+    }
+
+    public void setFetchConcurrency(int fetchConcurrency) {
+      this.fetchConcurrency = Math.max(1, fetchConcurrency);
+    }
+
+    public int getPerHostFetchConcurrency() {
+      return Math.max(1, perHostFetchConcurrency);
+    }
+
+    public void setPerHostFetchConcurrency(int perHostFetchConcurrency) {
+      this.perHostFetchConcurrency = Math.max(1, perHostFetchConcurrency);
+    }
   }
 
   public static class Extraction {
@@ -954,6 +1122,10 @@ public class CrawlerProperties {
     private int maxUrlsParsedPerSitemap = 2000;
     private int maxJobCandidatesPerSitemap = 300;
     private int urlLeaseSeconds = 60;
+    private int claimBatchSize = 8;
+    private int workerCount = 4;
+    private boolean drainEnabled;
+    private int drainPollIntervalMs = 1000;
     private boolean respectRobotsForSitemaps = true;
 
     public int getSeedDomainLimit() {
@@ -996,6 +1168,38 @@ public class CrawlerProperties {
       this.urlLeaseSeconds = Math.max(5, urlLeaseSeconds);
     }
 
+    public int getClaimBatchSize() {
+      return Math.max(1, claimBatchSize);
+    }
+
+    public void setClaimBatchSize(int claimBatchSize) {
+      this.claimBatchSize = Math.max(1, claimBatchSize);
+    }
+
+    public int getWorkerCount() {
+      return Math.max(1, workerCount);
+    }
+
+    public void setWorkerCount(int workerCount) {
+      this.workerCount = Math.max(1, workerCount);
+    }
+
+    public boolean isDrainEnabled() {
+      return drainEnabled;
+    }
+
+    public void setDrainEnabled(boolean drainEnabled) {
+      this.drainEnabled = drainEnabled;
+    }
+
+    public int getDrainPollIntervalMs() {
+      return Math.max(100, drainPollIntervalMs);
+    }
+
+    public void setDrainPollIntervalMs(int drainPollIntervalMs) {
+      this.drainPollIntervalMs = Math.max(100, drainPollIntervalMs);
+    }
+
     public boolean isRespectRobotsForSitemaps() {
       return respectRobotsForSitemaps;
     }
@@ -1004,4 +1208,276 @@ public class CrawlerProperties {
       this.respectRobotsForSitemaps = respectRobotsForSitemaps;
     }
   }
+
+  public static class HostState {
+    private int flushIntervalMs = 1000;
+    private int flushBatchSize = 500;
+
+    public int getFlushIntervalMs() {
+      return Math.max(50, flushIntervalMs);
+    }
+
+    public void setFlushIntervalMs(int flushIntervalMs) {
+      this.flushIntervalMs = Math.max(50, flushIntervalMs);
+    }
+
+    public int getFlushBatchSize() {
+      return Math.max(1, flushBatchSize);
+    }
+
+    public void setFlushBatchSize(int flushBatchSize) {
+      this.flushBatchSize = Math.max(1, flushBatchSize);
+    }
+  }
+
+  public static class Adaptive {
+    private boolean enabled = false;
+    private int minConcurrency = 1;
+    private int maxConcurrency = 8;
+    private int minDelayMs = 100;
+    private int maxDelayMs = 60000;
+    private int delayStepMs = 50;
+    private int latencyTargetMs = 2000;
+    private double decreaseFactor = 0.5;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public int getMinConcurrency() {
+      return Math.max(1, minConcurrency);
+    }
+
+    public void setMinConcurrency(int minConcurrency) {
+      this.minConcurrency = Math.max(1, minConcurrency);
+    }
+
+    public int getMaxConcurrency() {
+      return Math.max(getMinConcurrency(), maxConcurrency);
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+      this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    public int getMinDelayMs() {
+      return Math.max(1, minDelayMs);
+    }
+
+    public void setMinDelayMs(int minDelayMs) {
+      this.minDelayMs = Math.max(1, minDelayMs);
+    }
+
+    public int getMaxDelayMs() {
+      return Math.max(getMinDelayMs(), maxDelayMs);
+    }
+
+    public void setMaxDelayMs(int maxDelayMs) {
+      this.maxDelayMs = Math.max(1, maxDelayMs);
+    }
+
+    public int getDelayStepMs() {
+      return Math.max(0, delayStepMs);
+    }
+
+    public void setDelayStepMs(int delayStepMs) {
+      this.delayStepMs = Math.max(0, delayStepMs);
+    }
+
+    public int getLatencyTargetMs() {
+      return Math.max(1, latencyTargetMs);
+    }
+
+    public void setLatencyTargetMs(int latencyTargetMs) {
+      this.latencyTargetMs = Math.max(1, latencyTargetMs);
+    }
+
+    public double getDecreaseFactor() {
+      return Math.min(0.95, Math.max(0.1, decreaseFactor));
+    }
+
+    public void setDecreaseFactor(double decreaseFactor) {
+      this.decreaseFactor = decreaseFactor;
+    }
+  }
+
+  public static class ResponseCache {
+    private boolean enabled = false;
+    private long maxBytes = 64L * 1024 * 1024;
+    private int ttlSeconds = 900;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public long getMaxBytes() {
+      return Math.max(0L, maxBytes);
+    }
+
+    public void setMaxBytes(long maxBytes) {
+      this.maxBytes = Math.max(0L, maxBytes);
+    }
+
+    public int getTtlSeconds() {
+      return Math.max(1, ttlSeconds);
+    }
+
+    public void setTtlSeconds(int ttlSeconds) {
+      this.ttlSeconds = Math.max(1, ttlSeconds);
+    }
+  }
+
+  public static class DiskCache {
+    private boolean enabled = false;
+    private String directory = "../data/http-cache";
+    private long maxBytes = 1024L * 1024 * 1024;
+    private int maxAgeSeconds = 3600;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+      return directory;
+    }
+
+    public void setDirectory(String directory) {
+      this.directory = directory;
+    }
+
+    public long getMaxBytes() {
+      return Math.max(0L, maxBytes);
+    }
+
+    public void setMaxBytes(long maxBytes) {
+      this.maxBytes = Math.max(0L, maxBytes);
+    }
+
+    public int getMaxAgeSeconds() {
+      return Math.max(1, maxAgeSeconds);
+    }
+
+    public void setMaxAgeSeconds(int maxAgeSeconds) {
+      this.maxAgeSeconds = Math.max(1, maxAgeSeconds);
+    }
+  }
+
+  public static class Http2 {
+    private static final List<String> DEFAULT_HOSTS =
+        List.of(
+            "boards-api.greenhouse.io",
+            "api.lever.co",
+            "myworkdayjobs.com",
+            "api.smartrecruiters.com");
+
+    private boolean enabled = false;
+    private boolean allHosts = false;
+    private List<String> hosts = new ArrayList<>(DEFAULT_HOSTS);
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public boolean isAllHosts() {
+      return allHosts;
+    }
+
+    public void setAllHosts(boolean allHosts) {
+      this.allHosts = allHosts;
+    }
+
+    public List<String> getHosts() {
+      List<String> normalized = new ArrayList<>();
+      for (String value : hosts == null ? List.<String>of() : hosts) {
+        if (value == null) {
+          continue;
+        }
+        String host = value.trim().toLowerCase(Locale.ROOT);
+        while (host.startsWith(".")) {
+          host = host.substring(1);
+        }
+        if (!host.isBlank() && !normalized.contains(host)) {
+          normalized.add(host);
+        }
+      }
+      return normalized;
+    }
+
+    public void setHosts(List<String> hosts) {
+      this.hosts = hosts == null ? new ArrayList<>() : new ArrayList<>(hosts);
+    }
+  }
+
+  public static class Admission {
+    private int minServiceMs = 1000;
+    private int interactiveWeight = 8;
+    private int daemonCrawlWeight = 4;
+    private int discoveryWeight = 2;
+    private int frontierWeight = 2;
+    private int maintenanceWeight = 1;
+
+    public int getMinServiceMs() {
+      return Math.max(0, minServiceMs);
+    }
+
+    public void setMinServiceMs(int minServiceMs) {
+      this.minServiceMs = Math.max(0, minServiceMs);
+    }
+
+    public int getInteractiveWeight() {
+      return Math.max(1, interactiveWeight);
+    }
+
+    public void setInteractiveWeight(int interactiveWeight) {
+      this.interactiveWeight = Math.max(1, interactiveWeight);
+    }
+
+    public int getDaemonCrawlWeight() {
+      return Math.max(1, daemonCrawlWeight);
+    }
+
+    public void setDaemonCrawlWeight(int daemonCrawlWeight) {
+      this.daemonCrawlWeight = Math.max(1, daemonCrawlWeight);
+    }
+
+    public int getDiscoveryWeight() {
+      return Math.max(1, discoveryWeight);
+    }
+
+    public void setDiscoveryWeight(int discoveryWeight) {
+      this.discoveryWeight = Math.max(1, discoveryWeight);
+    }
+
+    public int getFrontierWeight() {
+      return Math.max(1, frontierWeight);
+    }
+
+    public void setFrontierWeight(int frontierWeight) {
+      this.frontierWeight = Math.max(1, frontierWeight);
+    }
+
+    public int getMaintenanceWeight() {
+      return Math.max(1, maintenanceWeight);
+    }
+
+    public void setMaintenanceWeight(int maintenanceWeight) {
+      this.maintenanceWeight = Math.max(1, maintenanceWeight);
+    }
+  }
 }
@@ -4,6 +4,7 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.AtsAttemptsDiagnosticsResponse;
 import com.delta.jobtracker.crawl.model.AtsType;
 import com.delta.jobtracker.crawl.model.CanaryRunResponse;
@@ -28,6 +29,8 @@ import com.delta.jobtracker.crawl.model.DiscoveryFailuresDiagnosticsResponse;
 import com.delta.jobtracker.crawl.model.DomainResolutionResult;
 import com.delta.jobtracker.crawl.model.FullCycleSummary;
 import com.delta.jobtracker.crawl.model.HostCrawlState;
+import com.delta.jobtracker.crawl.model.HostLimitView;
+import com.delta.jobtracker.crawl.model.HttpClientStats;
 import com.delta.jobtracker.crawl.model.IngestionSummary;
 import com.delta.jobtracker.crawl.model.JobDeltaResponse;
 import com.delta.jobtracker.crawl.model.JobPostingListView;
@@ -70,6 +73,7 @@ public class CrawlController {
   private final CrawlerProperties crawlerProperties;
   private final SecCanaryService secCanaryService;
   private final HostCrawlStateService hostCrawlStateService;
+  private final PoliteHttpClient httpClient;
 
   public CrawlController(
       UniverseIngestionService ingestionService,
@@ -81,7 +85,8 @@ public class CrawlController {
       WorkdayInvalidUrlCleanupService workdayInvalidUrlCleanupService,
       CrawlerProperties crawlerProperties,
       SecCanaryService secCanaryService,
-      HostCrawlStateService hostCrawlStateService) {
+      HostCrawlStateService hostCrawlStateService,
+      PoliteHttpClient httpClient) {
     this.ingestionService = ingestionService;
     this.crawlOrchestratorService = crawlOrchestratorService;
     this.domainResolutionService = domainResolutionService;
@@ -92,6 +97,7 @@ public class CrawlController {
     this.crawlerProperties = crawlerProperties;
     this.secCanaryService = secCanaryService;
     this.hostCrawlStateService = hostCrawlStateService;
+    this.httpClient = httpClient;
   }
 
   @PostMapping("/ingest")
@@ -145,6 +151,17 @@ public class CrawlController {
     return hostCrawlStateService.listCooldownHosts(limit);
   }
 
+  @GetMapping("/hosts/limits")
+  public List<HostLimitView> getHostLimits(
+      @RequestParam(name = "limit", required = false) Integer limit) {
+    return httpClient.hostLimits(limit);
+  }
+
+  @GetMapping("/http/stats")
+  public HttpClientStats getHttpClientStats() {
+    return httpClient.stats();
+  }
+
   @PostMapping("/crawl/run")
   public CrawlRunSummary runCrawl(@RequestBody(required = false) CrawlApiRunRequest request) {
     boolean ingestBeforeCrawl =
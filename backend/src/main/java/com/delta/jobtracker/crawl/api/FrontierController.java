@@ -1,7 +1,10 @@
 package com.delta.jobtracker.crawl.api;
 
+import com.delta.jobtracker.crawl.model.FrontierDrainStatusResponse;
 import com.delta.jobtracker.crawl.model.FrontierSeedResponse;
+import com.delta.jobtracker.crawl.service.FrontierSchedulerService;
 import com.delta.jobtracker.crawl.service.FrontierSeedService;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,9 +14,12 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/frontier")
 public class FrontierController {
   private final FrontierSeedService frontierSeedService;
+  private final FrontierSchedulerService frontierSchedulerService;
 
-  public FrontierController(FrontierSeedService frontierSeedService) {
+  public FrontierController(
+      FrontierSeedService frontierSeedService, FrontierSchedulerService frontierSchedulerService) {
     this.frontierSeedService = frontierSeedService;
+    this.frontierSchedulerService = frontierSchedulerService;
   }
 
   @PostMapping("/seed")
@@ -22,4 +28,21 @@ public class FrontierController {
       @RequestParam(name = "maxSitemapFetches", required = false) Integer maxSitemapFetches) {
     return frontierSeedService.seedFromCompanyDomains(domainLimit, maxSitemapFetches);
   }
+
+  @PostMapping("/drain/start")
+  public FrontierDrainStatusResponse startDrain() {
+    frontierSchedulerService.startDrain();
+    return frontierSchedulerService.getDrainStatus();
+  }
+
+  @PostMapping("/drain/stop")
+  public FrontierDrainStatusResponse stopDrain() {
+    frontierSchedulerService.stopDrain();
+    return frontierSchedulerService.getDrainStatus();
+  }
+
+  @GetMapping("/drain/status")
+  public FrontierDrainStatusResponse drainStatus() {
+    return frontierSchedulerService.getDrainStatus();
+  }
 }
@@ -0,0 +1,369 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.crawl.model.AdmissionStats;
+import com.delta.jobtracker.crawl.model.TrafficClassStats;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Global concurrency gate that knows when each caller has to be finished. Each traffic class has
+// its own lane, ordered by priority and then earliest deadline; free permits go to lanes by
+// start-time fair queuing on their weights, so a bulk job cannot starve the others. A caller whose
+// deadline leaves less than the minimum service time is rejected on arrival, or shed while queued,
+// rather than admitted only to time out.
+final class AdmissionQueue {
+  static final int DEFAULT_PRIORITY = 0;
+  static final int RETRY_PRIORITY = 1;
+  static final long NO_DEADLINE = Long.MAX_VALUE;
+  static final String DEADLINE_REJECTED_ERROR = "deadline_rejected";
+  static final String DEADLINE_SHED_ERROR = "deadline_shed";
+
+  private static final Comparator<Waiter> ORDER =
+      Comparator.comparingInt(Waiter::priority)
+          .reversed()
+          .thenComparingLong(Waiter::latestStartNanos)
+          .thenComparingLong(Waiter::sequence);
+  private static final double THROUGHPUT_WINDOW_SECONDS = 60.0;
+  // One daemon timer thread for every queue. Timers are cancelled when their caller is admitted
+  // and dropped from the timer's queue right away, so far-off deadlines are not retained.
+  private static final ScheduledExecutorService SHED_TIMER = newShedTimer();
+
+  private final Object lock = new Object();
+  private final Map<TrafficClass, Lane> lanes = new EnumMap<>(TrafficClass.class);
+  private final int limit;
+  private final long minServiceNanos;
+  private final LongSupplier nanoClock;
+  private final Executor shedExecutor;
+  private final ScheduledExecutorService shedTimer;
+  private int available;
+  private int queued;
+  private long sequence;
+  private double virtualTime;
+  private long maxQueueWaitNanos;
+
+  AdmissionQueue(
+      int permits,
+      long minServiceMillis,
+      Map<TrafficClass, Integer> weights,
+      Executor shedExecutor) {
+    this(permits, minServiceMillis, weights, shedExecutor, System::nanoTime);
+  }
+
+  AdmissionQueue(
+      int permits,
+      long minServiceMillis,
+      Map<TrafficClass, Integer> weights,
+      Executor shedExecutor,
+      LongSupplier nanoClock) {
+    this(permits, minServiceMillis, weights, shedExecutor, nanoClock, SHED_TIMER);
+  }
+
+  AdmissionQueue(
+      int permits,
+      long minServiceMillis,
+      Map<TrafficClass, Integer> weights,
+      Executor shedExecutor,
+      LongSupplier nanoClock,
+      ScheduledExecutorService shedTimer) {
+    this.limit = Math.max(1, permits);
+    this.available = this.limit;
+    this.minServiceNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, minServiceMillis));
+    this.shedExecutor = shedExecutor;
+    this.shedTimer = shedTimer;
+    this.nanoClock = nanoClock;
+    for (TrafficClass trafficClass : TrafficClass.values()) {
+      lanes.put(trafficClass, new Lane(Math.max(1, weights.getOrDefault(trafficClass, 1))));
+    }
+  }
+
+  // deadlineNanos is on the nanoClock timeline; NO_DEADLINE for callers without a budget.
+  CompletableFuture<Void> acquire(TrafficClass trafficClass, long deadlineNanos, int priority) {
+    long now = nanoClock.getAsLong();
+    long latestStart =
+        deadlineNanos == NO_DEADLINE ? NO_DEADLINE : deadlineNanos - minServiceNanos;
+    Lane lane = lanes.get(trafficClass);
+    Waiter waiter;
+    synchronized (lock) {
+      if (latestStart != NO_DEADLINE && latestStart - now < 0) {
+        lane.rejected++;
+        return CompletableFuture.failedFuture(
+            new AdmissionRejectedException(
+                DEADLINE_REJECTED_ERROR, "Not enough budget left to start the request"));
+      }
+      if (available > 0 && queued == 0) {
+        available--;
+        admit(lane, 0L);
+        return CompletableFuture.completedFuture(null);
+      }
+      waiter = new Waiter(trafficClass, priority, latestStart, now, sequence++);
+      lane.waiters.add(waiter);
+      queued++;
+      if (latestStart != NO_DEADLINE) {
+        // Armed under the lock so an admission can never miss the timer it has to cancel.
+        waiter.shedTimer =
+            shedTimer.schedule(
+                () -> shedExecutor.execute(() -> shedIfQueued(waiter)),
+                latestStart - now,
+                TimeUnit.NANOSECONDS);
+      }
+    }
+    return waiter.future();
+  }
+
+  void release(TrafficClass trafficClass) {
+    synchronized (lock) {
+      Lane lane = lanes.get(trafficClass);
+      lane.inFlight--;
+      lane.recordCompletion(nanoClock.getAsLong());
+    }
+    grantNext();
+  }
+
+  AdmissionStats stats() {
+    synchronized (lock) {
+      long now = nanoClock.getAsLong();
+      List<TrafficClassStats> classes = new ArrayList<>();
+      long admitted = 0;
+      long rejected = 0;
+      long shed = 0;
+      long waitedNanos = 0;
+      long waitedAdmissions = 0;
+      for (Map.Entry<TrafficClass, Lane> entry : lanes.entrySet()) {
+        Lane lane = entry.getValue();
+        admitted += lane.admitted;
+        rejected += lane.rejected;
+        shed += lane.shed;
+        waitedNanos += lane.queueWaitNanos;
+        waitedAdmissions += lane.queuedAdmissions;
+        classes.add(
+            new TrafficClassStats(
+                entry.getKey().name(),
+                lane.weight,
+                lane.inFlight,
+                lane.waiters.size(),
+                lane.admitted,
+                lane.completed,
+                lane.rejected,
+                lane.shed,
+                averageMillis(lane.queueWaitNanos, lane.queuedAdmissions),
+                lane.throughputPerSecond(now)));
+      }
+      return new AdmissionStats(
+          limit,
+          limit - available,
+          queued,
+          admitted,
+          rejected,
+          shed,
+          averageMillis(waitedNanos, waitedAdmissions),
+          maxQueueWaitNanos / 1_000_000.0,
+          classes);
+    }
+  }
+
+  private void grantNext() {
+    while (true) {
+      Lane lane;
+      Waiter next;
+      boolean expired;
+      synchronized (lock) {
+        lane = nextLane();
+        if (lane == null) {
+          available++;
+          return;
+        }
+        next = lane.waiters.poll();
+        queued--;
+        next.cancelShedTimer();
+        long now = nanoClock.getAsLong();
+        expired = next.latestStartNanos() != NO_DEADLINE && next.latestStartNanos() - now < 0;
+        if (expired) {
+          lane.shed++;
+        } else {
+          admit(lane, now - next.enqueuedAtNanos());
+        }
+      }
+      // Complete outside the lock: dependent stages run on this thread.
+      if (expired) {
+        next.shed();
+        continue;
+      }
+      if (next.future().complete(null)) {
+        return;
+      }
+      synchronized (lock) {
+        lane.inFlight--;
+        lane.admitted--;
+      }
+    }
+  }
+
+  // Start-time fair queuing: the lane whose next grant would start earliest in virtual time wins.
+  private Lane nextLane() {
+    Lane best = null;
+    double bestStart = Double.MAX_VALUE;
+    for (Lane lane : lanes.values()) {
+      if (lane.waiters.isEmpty()) {
+        continue;
+      }
+      double start = Math.max(lane.finishTag, virtualTime);
+      if (best == null || start < bestStart) {
+        best = lane;
+        bestStart = start;
+      }
+    }
+    return best;
+  }
+
+  private void admit(Lane lane, long waitedNanos) {
+    double start = Math.max(lane.finishTag, virtualTime);
+    lane.finishTag = start + 1.0 / lane.weight;
+    virtualTime = start;
+    lane.inFlight++;
+    lane.admitted++;
+    if (waitedNanos > 0) {
+      lane.queuedAdmissions++;
+      lane.queueWaitNanos += waitedNanos;
+      maxQueueWaitNanos = Math.max(maxQueueWaitNanos, waitedNanos);
+    }
+  }
+
+  private void shedIfQueued(Waiter waiter) {
+    synchronized (lock) {
+      Lane lane = lanes.get(waiter.trafficClass());
+      if (!lane.waiters.remove(waiter)) {
+        return;
+      }
+      queued--;
+      lane.shed++;
+    }
+    waiter.shed();
+  }
+
+  private static ScheduledExecutorService newShedTimer() {
+    ScheduledThreadPoolExecutor timer =
+        new ScheduledThreadPoolExecutor(
+            1,
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setName("admission-shed-timer");
+              thread.setDaemon(true);
+              return thread;
+            });
+    timer.setRemoveOnCancelPolicy(true);
+    return timer;
+  }
+
+  private static double averageMillis(long totalNanos, long count) {
+    return count == 0 ? 0.0 : totalNanos / (double) count / 1_000_000.0;
+  }
+
+  private static final class Lane {
+    private final int weight;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(ORDER);
+    private double finishTag;
+    private int inFlight;
+    private long admitted;
+    private long completed;
+    private long rejected;
+    private long shed;
+    private long queuedAdmissions;
+    private long queueWaitNanos;
+    private double decayedCompletions;
+    private long lastCompletionNanos;
+
+    private Lane(int weight) {
+      this.weight = weight;
+    }
+
+    private void recordCompletion(long nowNanos) {
+      decayedCompletions = decayed(nowNanos) + 1.0;
+      lastCompletionNanos = nowNanos;
+      completed++;
+    }
+
+    // Completions per second, exponentially decayed over roughly the last minute.
+    private double throughputPerSecond(long nowNanos) {
+      return completed == 0 ? 0.0 : decayed(nowNanos) / THROUGHPUT_WINDOW_SECONDS;
+    }
+
+    private double decayed(long nowNanos) {
+      if (decayedCompletions == 0.0) {
+        return 0.0;
+      }
+      double elapsedSeconds = (nowNanos - lastCompletionNanos) / 1_000_000_000.0;
+      return decayedCompletions * Math.exp(-elapsedSeconds / THROUGHPUT_WINDOW_SECONDS);
+    }
+  }
+
+  private static final class Waiter {
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final TrafficClass trafficClass;
+    private final int priority;
+    private final long latestStartNanos;
+    private final long enqueuedAtNanos;
+    private final long sequence;
+    // Guarded by the queue lock.
+    private ScheduledFuture<?> shedTimer;
+
+    private Waiter(
+        TrafficClass trafficClass,
+        int priority,
+        long latestStartNanos,
+        long enqueuedAtNanos,
+        long sequence) {
+      this.trafficClass = trafficClass;
+      this.priority = priority;
+      this.latestStartNanos = latestStartNanos;
+      this.enqueuedAtNanos = enqueuedAtNanos;
+      this.sequence = sequence;
+    }
+
+    CompletableFuture<Void> future() {
+      return future;
+    }
+
+    TrafficClass trafficClass() {
+      return trafficClass;
+    }
+
+    int priority() {
+      return priority;
+    }
+
+    long latestStartNanos() {
+      return latestStartNanos;
+    }
+
+    long enqueuedAtNanos() {
+      return enqueuedAtNanos;
+    }
+
+    long sequence() {
+      return sequence;
+    }
+
+    void cancelShedTimer() {
+      if (shedTimer != null) {
+        shedTimer.cancel(false);
+        shedTimer = null;
+      }
+    }
+
+    void shed() {
+      future.completeExceptionally(
+          new AdmissionRejectedException(
+              DEADLINE_SHED_ERROR, "Queued past the latest start time for its deadline"));
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package com.delta.jobtracker.crawl.http;
+
+final class AdmissionRejectedException extends RuntimeException {
+  private final String code;
+
+  AdmissionRejectedException(String code, String message) {
+    super(message, null, false, false);
+    this.code = code;
+  }
+
+  String code() {
+    return code;
+  }
+}
@@ -0,0 +1,86 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+final class AsyncPermitPool {
+  private final Object lock = new Object();
+  private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+  private int limit;
+  private int available;
+
+  AsyncPermitPool(int permits) {
+    this.limit = Math.max(1, permits);
+    this.available = this.limit;
+  }
+
+  CompletableFuture<Void> acquire() {
+    synchronized (lock) {
+      if (available > 0) {
+        available--;
+        return CompletableFuture.completedFuture(null);
+      }
+      CompletableFuture<Void> waiter = new CompletableFuture<>();
+      waiters.addLast(waiter);
+      return waiter;
+    }
+  }
+
+  void release() {
+    while (true) {
+      CompletableFuture<Void> next;
+      synchronized (lock) {
+        // After a shrink, available can be negative until enough holders have released.
+        if (available < 0 || waiters.isEmpty()) {
+          available++;
+          return;
+        }
+        next = waiters.pollFirst();
+      }
+      if (next.complete(null)) {
+        return;
+      }
+    }
+  }
+
+  void setLimit(int permits) {
+    int safePermits = Math.max(1, permits);
+    List<CompletableFuture<Void>> granted = new ArrayList<>();
+    synchronized (lock) {
+      if (safePermits == limit) {
+        return;
+      }
+      available += safePermits - limit;
+      limit = safePermits;
+      while (available > 0 && !waiters.isEmpty()) {
+        granted.add(waiters.pollFirst());
+        available--;
+      }
+    }
+    for (CompletableFuture<Void> waiter : granted) {
+      if (!waiter.complete(null)) {
+        release();
+      }
+    }
+  }
+
+  int limit() {
+    synchronized (lock) {
+      return limit;
+    }
+  }
+
+  int inFlight() {
+    synchronized (lock) {
+      return limit - available;
+    }
+  }
+
+  int queued() {
+    synchronized (lock) {
+      return waiters.size();
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.nio.file.Path;
+
+// Opt-in for very large bodies: the first thresholdBytes stay in memory, anything beyond is
+// written to a temp file in directory (the system temp dir when null). The caller owns the file
+// and must release it with HttpFetchResult.discardBody().
+public record BodySpill(int thresholdBytes, Path directory) {
+  public BodySpill {
+    thresholdBytes = Math.max(1, thresholdBytes);
+  }
+}
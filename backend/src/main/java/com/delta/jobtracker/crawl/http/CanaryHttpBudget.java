@@ -5,7 +5,11 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+// Shared by every worker of a run, so the hot path avoids locks: the caps are enforced with CAS on
+// atomic counters, and the abort reason doubles as the volatile abort flag.
 public class CanaryHttpBudget {
   private final int maxRequestsPerHost;
   private final int maxTotalRequests;
@@ -15,13 +19,13 @@ public class CanaryHttpBudget {
   private final int maxAttemptsPerRequest;
   private final int requestTimeoutSeconds;
   private final Instant deadline;
+  private final long deadlineEpochMillis;
 
-  private final Map<String, Integer> hostCounts = new ConcurrentHashMap<>();
-  private int totalRequests;
-  private int total429;
-  private int consecutiveErrors;
-  private boolean aborted;
-  private String abortReason;
+  private final Map<String, AtomicInteger> hostCounts = new ConcurrentHashMap<>();
+  private final AtomicInteger totalRequests = new AtomicInteger();
+  private final LongAdder total429 = new LongAdder();
+  private final AtomicInteger consecutiveErrors = new AtomicInteger();
+  private volatile String abortReason;
 
   public CanaryHttpBudget(
       int maxRequestsPerHost,
@@ -40,6 +44,7 @@ public class CanaryHttpBudget {
     this.maxAttemptsPerRequest = Math.max(1, maxAttemptsPerRequest);
     this.requestTimeoutSeconds = Math.max(1, requestTimeoutSeconds);
     this.deadline = deadline;
+    this.deadlineEpochMillis = deadline == null ? Long.MAX_VALUE : deadline.toEpochMilli();
   }
 
   public CanaryHttpBudget(
@@ -70,67 +75,93 @@ public class CanaryHttpBudget {
     return requestTimeoutSeconds;
   }
 
+  public Instant deadline() {
+    return deadline;
+  }
+
+  // Never wait on a response past the run deadline.
+  public Duration capToRemaining(Duration timeout) {
+    if (deadline == null) {
+      return timeout;
+    }
+    Duration remaining = Duration.between(Instant.now(), deadline);
+    if (remaining.compareTo(timeout) >= 0) {
+      return timeout;
+    }
+    return remaining.isNegative() || remaining.isZero() ? Duration.ofMillis(1) : remaining;
+  }
+
   public boolean isExpired() {
-    return deadline != null && Instant.now().isAfter(deadline);
+    return System.currentTimeMillis() > deadlineEpochMillis;
   }
 
-  public synchronized void checkDeadline() {
-    if (aborted) {
-      throw new CanaryAbortException(abortReason == null ? "canary_aborted" : abortReason);
+  public void checkDeadline() {
+    String reason = abortReason;
+    if (reason != null) {
+      throw new CanaryAbortException(reason);
     }
     if (isExpired()) {
       abort("canary_time_budget_exceeded");
     }
   }
 
-  public synchronized void beforeRequest(String host) {
+  public void beforeRequest(String host) {
     checkDeadline();
-    if (maxTotalRequests > 0 && totalRequests >= maxTotalRequests) {
+    if (!tryIncrement(totalRequests, maxTotalRequests)) {
       abort("total_request_budget_exceeded");
     }
     if (host != null && maxRequestsPerHost > 0) {
-      int hostCount = hostCounts.getOrDefault(host, 0);
-      if (hostCount >= maxRequestsPerHost) {
+      AtomicInteger hostCount = hostCounts.computeIfAbsent(host, ignored -> new AtomicInteger());
+      if (!tryIncrement(hostCount, maxRequestsPerHost)) {
+        // The request never goes out, so hand back the total slot it reserved.
+        totalRequests.decrementAndGet();
         abort("per_host_request_budget_exceeded");
       }
-      hostCounts.put(host, hostCount + 1);
     }
-    totalRequests++;
   }
 
-  public synchronized void recordResult(HttpFetchResult result) {
+  public void recordResult(HttpFetchResult result) {
     checkDeadline();
     if (result == null) {
       return;
     }
     if (result.statusCode() == 429) {
-      total429++;
+      total429.increment();
     }
+    int errors;
     if (isError(result)) {
-      consecutiveErrors++;
+      errors = consecutiveErrors.incrementAndGet();
     } else {
-      consecutiveErrors = 0;
+      errors = 0;
+      if (consecutiveErrors.get() != 0) {
+        consecutiveErrors.set(0);
+      }
     }
 
-    if (maxConsecutiveErrors > 0 && consecutiveErrors >= maxConsecutiveErrors) {
+    if (maxConsecutiveErrors > 0 && errors >= maxConsecutiveErrors) {
       abort("consecutive_error_threshold_exceeded");
     }
-    if (max429Rate > 0 && totalRequests >= minRequestsFor429Rate) {
-      double rate = total429 / Math.max(1.0, totalRequests);
+    int requests = totalRequests.get();
+    if (max429Rate > 0 && requests >= minRequestsFor429Rate) {
+      double rate = total429.sum() / Math.max(1.0, requests);
       if (rate >= max429Rate) {
         abort("rate_limit_threshold_exceeded");
       }
     }
   }
 
-  public synchronized boolean isAborted() {
-    return aborted;
+  public boolean isAborted() {
+    return abortReason != null;
   }
 
-  public synchronized String abortReason() {
+  public String abortReason() {
     return abortReason;
   }
 
+  public int totalRequests() {
+    return totalRequests.get();
+  }
+
   private boolean isError(HttpFetchResult result) {
     if (result.errorCode() != null && !result.errorCode().isBlank()) {
       return true;
@@ -139,8 +170,23 @@ public class CanaryHttpBudget {
     return status == 429 || status >= 500;
   }
 
+  // A limit of zero or less means unlimited.
+  private static boolean tryIncrement(AtomicInteger counter, int limit) {
+    if (limit <= 0) {
+      counter.incrementAndGet();
+      return true;
+    }
+    int current;
+    do {
+      current = counter.get();
+      if (current >= limit) {
+        return false;
+      }
+    } while (!counter.compareAndSet(current, current + 1));
+    return true;
+  }
+
   private void abort(String reason) {
-    aborted = true;
     abortReason = reason;
     throw new CanaryAbortException(reason);
   }
@@ -0,0 +1,247 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+// Push-style gzip/deflate decoder so response bodies can be inflated chunk by chunk as they
+// arrive instead of buffering the compressed payload first.
+final class ContentDecoder {
+  private static final int FHCRC = 2;
+  private static final int FEXTRA = 4;
+  private static final int FNAME = 8;
+  private static final int FCOMMENT = 16;
+
+  interface Sink {
+    boolean write(byte[] data, int offset, int length);
+  }
+
+  private enum State {
+    HEADER,
+    BODY,
+    TRAILER,
+    DONE
+  }
+
+  private final boolean gzip;
+  private final byte[] out = new byte[8192];
+  private final byte[] header = new byte[10];
+  private final byte[] trailer = new byte[8];
+  private final CRC32 crc = new CRC32();
+  private Inflater inflater;
+  private State state;
+  private boolean additionalMember;
+  private int position;
+  private int headerStep;
+  private int extraRemaining;
+  private long memberSize;
+  private boolean sawInput;
+
+  private ContentDecoder(boolean gzip) {
+    this.gzip = gzip;
+    this.state = gzip ? State.HEADER : State.BODY;
+    if (gzip) {
+      this.inflater = new Inflater(true);
+    }
+  }
+
+  static ContentDecoder forEncoding(String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+    if (encoding.equals("gzip") || encoding.equals("x-gzip")) {
+      return new ContentDecoder(true);
+    }
+    if (encoding.equals("deflate")) {
+      return new ContentDecoder(false);
+    }
+    return null;
+  }
+
+  boolean decode(ByteBuffer input, Sink sink) throws ZipException {
+    if (input.hasRemaining()) {
+      sawInput = true;
+    }
+    while (input.hasRemaining()) {
+      switch (state) {
+        case HEADER -> readHeader(input);
+        case BODY -> {
+          if (!inflate(input, sink)) {
+            return false;
+          }
+        }
+        case TRAILER -> readTrailer(input);
+        case DONE -> input.position(input.limit());
+      }
+    }
+    return true;
+  }
+
+  void finish() throws ZipException {
+    boolean complete =
+        !sawInput || state == State.DONE || (state == State.HEADER && additionalMember);
+    if (!complete) {
+      throw new ZipException("Unexpected end of compressed stream");
+    }
+  }
+
+  void close() {
+    if (inflater != null) {
+      inflater.end();
+    }
+  }
+
+  private boolean inflate(ByteBuffer input, Sink sink) throws ZipException {
+    if (inflater == null) {
+      // RFC 9110 deflate is zlib-wrapped, but some servers send raw deflate.
+      int first = input.get(input.position()) & 0xFF;
+      boolean zlib = (first & 0x0F) == 8 && (first >> 4) <= 7;
+      inflater = new Inflater(!zlib);
+    }
+    inflater.setInput(input);
+    try {
+      while (true) {
+        int count = inflater.inflate(out);
+        if (count > 0) {
+          if (gzip) {
+            crc.update(out, 0, count);
+          }
+          memberSize += count;
+          if (!sink.write(out, 0, count)) {
+            return false;
+          }
+        }
+        if (inflater.finished()) {
+          state = gzip ? State.TRAILER : State.DONE;
+          position = 0;
+          return true;
+        }
+        if (count == 0) {
+          if (inflater.needsDictionary()) {
+            throw new ZipException("Preset dictionaries are not supported");
+          }
+          if (inflater.needsInput()) {
+            return true;
+          }
+        }
+      }
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    }
+  }
+
+  private void readHeader(ByteBuffer input) throws ZipException {
+    while (input.hasRemaining() && state == State.HEADER) {
+      int value = input.get() & 0xFF;
+      switch (headerStep) {
+        case 0 -> {
+          if (position == 0 && additionalMember && value != 0x1f) {
+            // Trailing bytes after the last member are ignored, like GZIPInputStream does.
+            state = State.DONE;
+            input.position(input.limit());
+            return;
+          }
+          header[position++] = (byte) value;
+          if (position == header.length) {
+            if ((header[0] & 0xFF) != 0x1f || (header[1] & 0xFF) != 0x8b || header[2] != 8) {
+              throw new ZipException("Not in GZIP format");
+            }
+            position = 0;
+            nextHeaderStep(1);
+          }
+        }
+        case 1 -> {
+          extraRemaining |= value << (8 * position);
+          if (++position == 2) {
+            position = 0;
+            headerStep = 2;
+            if (extraRemaining == 0) {
+              nextHeaderStep(3);
+            }
+          }
+        }
+        case 2 -> {
+          if (--extraRemaining == 0) {
+            nextHeaderStep(3);
+          }
+        }
+        case 3 -> {
+          if (value == 0) {
+            nextHeaderStep(4);
+          }
+        }
+        case 4 -> {
+          if (value == 0) {
+            nextHeaderStep(5);
+          }
+        }
+        case 5 -> {
+          if (++position == 2) {
+            position = 0;
+            nextHeaderStep(6);
+          }
+        }
+        default -> throw new IllegalStateException("Unknown gzip header step " + headerStep);
+      }
+    }
+  }
+
+  private void nextHeaderStep(int candidate) {
+    int flags = header[3] & 0xFF;
+    int step = candidate;
+    while (true) {
+      if (step == 1 && (flags & FEXTRA) == 0) {
+        step = 3;
+      } else if (step == 3 && (flags & FNAME) == 0) {
+        step = 4;
+      } else if (step == 4 && (flags & FCOMMENT) == 0) {
+        step = 5;
+      } else if (step == 5 && (flags & FHCRC) == 0) {
+        step = 6;
+      } else {
+        break;
+      }
+    }
+    if (step >= 6) {
+      state = State.BODY;
+      headerStep = 0;
+      return;
+    }
+    if (step == 1) {
+      extraRemaining = 0;
+    }
+    headerStep = step;
+  }
+
+  private void readTrailer(ByteBuffer input) throws ZipException {
+    while (input.hasRemaining() && position < trailer.length) {
+      trailer[position++] = input.get();
+    }
+    if (position < trailer.length) {
+      return;
+    }
+    long expectedCrc = readUInt32(0);
+    long expectedSize = readUInt32(4);
+    if (expectedCrc != crc.getValue() || expectedSize != (memberSize & 0xFFFFFFFFL)) {
+      throw new ZipException("Corrupt GZIP trailer");
+    }
+    crc.reset();
+    memberSize = 0;
+    inflater.reset();
+    position = 0;
+    headerStep = 0;
+    additionalMember = true;
+    state = State.HEADER;
+  }
+
+  private long readUInt32(int offset) {
+    return (trailer[offset] & 0xFFL)
+        | (trailer[offset + 1] & 0xFFL) << 8
+        | (trailer[offset + 2] & 0xFFL) << 16
+        | (trailer[offset + 3] & 0xFFL) << 24;
+  }
+}
@@ -0,0 +1,424 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.ResponseCacheStats;
+import com.delta.jobtracker.crawl.util.FrontierUrlCanonicalizer;
+import com.delta.jobtracker.crawl.util.HashUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Survives restarts: bodies live in blobs/ named by the SHA-256 of their content (so identical
+// bodies behind different URLs are stored once, gzip-compressed), and each cached request has a
+// small properties file in meta/ pointing at its blob. Meta file mtimes track LRU order.
+final class DiskResponseCache {
+  private static final Logger log = LoggerFactory.getLogger(DiskResponseCache.class);
+  private static final String META_SUFFIX = ".properties";
+  private static final String BLOB_SUFFIX = ".gz";
+  private static final String TEMP_PREFIX = "tmp-";
+
+  private final Path metaDir;
+  private final Path blobDir;
+  private final long maxBytes;
+  private final Duration maxAge;
+  private final Clock clock;
+  private final FrontierUrlCanonicalizer canonicalizer = new FrontierUrlCanonicalizer();
+  private final LinkedHashMap<String, Meta> index = new LinkedHashMap<>(256, 0.75f, true);
+  private final Map<String, Integer> blobRefs = new HashMap<>();
+  private final Map<String, Long> blobSizes = new HashMap<>();
+  private long totalBytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long expirations;
+
+  private DiskResponseCache(Path root, long maxBytes, Duration maxAge, Clock clock) {
+    this.metaDir = root.resolve("meta");
+    this.blobDir = root.resolve("blobs");
+    this.maxBytes = Math.max(0L, maxBytes);
+    this.maxAge = maxAge;
+    this.clock = clock;
+  }
+
+  static DiskResponseCache open(Path root, long maxBytes, Duration maxAge) throws IOException {
+    return open(root, maxBytes, maxAge, Clock.systemUTC());
+  }
+
+  static DiskResponseCache open(Path root, long maxBytes, Duration maxAge, Clock clock)
+      throws IOException {
+    DiskResponseCache cache = new DiskResponseCache(root, maxBytes, maxAge, clock);
+    Files.createDirectories(cache.metaDir);
+    Files.createDirectories(cache.blobDir);
+    cache.loadIndex();
+    return cache;
+  }
+
+  HttpFetchResult get(String url, String acceptHeader, String userAgent, Integer maxBodyBytes) {
+    String key = key(url, acceptHeader, userAgent);
+    Meta meta;
+    synchronized (this) {
+      meta = index.get(key);
+      if (meta == null) {
+        misses++;
+        return null;
+      }
+      if (isExpired(meta)) {
+        removeEntry(key, meta);
+        expirations++;
+        misses++;
+        return null;
+      }
+      if (maxBodyBytes != null && meta.decodedBytes() > maxBodyBytes) {
+        misses++;
+        return null;
+      }
+    }
+    byte[] body;
+    try {
+      body = readBlob(meta);
+    } catch (IOException e) {
+      log.debug("Dropping unreadable disk cache entry for {}", url, e);
+      synchronized (this) {
+        removeEntry(key, meta);
+        misses++;
+      }
+      return null;
+    }
+    synchronized (this) {
+      hits++;
+    }
+    touch(metaFile(key));
+    return meta.toResult(url, body);
+  }
+
+  void put(String url, String acceptHeader, String userAgent, HttpFetchResult result) {
+    if (result == null || !result.isSuccessful() || result.bodyBytes() == null) {
+      return;
+    }
+    byte[] body = result.bodyBytes();
+    String hash = HashUtils.sha256Hex(body);
+    String key = key(url, acceptHeader, userAgent);
+    try {
+      long storedBytes = writeBlob(hash, body);
+      if (storedBytes > maxBytes) {
+        synchronized (this) {
+          if (!blobRefs.containsKey(hash)) {
+            deleteQuietly(blobFile(hash));
+          }
+        }
+        return;
+      }
+      Meta meta =
+          new Meta(
+              key,
+              result.statusCode(),
+              result.finalUri() == null ? null : result.finalUri().toString(),
+              result.contentType(),
+              result.etag(),
+              result.lastModified(),
+              result.fetchedAt() == null ? clock.instant() : result.fetchedAt(),
+              hash,
+              body.length);
+      synchronized (this) {
+        writeMeta(meta);
+        Meta previous = index.put(key, meta);
+        // Retain before releasing so re-storing identical content keeps its blob.
+        retainBlob(hash, storedBytes);
+        if (previous != null) {
+          releaseBlob(previous.hash());
+        }
+        evictOverBudget();
+      }
+    } catch (IOException e) {
+      log.debug("Failed to write disk cache entry for {}", url, e);
+    }
+  }
+
+  synchronized ResponseCacheStats stats() {
+    return new ResponseCacheStats(
+        hits, misses, evictions, expirations, index.size(), totalBytes, maxBytes);
+  }
+
+  private void loadIndex() throws IOException {
+    List<LoadedMeta> loaded = new ArrayList<>();
+    try (Stream<Path> files = Files.list(metaDir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(META_SUFFIX)) {
+          deleteQuietly(file);
+          continue;
+        }
+        Meta meta = readMeta(file);
+        if (meta == null || isExpired(meta) || !Files.exists(blobFile(meta.hash()))) {
+          deleteQuietly(file);
+          continue;
+        }
+        loaded.add(new LoadedMeta(meta, Files.getLastModifiedTime(file)));
+      }
+    }
+    loaded.sort(Comparator.comparing(LoadedMeta::accessedAt));
+    synchronized (this) {
+      for (LoadedMeta entry : loaded) {
+        index.put(entry.meta().key(), entry.meta());
+        retainBlob(entry.meta().hash(), Files.size(blobFile(entry.meta().hash())));
+      }
+      evictOverBudget();
+    }
+    try (Stream<Path> blobs = Files.list(blobDir)) {
+      for (Path blob : (Iterable<Path>) blobs::iterator) {
+        String name = blob.getFileName().toString();
+        String hash = name.substring(0, Math.max(0, name.length() - BLOB_SUFFIX.length()));
+        if (!name.endsWith(BLOB_SUFFIX) || !blobRefs.containsKey(hash)) {
+          deleteQuietly(blob);
+        }
+      }
+    }
+    log.info("Loaded {} disk cache entries ({} bytes) from {}", index.size(), totalBytes, metaDir);
+  }
+
+  private boolean isExpired(Meta meta) {
+    return meta.fetchedAt().plus(maxAge).isBefore(clock.instant());
+  }
+
+  private void retainBlob(String hash, long storedBytes) {
+    Integer refs = blobRefs.get(hash);
+    if (refs == null) {
+      blobRefs.put(hash, 1);
+      blobSizes.put(hash, storedBytes);
+      totalBytes += storedBytes;
+    } else {
+      blobRefs.put(hash, refs + 1);
+    }
+  }
+
+  private void releaseBlob(String hash) {
+    Integer refs = blobRefs.get(hash);
+    if (refs == null) {
+      return;
+    }
+    if (refs > 1) {
+      blobRefs.put(hash, refs - 1);
+      return;
+    }
+    blobRefs.remove(hash);
+    Long size = blobSizes.remove(hash);
+    totalBytes -= size == null ? 0L : size;
+    deleteQuietly(blobFile(hash));
+  }
+
+  private void removeEntry(String key, Meta meta) {
+    if (index.remove(key, meta)) {
+      deleteQuietly(metaFile(key));
+      releaseBlob(meta.hash());
+    }
+  }
+
+  private void evictOverBudget() {
+    Iterator<Map.Entry<String, Meta>> iterator = index.entrySet().iterator();
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<String, Meta> eldest = iterator.next();
+      iterator.remove();
+      deleteQuietly(metaFile(eldest.getKey()));
+      releaseBlob(eldest.getValue().hash());
+      evictions++;
+    }
+  }
+
+  private long writeBlob(String hash, byte[] body) throws IOException {
+    Path target = blobFile(hash);
+    if (Files.exists(target)) {
+      return Files.size(target);
+    }
+    Path temp = Files.createTempFile(blobDir, TEMP_PREFIX, BLOB_SUFFIX);
+    try {
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 8192)) {
+        out.write(body);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException e) {
+      // Another writer stored the same content first.
+    } finally {
+      deleteQuietly(temp);
+    }
+    return Files.size(target);
+  }
+
+  private byte[] readBlob(Meta meta) throws IOException {
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream((int) Math.min(meta.decodedBytes(), Integer.MAX_VALUE - 8));
+    ContentDecoder decoder = ContentDecoder.forEncoding("gzip");
+    try (FileChannel channel = FileChannel.open(blobFile(meta.hash()), StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      decoder.decode(
+          mapped,
+          (data, offset, length) -> {
+            out.write(data, offset, length);
+            return true;
+          });
+      decoder.finish();
+    } finally {
+      decoder.close();
+    }
+    byte[] body = out.toByteArray();
+    if (body.length != meta.decodedBytes() || !HashUtils.sha256Hex(body).equals(meta.hash())) {
+      throw new ZipException("Disk cache blob does not match its content hash");
+    }
+    return body;
+  }
+
+  private void writeMeta(Meta meta) throws IOException {
+    Properties properties = meta.toProperties();
+    Path temp = Files.createTempFile(metaDir, TEMP_PREFIX, ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        properties.store(out, null);
+      }
+      Files.move(
+          temp,
+          metaFile(meta.key()),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      deleteQuietly(temp);
+    }
+  }
+
+  private Meta readMeta(Path file) {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(file)) {
+      properties.load(in);
+      Meta meta = Meta.fromProperties(properties);
+      return meta.key() == null || meta.hash() == null ? null : meta;
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private String key(String url, String acceptHeader, String userAgent) {
+    String canonical = canonicalizer.canonicalize(url);
+    String safeUrl = canonical == null ? url : canonical;
+    return HashUtils.sha256Hex(
+        String.join(
+            "\n", safeUrl, Objects.toString(acceptHeader, ""), Objects.toString(userAgent, "")));
+  }
+
+  private Path metaFile(String key) {
+    return metaDir.resolve(key + META_SUFFIX);
+  }
+
+  private Path blobFile(String hash) {
+    return blobDir.resolve(hash + BLOB_SUFFIX);
+  }
+
+  private void touch(Path file) {
+    try {
+      Files.setLastModifiedTime(file, FileTime.from(clock.instant()));
+    } catch (IOException ignored) {
+      // LRU order is best effort.
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (NoSuchFileException ignored) {
+      // Already gone.
+    } catch (IOException e) {
+      log.debug("Failed to delete disk cache file {}", file, e);
+    }
+  }
+
+  private record LoadedMeta(Meta meta, FileTime accessedAt) {}
+
+  private record Meta(
+      String key,
+      int statusCode,
+      String finalUri,
+      String contentType,
+      String etag,
+      String lastModified,
+      Instant fetchedAt,
+      String hash,
+      long decodedBytes) {
+
+    HttpFetchResult toResult(String url, byte[] body) {
+      return new HttpFetchResult(
+          url,
+          finalUri == null ? null : URI.create(finalUri),
+          statusCode,
+          null,
+          body,
+          contentType,
+          null,
+          fetchedAt,
+          Duration.ZERO,
+          null,
+          null,
+          etag,
+          lastModified,
+          0L,
+          body.length);
+    }
+
+    Properties toProperties() {
+      Properties properties = new Properties();
+      properties.setProperty("key", key);
+      properties.setProperty("status", Integer.toString(statusCode));
+      setIfPresent(properties, "finalUri", finalUri);
+      setIfPresent(properties, "contentType", contentType);
+      setIfPresent(properties, "etag", etag);
+      setIfPresent(properties, "lastModified", lastModified);
+      properties.setProperty("fetchedAt", fetchedAt.toString());
+      properties.setProperty("hash", hash);
+      properties.setProperty("decodedBytes", Long.toString(decodedBytes));
+      return properties;
+    }
+
+    static Meta fromProperties(Properties properties) {
+      return new Meta(
+          properties.getProperty("key"),
+          Integer.parseInt(properties.getProperty("status")),
+          properties.getProperty("finalUri"),
+          properties.getProperty("contentType"),
+          properties.getProperty("etag"),
+          properties.getProperty("lastModified"),
+          Instant.parse(properties.getProperty("fetchedAt")),
+          properties.getProperty("hash"),
+          Long.parseLong(properties.getProperty("decodedBytes")));
+    }
+
+    private static void setIfPresent(Properties properties, String name, String value) {
+      if (value != null) {
+        properties.setProperty(name, value);
+      }
+    }
+  }
+}
@@ -0,0 +1,209 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive-increase / multiplicative-decrease limits per host. Healthy responses slowly raise
+ * concurrency and shorten the delay between requests; 429s, 5xx and timeouts cut both at once.
+ * Only responses to requests sent after the last cut can trigger another one, so a burst of
+ * failures from requests already in flight counts as a single congestion signal.
+ */
+public class HostAimdController {
+  private static final int EVICTION_INTERVAL = 1024;
+
+  public enum Signal {
+    HEALTHY,
+    SLOW,
+    OVERLOAD,
+    NEUTRAL
+  }
+
+  public record HostLimits(
+      String host,
+      int concurrencyLimit,
+      long intervalNanos,
+      long latencyEwmaNanos,
+      Signal lastSignal,
+      long decreaseCount,
+      Instant updatedAt) {}
+
+  private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+  private final CrawlerProperties.Adaptive settings;
+  private final int initialConcurrency;
+  private final long initialIntervalNanos;
+  private final long idleTtlNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicLong updates = new AtomicLong();
+
+  public HostAimdController(
+      CrawlerProperties.Adaptive settings,
+      int initialConcurrency,
+      long initialIntervalNanos,
+      Duration idleTtl) {
+    this(settings, initialConcurrency, initialIntervalNanos, idleTtl, System::nanoTime);
+  }
+
+  HostAimdController(
+      CrawlerProperties.Adaptive settings,
+      int initialConcurrency,
+      long initialIntervalNanos,
+      Duration idleTtl,
+      LongSupplier nanoClock) {
+    this.settings = settings;
+    this.initialConcurrency = initialConcurrency;
+    this.initialIntervalNanos = initialIntervalNanos;
+    this.idleTtlNanos = Math.max(1L, idleTtl == null ? 0L : idleTtl.toNanos());
+    this.nanoClock = nanoClock;
+  }
+
+  public int concurrencyLimit(String host) {
+    HostState state = hosts.get(host);
+    if (state == null) {
+      return clampConcurrency(initialConcurrency);
+    }
+    synchronized (state) {
+      return (int) Math.floor(state.concurrency);
+    }
+  }
+
+  public long intervalNanos(String host) {
+    HostState state = hosts.get(host);
+    if (state == null) {
+      return clampInterval(initialIntervalNanos);
+    }
+    synchronized (state) {
+      return state.intervalNanos;
+    }
+  }
+
+  public void onResponse(String host, long sentAtNanos, long latencyNanos, Signal signal) {
+    if (host == null || signal == null || signal == Signal.NEUTRAL) {
+      return;
+    }
+    maybeEvictIdle();
+    long now = nanoClock.getAsLong();
+    HostState state = hosts.computeIfAbsent(host, ignored -> newState(now));
+    synchronized (state) {
+      state.lastUpdateNanos = now;
+      state.updatedAt = Instant.now();
+      state.lastSignal = signal;
+      state.latencyEwmaNanos =
+          state.latencyEwmaNanos == 0
+              ? latencyNanos
+              : (long) (state.latencyEwmaNanos * 0.8 + latencyNanos * 0.2);
+      switch (signal) {
+        case HEALTHY -> increase(state);
+        case OVERLOAD -> {
+          if (!state.decreased || sentAtNanos - state.lastDecreaseNanos >= 0) {
+            decrease(state, now);
+          }
+        }
+        default -> {}
+      }
+    }
+  }
+
+  public List<HostLimits> snapshot(int limit) {
+    return hosts.entrySet().stream()
+        .map(entry -> view(entry.getKey(), entry.getValue()))
+        .sorted(Comparator.comparing(HostLimits::updatedAt).reversed())
+        .limit(Math.max(1, limit))
+        .toList();
+  }
+
+  public int trackedHosts() {
+    return hosts.size();
+  }
+
+  public int evictIdle() {
+    long now = nanoClock.getAsLong();
+    int evicted = 0;
+    for (Map.Entry<String, HostState> entry : hosts.entrySet()) {
+      HostState state = entry.getValue();
+      boolean idle;
+      synchronized (state) {
+        idle = now - state.lastUpdateNanos > idleTtlNanos;
+      }
+      if (idle && hosts.remove(entry.getKey(), state)) {
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+
+  private void increase(HostState state) {
+    state.concurrency =
+        Math.min(settings.getMaxConcurrency(), state.concurrency + 1.0 / state.concurrency);
+    long step = TimeUnit.MILLISECONDS.toNanos(settings.getDelayStepMs());
+    state.intervalNanos = clampInterval(state.intervalNanos - step);
+  }
+
+  private void decrease(HostState state, long now) {
+    double factor = settings.getDecreaseFactor();
+    state.concurrency =
+        Math.max(settings.getMinConcurrency(), Math.floor(state.concurrency * factor));
+    state.intervalNanos = clampInterval((long) Math.ceil(state.intervalNanos / factor));
+    state.lastDecreaseNanos = now;
+    state.decreased = true;
+    state.decreaseCount++;
+  }
+
+  private HostState newState(long now) {
+    HostState state = new HostState();
+    state.concurrency = clampConcurrency(initialConcurrency);
+    state.intervalNanos = clampInterval(initialIntervalNanos);
+    state.lastUpdateNanos = now;
+    state.updatedAt = Instant.now();
+    return state;
+  }
+
+  private HostLimits view(String host, HostState state) {
+    synchronized (state) {
+      return new HostLimits(
+          host,
+          (int) Math.floor(state.concurrency),
+          state.intervalNanos,
+          state.latencyEwmaNanos,
+          state.lastSignal,
+          state.decreaseCount,
+          state.updatedAt);
+    }
+  }
+
+  private int clampConcurrency(int value) {
+    return Math.max(settings.getMinConcurrency(), Math.min(settings.getMaxConcurrency(), value));
+  }
+
+  private long clampInterval(long value) {
+    long min = TimeUnit.MILLISECONDS.toNanos(settings.getMinDelayMs());
+    long max = TimeUnit.MILLISECONDS.toNanos(settings.getMaxDelayMs());
+    return Math.max(min, Math.min(max, value));
+  }
+
+  private void maybeEvictIdle() {
+    if (updates.incrementAndGet() % EVICTION_INTERVAL == 0) {
+      evictIdle();
+    }
+  }
+
+  private static final class HostState {
+    private double concurrency;
+    private long intervalNanos;
+    private long latencyEwmaNanos;
+    private long lastDecreaseNanos;
+    private boolean decreased;
+    private long decreaseCount;
+    private long lastUpdateNanos;
+    private Signal lastSignal;
+    private Instant updatedAt;
+  }
+}
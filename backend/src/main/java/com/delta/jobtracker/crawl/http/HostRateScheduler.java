@@ -0,0 +1,122 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Next-slot reservation per host. Each caller atomically claims the next free start time for its
+ * host and is told how long to wait; nobody sleeps while holding shared state. Hosts that have been
+ * idle for longer than {@code idleTtl} are evicted so the map does not grow without bound.
+ */
+public class HostRateScheduler {
+  private static final long RETIRED = Long.MIN_VALUE;
+  private static final int EVICTION_INTERVAL = 1024;
+
+  private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+  private final LongSupplier nanoClock;
+  private final long idleTtlNanos;
+  private final AtomicLong reservations = new AtomicLong();
+
+  public HostRateScheduler(Duration idleTtl) {
+    this(idleTtl, System::nanoTime);
+  }
+
+  HostRateScheduler(Duration idleTtl, LongSupplier nanoClock) {
+    this.idleTtlNanos = Math.max(1L, idleTtl == null ? 0L : idleTtl.toNanos());
+    this.nanoClock = nanoClock;
+  }
+
+  public static long intervalNanosForRate(double requestsPerSecond) {
+    if (!(requestsPerSecond > 0.0) || Double.isInfinite(requestsPerSecond)) {
+      return 0L;
+    }
+    return Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+  }
+
+  public long reserve(String host, long intervalNanos) {
+    long safeInterval = Math.max(0L, intervalNanos);
+    maybeEvictIdle();
+    while (true) {
+      long now = nanoClock.getAsLong();
+      Slot slot = slots.computeIfAbsent(host, ignored -> new Slot(now));
+      long next = slot.nextStart.get();
+      if (next == RETIRED) {
+        slots.remove(host, slot);
+        continue;
+      }
+      long startAt = next - now > 0 ? next : now;
+      if (slot.nextStart.compareAndSet(next, startAt + safeInterval)) {
+        return startAt - now;
+      }
+    }
+  }
+
+  public void delay(String host, Duration delay) {
+    if (host == null || delay == null || delay.isNegative() || delay.isZero()) {
+      return;
+    }
+    while (true) {
+      long now = nanoClock.getAsLong();
+      long candidate = now + delay.toNanos();
+      Slot slot = slots.computeIfAbsent(host, ignored -> new Slot(now));
+      long next = slot.nextStart.get();
+      if (next == RETIRED) {
+        slots.remove(host, slot);
+        continue;
+      }
+      if (next - candidate >= 0 || slot.nextStart.compareAndSet(next, candidate)) {
+        return;
+      }
+    }
+  }
+
+  public long nanosUntilNextSlot(String host) {
+    Slot slot = slots.get(host);
+    if (slot == null) {
+      return 0L;
+    }
+    long next = slot.nextStart.get();
+    if (next == RETIRED) {
+      return 0L;
+    }
+    return Math.max(0L, next - nanoClock.getAsLong());
+  }
+
+  public int trackedHosts() {
+    return slots.size();
+  }
+
+  public int evictIdle() {
+    long now = nanoClock.getAsLong();
+    int evicted = 0;
+    for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+      Slot slot = entry.getValue();
+      long next = slot.nextStart.get();
+      if (next != RETIRED
+          && now - next > idleTtlNanos
+          && slot.nextStart.compareAndSet(next, RETIRED)) {
+        slots.remove(entry.getKey(), slot);
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+
+  private void maybeEvictIdle() {
+    if (reservations.incrementAndGet() % EVICTION_INTERVAL == 0) {
+      evictIdle();
+    }
+  }
+
+  private static final class Slot {
+    private final AtomicLong nextStart;
+
+    private Slot(long now) {
+      this.nextStart = new AtomicLong(now);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.crawl.model.HttpClientGroupStats;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import javax.net.ssl.SSLContext;
+
+// A java.net.http client pinned to one protocol preference, with enough counters to tell whether
+// its connections are being reused: requests per TLS connection and the negotiated versions.
+final class HttpClientGroup {
+  private final String name;
+  private final HttpClient.Version version;
+  private final HttpClient client;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder tlsConnections = new LongAdder();
+  private final LongAdder http2Responses = new LongAdder();
+  private final LongAdder http1Responses = new LongAdder();
+
+  HttpClientGroup(
+      String name,
+      HttpClient.Version version,
+      Duration connectTimeout,
+      boolean followRedirects,
+      Executor executor) {
+    this.name = name;
+    this.version = version;
+    HttpClient.Builder builder =
+        HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .version(version)
+            .sslContext(new CountingSslContext(defaultSslContext(), tlsConnections::increment))
+            .executor(executor);
+    if (followRedirects) {
+      builder.followRedirects(HttpClient.Redirect.NORMAL);
+    }
+    this.client = builder.build();
+  }
+
+  <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+    requests.increment();
+    return client.sendAsync(request, handler).thenApply(this::recordResponse);
+  }
+
+  <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+      throws IOException, InterruptedException {
+    requests.increment();
+    return recordResponse(client.send(request, handler));
+  }
+
+  private <T> HttpResponse<T> recordResponse(HttpResponse<T> response) {
+    if (response.version() == HttpClient.Version.HTTP_2) {
+      http2Responses.increment();
+    } else {
+      http1Responses.increment();
+    }
+    return response;
+  }
+
+  HttpClientGroupStats stats() {
+    return new HttpClientGroupStats(
+        name,
+        version.name(),
+        requests.sum(),
+        tlsConnections.sum(),
+        http2Responses.sum(),
+        http1Responses.sum());
+  }
+
+  private static SSLContext defaultSslContext() {
+    try {
+      return SSLContext.getDefault();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("No default TLS context available", e);
+    }
+  }
+}
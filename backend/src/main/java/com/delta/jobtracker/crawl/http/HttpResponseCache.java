@@ -0,0 +1,102 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.ResponseCacheStats;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+// Short-lived cache of successful GET responses so pipeline stages that fetch the same pages
+// within a run (discovery, then crawl) pay the politeness delay once. Bounded by body bytes.
+final class HttpResponseCache {
+  private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+  private final long maxBytes;
+  private final long ttlNanos;
+  private final LongSupplier nanoClock;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+  private long totalBytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long expirations;
+
+  HttpResponseCache(long maxBytes, Duration ttl) {
+    this(maxBytes, ttl, System::nanoTime);
+  }
+
+  HttpResponseCache(long maxBytes, Duration ttl, LongSupplier nanoClock) {
+    this.maxBytes = Math.max(0L, maxBytes);
+    this.ttlNanos = Math.max(1L, ttl.toNanos());
+    this.nanoClock = nanoClock;
+  }
+
+  synchronized HttpFetchResult get(
+      String url, String acceptHeader, String userAgent, Integer maxBodyBytes) {
+    Key key = new Key(url, acceptHeader, userAgent);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (nanoClock.getAsLong() - entry.storedAtNanos() > ttlNanos) {
+      remove(key, entry);
+      expirations++;
+      misses++;
+      return null;
+    }
+    if (maxBodyBytes != null && entry.result().decodedBytes() > maxBodyBytes) {
+      // The caller asked for a smaller body than we hold; let it go to the network.
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.result();
+  }
+
+  synchronized void put(String url, String acceptHeader, String userAgent, HttpFetchResult result) {
+    if (result == null || !result.isSuccessful() || result.bodyBytes() == null) {
+      return;
+    }
+    long size = sizeOf(result);
+    if (size > maxBytes) {
+      return;
+    }
+    Key key = new Key(url, acceptHeader, userAgent);
+    Entry previous = entries.put(key, new Entry(result, size, nanoClock.getAsLong()));
+    if (previous != null) {
+      totalBytes -= previous.sizeBytes();
+    }
+    totalBytes += size;
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (totalBytes > maxBytes && iterator.hasNext()) {
+      Map.Entry<Key, Entry> eldest = iterator.next();
+      iterator.remove();
+      totalBytes -= eldest.getValue().sizeBytes();
+      evictions++;
+    }
+  }
+
+  synchronized ResponseCacheStats stats() {
+    return new ResponseCacheStats(
+        hits, misses, evictions, expirations, entries.size(), totalBytes, maxBytes);
+  }
+
+  private void remove(Key key, Entry entry) {
+    if (entries.remove(key, entry)) {
+      totalBytes -= entry.sizeBytes();
+    }
+  }
+
+  private static long sizeOf(HttpFetchResult result) {
+    // The String view is decoded lazily but then kept alongside the bytes; reserve room for it
+    // up front, counting one UTF-16 char per byte.
+    return ENTRY_OVERHEAD_BYTES + 3L * result.bodyBytes().length;
+  }
+
+  private record Key(String url, String acceptHeader, String userAgent) {}
+
+  private record Entry(HttpFetchResult result, long sizeBytes, long storedAtNanos) {}
+}
@@ -0,0 +1,43 @@
+package com.delta.jobtracker.crawl.http;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import java.net.URI;
+import java.util.List;
+import java.util.Locale;
+
+// Decides which hosts get the HTTP/2 client. Only https URLs qualify: over cleartext the JDK
+// client would send an h2c Upgrade header, which some origin servers reject outright.
+final class HttpVersionSelector {
+  private final boolean enabled;
+  private final boolean allHosts;
+  private final List<String> hosts;
+
+  HttpVersionSelector(CrawlerProperties.Http2 settings) {
+    this.enabled = settings.isEnabled();
+    this.allHosts = settings.isAllHosts();
+    this.hosts = settings.getHosts();
+  }
+
+  boolean enabled() {
+    return enabled;
+  }
+
+  boolean useHttp2(URI uri) {
+    if (!enabled || uri == null || uri.getHost() == null) {
+      return false;
+    }
+    if (!"https".equalsIgnoreCase(uri.getScheme())) {
+      return false;
+    }
+    if (allHosts) {
+      return true;
+    }
+    String host = uri.getHost().toLowerCase(Locale.ROOT);
+    for (String suffix : hosts) {
+      if (host.equals(suffix) || host.endsWith("." + suffix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
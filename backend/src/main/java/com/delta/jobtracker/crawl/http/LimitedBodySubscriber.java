@@ -0,0 +1,274 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+final class LimitedBodySubscriber
+    implements HttpResponse.BodySubscriber<LimitedBodySubscriber.Body> {
+  private static final int READ_BUFFER = 8192;
+  private static final int SPILL_WRITE_BUFFER = 64 * 1024;
+
+  private final int maxBytes;
+  private final boolean skip;
+  private final ContentDecoder decoder;
+  private final BodySpill spill;
+  private final byte[] buffer;
+  private final CompletableFuture<Body> result = new CompletableFuture<>();
+  private ByteArrayOutputStream out;
+  private Path spillFile;
+  private OutputStream spillOut;
+  private Flow.Subscription subscription;
+  private long wireBytes;
+  private int total;
+  private int peakBuffered;
+  private boolean exceeded;
+  private boolean done;
+
+  private LimitedBodySubscriber(
+      int maxBytes, boolean skip, ContentDecoder decoder, BodySpill spill) {
+    this.maxBytes = Math.max(1, maxBytes);
+    this.skip = skip;
+    this.decoder = decoder;
+    this.spill = spill;
+    this.out = skip ? null : new ByteArrayOutputStream(Math.min(this.maxBytes, 16 * 1024));
+    this.buffer = skip || decoder != null ? null : new byte[Math.min(READ_BUFFER, this.maxBytes)];
+  }
+
+  static HttpResponse.BodyHandler<Body> handler() {
+    return handler(Integer.MAX_VALUE - 8);
+  }
+
+  static HttpResponse.BodyHandler<Body> handler(int maxBytes) {
+    return handler(maxBytes, null);
+  }
+
+  static HttpResponse.BodyHandler<Body> handler(int maxBytes, BodySpill spill) {
+    return responseInfo -> {
+      ContentDecoder decoder =
+          ContentDecoder.forEncoding(
+              responseInfo.headers().firstValue("Content-Encoding").orElse(null));
+      Long contentLength = contentLength(responseInfo);
+      // Content-Length counts encoded bytes, so it only bounds the decoded size for identity.
+      boolean skip = decoder == null && contentLength != null && contentLength > maxBytes;
+      return new LimitedBodySubscriber(maxBytes, skip, decoder, spill);
+    };
+  }
+
+  @Override
+  public CompletionStage<Body> getBody() {
+    return result;
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    this.subscription = subscription;
+    if (skip) {
+      // Close early to avoid downloading a body we already know is too large.
+      done = true;
+      subscription.cancel();
+      result.complete(new Body(null, null, 0, 0, 0, false, true, false));
+      return;
+    }
+    subscription.request(1);
+  }
+
+  @Override
+  public void onNext(List<ByteBuffer> items) {
+    if (done) {
+      return;
+    }
+    try {
+      for (ByteBuffer item : items) {
+        wireBytes += item.remaining();
+        boolean more = decoder == null ? copy(item) : decoder.decode(item, this::append);
+        if (!more) {
+          done = true;
+          subscription.cancel();
+          closeDecoder();
+          result.complete(body());
+          return;
+        }
+      }
+    } catch (IOException | UncheckedIOException e) {
+      done = true;
+      subscription.cancel();
+      closeDecoder();
+      fail(e);
+      return;
+    }
+    subscription.request(1);
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    if (done) {
+      return;
+    }
+    done = true;
+    closeDecoder();
+    deleteSpillFile();
+    result.completeExceptionally(throwable);
+  }
+
+  @Override
+  public void onComplete() {
+    if (done) {
+      return;
+    }
+    done = true;
+    try {
+      if (decoder != null) {
+        decoder.finish();
+      }
+      result.complete(body());
+    } catch (IOException | UncheckedIOException e) {
+      fail(e);
+    } finally {
+      closeDecoder();
+    }
+  }
+
+  private boolean copy(ByteBuffer item) {
+    while (item.hasRemaining()) {
+      int chunk = Math.min(item.remaining(), buffer.length);
+      item.get(buffer, 0, chunk);
+      if (!append(buffer, 0, chunk)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean append(byte[] data, int offset, int length) {
+    int room = maxBytes - total;
+    if (length > room) {
+      write(data, offset, room);
+      exceeded = true;
+      return false;
+    }
+    write(data, offset, length);
+    return true;
+  }
+
+  private void write(byte[] data, int offset, int length) {
+    try {
+      if (spillOut == null && spill != null && total + length > spill.thresholdBytes()) {
+        spillToFile();
+      }
+      if (spillOut != null) {
+        spillOut.write(data, offset, length);
+      } else {
+        out.write(data, offset, length);
+        peakBuffered = Math.max(peakBuffered, out.size());
+      }
+      total += length;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Moves what is buffered so far into a temp file; from here on only the write buffer stays
+  // in memory.
+  private void spillToFile() throws IOException {
+    spillFile =
+        spill.directory() == null
+            ? Files.createTempFile("http-body-", ".tmp")
+            : Files.createTempFile(spill.directory(), "http-body-", ".tmp");
+    spillOut = new BufferedOutputStream(Files.newOutputStream(spillFile), SPILL_WRITE_BUFFER);
+    out.writeTo(spillOut);
+    out = null;
+    peakBuffered = Math.max(peakBuffered, SPILL_WRITE_BUFFER);
+  }
+
+  private Body body() throws IOException {
+    if (spillOut != null) {
+      spillOut.close();
+      spillOut = null;
+      return new Body(
+          null, spillFile, wireBytes, total, peakBuffered, exceeded, false, decoder != null);
+    }
+    return new Body(
+        out.toByteArray(), null, wireBytes, total, peakBuffered, exceeded, false, decoder != null);
+  }
+
+  private void fail(Exception error) {
+    deleteSpillFile();
+    result.completeExceptionally(
+        error instanceof UncheckedIOException unchecked ? unchecked.getCause() : error);
+  }
+
+  private void deleteSpillFile() {
+    if (spillFile == null) {
+      return;
+    }
+    try {
+      if (spillOut != null) {
+        spillOut.close();
+      }
+    } catch (IOException ignored) {
+      // Deleting below is what matters.
+    } finally {
+      spillOut = null;
+    }
+    Body.delete(spillFile);
+    spillFile = null;
+  }
+
+  private void closeDecoder() {
+    if (decoder != null) {
+      decoder.close();
+    }
+  }
+
+  static Long contentLength(HttpResponse.ResponseInfo responseInfo) {
+    if (responseInfo == null) {
+      return null;
+    }
+    try {
+      String value = responseInfo.headers().firstValue("Content-Length").orElse(null);
+      if (value == null || value.isBlank()) {
+        return null;
+      }
+      long parsed = Long.parseLong(value.trim());
+      return parsed < 0 ? null : parsed;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  record Body(
+      byte[] bytes,
+      Path file,
+      long wireBytes,
+      int decodedBytes,
+      int peakBufferedBytes,
+      boolean exceeded,
+      boolean skipped,
+      boolean decoded) {
+    // Drops a spilled body the caller will not hand on.
+    void discard() {
+      if (file != null) {
+        delete(file);
+      }
+    }
+
+    private static void delete(Path file) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException ignored) {
+        // Temp directory cleanup will get it.
+      }
+    }
+  }
+}
@@ -1,12 +1,13 @@
 package com.delta.jobtracker.crawl.http;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HostLimitView;
+import com.delta.jobtracker.crawl.model.HttpClientStats;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
 import com.delta.jobtracker.crawl.service.HostCrawlStateService;
 import com.delta.jobtracker.crawl.util.ReasonCodeClassifier;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
@@ -14,45 +15,127 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.ZipException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PoliteHttpClient {
+  private static final Logger log = LoggerFactory.getLogger(PoliteHttpClient.class);
   private static final Duration BACKOFF_DURATION = Duration.ofSeconds(30);
-  private static final int DEFAULT_MAX_BYTES_READ_BUFFER = 8192;
   private static final String BODY_TOO_LARGE_ERROR = "body_too_large";
+  private static final String HOST_COOLDOWN_ERROR = "host_cooldown";
+  private static final String ACCEPT_ENCODING = "gzip, deflate";
+  private static final Duration HOST_IDLE_EVICTION = Duration.ofMinutes(10);
+  private static final Duration MAX_RETRY_AFTER = Duration.ofHours(24);
 
   private final CrawlerProperties properties;
-  private final HttpClient client;
-  private final Semaphore globalLimiter;
-  private final Map<String, Semaphore> hostLimiters = new ConcurrentHashMap<>();
-  private final Map<String, Object> hostLocks = new ConcurrentHashMap<>();
-  private final Map<String, Instant> hostNextAllowed = new ConcurrentHashMap<>();
+  private final HttpClientGroup http1Clients;
+  private final HttpClientGroup http2Clients;
+  private final HttpVersionSelector versionSelector;
+  private final Executor executor;
+  private final AdmissionQueue admissionQueue;
+  private final Map<String, AsyncPermitPool> hostLimiters = new ConcurrentHashMap<>();
+  private final HostRateScheduler hostRateScheduler = new HostRateScheduler(HOST_IDLE_EVICTION);
   private final HostCrawlStateService hostCrawlStateService;
+  private final HostAimdController aimdController;
+  private final Map<InFlightKey, InFlightGet> inFlightGets = new ConcurrentHashMap<>();
+  private final LongAdder getRequests = new LongAdder();
+  private final LongAdder coalescedGets = new LongAdder();
+  private final HttpResponseCache responseCache;
+  private final DiskResponseCache diskCache;
+  private final ExecutorService diskCacheWriter;
 
   public PoliteHttpClient(
       CrawlerProperties properties,
       @Qualifier("httpExecutor") ExecutorService httpExecutor,
       HostCrawlStateService hostCrawlStateService) {
     this.properties = properties;
-    this.client =
-        HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .connectTimeout(Duration.ofSeconds(properties.getRequestTimeoutSeconds()))
-            .version(HttpClient.Version.HTTP_1_1)
-            .executor(httpExecutor)
-            .build();
-    this.globalLimiter = new Semaphore(Math.max(1, properties.getGlobalConcurrency()));
+    Duration connectTimeout = Duration.ofSeconds(properties.getRequestTimeoutSeconds());
+    this.versionSelector = new HttpVersionSelector(properties.getHttp2());
+    this.http1Clients =
+        new HttpClientGroup(
+            "default", HttpClient.Version.HTTP_1_1, connectTimeout, true, httpExecutor);
+    this.http2Clients =
+        versionSelector.enabled()
+            ? new HttpClientGroup(
+                "http2", HttpClient.Version.HTTP_2, connectTimeout, true, httpExecutor)
+            : null;
+    this.executor = httpExecutor;
+    this.admissionQueue =
+        new AdmissionQueue(
+            properties.getGlobalConcurrency(),
+            properties.getAdmission().getMinServiceMs(),
+            trafficClassWeights(properties.getAdmission()),
+            httpExecutor);
     this.hostCrawlStateService = hostCrawlStateService;
+    this.aimdController =
+        properties.getAdaptive().isEnabled()
+            ? new HostAimdController(
+                properties.getAdaptive(),
+                properties.getPerHostConcurrency(),
+                perHostIntervalNanos(),
+                HOST_IDLE_EVICTION)
+            : null;
+    CrawlerProperties.ResponseCache cacheSettings = properties.getResponseCache();
+    this.responseCache =
+        cacheSettings.isEnabled()
+            ? new HttpResponseCache(
+                cacheSettings.getMaxBytes(), Duration.ofSeconds(cacheSettings.getTtlSeconds()))
+            : null;
+    this.diskCache = openDiskCache(properties.getDiskCache());
+    this.diskCacheWriter =
+        diskCache == null
+            ? null
+            : Executors.newSingleThreadExecutor(
+                Thread.ofVirtual().name("http-disk-cache-writer").factory());
+  }
+
+  private static Map<TrafficClass, Integer> trafficClassWeights(
+      CrawlerProperties.Admission settings) {
+    Map<TrafficClass, Integer> weights = new EnumMap<>(TrafficClass.class);
+    weights.put(TrafficClass.INTERACTIVE, settings.getInteractiveWeight());
+    weights.put(TrafficClass.DAEMON_CRAWL, settings.getDaemonCrawlWeight());
+    weights.put(TrafficClass.DISCOVERY, settings.getDiscoveryWeight());
+    weights.put(TrafficClass.FRONTIER, settings.getFrontierWeight());
+    weights.put(TrafficClass.MAINTENANCE, settings.getMaintenanceWeight());
+    return weights;
+  }
+
+  private static DiskResponseCache openDiskCache(CrawlerProperties.DiskCache settings) {
+    if (!settings.isEnabled()) {
+      return null;
+    }
+    try {
+      return DiskResponseCache.open(
+          Path.of(settings.getDirectory()),
+          settings.getMaxBytes(),
+          Duration.ofSeconds(settings.getMaxAgeSeconds()));
+    } catch (Exception e) {
+      log.warn("Disk response cache disabled; failed to open {}", settings.getDirectory(), e);
+      return null;
+    }
   }
 
   public HttpFetchResult get(String url, String acceptHeader) {
@@ -72,6 +155,43 @@ public class PoliteHttpClient {
     return send(url, "GET", acceptHeader, null, null, userAgentOverride, maxBytes);
   }
 
+  // Opt-in: may return a recent successful response for the same URL instead of fetching.
+  public HttpFetchResult getCached(String url, String acceptHeader) {
+    return send(new RequestSpec(url, "GET", acceptHeader, null, null, null, null, null, true));
+  }
+
+  public HttpFetchResult getCached(String url, String acceptHeader, int maxBytes) {
+    return send(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, maxBytes, null, true));
+  }
+
+  public HttpFetchResult getConditional(
+      String url, String acceptHeader, HttpValidators validators) {
+    return send(new RequestSpec(url, "GET", acceptHeader, null, null, null, null, validators));
+  }
+
+  public HttpFetchResult getConditional(
+      String url, String acceptHeader, int maxBytes, HttpValidators validators) {
+    return send(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, maxBytes, validators));
+  }
+
+  // Large-body variants: a body past spill.thresholdBytes() goes to a temp file the caller must
+  // release with discardBody(). Such requests are never coalesced, and spilled results are
+  // never cached.
+  public HttpFetchResult getCached(
+      String url, String acceptHeader, int maxBytes, BodySpill spill) {
+    return send(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, maxBytes, null, true, spill));
+  }
+
+  public HttpFetchResult getConditional(
+      String url, String acceptHeader, int maxBytes, HttpValidators validators, BodySpill spill) {
+    return send(
+        new RequestSpec(
+            url, "GET", acceptHeader, null, null, null, maxBytes, validators, false, spill));
+  }
+
   public HttpFetchResult postJson(String url, String jsonBody, String acceptHeader) {
     return send(
         url,
@@ -94,6 +214,55 @@ public class PoliteHttpClient {
         null);
   }
 
+  public CompletableFuture<HttpFetchResult> getAsync(String url, String acceptHeader) {
+    return sendAsync(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, null, null),
+        CanaryHttpBudgetContext.current());
+  }
+
+  public CompletableFuture<HttpFetchResult> getAsync(
+      String url, String acceptHeader, int maxBytes) {
+    return sendAsync(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, maxBytes, null),
+        CanaryHttpBudgetContext.current());
+  }
+
+  public CompletableFuture<HttpFetchResult> getAsync(
+      String url, String acceptHeader, String userAgentOverride, int maxBytes) {
+    return sendAsync(
+        new RequestSpec(url, "GET", acceptHeader, null, null, userAgentOverride, maxBytes, null),
+        CanaryHttpBudgetContext.current());
+  }
+
+  public CompletableFuture<HttpFetchResult> getConditionalAsync(
+      String url, String acceptHeader, HttpValidators validators) {
+    return sendAsync(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, null, validators),
+        CanaryHttpBudgetContext.current());
+  }
+
+  public CompletableFuture<HttpFetchResult> getConditionalAsync(
+      String url, String acceptHeader, int maxBytes, HttpValidators validators) {
+    return sendAsync(
+        new RequestSpec(url, "GET", acceptHeader, null, null, null, maxBytes, validators),
+        CanaryHttpBudgetContext.current());
+  }
+
+  public CompletableFuture<HttpFetchResult> postJsonAsync(
+      String url, String jsonBody, String acceptHeader) {
+    return sendAsync(
+        new RequestSpec(
+            url,
+            "POST",
+            acceptHeader,
+            jsonBody == null ? "" : jsonBody,
+            "application/json",
+            null,
+            null,
+            null),
+        CanaryHttpBudgetContext.current());
+  }
+
   private HttpFetchResult send(String url, String method, String acceptHeader, String body) {
     return send(url, method, acceptHeader, body, "application/json", null, null);
   }
@@ -106,155 +275,340 @@ public class PoliteHttpClient {
       String contentType,
       String userAgentOverride,
       Integer maxBytes) {
-    CanaryHttpBudget budget = CanaryHttpBudgetContext.current();
-    int maxAttempts = Math.max(1, 1 + properties.getRequestMaxRetries());
-    if (budget != null) {
-      maxAttempts = Math.max(1, budget.maxAttemptsPerRequest());
+    return send(
+        new RequestSpec(
+            url, method, acceptHeader, body, contentType, userAgentOverride, maxBytes, null));
+  }
+
+  private HttpFetchResult send(RequestSpec spec) {
+    String url = spec.url();
+    Instant startedAt = Instant.now();
+    CompletableFuture<HttpFetchResult> future =
+        sendAsync(spec, CanaryHttpBudgetContext.current());
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      return errorResult(url, startedAt, "interrupted", e.getMessage());
+    } catch (ExecutionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof CanaryAbortException abort) {
+        throw abort;
+      }
+      return errorResult(url, startedAt, "http_error", cause.getMessage());
     }
-    HttpFetchResult lastResult = null;
-    for (int attempt = 1; attempt <= maxAttempts; attempt++) {
-      lastResult =
-          executeOnce(url, method, acceptHeader, body, contentType, userAgentOverride, maxBytes);
-      if (lastResult == null || !shouldRetry(lastResult) || attempt >= maxAttempts) {
-        return lastResult;
+  }
+
+  public HttpClientStats stats() {
+    return new HttpClientStats(
+        getRequests.sum(),
+        coalescedGets.sum(),
+        inFlightGets.size(),
+        responseCache == null ? null : responseCache.stats(),
+        diskCache == null ? null : diskCache.stats(),
+        admissionQueue.stats(),
+        http2Clients == null
+            ? List.of(http1Clients.stats())
+            : List.of(http1Clients.stats(), http2Clients.stats()));
+  }
+
+  private CompletableFuture<HttpFetchResult> sendAsync(
+      RequestSpec spec, CanaryHttpBudget budget) {
+    TrafficClass trafficClass = TrafficClassContext.current();
+    if (!"GET".equals(spec.method())) {
+      return sendWithRetries(spec, budget, trafficClass);
+    }
+    // Identical concurrent GETs share one exchange. Callers under different budgets do not
+    // coalesce, so one run's abort or deadline never leaks into another's result.
+    getRequests.increment();
+    boolean useCache = spec.cacheable() && (responseCache != null || diskCache != null);
+    if (useCache) {
+      HttpFetchResult cached = cachedResult(spec);
+      if (cached != null) {
+        return CompletableFuture.completedFuture(cached);
       }
-      if (!sleepBackoff(attempt)) {
-        return lastResult;
+    }
+    if (spec.spill() != null) {
+      // A spilled body is a temp file with a single owner, so it cannot be shared.
+      CompletableFuture<HttpFetchResult> own = sendWithRetries(spec, budget, trafficClass);
+      return useCache ? own.thenApply(result -> rememberUnlessSpilled(spec, result)) : own;
+    }
+    InFlightKey key = new InFlightKey(spec.uncached(), budget);
+    InFlightGet leader = new InFlightGet(new CompletableFuture<>(), new AtomicBoolean(useCache));
+    InFlightGet shared = inFlightGets.putIfAbsent(key, leader);
+    if (shared != null) {
+      coalescedGets.increment();
+      if (useCache) {
+        // Cached once by the leader, however many callers asked for it.
+        shared.cache().set(true);
       }
+      return shared.result().copy();
     }
-    return lastResult;
+    sendWithRetries(spec, budget, trafficClass)
+        .whenComplete(
+            (result, error) -> {
+              if (error == null && leader.cache().get()) {
+                // Before leaving the in-flight map, so a later caller finds one or the other.
+                remember(spec, result);
+              }
+              inFlightGets.remove(key, leader);
+              if (error != null) {
+                leader.result().completeExceptionally(error);
+              } else {
+                leader.result().complete(result);
+              }
+            });
+    // Hand out copies so one caller cancelling does not cancel the others.
+    return leader.result().copy();
   }
 
-  private HttpFetchResult executeOnce(
-      String url,
-      String method,
-      String acceptHeader,
-      String body,
-      String contentType,
-      String userAgentOverride,
-      Integer maxBytes) {
+  private HttpFetchResult cachedResult(RequestSpec spec) {
+    String url = spec.url();
+    String accept = spec.acceptHeader();
+    String userAgent = spec.userAgentOverride();
+    if (responseCache != null) {
+      HttpFetchResult cached = responseCache.get(url, accept, userAgent, spec.maxBytes());
+      if (cached != null) {
+        return cached;
+      }
+    }
+    if (diskCache != null) {
+      HttpFetchResult cached = diskCache.get(url, accept, userAgent, spec.maxBytes());
+      if (cached != null && responseCache != null) {
+        responseCache.put(url, accept, userAgent, cached);
+      }
+      return cached;
+    }
+    return null;
+  }
+
+  // The memory put lands before callers see the result. The disk put hashes, compresses and
+  // rewrites a meta file, so it runs on its own writer rather than an HTTP completion thread.
+  private HttpFetchResult remember(RequestSpec spec, HttpFetchResult result) {
+    if (responseCache != null) {
+      responseCache.put(spec.url(), spec.acceptHeader(), spec.userAgentOverride(), result);
+    }
+    if (diskCache != null && result.isSuccessful() && result.bodyBytes() != null) {
+      diskCacheWriter.execute(
+          () -> {
+            try {
+              diskCache.put(spec.url(), spec.acceptHeader(), spec.userAgentOverride(), result);
+            } catch (RuntimeException e) {
+              log.warn("Disk response cache write failed for {}", spec.url(), e);
+            }
+          });
+    }
+    return result;
+  }
+
+  private HttpFetchResult rememberUnlessSpilled(RequestSpec spec, HttpFetchResult result) {
+    return result.isSpilled() ? result : remember(spec, result);
+  }
+
+  private CompletableFuture<HttpFetchResult> sendWithRetries(
+      RequestSpec spec, CanaryHttpBudget budget, TrafficClass trafficClass) {
+    int maxAttempts = Math.max(1, 1 + properties.getRequestMaxRetries());
+    if (budget != null) {
+      maxAttempts = Math.max(1, budget.maxAttemptsPerRequest());
+    }
+    return attemptAsync(spec, budget, trafficClass, 1, maxAttempts);
+  }
+
+  private CompletableFuture<HttpFetchResult> attemptAsync(
+      RequestSpec spec,
+      CanaryHttpBudget budget,
+      TrafficClass trafficClass,
+      int attempt,
+      int maxAttempts) {
+    int priority = attempt > 1 ? AdmissionQueue.RETRY_PRIORITY : AdmissionQueue.DEFAULT_PRIORITY;
+    return executeOnceAsync(spec, budget, trafficClass, priority)
+        .thenCompose(
+            result -> {
+              if (result == null || !shouldRetry(result) || attempt >= maxAttempts) {
+                return CompletableFuture.completedFuture(result);
+              }
+              long delayMs = retryDelayMs(attempt, budget);
+              if (result.retryAfter() != null) {
+                long retryAfterMs = Duration.between(Instant.now(), result.retryAfter()).toMillis();
+                if (retryAfterMs > properties.getRequestRetryMaxDelayMs()) {
+                  // The host is parked until then; give the worker back instead of waiting.
+                  return CompletableFuture.completedFuture(result);
+                }
+                delayMs = Math.max(delayMs, retryAfterMs + 1);
+              }
+              result.discardBody();
+              if (delayMs <= 0) {
+                return attemptAsync(spec, budget, trafficClass, attempt + 1, maxAttempts);
+              }
+              return CompletableFuture.runAsync(
+                      () -> checkDeadline(budget), delayedExecutor(delayMs))
+                  .thenCompose(
+                      ignored ->
+                          attemptAsync(spec, budget, trafficClass, attempt + 1, maxAttempts));
+            });
+  }
+
+  private CompletableFuture<HttpFetchResult> executeOnceAsync(
+      RequestSpec spec, CanaryHttpBudget budget, TrafficClass trafficClass, int priority) {
     Instant startedAt = Instant.now();
+    String url = spec.url();
     URI uri = normalizeUri(url);
     if (uri == null || uri.getHost() == null) {
-      return new HttpFetchResult(
-          url,
-          null,
-          0,
-          null,
-          null,
-          null,
-          null,
-          Instant.now(),
-          Duration.between(startedAt, Instant.now()),
-          "invalid_url",
-          "URL missing host or malformed");
+      return CompletableFuture.completedFuture(
+          new HttpFetchResult(
+              url,
+              null,
+              0,
+              null,
+              null,
+              null,
+              null,
+              Instant.now(),
+              Duration.between(startedAt, Instant.now()),
+              "invalid_url",
+              "URL missing host or malformed"));
     }
 
     String host = uri.getHost().toLowerCase(Locale.ROOT);
-    if (hostCrawlStateService != null) {
-      Instant nextAllowedAt = hostCrawlStateService.nextAllowedAt(host);
-      if (nextAllowedAt != null && nextAllowedAt.isAfter(Instant.now())) {
-        return errorResult(url, startedAt, "host_cooldown", "cooldown_until=" + nextAllowedAt);
-      }
-    }
-    CanaryHttpBudget budget = CanaryHttpBudgetContext.current();
-    if (budget != null) {
-      budget.beforeRequest(host);
-    }
-    boolean acquired = false;
-    boolean hostAcquired = false;
     try {
-      globalLimiter.acquire();
-      acquired = true;
-      Semaphore hostLimiter =
-          hostLimiters.computeIfAbsent(
-              host, ignored -> new Semaphore(Math.max(1, properties.getPerHostConcurrency())));
-      hostLimiter.acquire();
-      hostAcquired = true;
-      enforcePerHostDelay(host, budget);
-
-      String userAgent =
-          userAgentOverride == null || userAgentOverride.isBlank()
-              ? properties.getUserAgent()
-              : userAgentOverride;
-      String safeUserAgent = CrawlerProperties.normalizeUserAgent(userAgent);
-      String safeAccept = (acceptHeader == null || acceptHeader.isBlank()) ? "*/*" : acceptHeader;
-      int timeoutSeconds = properties.getRequestTimeoutSeconds();
-      if (budget != null) {
-        timeoutSeconds = budget.requestTimeoutSeconds();
-      }
-      HttpRequest.Builder builder =
-          HttpRequest.newBuilder(uri)
-              .timeout(Duration.ofSeconds(timeoutSeconds))
-              .header("User-Agent", safeUserAgent)
-              .header("Accept", safeAccept)
-              .header("Accept-Language", "en-US,en;q=0.8");
-      HttpRequest request;
-      if ("POST".equalsIgnoreCase(method)) {
-        request =
-            builder
-                .header(
-                    "Content-Type",
-                    contentType == null || contentType.isBlank() ? "application/json" : contentType)
-                .POST(
-                    HttpRequest.BodyPublishers.ofString(
-                        body == null ? "" : body, StandardCharsets.UTF_8))
-                .build();
-      } else {
-        request = builder.GET().build();
-      }
-
-      HttpFetchResult result =
-          maxBytes != null && maxBytes > 0
-              ? executeWithMaxBytes(url, host, request, startedAt, maxBytes)
-              : executeWithoutMaxBytes(url, host, request, startedAt);
-      if (budget != null) {
-        budget.recordResult(result);
-      }
-      recordHostCooldownIfNeeded(host, result);
-      return result;
-    } catch (HttpTimeoutException e) {
-      HttpFetchResult result = errorResult(url, startedAt, "timeout", e.getMessage());
-      if (budget != null) {
-        budget.recordResult(result);
-      }
-      recordHostCooldownIfNeeded(host, result);
-      return result;
-    } catch (IOException e) {
-      HttpFetchResult result = errorResult(url, startedAt, "io_error", e.getMessage());
-      if (budget != null) {
-        budget.recordResult(result);
+      if (hostCrawlStateService != null) {
+        Instant nextAllowedAt = hostCrawlStateService.nextAllowedAt(host);
+        if (nextAllowedAt != null && nextAllowedAt.isAfter(Instant.now())) {
+          return CompletableFuture.completedFuture(cooldownResult(url, startedAt, nextAllowedAt));
+        }
       }
-      recordHostCooldownIfNeeded(host, result);
-      return result;
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      HttpFetchResult result = errorResult(url, startedAt, "interrupted", e.getMessage());
       if (budget != null) {
-        budget.recordResult(result);
+        budget.beforeRequest(host);
       }
-      recordHostCooldownIfNeeded(host, result);
-      return result;
     } catch (CanaryAbortException e) {
-      throw e;
-    } catch (Exception e) {
-      HttpFetchResult result = errorResult(url, startedAt, "http_error", e.getMessage());
-      if (budget != null) {
-        budget.recordResult(result);
-      }
-      recordHostCooldownIfNeeded(host, result);
-      return result;
-    } finally {
-      if (hostAcquired) {
-        Semaphore hostLimiter = hostLimiters.get(host);
-        if (hostLimiter != null) {
-          hostLimiter.release();
-        }
+      return CompletableFuture.failedFuture(e);
+    }
+
+    AsyncPermitPool hostLimiter =
+        hostLimiters.computeIfAbsent(host, ignored -> new AsyncPermitPool(hostConcurrency(host)));
+    AtomicBoolean hostAcquired = new AtomicBoolean(false);
+    AtomicBoolean globalAcquired = new AtomicBoolean(false);
+    AtomicLong dispatchedAt = new AtomicLong();
+    // The host's rate slot is reserved only once the request holds both permits, so the delay
+    // spaces actual dispatches rather than arrivals at the global queue, and a request shed
+    // there never consumes a slot.
+    return hostLimiter
+        .acquire()
+        .thenCompose(
+            ignored -> {
+              hostAcquired.set(true);
+              return admissionQueue.acquire(trafficClass, deadlineNanos(budget), priority);
+            })
+        .thenComposeAsync(
+            ignored -> {
+              globalAcquired.set(true);
+              return awaitPerHostDelay(host, budget);
+            },
+            executor)
+        .thenComposeAsync(
+            ignored -> {
+              dispatchedAt.set(System.nanoTime());
+              return dispatch(spec, uri, host, startedAt, budget);
+            },
+            executor)
+        .handle(
+            (result, error) -> {
+              if (error == null) {
+                return result;
+              }
+              Throwable cause = unwrap(error);
+              if (cause instanceof CanaryAbortException abort) {
+                throw abort;
+              }
+              if (cause instanceof AdmissionRejectedException rejected) {
+                return errorResult(url, startedAt, rejected.code(), rejected.getMessage());
+              }
+              return errorFor(url, startedAt, cause);
+            })
+        .thenApply(
+            result -> {
+              // Requests shed for lack of time never reached the host; do not count them as errors.
+              if (budget != null && !isAdmissionRejection(result)) {
+                budget.recordResult(result);
+              }
+              recordHostCooldownIfNeeded(host, result);
+              if (dispatchedAt.get() != 0L) {
+                adaptHostLimits(host, hostLimiter, dispatchedAt.get(), result);
+              }
+              return result;
+            })
+        .whenComplete(
+            (result, error) -> {
+              if (globalAcquired.get()) {
+                admissionQueue.release(trafficClass);
+              }
+              if (hostAcquired.get()) {
+                hostLimiter.release();
+              }
+            });
+  }
+
+  private CompletableFuture<HttpFetchResult> dispatch(
+      RequestSpec spec, URI uri, String host, Instant startedAt, CanaryHttpBudget budget) {
+    HttpRequest request = buildRequest(spec, uri, budget);
+    HttpClientGroup clients = clientsFor(uri);
+    Integer maxBytes = spec.maxBytes();
+    if (maxBytes != null && maxBytes > 0) {
+      int safeMaxBytes = Math.max(1, maxBytes);
+      return clients
+          .sendAsync(request, LimitedBodySubscriber.handler(safeMaxBytes, spec.spill()))
+          .thenApply(response -> toResult(spec.url(), host, response, startedAt, safeMaxBytes));
+    }
+    return clients
+        .sendAsync(request, LimitedBodySubscriber.handler())
+        .thenApply(response -> toResult(spec.url(), host, response, startedAt, null));
+  }
+
+  private HttpClientGroup clientsFor(URI uri) {
+    return http2Clients != null && versionSelector.useHttp2(uri) ? http2Clients : http1Clients;
+  }
+
+  private HttpRequest buildRequest(RequestSpec spec, URI uri, CanaryHttpBudget budget) {
+    String userAgent =
+        spec.userAgentOverride() == null || spec.userAgentOverride().isBlank()
+            ? properties.getUserAgent()
+            : spec.userAgentOverride();
+    String safeUserAgent = CrawlerProperties.normalizeUserAgent(userAgent);
+    String acceptHeader = spec.acceptHeader();
+    String safeAccept = (acceptHeader == null || acceptHeader.isBlank()) ? "*/*" : acceptHeader;
+    Duration timeout = Duration.ofSeconds(properties.getRequestTimeoutSeconds());
+    if (budget != null) {
+      timeout = budget.capToRemaining(Duration.ofSeconds(budget.requestTimeoutSeconds()));
+    }
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("User-Agent", safeUserAgent)
+            .header("Accept", safeAccept)
+            .header("Accept-Encoding", ACCEPT_ENCODING)
+            .header("Accept-Language", "en-US,en;q=0.8");
+    if ("POST".equalsIgnoreCase(spec.method())) {
+      String contentType = spec.contentType();
+      return builder
+          .header(
+              "Content-Type",
+              contentType == null || contentType.isBlank() ? "application/json" : contentType)
+          .POST(
+              HttpRequest.BodyPublishers.ofString(
+                  spec.body() == null ? "" : spec.body(), StandardCharsets.UTF_8))
+          .build();
+    }
+    HttpValidators validators = spec.validators();
+    if (validators != null) {
+      if (validators.etag() != null) {
+        builder.header("If-None-Match", validators.etag());
       }
-      if (acquired) {
-        globalLimiter.release();
+      if (validators.lastModified() != null) {
+        builder.header("If-Modified-Since", validators.lastModified());
       }
     }
+    return builder.GET().build();
   }
 
   private boolean shouldRetry(HttpFetchResult result) {
@@ -263,7 +617,9 @@ public class PoliteHttpClient {
     }
     String errorCode = result.errorCode();
     if (errorCode != null && !errorCode.isBlank()) {
-      if (errorCode.equals("host_cooldown") || errorCode.equals(BODY_TOO_LARGE_ERROR)) {
+      if (errorCode.equals(HOST_COOLDOWN_ERROR)
+          || errorCode.equals(BODY_TOO_LARGE_ERROR)
+          || isAdmissionRejection(result)) {
         return false;
       }
       return !errorCode.equals("invalid_url") && !errorCode.equals("interrupted");
@@ -277,11 +633,19 @@ public class PoliteHttpClient {
     if (hostCrawlStateService == null || host == null || host.isBlank() || result == null) {
       return;
     }
-    if (result.isSuccessful()) {
+    if (result.isSuccessful() || result.isNotModified()) {
       hostCrawlStateService.recordSuccess(host);
       return;
     }
     String category = cooldownCategory(result);
+    if (result.retryAfter() != null && result.statusCode() > 0) {
+      // The server told us when to come back; that beats the local backoff ladder.
+      hostCrawlStateService.recordFailure(
+          host,
+          category == null ? ReasonCodeClassifier.fromHttpStatus(result.statusCode()) : category,
+          result.retryAfter());
+      return;
+    }
     if (category != null) {
       hostCrawlStateService.recordFailure(host, category);
     }
@@ -308,91 +672,85 @@ public class PoliteHttpClient {
     return null;
   }
 
-  private HttpFetchResult executeWithoutMaxBytes(
-      String url, String host, HttpRequest request, Instant startedAt)
-      throws IOException, InterruptedException {
-    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-    if (response.statusCode() == 403 || response.statusCode() == 429) {
-      extendBackoff(host, BACKOFF_DURATION);
-    }
-    byte[] responseBytes = response.body();
-    String responseBody =
-        responseBytes == null ? null : new String(responseBytes, StandardCharsets.UTF_8);
-    return new HttpFetchResult(
-        url,
-        response.uri(),
-        response.statusCode(),
-        responseBody,
-        responseBytes,
-        response.headers().firstValue("Content-Type").orElse(null),
-        response.headers().firstValue("Content-Encoding").orElse(null),
-        Instant.now(),
-        Duration.between(startedAt, Instant.now()),
-        null,
-        null);
-  }
-
-  private HttpFetchResult executeWithMaxBytes(
-      String url, String host, HttpRequest request, Instant startedAt, int maxBytes)
-      throws IOException, InterruptedException {
-    int safeMaxBytes = Math.max(1, maxBytes);
-    HttpResponse<InputStream> response =
-        client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-    if (response.statusCode() == 403 || response.statusCode() == 429) {
-      extendBackoff(host, BACKOFF_DURATION);
+  private HttpFetchResult toResult(
+      String url,
+      String host,
+      HttpResponse<LimitedBodySubscriber.Body> response,
+      Instant startedAt,
+      Integer maxBytes) {
+    int status = response.statusCode();
+    Instant retryAfter = null;
+    if (status == 403 || status == 429 || status >= 500) {
+      Instant now = Instant.now();
+      retryAfter =
+          RetryAfter.parse(
+              response.headers().firstValue("Retry-After").orElse(null), now, MAX_RETRY_AFTER);
+      if (retryAfter != null) {
+        extendBackoff(host, Duration.between(now, retryAfter));
+      } else if (status == 403 || status == 429) {
+        extendBackoff(host, BACKOFF_DURATION);
+      }
     }
 
-    Long contentLength = parseContentLength(response);
-    if (contentLength != null && contentLength > safeMaxBytes) {
-      try (InputStream ignored = response.body()) {
-        // Close early to avoid downloading the full body.
-      }
-      return new HttpFetchResult(
+    LimitedBodySubscriber.Body body = response.body();
+    if (body.skipped()) {
+      return responseResult(
           url,
-          response.uri(),
-          response.statusCode(),
-          null,
-          null,
-          response.headers().firstValue("Content-Type").orElse(null),
-          response.headers().firstValue("Content-Encoding").orElse(null),
-          Instant.now(),
-          Duration.between(startedAt, Instant.now()),
+          response,
+          startedAt,
+          body,
           BODY_TOO_LARGE_ERROR,
-          "max_bytes=" + safeMaxBytes + " content_length=" + contentLength);
+          "max_bytes=" + maxBytes + " content_length=" + parseContentLength(response),
+          retryAfter);
     }
-
-    LimitedBody body = readBodyUpTo(response.body(), safeMaxBytes);
-    boolean tooLarge = body.reachedLimit() && contentLength == null;
-    if (tooLarge) {
-      return new HttpFetchResult(
+    if (body.exceeded()) {
+      return responseResult(
           url,
-          response.uri(),
-          response.statusCode(),
-          null,
-          null,
-          response.headers().firstValue("Content-Type").orElse(null),
-          response.headers().firstValue("Content-Encoding").orElse(null),
-          Instant.now(),
-          Duration.between(startedAt, Instant.now()),
+          response,
+          startedAt,
+          body,
           BODY_TOO_LARGE_ERROR,
-          "max_bytes=" + safeMaxBytes + " bytes_read=" + body.bytesRead());
+          "max_bytes=" + maxBytes + " bytes_read=" + body.decodedBytes(),
+          retryAfter);
     }
+    return responseResult(url, response, startedAt, body, null, null, retryAfter);
+  }
 
-    byte[] responseBytes = body.bytes();
-    String responseBody =
-        responseBytes == null ? null : new String(responseBytes, StandardCharsets.UTF_8);
+  private HttpFetchResult responseResult(
+      String url,
+      HttpResponse<?> response,
+      Instant startedAt,
+      LimitedBodySubscriber.Body body,
+      String errorCode,
+      String errorMessage,
+      Instant retryAfter) {
+    byte[] responseBytes = errorCode == null ? body.bytes() : null;
+    Path bodyFile = errorCode == null ? body.file() : null;
+    if (errorCode != null) {
+      body.discard();
+    }
+    // Once decoded, the body is identity-encoded; keep the header only for undecoded payloads.
+    String contentEncoding =
+        body.decoded() ? null : response.headers().firstValue("Content-Encoding").orElse(null);
     return new HttpFetchResult(
         url,
         response.uri(),
         response.statusCode(),
-        responseBody,
+        null,
         responseBytes,
         response.headers().firstValue("Content-Type").orElse(null),
-        response.headers().firstValue("Content-Encoding").orElse(null),
+        contentEncoding,
         Instant.now(),
         Duration.between(startedAt, Instant.now()),
-        null,
-        null);
+        errorCode,
+        errorMessage,
+        response.headers().firstValue("ETag").orElse(null),
+        response.headers().firstValue("Last-Modified").orElse(null),
+        body.wireBytes(),
+        body.decodedBytes(),
+        retryAfter,
+        bodyFile,
+        body.peakBufferedBytes());
   }
 
   private Long parseContentLength(HttpResponse<?> response) {
@@ -411,42 +769,11 @@ public class PoliteHttpClient {
     }
   }
 
-  private LimitedBody readBodyUpTo(InputStream stream, int maxBytes) throws IOException {
-    if (stream == null) {
-      return new LimitedBody(null, 0, false);
-    }
-    int safeMaxBytes = Math.max(1, maxBytes);
-    ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(safeMaxBytes, 16 * 1024));
-    byte[] buffer = new byte[Math.min(DEFAULT_MAX_BYTES_READ_BUFFER, safeMaxBytes)];
-    int total = 0;
-    boolean reachedLimit = false;
-    try (InputStream input = stream) {
-      while (total < safeMaxBytes) {
-        int remaining = safeMaxBytes - total;
-        int read = input.read(buffer, 0, Math.min(buffer.length, remaining));
-        if (read < 0) {
-          break;
-        }
-        if (read > 0) {
-          out.write(buffer, 0, read);
-          total += read;
-        }
-      }
-      reachedLimit = total >= safeMaxBytes;
-    }
-    return new LimitedBody(out.toByteArray(), total, reachedLimit);
-  }
-
-  private record LimitedBody(byte[] bytes, int bytesRead, boolean reachedLimit) {}
-
-  private boolean sleepBackoff(int attempt) {
-    CanaryHttpBudget budget = CanaryHttpBudgetContext.current();
-    if (budget != null) {
-      budget.checkDeadline();
-    }
+  private long retryDelayMs(int attempt, CanaryHttpBudget budget) {
+    checkDeadline(budget);
     int baseDelayMs = properties.getRequestRetryBaseDelayMs();
     if (baseDelayMs <= 0) {
-      return true;
+      return 0;
     }
     int maxDelayMs = properties.getRequestRetryMaxDelayMs();
     long delay = (long) baseDelayMs * (1L << Math.max(0, attempt - 1));
@@ -454,54 +781,152 @@ public class PoliteHttpClient {
       delay = Math.min(delay, maxDelayMs);
     }
     if (delay <= 0) {
-      return true;
+      return 0;
     }
     long jitter = ThreadLocalRandom.current().nextLong(Math.max(1L, delay / 2));
-    long sleepMs = (delay / 2) + jitter;
-    try {
-      Thread.sleep(sleepMs);
-      if (budget != null) {
-        budget.checkDeadline();
-      }
-      return true;
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      return false;
+    return (delay / 2) + jitter;
+  }
+
+  private CompletableFuture<Void> awaitPerHostDelay(String host, CanaryHttpBudget budget) {
+    long intervalNanos =
+        aimdController == null ? perHostIntervalNanos() : aimdController.intervalNanos(host);
+    long waitNanos = hostRateScheduler.reserve(host, intervalNanos);
+    long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1);
+    if (waitMs <= 0) {
+      return CompletableFuture.completedFuture(null);
     }
+    checkDeadline(budget);
+    return CompletableFuture.runAsync(() -> checkDeadline(budget), delayedExecutor(waitMs));
   }
 
-  private void enforcePerHostDelay(String host, CanaryHttpBudget budget)
-      throws InterruptedException {
-    Object lock = hostLocks.computeIfAbsent(host, ignored -> new Object());
-    synchronized (lock) {
-      Instant now = Instant.now();
-      Instant allowedAt = hostNextAllowed.getOrDefault(host, now);
-      if (allowedAt.isAfter(now)) {
-        long sleepMs = Duration.between(now, allowedAt).toMillis();
-        if (sleepMs > 0) {
-          if (budget != null) {
-            budget.checkDeadline();
-          }
-          Thread.sleep(sleepMs);
-          if (budget != null) {
-            budget.checkDeadline();
-          }
-        }
-      }
-      hostNextAllowed.put(
-          host, Instant.now().plusMillis(Math.max(1, properties.getPerHostDelayMs())));
+  private long perHostIntervalNanos() {
+    double requestsPerSecond = properties.getPerHostRequestsPerSecond();
+    if (requestsPerSecond > 0.0) {
+      return HostRateScheduler.intervalNanosForRate(requestsPerSecond);
+    }
+    return TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.getPerHostDelayMs()));
+  }
+
+  private int hostConcurrency(String host) {
+    return aimdController == null
+        ? properties.getPerHostConcurrency()
+        : aimdController.concurrencyLimit(host);
+  }
+
+  private void adaptHostLimits(
+      String host, AsyncPermitPool hostLimiter, long dispatchedAtNanos, HttpFetchResult result) {
+    if (aimdController == null) {
+      return;
     }
+    long latencyNanos = System.nanoTime() - dispatchedAtNanos;
+    HostAimdController.Signal signal = signalFor(result, latencyNanos);
+    aimdController.onResponse(host, dispatchedAtNanos, latencyNanos, signal);
+    hostLimiter.setLimit(aimdController.concurrencyLimit(host));
+  }
+
+  private HostAimdController.Signal signalFor(HttpFetchResult result, long latencyNanos) {
+    if (result == null) {
+      return HostAimdController.Signal.NEUTRAL;
+    }
+    int status = result.statusCode();
+    String errorCode = result.errorCode();
+    if (status == 429 || status == 403 || status >= 500) {
+      return HostAimdController.Signal.OVERLOAD;
+    }
+    if ("timeout".equals(errorCode) || "io_error".equals(errorCode)) {
+      return HostAimdController.Signal.OVERLOAD;
+    }
+    if (status == 0 || errorCode != null) {
+      // Local failures (invalid URL, decode errors, oversized bodies) say nothing about load.
+      return HostAimdController.Signal.NEUTRAL;
+    }
+    long targetNanos = TimeUnit.MILLISECONDS.toNanos(properties.getAdaptive().getLatencyTargetMs());
+    return latencyNanos > targetNanos
+        ? HostAimdController.Signal.SLOW
+        : HostAimdController.Signal.HEALTHY;
+  }
+
+  public List<HostLimitView> hostLimits(Integer limit) {
+    if (aimdController == null) {
+      return List.of();
+    }
+    int safeLimit = limit == null ? 100 : Math.max(1, Math.min(limit, 500));
+    return aimdController.snapshot(safeLimit).stream()
+        .map(
+            limits -> {
+              AsyncPermitPool pool = hostLimiters.get(limits.host());
+              return new HostLimitView(
+                  limits.host(),
+                  limits.concurrencyLimit(),
+                  TimeUnit.NANOSECONDS.toMillis(limits.intervalNanos()),
+                  pool == null ? 0 : pool.inFlight(),
+                  pool == null ? 0 : pool.queued(),
+                  TimeUnit.NANOSECONDS.toMillis(limits.latencyEwmaNanos()),
+                  limits.lastSignal() == null ? null : limits.lastSignal().name(),
+                  limits.decreaseCount(),
+                  limits.updatedAt());
+            })
+        .toList();
   }
 
   private void extendBackoff(String host, Duration duration) {
-    Object lock = hostLocks.computeIfAbsent(host, ignored -> new Object());
-    synchronized (lock) {
-      Instant candidate = Instant.now().plus(duration);
-      Instant current = hostNextAllowed.getOrDefault(host, Instant.now());
-      if (candidate.isAfter(current)) {
-        hostNextAllowed.put(host, candidate);
-      }
+    hostRateScheduler.delay(host, duration);
+  }
+
+  private void checkDeadline(CanaryHttpBudget budget) {
+    if (budget != null) {
+      budget.checkDeadline();
+    }
+  }
+
+  private Executor delayedExecutor(long delayMs) {
+    return CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS, executor);
+  }
+
+  private static long deadlineNanos(CanaryHttpBudget budget) {
+    Instant deadline = budget == null ? null : budget.deadline();
+    if (deadline == null) {
+      return AdmissionQueue.NO_DEADLINE;
     }
+    return System.nanoTime() + Duration.between(Instant.now(), deadline).toNanos();
+  }
+
+  // True when the client refused the request itself (host cooldown, or shed for lack of time),
+  // so the result says nothing about the host.
+  public static boolean isLocalRejection(HttpFetchResult result) {
+    return result != null
+        && (HOST_COOLDOWN_ERROR.equals(result.errorCode()) || isAdmissionRejection(result));
+  }
+
+  private static boolean isAdmissionRejection(HttpFetchResult result) {
+    String errorCode = result == null ? null : result.errorCode();
+    return AdmissionQueue.DEADLINE_REJECTED_ERROR.equals(errorCode)
+        || AdmissionQueue.DEADLINE_SHED_ERROR.equals(errorCode);
+  }
+
+  private HttpFetchResult errorFor(String url, Instant startedAt, Throwable error) {
+    if (error instanceof HttpTimeoutException) {
+      return errorResult(url, startedAt, "timeout", error.getMessage());
+    }
+    if (error instanceof ZipException) {
+      return errorResult(url, startedAt, "decode_error", error.getMessage());
+    }
+    if (error instanceof IOException) {
+      return errorResult(url, startedAt, "io_error", error.getMessage());
+    }
+    if (error instanceof InterruptedException) {
+      return errorResult(url, startedAt, "interrupted", error.getMessage());
+    }
+    return errorResult(url, startedAt, "http_error", error.getMessage());
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    Throwable current = error;
+    while ((current instanceof CompletionException || current instanceof ExecutionException)
+        && current.getCause() != null) {
+      current = current.getCause();
+    }
+    return current;
   }
 
   private HttpFetchResult errorResult(String url, Instant startedAt, String code, String message) {
@@ -519,6 +944,26 @@ public class PoliteHttpClient {
         message);
   }
 
+  private HttpFetchResult cooldownResult(String url, Instant startedAt, Instant nextAllowedAt) {
+    return new HttpFetchResult(
+        url,
+        null,
+        0,
+        null,
+        null,
+        null,
+        null,
+        Instant.now(),
+        Duration.between(startedAt, Instant.now()),
+        HOST_COOLDOWN_ERROR,
+        "cooldown_until=" + nextAllowedAt,
+        null,
+        null,
+        0L,
+        0L,
+        nextAllowedAt);
+  }
+
   private URI normalizeUri(String input) {
     if (input == null || input.isBlank()) {
       return null;
@@ -533,4 +978,81 @@ public class PoliteHttpClient {
       return null;
     }
   }
+
+  private record InFlightKey(RequestSpec spec, CanaryHttpBudget budget) {}
+
+  // cache is set when any caller sharing the exchange opted into the response caches.
+  private record InFlightGet(CompletableFuture<HttpFetchResult> result, AtomicBoolean cache) {}
+
+  private record RequestSpec(
+      String url,
+      String method,
+      String acceptHeader,
+      String body,
+      String contentType,
+      String userAgentOverride,
+      Integer maxBytes,
+      HttpValidators validators,
+      boolean cacheable,
+      BodySpill spill) {
+    private RequestSpec(
+        String url,
+        String method,
+        String acceptHeader,
+        String body,
+        String contentType,
+        String userAgentOverride,
+        Integer maxBytes,
+        HttpValidators validators,
+        boolean cacheable) {
+      this(
+          url,
+          method,
+          acceptHeader,
+          body,
+          contentType,
+          userAgentOverride,
+          maxBytes,
+          validators,
+          cacheable,
+          null);
+    }
+
+    private RequestSpec(
+        String url,
+        String method,
+        String acceptHeader,
+        String body,
+        String contentType,
+        String userAgentOverride,
+        Integer maxBytes,
+        HttpValidators validators) {
+      this(
+          url,
+          method,
+          acceptHeader,
+          body,
+          contentType,
+          userAgentOverride,
+          maxBytes,
+          validators,
+          false);
+    }
+
+    private RequestSpec uncached() {
+      return cacheable
+          ? new RequestSpec(
+              url,
+              method,
+              acceptHeader,
+              body,
+              contentType,
+              userAgentOverride,
+              maxBytes,
+              validators,
+              false,
+              spill)
+          : this;
+    }
+  }
 }
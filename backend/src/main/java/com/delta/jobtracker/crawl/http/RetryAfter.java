@@ -0,0 +1,79 @@
+package com.delta.jobtracker.crawl.http;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.List;
+import java.util.Locale;
+
+// Retry-After is either delay-seconds or an HTTP-date (RFC 9110 section 10.2.3). Recipients must
+// accept the obsolete RFC 850 and asctime date forms as well as IMF-fixdate.
+final class RetryAfter {
+  private static final DateTimeFormatter RFC_850 =
+      new DateTimeFormatterBuilder()
+          .appendPattern("EEEE, dd-MMM-")
+          .appendValueReduced(ChronoField.YEAR, 2, 2, 1970)
+          .appendPattern(" HH:mm:ss 'GMT'")
+          .toFormatter(Locale.US);
+  private static final DateTimeFormatter ASCTIME =
+      DateTimeFormatter.ofPattern("EEE MMM ppd HH:mm:ss yyyy", Locale.US);
+  private static final List<DateTimeFormatter> LOCAL_DATE_FORMATS = List.of(RFC_850, ASCTIME);
+
+  private RetryAfter() {}
+
+  static Instant parse(String value, Instant now, Duration max) {
+    if (value == null || value.isBlank() || now == null) {
+      return null;
+    }
+    String trimmed = value.trim();
+    Instant resumeAt = parseDelaySeconds(trimmed, now);
+    if (resumeAt == null) {
+      resumeAt = parseHttpDate(trimmed);
+    }
+    if (resumeAt == null) {
+      return null;
+    }
+    if (resumeAt.isBefore(now)) {
+      return now;
+    }
+    if (max != null && resumeAt.isAfter(now.plus(max))) {
+      return now.plus(max);
+    }
+    return resumeAt;
+  }
+
+  private static Instant parseDelaySeconds(String value, Instant now) {
+    for (int i = 0; i < value.length(); i++) {
+      if (!Character.isDigit(value.charAt(i))) {
+        return null;
+      }
+    }
+    if (value.length() > 10) {
+      // Absurdly large delays are clamped by the caller's maximum anyway.
+      return Instant.MAX;
+    }
+    return now.plusSeconds(Long.parseLong(value));
+  }
+
+  private static Instant parseHttpDate(String value) {
+    try {
+      return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+    } catch (DateTimeParseException ignored) {
+      // Fall through to the obsolete formats.
+    }
+    for (DateTimeFormatter format : LOCAL_DATE_FORMATS) {
+      try {
+        return LocalDateTime.parse(value, format).toInstant(ZoneOffset.UTC);
+      } catch (DateTimeParseException ignored) {
+        // Try the next format.
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,9 @@
+package com.delta.jobtracker.crawl.http;
+
+public enum TrafficClass {
+  INTERACTIVE,
+  DAEMON_CRAWL,
+  DISCOVERY,
+  FRONTIER,
+  MAINTENANCE
+}
@@ -0,0 +1,31 @@
+package com.delta.jobtracker.crawl.http;
+
+// Tags HTTP calls made on the current thread with the subsystem they belong to. Requests made
+// outside any scope are treated as interactive (API-triggered work).
+public final class TrafficClassContext {
+  private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+  private TrafficClassContext() {}
+
+  public static TrafficClass current() {
+    TrafficClass trafficClass = CURRENT.get();
+    return trafficClass == null ? TrafficClass.INTERACTIVE : trafficClass;
+  }
+
+  public static Scope activate(TrafficClass trafficClass) {
+    TrafficClass previous = CURRENT.get();
+    CURRENT.set(trafficClass);
+    return () -> {
+      if (previous == null) {
+        CURRENT.remove();
+      } else {
+        CURRENT.set(previous);
+      }
+    };
+  }
+
+  public interface Scope extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
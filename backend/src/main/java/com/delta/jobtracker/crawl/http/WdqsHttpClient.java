@@ -18,18 +18,24 @@ import org.springframework.stereotype.Service;
 @Service
 public class WdqsHttpClient {
   private final CrawlerProperties properties;
-  private final HttpClient client;
+  private final HttpClientGroup http1Clients;
+  private final HttpClientGroup http2Clients;
+  private final HttpVersionSelector versionSelector;
 
   public WdqsHttpClient(
       CrawlerProperties properties, @Qualifier("httpExecutor") ExecutorService httpExecutor) {
     this.properties = properties;
     int timeoutSeconds = properties.getDomainResolution().getWdqsTimeoutSeconds();
-    this.client =
-        HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(timeoutSeconds))
-            .version(HttpClient.Version.HTTP_1_1)
-            .executor(httpExecutor)
-            .build();
+    Duration connectTimeout = Duration.ofSeconds(timeoutSeconds);
+    this.versionSelector = new HttpVersionSelector(properties.getHttp2());
+    this.http1Clients =
+        new HttpClientGroup(
+            "wdqs", HttpClient.Version.HTTP_1_1, connectTimeout, false, httpExecutor);
+    this.http2Clients =
+        versionSelector.enabled()
+            ? new HttpClientGroup(
+                "wdqs-http2", HttpClient.Version.HTTP_2, connectTimeout, false, httpExecutor)
+            : null;
   }
 
   public HttpFetchResult postForm(String url, String formBody, String acceptHeader) {
@@ -49,10 +55,14 @@ public class WdqsHttpClient {
     }
 
     String safeAccept = (acceptHeader == null || acceptHeader.isBlank()) ? "*/*" : acceptHeader;
-    int timeoutSeconds = properties.getDomainResolution().getWdqsTimeoutSeconds();
+    Duration timeout =
+        Duration.ofSeconds(properties.getDomainResolution().getWdqsTimeoutSeconds());
+    if (budget != null) {
+      timeout = budget.capToRemaining(timeout);
+    }
     HttpRequest request =
         HttpRequest.newBuilder(uri)
-            .timeout(Duration.ofSeconds(timeoutSeconds))
+            .timeout(timeout)
             .header("User-Agent", CrawlerProperties.normalizeUserAgent(properties.getUserAgent()))
             .header("Accept", safeAccept)
             .header("Accept-Language", "en-US,en;q=0.8")
@@ -63,17 +73,16 @@ public class WdqsHttpClient {
             .build();
 
     try {
-      HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-      byte[] responseBytes = response.body();
-      String responseBody =
-          responseBytes == null ? null : new String(responseBytes, StandardCharsets.UTF_8);
+      HttpClientGroup group =
+          http2Clients != null && versionSelector.useHttp2(uri) ? http2Clients : http1Clients;
+      HttpResponse<byte[]> response = group.send(request, HttpResponse.BodyHandlers.ofByteArray());
       HttpFetchResult result =
           new HttpFetchResult(
               url,
               response.uri(),
               response.statusCode(),
-              responseBody,
-              responseBytes,
+              null,
+              response.body(),
               response.headers().firstValue("Content-Type").orElse(null),
               response.headers().firstValue("Content-Encoding").orElse(null),
               Instant.now(),
@@ -1,11 +1,14 @@
 package com.delta.jobtracker.crawl.jobs;
 
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.delta.jobtracker.crawl.util.HashUtils;
 import com.delta.jobtracker.crawl.util.JobUrlUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
@@ -30,8 +33,28 @@ public class JobPostingExtractor {
     if (html == null || html.isBlank()) {
       return List.of();
     }
+    return extractFrom(Jsoup.parse(html), sourceUrl);
+  }
+
+  // Parses straight from the response bytes so the page is never copied into a String first.
+  public List<NormalizedJobPosting> extract(HttpFetchResult fetch) {
+    byte[] html = fetch.bodyBytes();
+    if (html == null) {
+      return extract(fetch.body(), fetch.finalUrlOrRequested());
+    }
+    if (html.length == 0) {
+      return List.of();
+    }
+    try {
+      Document document =
+          Jsoup.parse(new ByteArrayInputStream(html), fetch.charset().name(), "");
+      return extractFrom(document, fetch.finalUrlOrRequested());
+    } catch (IOException e) {
+      return List.of();
+    }
+  }
 
-    Document document = Jsoup.parse(html);
+  private List<NormalizedJobPosting> extractFrom(Document document, String sourceUrl) {
     List<JsonNode> jobPostingNodes = new ArrayList<>();
     for (Element script : document.select("script[type=application/ld+json]")) {
       String payload = script.data();
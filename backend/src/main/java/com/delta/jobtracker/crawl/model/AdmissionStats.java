@@ -0,0 +1,14 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.util.List;
+
+public record AdmissionStats(
+    int limit,
+    int inFlight,
+    int queued,
+    long admitted,
+    long rejected,
+    long shed,
+    double avgQueueWaitMs,
+    double maxQueueWaitMs,
+    List<TrafficClassStats> classes) {}
@@ -3,6 +3,8 @@ package com.delta.jobtracker.crawl.model;
 import java.util.List;
 import java.util.Map;
 
+// The unchanged* counts are child sitemaps and candidate pages skipped because their sitemap
+// lastmod had not moved since the last crawl.
 public record CompanyCrawlSummary(
     long companyId,
     String ticker,
@@ -13,4 +15,32 @@ public record CompanyCrawlSummary(
     int jobpostingPagesFoundCount,
     int jobsExtractedCount,
     boolean closeoutSafe,
-    Map<String, Integer> topErrors) {}
+    Map<String, Integer> topErrors,
+    int unchangedSitemapsSkippedCount,
+    int unchangedPagesSkippedCount) {
+  public CompanyCrawlSummary(
+      long companyId,
+      String ticker,
+      String domain,
+      int sitemapsFoundCount,
+      int candidateUrlsCount,
+      List<AtsDetectionRecord> atsDetected,
+      int jobpostingPagesFoundCount,
+      int jobsExtractedCount,
+      boolean closeoutSafe,
+      Map<String, Integer> topErrors) {
+    this(
+        companyId,
+        ticker,
+        domain,
+        sitemapsFoundCount,
+        candidateUrlsCount,
+        atsDetected,
+        jobpostingPagesFoundCount,
+        jobsExtractedCount,
+        closeoutSafe,
+        topErrors,
+        0,
+        0);
+  }
+}
@@ -0,0 +1,11 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record FrontierDrainStatusResponse(
+    boolean running,
+    int workerCount,
+    Instant startedAt,
+    FrontierSchedulerResult totals,
+    Map<String, Integer> queueStatusCounts) {}
@@ -0,0 +1,6 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.time.Instant;
+
+public record FrontierEnqueueRequest(
+    String url, FrontierUrlKind urlKind, int priority, Instant nextFetchAt) {}
@@ -10,4 +10,5 @@ public record FrontierSchedulerResult(
     int candidateUrlsEnqueued,
     int httpRequestCount,
     int http429Count,
+    int notModifiedCount,
     Map<String, Integer> statusBucketCounts) {}
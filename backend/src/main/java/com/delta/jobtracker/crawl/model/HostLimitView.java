@@ -0,0 +1,14 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.time.Instant;
+
+public record HostLimitView(
+    String host,
+    int concurrencyLimit,
+    long delayMs,
+    int inFlight,
+    int queued,
+    long latencyEwmaMs,
+    String lastSignal,
+    long decreaseCount,
+    Instant updatedAt) {}
@@ -0,0 +1,9 @@
+package com.delta.jobtracker.crawl.model;
+
+public record HttpClientGroupStats(
+    String group,
+    String version,
+    long requests,
+    long tlsConnections,
+    long http2Responses,
+    long http1Responses) {}
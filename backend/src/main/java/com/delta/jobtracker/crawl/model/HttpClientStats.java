@@ -0,0 +1,12 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.util.List;
+
+public record HttpClientStats(
+    long getRequests,
+    long coalescedGets,
+    int inFlightGets,
+    ResponseCacheStats responseCache,
+    ResponseCacheStats diskCache,
+    AdmissionStats admission,
+    List<HttpClientGroupStats> clientGroups) {}
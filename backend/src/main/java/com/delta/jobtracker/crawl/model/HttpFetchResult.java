@@ -1,26 +1,417 @@
 package com.delta.jobtracker.crawl.model;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+// Holds the raw response bytes; the String view is decoded on first use with the charset from
+// Content-Type, so byte consumers (sitemaps, JSON feeds) never pay for a second copy. Very large
+// bodies fetched with a BodySpill live in a temp file instead; body() refuses them, so read them
+// with bodyStream() and release them with discardBody().
+public final class HttpFetchResult {
+  private final String requestedUrl;
+  private final URI finalUri;
+  private final int statusCode;
+  private final byte[] bodyBytes;
+  private final String contentType;
+  private final String contentEncoding;
+  private final Instant fetchedAt;
+  private final Duration duration;
+  private final String errorCode;
+  private final String errorMessage;
+  private final String etag;
+  private final String lastModified;
+  private final long compressedBytes;
+  private final long decodedBytes;
+  private final Instant retryAfter;
+  private final Path bodyFile;
+  private final long peakBufferedBytes;
+  private volatile String body;
+
+  public HttpFetchResult(
+      String requestedUrl,
+      URI finalUri,
+      int statusCode,
+      String body,
+      byte[] bodyBytes,
+      String contentType,
+      String contentEncoding,
+      Instant fetchedAt,
+      Duration duration,
+      String errorCode,
+      String errorMessage,
+      String etag,
+      String lastModified,
+      long compressedBytes,
+      long decodedBytes,
+      Instant retryAfter) {
+    this(
+        requestedUrl,
+        finalUri,
+        statusCode,
+        body,
+        bodyBytes,
+        contentType,
+        contentEncoding,
+        fetchedAt,
+        duration,
+        errorCode,
+        errorMessage,
+        etag,
+        lastModified,
+        compressedBytes,
+        decodedBytes,
+        retryAfter,
+        null,
+        bodyBytes == null ? 0L : bodyBytes.length);
+  }
+
+  public HttpFetchResult(
+      String requestedUrl,
+      URI finalUri,
+      int statusCode,
+      String body,
+      byte[] bodyBytes,
+      String contentType,
+      String contentEncoding,
+      Instant fetchedAt,
+      Duration duration,
+      String errorCode,
+      String errorMessage,
+      String etag,
+      String lastModified,
+      long compressedBytes,
+      long decodedBytes,
+      Instant retryAfter,
+      Path bodyFile,
+      long peakBufferedBytes) {
+    this.requestedUrl = requestedUrl;
+    this.finalUri = finalUri;
+    this.statusCode = statusCode;
+    this.body = body;
+    this.bodyBytes = bodyBytes;
+    this.contentType = contentType;
+    this.contentEncoding = contentEncoding;
+    this.fetchedAt = fetchedAt;
+    this.duration = duration;
+    this.errorCode = errorCode;
+    this.errorMessage = errorMessage;
+    this.etag = etag;
+    this.lastModified = lastModified;
+    this.compressedBytes = compressedBytes;
+    this.decodedBytes = decodedBytes;
+    this.retryAfter = retryAfter;
+    this.bodyFile = bodyFile;
+    this.peakBufferedBytes = peakBufferedBytes;
+  }
+
+  public HttpFetchResult(
+      String requestedUrl,
+      URI finalUri,
+      int statusCode,
+      String body,
+      byte[] bodyBytes,
+      String contentType,
+      String contentEncoding,
+      Instant fetchedAt,
+      Duration duration,
+      String errorCode,
+      String errorMessage,
+      String etag,
+      String lastModified,
+      long compressedBytes,
+      long decodedBytes) {
+    this(
+        requestedUrl,
+        finalUri,
+        statusCode,
+        body,
+        bodyBytes,
+        contentType,
+        contentEncoding,
+        fetchedAt,
+        duration,
+        errorCode,
+        errorMessage,
+        etag,
+        lastModified,
+        compressedBytes,
+        decodedBytes,
+        null);
+  }
+
+  public HttpFetchResult(
+      String requestedUrl,
+      URI finalUri,
+      int statusCode,
+      String body,
+      byte[] bodyBytes,
+      String contentType,
+      String contentEncoding,
+      Instant fetchedAt,
+      Duration duration,
+      String errorCode,
+      String errorMessage) {
+    this(
+        requestedUrl,
+        finalUri,
+        statusCode,
+        body,
+        bodyBytes,
+        contentType,
+        contentEncoding,
+        fetchedAt,
+        duration,
+        errorCode,
+        errorMessage,
+        null,
+        null,
+        0L,
+        bodyBytes == null ? 0L : bodyBytes.length,
+        null);
+  }
+
+  public String requestedUrl() {
+    return requestedUrl;
+  }
+
+  public URI finalUri() {
+    return finalUri;
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+
+  public String body() {
+    String decoded = body;
+    if (decoded == null && bodyBytes != null) {
+      decoded = new String(bodyBytes, charset());
+      body = decoded;
+    }
+    if (decoded == null && bodyFile != null) {
+      // A spilled body can be the full 50MB sitemap maximum; never pull it onto the heap.
+      throw new IllegalStateException(
+          "Body of " + requestedUrl + " was spilled to disk; read it with bodyStream()");
+    }
+    return decoded;
+  }
+
+  // The raw array, not a copy; callers must not modify it.
+  public byte[] bodyBytes() {
+    return bodyBytes;
+  }
+
+  public boolean hasBody() {
+    return bodyBytes != null || bodyFile != null || body != null;
+  }
+
+  public InputStream bodyStream() {
+    if (bodyBytes != null) {
+      return new ByteArrayInputStream(bodyBytes);
+    }
+    if (bodyFile != null) {
+      try {
+        return Files.newInputStream(bodyFile);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    String text = body;
+    return new ByteArrayInputStream(text == null ? new byte[0] : text.getBytes(charset()));
+  }
+
+  public ByteBuffer bodyBuffer() {
+    if (bodyBytes != null) {
+      return ByteBuffer.wrap(bodyBytes).asReadOnlyBuffer();
+    }
+    String text = body();
+    return ByteBuffer.wrap(text == null ? new byte[0] : text.getBytes(charset()))
+        .asReadOnlyBuffer();
+  }
+
+  // Null unless the body was spilled to disk.
+  public Path bodyFile() {
+    return bodyFile;
+  }
+
+  public boolean isSpilled() {
+    return bodyFile != null;
+  }
+
+  // The most response bytes held in memory at once while the body was read.
+  public long peakBufferedBytes() {
+    return peakBufferedBytes;
+  }
+
+  public void discardBody() {
+    if (bodyFile == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(bodyFile);
+    } catch (IOException e) {
+      // Temp directory cleanup will get it.
+    }
+  }
+
+  public Charset charset() {
+    return charsetOf(contentType);
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  public String contentEncoding() {
+    return contentEncoding;
+  }
+
+  public Instant fetchedAt() {
+    return fetchedAt;
+  }
+
+  public Duration duration() {
+    return duration;
+  }
+
+  public String errorCode() {
+    return errorCode;
+  }
+
+  public String errorMessage() {
+    return errorMessage;
+  }
+
+  public String etag() {
+    return etag;
+  }
+
+  public String lastModified() {
+    return lastModified;
+  }
+
+  public long compressedBytes() {
+    return compressedBytes;
+  }
+
+  public long decodedBytes() {
+    return decodedBytes;
+  }
+
+  public Instant retryAfter() {
+    return retryAfter;
+  }
 
-public record HttpFetchResult(
-    String requestedUrl,
-    URI finalUri,
-    int statusCode,
-    String body,
-    byte[] bodyBytes,
-    String contentType,
-    String contentEncoding,
-    Instant fetchedAt,
-    Duration duration,
-    String errorCode,
-    String errorMessage) {
   public boolean isSuccessful() {
     return statusCode >= 200 && statusCode < 300 && errorCode == null;
   }
 
+  public boolean isNotModified() {
+    return statusCode == 304 && errorCode == null;
+  }
+
+  public HttpValidators validators() {
+    return HttpValidators.of(etag, lastModified);
+  }
+
   public String finalUrlOrRequested() {
     return finalUri != null ? finalUri.toString() : requestedUrl;
   }
+
+  // Value equality over the response, like the record this used to be, except that bodies are
+  // compared by content. The lazily decoded String view is not part of it.
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof HttpFetchResult other)) {
+      return false;
+    }
+    return statusCode == other.statusCode
+        && compressedBytes == other.compressedBytes
+        && decodedBytes == other.decodedBytes
+        && peakBufferedBytes == other.peakBufferedBytes
+        && Objects.equals(requestedUrl, other.requestedUrl)
+        && Objects.equals(finalUri, other.finalUri)
+        && Arrays.equals(bodyBytes, other.bodyBytes)
+        && (bodyBytes != null || Objects.equals(body, other.body))
+        && Objects.equals(contentType, other.contentType)
+        && Objects.equals(contentEncoding, other.contentEncoding)
+        && Objects.equals(fetchedAt, other.fetchedAt)
+        && Objects.equals(duration, other.duration)
+        && Objects.equals(errorCode, other.errorCode)
+        && Objects.equals(errorMessage, other.errorMessage)
+        && Objects.equals(etag, other.etag)
+        && Objects.equals(lastModified, other.lastModified)
+        && Objects.equals(retryAfter, other.retryAfter)
+        && Objects.equals(bodyFile, other.bodyFile);
+  }
+
+  @Override
+  public int hashCode() {
+    int result =
+        Objects.hash(
+            requestedUrl,
+            finalUri,
+            statusCode,
+            contentType,
+            contentEncoding,
+            fetchedAt,
+            duration,
+            errorCode,
+            errorMessage,
+            etag,
+            lastModified,
+            retryAfter,
+            bodyFile);
+    return 31 * result + (bodyBytes != null ? Arrays.hashCode(bodyBytes) : Objects.hashCode(body));
+  }
+
+  @Override
+  public String toString() {
+    return "HttpFetchResult[requestedUrl="
+        + requestedUrl
+        + ", statusCode="
+        + statusCode
+        + ", contentType="
+        + contentType
+        + ", bytes="
+        + (bodyBytes == null ? decodedBytes : bodyBytes.length)
+        + ", errorCode="
+        + errorCode
+        + "]";
+  }
+
+  static Charset charsetOf(String contentType) {
+    if (contentType == null) {
+      return StandardCharsets.UTF_8;
+    }
+    for (String param : contentType.split(";")) {
+      String trimmed = param.trim();
+      if (!trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+        continue;
+      }
+      String name = trimmed.substring("charset=".length()).replace("\"", "").trim();
+      try {
+        return Charset.forName(name);
+      } catch (IllegalArgumentException e) {
+        return StandardCharsets.UTF_8;
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
 }
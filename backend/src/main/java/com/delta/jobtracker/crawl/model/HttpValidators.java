@@ -0,0 +1,13 @@
+package com.delta.jobtracker.crawl.model;
+
+public record HttpValidators(String etag, String lastModified) {
+  public static HttpValidators of(String etag, String lastModified) {
+    String safeEtag = etag == null || etag.isBlank() ? null : etag.trim();
+    String safeLastModified =
+        lastModified == null || lastModified.isBlank() ? null : lastModified.trim();
+    if (safeEtag == null && safeLastModified == null) {
+      return null;
+    }
+    return new HttpValidators(safeEtag, safeLastModified);
+  }
+}
@@ -0,0 +1,10 @@
+package com.delta.jobtracker.crawl.model;
+
+public record ResponseCacheStats(
+    long hits,
+    long misses,
+    long evictions,
+    long expirations,
+    int entries,
+    long bytes,
+    long maxBytes) {}
@@ -0,0 +1,12 @@
+package com.delta.jobtracker.crawl.model;
+
+import java.time.Instant;
+
+public record RobotsCacheRecord(
+    String host,
+    String robotsText,
+    boolean unavailable,
+    String etag,
+    String lastModified,
+    Instant fetchedAt,
+    Instant expiresAt) {}
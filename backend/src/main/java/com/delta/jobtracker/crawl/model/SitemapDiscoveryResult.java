@@ -3,7 +3,17 @@ package com.delta.jobtracker.crawl.model;
 import java.util.List;
 import java.util.Map;
 
+// unchangedSitemaps lists child sitemaps that were not fetched because their index lastmod had
+// not moved since the last complete crawl.
 public record SitemapDiscoveryResult(
     List<SitemapFetchRecord> fetchedSitemaps,
     List<SitemapUrlEntry> discoveredUrls,
-    Map<String, Integer> errors) {}
+    Map<String, Integer> errors,
+    List<String> unchangedSitemaps) {
+  public SitemapDiscoveryResult(
+      List<SitemapFetchRecord> fetchedSitemaps,
+      List<SitemapUrlEntry> discoveredUrls,
+      Map<String, Integer> errors) {
+    this(fetchedSitemaps, discoveredUrls, errors, List.of());
+  }
+}
@@ -2,4 +2,16 @@ package com.delta.jobtracker.crawl.model;
 
 import java.time.Instant;
 
-public record SitemapFetchRecord(String sitemapUrl, Instant fetchedAt, int urlCount) {}
+// bytesProcessed counts the XML the parser read (after gunzip); peakBufferedBytes is the most of
+// the response held in memory at once, which stays near the spill threshold for large sitemaps.
+// lastmod is what the parent index advertised for this sitemap (null for seeds). complete means
+// every page URL it listed was taken and it lists no child sitemaps, so a later crawl may skip it
+// while its lastmod stays put.
+public record SitemapFetchRecord(
+    String sitemapUrl,
+    Instant fetchedAt,
+    int urlCount,
+    long bytesProcessed,
+    long peakBufferedBytes,
+    String lastmod,
+    boolean complete) {}
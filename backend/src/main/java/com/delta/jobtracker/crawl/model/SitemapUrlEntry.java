@@ -1,3 +1,8 @@
 package com.delta.jobtracker.crawl.model;
 
-public record SitemapUrlEntry(String url, String lastmod) {}
+// sitemapUrl is the sitemap that listed the URL, when discovery tracked it.
+public record SitemapUrlEntry(String url, String lastmod, String sitemapUrl) {
+  public SitemapUrlEntry(String url, String lastmod) {
+    this(url, lastmod, null);
+  }
+}
@@ -0,0 +1,13 @@
+package com.delta.jobtracker.crawl.model;
+
+public record TrafficClassStats(
+    String trafficClass,
+    int weight,
+    int inFlight,
+    int queued,
+    long admitted,
+    long completed,
+    long rejected,
+    long shed,
+    double avgQueueWaitMs,
+    double throughputPerSecond) {}
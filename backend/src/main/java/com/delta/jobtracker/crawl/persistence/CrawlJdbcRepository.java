@@ -31,8 +31,6 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.Duration;
@@ -76,7 +74,7 @@ public class CrawlJdbcRepository {
 
   public CrawlJdbcRepository(NamedParameterJdbcTemplate jdbc, CrawlerProperties properties) {
     this.jdbc = jdbc;
-    this.postgres = detectPostgres(jdbc);
+    this.postgres = DatabaseDialect.isPostgres(jdbc);
     this.properties = properties;
   }
 
@@ -1178,40 +1176,7 @@ public class CrawlJdbcRepository {
     return count == null ? 0L : count;
   }
 
-  public HostCrawlState findHostCrawlState(String host) {
-    if (host == null || host.isBlank()) {
-      return null;
-    }
-    MapSqlParameterSource params =
-        new MapSqlParameterSource().addValue("host", host.toLowerCase(Locale.ROOT));
-    List<HostCrawlState> rows =
-        jdbc.query(
-            """
-                SELECT host,
-                       consecutive_failures,
-                       last_error_category,
-                       last_attempt_at,
-                       next_allowed_at
-                FROM host_crawl_state
-                WHERE host = :host
-                """,
-            params,
-            (rs, rowNum) ->
-                new HostCrawlState(
-                    rs.getString("host"),
-                    rs.getInt("consecutive_failures"),
-                    rs.getString("last_error_category"),
-                    toInstant(rs.getTimestamp("last_attempt_at")),
-                    toInstant(rs.getTimestamp("next_allowed_at"))));
-    return rows.isEmpty() ? null : rows.getFirst();
-  }
-
-  public List<HostCrawlState> findHostsInCooldown(Instant now, int limit) {
-    int safeLimit = Math.max(1, Math.min(limit, 500));
-    MapSqlParameterSource params =
-        new MapSqlParameterSource()
-            .addValue("now", toTimestamp(now == null ? Instant.now() : now))
-            .addValue("limit", safeLimit);
+  public List<HostCrawlState> findAllHostCrawlStates() {
     return jdbc.query(
         """
                 SELECT host,
@@ -1220,12 +1185,8 @@ public class CrawlJdbcRepository {
                        last_attempt_at,
                        next_allowed_at
                 FROM host_crawl_state
-                WHERE next_allowed_at IS NOT NULL
-                  AND next_allowed_at > :now
-                ORDER BY next_allowed_at ASC
-                LIMIT :limit
                 """,
-        params,
+        new MapSqlParameterSource(),
         (rs, rowNum) ->
             new HostCrawlState(
                 rs.getString("host"),
@@ -1305,23 +1266,27 @@ public class CrawlJdbcRepository {
         params);
   }
 
-  public void upsertHostCrawlState(
-      String host,
-      int consecutiveFailures,
-      String lastErrorCategory,
-      Instant lastAttemptAt,
-      Instant nextAllowedAt) {
-    if (host == null || host.isBlank()) {
+  public void upsertHostCrawlStates(List<HostCrawlState> states) {
+    if (states == null || states.isEmpty()) {
       return;
     }
-    MapSqlParameterSource params =
-        new MapSqlParameterSource()
-            .addValue("host", host.toLowerCase(Locale.ROOT))
-            .addValue("consecutiveFailures", Math.max(0, consecutiveFailures))
-            .addValue("lastErrorCategory", lastErrorCategory)
-            .addValue("lastAttemptAt", toTimestamp(lastAttemptAt))
-            .addValue("nextAllowedAt", toTimestamp(nextAllowedAt));
-    jdbc.update(
+    List<MapSqlParameterSource> paramsList = new ArrayList<>();
+    for (HostCrawlState state : states) {
+      if (state == null || state.host() == null || state.host().isBlank()) {
+        continue;
+      }
+      paramsList.add(
+          new MapSqlParameterSource()
+              .addValue("host", state.host().toLowerCase(Locale.ROOT))
+              .addValue("consecutiveFailures", Math.max(0, state.consecutiveFailures()))
+              .addValue("lastErrorCategory", state.lastErrorCategory())
+              .addValue("lastAttemptAt", toTimestamp(state.lastAttemptAt()))
+              .addValue("nextAllowedAt", toTimestamp(state.nextAllowedAt())));
+    }
+    if (paramsList.isEmpty()) {
+      return;
+    }
+    jdbc.batchUpdate(
         """
                 INSERT INTO host_crawl_state (
                     host,
@@ -1344,7 +1309,7 @@ public class CrawlJdbcRepository {
                     last_attempt_at = EXCLUDED.last_attempt_at,
                     next_allowed_at = EXCLUDED.next_allowed_at
                 """,
-        params);
+        paramsList.toArray(new MapSqlParameterSource[0]));
   }
 
   public long upsertCompany(String ticker, String name, String sector) {
@@ -2193,18 +2158,32 @@ public class CrawlJdbcRepository {
   }
 
   public void insertDiscoveredSitemap(
-      long crawlRunId, long companyId, String sitemapUrl, Instant fetchedAt, int urlCount) {
+      long crawlRunId,
+      long companyId,
+      String sitemapUrl,
+      Instant fetchedAt,
+      int urlCount,
+      long bytesProcessed,
+      long peakBufferedBytes) {
     MapSqlParameterSource params =
         new MapSqlParameterSource()
             .addValue("crawlRunId", crawlRunId)
             .addValue("companyId", companyId)
             .addValue("sitemapUrl", sitemapUrl)
             .addValue("fetchedAt", toTimestamp(fetchedAt))
-            .addValue("urlCount", urlCount);
+            .addValue("urlCount", urlCount)
+            .addValue("bytesProcessed", bytesProcessed)
+            .addValue("peakBufferedBytes", peakBufferedBytes);
     jdbc.update(
         """
-                INSERT INTO discovered_sitemaps (crawl_run_id, company_id, sitemap_url, fetched_at, url_count)
-                VALUES (:crawlRunId, :companyId, :sitemapUrl, :fetchedAt, :urlCount)
+                INSERT INTO discovered_sitemaps (
+                    crawl_run_id, company_id, sitemap_url, fetched_at, url_count,
+                    bytes_processed, peak_buffered_bytes
+                )
+                VALUES (
+                    :crawlRunId, :companyId, :sitemapUrl, :fetchedAt, :urlCount,
+                    :bytesProcessed, :peakBufferedBytes
+                )
                 """,
         params);
   }
@@ -3347,6 +3326,28 @@ public class CrawlJdbcRepository {
                 toInstant(rs.getTimestamp("finished_at"))));
   }
 
+  // Re-stamps the active postings last stored from one feed (ATS postings keep the feed URL as
+  // source_url); postings from sitemap pages or other feeds are left to their own sources.
+  public int carryForwardActivePostings(
+      long companyId, String sourceUrl, long crawlRunId, Instant seenAt) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("sourceUrl", sourceUrl)
+            .addValue("crawlRunId", crawlRunId)
+            .addValue("seenAt", Timestamp.from(seenAt));
+    return jdbc.update(
+        """
+                UPDATE job_postings
+                SET crawl_run_id = :crawlRunId,
+                    last_seen_at = :seenAt
+                WHERE company_id = :companyId
+                  AND source_url = :sourceUrl
+                  AND is_active = TRUE
+                """,
+        params);
+  }
+
   public void markPostingsInactiveNotSeenInRun(long companyId, long crawlRunId) {
     MapSqlParameterSource params =
         new MapSqlParameterSource()
@@ -3363,6 +3364,66 @@ public class CrawlJdbcRepository {
         params);
   }
 
+  // Pages skipped because their sitemap lastmod did not move still list their postings; attribute
+  // those postings to this run so markPostingsInactiveNotSeenInRun keeps them active.
+  public void markPostingsSeenForUrls(
+      long companyId, long crawlRunId, List<String> urls, Instant seenAt) {
+    if (urls == null || urls.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < urls.size(); i += 500) {
+      List<String> chunk = urls.subList(i, Math.min(urls.size(), i + 500));
+      jdbc.update(
+          """
+                  UPDATE job_postings
+                  SET crawl_run_id = :crawlRunId,
+                      last_seen_at = :seenAt
+                  WHERE company_id = :companyId
+                    AND is_active = TRUE
+                    AND (source_url IN (:urls) OR canonical_url IN (:urls))
+                  """,
+          new MapSqlParameterSource()
+              .addValue("companyId", companyId)
+              .addValue("crawlRunId", crawlRunId)
+              .addValue("seenAt", toTimestamp(seenAt))
+              .addValue("urls", chunk));
+    }
+  }
+
+  // Same, for every page last fetched from a sitemap that was skipped as unchanged.
+  public void markPostingsSeenForSitemaps(
+      long companyId, long crawlRunId, List<String> sitemapUrls, Instant seenAt) {
+    if (sitemapUrls == null || sitemapUrls.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < sitemapUrls.size(); i += 500) {
+      List<String> chunk = sitemapUrls.subList(i, Math.min(sitemapUrls.size(), i + 500));
+      jdbc.update(
+          """
+                  UPDATE job_postings
+                  SET crawl_run_id = :crawlRunId,
+                      last_seen_at = :seenAt
+                  WHERE company_id = :companyId
+                    AND is_active = TRUE
+                    AND (
+                        source_url IN (
+                            SELECT url FROM page_lastmods
+                            WHERE company_id = :companyId AND sitemap_url IN (:sitemapUrls)
+                        )
+                        OR canonical_url IN (
+                            SELECT url FROM page_lastmods
+                            WHERE company_id = :companyId AND sitemap_url IN (:sitemapUrls)
+                        )
+                    )
+                  """,
+          new MapSqlParameterSource()
+              .addValue("companyId", companyId)
+              .addValue("crawlRunId", crawlRunId)
+              .addValue("seenAt", toTimestamp(seenAt))
+              .addValue("sitemapUrls", chunk));
+    }
+  }
+
   public long countJobsForRun(CrawlRunMeta runMeta) {
     if (runMeta == null) {
       return 0L;
@@ -4077,24 +4138,6 @@ public class CrawlJdbcRepository {
     return atsType.trim().toUpperCase(Locale.ROOT);
   }
 
-  private boolean detectPostgres(NamedParameterJdbcTemplate jdbcTemplate) {
-    if (jdbcTemplate.getJdbcTemplate().getDataSource() == null) {
-      return false;
-    }
-    try (Connection connection = jdbcTemplate.getJdbcTemplate().getDataSource().getConnection()) {
-      DatabaseMetaData metaData = connection.getMetaData();
-      String productName = metaData == null ? null : metaData.getDatabaseProductName();
-      String url = metaData == null ? null : metaData.getURL();
-      if (url != null && url.toLowerCase(Locale.ROOT).startsWith("jdbc:h2:")) {
-        return false;
-      }
-      return productName != null && productName.toLowerCase(Locale.ROOT).contains("postgres");
-    } catch (Exception e) {
-      log.warn("Unable to detect database product; defaulting to non-Postgres search", e);
-      return false;
-    }
-  }
-
   private String normalizeQuery(String query) {
     if (query == null || query.isBlank()) {
       return null;
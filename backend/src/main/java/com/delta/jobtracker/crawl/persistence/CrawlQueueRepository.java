@@ -104,6 +104,25 @@ public class CrawlQueueRepository {
         params);
   }
 
+  public void deferUntil(long companyId, Instant nextRunAt) {
+    Instant now = Instant.now();
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("nextRunAt", Timestamp.from(nextRunAt))
+            .addValue("now", Timestamp.from(now));
+    jdbc.update(
+        """
+                UPDATE crawl_queue
+                SET next_run_at = :nextRunAt,
+                    locked_until = NULL,
+                    lock_owner = NULL,
+                    updated_at = :now
+                WHERE company_id = :companyId
+                """,
+        params);
+  }
+
   public void releaseLock(long companyId) {
     Instant now = Instant.now();
     MapSqlParameterSource params =
@@ -0,0 +1,36 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.Locale;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+// Repositories use Postgres-only SQL (ON CONFLICT, RETURNING, SKIP LOCKED, full-text search) only
+// when this says so, and keep portable SQL for H2 in Postgres mode, which the tests run on.
+final class DatabaseDialect {
+  private static final Logger log = LoggerFactory.getLogger(DatabaseDialect.class);
+
+  private DatabaseDialect() {}
+
+  static boolean isPostgres(NamedParameterJdbcTemplate jdbcTemplate) {
+    DataSource dataSource = jdbcTemplate.getJdbcTemplate().getDataSource();
+    if (dataSource == null) {
+      return false;
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+      String productName = metaData == null ? null : metaData.getDatabaseProductName();
+      String url = metaData == null ? null : metaData.getURL();
+      if (url != null && url.toLowerCase(Locale.ROOT).startsWith("jdbc:h2:")) {
+        return false;
+      }
+      return productName != null && productName.toLowerCase(Locale.ROOT).contains("postgres");
+    } catch (Exception e) {
+      log.warn("Unable to detect database product; using portable SQL", e);
+      return false;
+    }
+  }
+}
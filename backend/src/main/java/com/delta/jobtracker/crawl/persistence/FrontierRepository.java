@@ -1,5 +1,6 @@
 package com.delta.jobtracker.crawl.persistence;
 
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
 import com.delta.jobtracker.crawl.model.FrontierEnqueueResult;
 import com.delta.jobtracker.crawl.model.FrontierFetchOutcome;
 import com.delta.jobtracker.crawl.model.FrontierHostState;
@@ -8,13 +9,17 @@ import com.delta.jobtracker.crawl.model.FrontierUrlKind;
 import com.delta.jobtracker.crawl.util.FrontierUrlCanonicalizer;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
@@ -22,13 +27,21 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public class FrontierRepository {
+  // Rows per multi-row upsert; keeps the bind parameter count far below the driver's limit.
+  private static final int ENQUEUE_CHUNK = 500;
+  private static final String URL_VALUES_ROW =
+      "(:url%1$d, :host%1$d, :canonicalUrl%1$d, :urlKind%1$d, :priority%1$d, :nextFetchAt%1$d,"
+          + " 'QUEUED', :now)";
+
   private final NamedParameterJdbcTemplate jdbc;
   private final FrontierUrlCanonicalizer canonicalizer;
+  private final boolean postgres;
 
   public FrontierRepository(
       NamedParameterJdbcTemplate jdbc, FrontierUrlCanonicalizer canonicalizer) {
     this.jdbc = jdbc;
     this.canonicalizer = canonicalizer;
+    this.postgres = DatabaseDialect.isPostgres(jdbc);
   }
 
   public List<String> findSeedDomains(int limit) {
@@ -161,6 +174,144 @@ public class FrontierRepository {
     }
   }
 
+  // Results line up with requests and match calling enqueueUrl for each request in turn: a URL
+  // repeated within the batch reports inserted only for its first occurrence, and the stored row
+  // gets the highest priority and earliest next_fetch_at among the requests. On Postgres this
+  // is one host upsert plus one multi-row URL upsert per ENQUEUE_CHUNK distinct URLs.
+  public List<FrontierEnqueueResult> enqueueUrls(List<FrontierEnqueueRequest> requests) {
+    if (requests == null || requests.isEmpty()) {
+      return List.of();
+    }
+    if (!postgres) {
+      List<FrontierEnqueueResult> results = new ArrayList<>(requests.size());
+      for (FrontierEnqueueRequest request : requests) {
+        results.add(
+            request == null
+                ? new FrontierEnqueueResult(false, 0L, null, null)
+                : enqueueUrl(
+                    request.url(), request.urlKind(), request.priority(), request.nextFetchAt()));
+      }
+      return results;
+    }
+
+    Instant now = Instant.now();
+    Map<String, PendingEnqueue> pendingByCanonical = new LinkedHashMap<>();
+    List<PendingEnqueue> pendingByRequest = new ArrayList<>(requests.size());
+    for (FrontierEnqueueRequest request : requests) {
+      String canonical = request == null ? null : canonicalizer.canonicalize(request.url());
+      String host = canonicalizer.extractHost(canonical);
+      if (canonical == null || host == null) {
+        pendingByRequest.add(null);
+        continue;
+      }
+      PendingEnqueue pending =
+          pendingByCanonical.computeIfAbsent(
+              canonical, key -> new PendingEnqueue(request.url(), key, host));
+      pending.merge(request, now);
+      pendingByRequest.add(pending);
+    }
+    if (!pendingByCanonical.isEmpty()) {
+      Set<String> hosts = new TreeSet<>();
+      pendingByCanonical.values().forEach(pending -> hosts.add(pending.host));
+      upsertHosts(hosts, now);
+      // Sorted so concurrent batches take row locks in the same order.
+      List<PendingEnqueue> rows = new ArrayList<>(pendingByCanonical.values());
+      rows.sort(Comparator.comparing(pending -> pending.canonicalUrl));
+      for (int i = 0; i < rows.size(); i += ENQUEUE_CHUNK) {
+        upsertUrls(rows.subList(i, Math.min(rows.size(), i + ENQUEUE_CHUNK)), now);
+      }
+    }
+
+    List<FrontierEnqueueResult> results = new ArrayList<>(requests.size());
+    for (PendingEnqueue pending : pendingByRequest) {
+      if (pending == null) {
+        results.add(new FrontierEnqueueResult(false, 0L, null, null));
+        continue;
+      }
+      results.add(
+          new FrontierEnqueueResult(
+              pending.inserted && !pending.reported,
+              pending.id,
+              pending.canonicalUrl,
+              pending.host));
+      pending.reported = true;
+    }
+    return results;
+  }
+
+  private void upsertHosts(Set<String> hosts, Instant now) {
+    List<String> pending = new ArrayList<>(hosts);
+    for (int i = 0; i < pending.size(); i += ENQUEUE_CHUNK) {
+      List<String> chunk = pending.subList(i, Math.min(pending.size(), i + ENQUEUE_CHUNK));
+      MapSqlParameterSource params = new MapSqlParameterSource().addValue("now", toTimestamp(now));
+      List<String> values = new ArrayList<>(chunk.size());
+      for (int row = 0; row < chunk.size(); row++) {
+        params.addValue("host" + row, chunk.get(row));
+        values.add("(:host" + row + ", :now, 0, :now)");
+      }
+      jdbc.update(
+          """
+              INSERT INTO crawl_hosts (host, next_allowed_at, backoff_state, updated_at)
+              VALUES %s
+              ON CONFLICT (host)
+              DO UPDATE SET updated_at = EXCLUDED.updated_at
+              """
+              .formatted(String.join(",\n", values)),
+          params);
+    }
+  }
+
+  // Same merge rules as the UPDATE in enqueueUrl; xmax is 0 only on rows this statement inserted.
+  private void upsertUrls(List<PendingEnqueue> rows, Instant now) {
+    MapSqlParameterSource params = new MapSqlParameterSource().addValue("now", toTimestamp(now));
+    List<String> values = new ArrayList<>(rows.size());
+    for (int row = 0; row < rows.size(); row++) {
+      PendingEnqueue pending = rows.get(row);
+      params
+          .addValue("url" + row, pending.url)
+          .addValue("host" + row, pending.host)
+          .addValue("canonicalUrl" + row, pending.canonicalUrl)
+          .addValue("urlKind" + row, pending.urlKind.name())
+          .addValue("priority" + row, pending.priority)
+          .addValue("nextFetchAt" + row, toTimestamp(pending.nextFetchAt));
+      values.add(URL_VALUES_ROW.formatted(row));
+    }
+    Map<String, PendingEnqueue> byCanonical = new LinkedHashMap<>();
+    rows.forEach(pending -> byCanonical.put(pending.canonicalUrl, pending));
+    jdbc.query(
+        """
+            INSERT INTO crawl_urls AS u (
+                url,
+                host,
+                canonical_url,
+                url_kind,
+                priority,
+                next_fetch_at,
+                status,
+                updated_at
+            )
+            VALUES %s
+            ON CONFLICT (canonical_url)
+            DO UPDATE SET
+                priority = CASE WHEN u.priority < EXCLUDED.priority THEN EXCLUDED.priority ELSE u.priority END,
+                next_fetch_at = CASE WHEN u.next_fetch_at > EXCLUDED.next_fetch_at THEN EXCLUDED.next_fetch_at ELSE u.next_fetch_at END,
+                url_kind = CASE WHEN EXCLUDED.url_kind = 'SITEMAP' THEN EXCLUDED.url_kind ELSE u.url_kind END,
+                status = CASE WHEN u.status IN ('FAILED', 'BLOCKED') THEN 'QUEUED' ELSE u.status END,
+                updated_at = EXCLUDED.updated_at
+            RETURNING u.id, u.canonical_url, (u.xmax = 0) AS inserted
+            """
+            .formatted(String.join(",\n", values)),
+        params,
+        (RowCallbackHandler)
+            rs -> {
+              PendingEnqueue pending = byCanonical.get(rs.getString("canonical_url"));
+              if (pending != null) {
+                pending.id = rs.getLong("id");
+                pending.inserted = rs.getBoolean("inserted");
+              }
+            });
+  }
+
   public void ensureHost(String host) {
     String normalized = normalizeDomainToHost(host);
     if (normalized == null) {
@@ -216,11 +367,13 @@ public class FrontierRepository {
                          u.status
                   FROM crawl_urls u
                   JOIN crawl_hosts h ON h.host = u.host
+                  LEFT JOIN host_crawl_state hs ON hs.host = u.host
                   WHERE u.url_kind = :urlKind
                     AND u.status = 'QUEUED'
                     AND u.next_fetch_at <= :now
                     AND (u.locked_until IS NULL OR u.locked_until < :now)
                     AND (h.next_allowed_at IS NULL OR h.next_allowed_at <= :now)
+                    AND (hs.next_allowed_at IS NULL OR hs.next_allowed_at <= :now)
                     AND h.inflight_count < 1
                   ORDER BY u.priority DESC, u.next_fetch_at ASC, u.id ASC
                   LIMIT 1
@@ -285,6 +438,129 @@ public class FrontierRepository {
     return null;
   }
 
+  // Claims up to limit due URLs, at most one per host, in the order claimNextDueUrl would hand
+  // them out one host at a time. On Postgres this is a single statement: hosts held by concurrent
+  // claimers are skipped (FOR UPDATE SKIP LOCKED) instead of being retried.
+  @Transactional
+  public List<FrontierQueueUrl> claimDueUrls(
+      String lockOwner, long lockTtlSeconds, FrontierUrlKind kind, int limit) {
+    int safeLimit = Math.max(1, limit);
+    if (!postgres) {
+      List<FrontierQueueUrl> claimed = new ArrayList<>(safeLimit);
+      while (claimed.size() < safeLimit) {
+        FrontierQueueUrl next = claimNextDueUrl(lockOwner, lockTtlSeconds, kind);
+        if (next == null) {
+          break;
+        }
+        claimed.add(next);
+      }
+      return claimed;
+    }
+
+    String safeOwner =
+        (lockOwner == null || lockOwner.isBlank()) ? "frontier-worker" : lockOwner.trim();
+    Instant now = Instant.now();
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("urlKind", kind.name())
+            .addValue("limit", safeLimit)
+            .addValue("lockOwner", safeOwner)
+            .addValue("lockedUntil", toTimestamp(now.plusSeconds(Math.max(5L, lockTtlSeconds))))
+            .addValue("now", toTimestamp(now));
+    List<FrontierQueueUrl> claimed = new ArrayList<>(safeLimit);
+    List<String> hostsWithoutUrl = new ArrayList<>();
+    jdbc.query(
+        """
+            WITH due AS (
+                SELECT DISTINCT ON (u.host)
+                       u.id,
+                       u.host,
+                       u.priority,
+                       u.next_fetch_at
+                FROM crawl_urls u
+                JOIN crawl_hosts h ON h.host = u.host
+                LEFT JOIN host_crawl_state hs ON hs.host = u.host
+                WHERE u.url_kind = :urlKind
+                  AND u.status = 'QUEUED'
+                  AND u.next_fetch_at <= :now
+                  AND (u.locked_until IS NULL OR u.locked_until < :now)
+                  AND (h.next_allowed_at IS NULL OR h.next_allowed_at <= :now)
+                  AND (hs.next_allowed_at IS NULL OR hs.next_allowed_at <= :now)
+                  AND h.inflight_count < 1
+                ORDER BY u.host, u.priority DESC, u.next_fetch_at ASC, u.id ASC
+            ),
+            picked AS (
+                SELECT h.host, d.id
+                FROM crawl_hosts h
+                JOIN due d ON d.host = h.host
+                WHERE h.inflight_count < 1
+                  AND (h.next_allowed_at IS NULL OR h.next_allowed_at <= :now)
+                ORDER BY d.priority DESC, d.next_fetch_at ASC, d.id ASC
+                LIMIT :limit
+                FOR UPDATE OF h SKIP LOCKED
+            ),
+            claimed_hosts AS (
+                UPDATE crawl_hosts h
+                SET inflight_count = h.inflight_count + 1,
+                    updated_at = :now
+                FROM picked p
+                WHERE h.host = p.host
+                RETURNING h.host
+            ),
+            claimed_urls AS (
+                UPDATE crawl_urls u
+                SET status = 'FETCHING',
+                    locked_until = :lockedUntil,
+                    lock_owner = :lockOwner,
+                    updated_at = :now
+                FROM picked p
+                WHERE u.id = p.id
+                  AND u.status = 'QUEUED'
+                  AND (u.locked_until IS NULL OR u.locked_until < :now)
+                RETURNING u.id,
+                          u.url,
+                          u.host,
+                          u.canonical_url,
+                          u.url_kind,
+                          u.priority,
+                          u.next_fetch_at
+            )
+            SELECT ch.host AS claimed_host,
+                   cu.id,
+                   cu.url,
+                   cu.canonical_url,
+                   cu.url_kind,
+                   cu.priority,
+                   cu.next_fetch_at
+            FROM claimed_hosts ch
+            LEFT JOIN claimed_urls cu ON cu.host = ch.host
+            ORDER BY cu.priority DESC, cu.next_fetch_at ASC, cu.id ASC
+            """,
+        params,
+        (RowCallbackHandler)
+            rs -> {
+              String host = rs.getString("claimed_host");
+              long id = rs.getLong("id");
+              if (rs.wasNull()) {
+                hostsWithoutUrl.add(host);
+                return;
+              }
+              claimed.add(
+                  new FrontierQueueUrl(
+                      id,
+                      rs.getString("url"),
+                      host,
+                      rs.getString("canonical_url"),
+                      FrontierUrlKind.valueOf(rs.getString("url_kind")),
+                      rs.getInt("priority"),
+                      rs.getTimestamp("next_fetch_at").toInstant(),
+                      "QUEUED"));
+            });
+    // The URL changed between the scan and its update; give the host back like claimNextDueUrl.
+    hostsWithoutUrl.forEach(this::releaseHostInflight);
+    return claimed;
+  }
+
   @Transactional
   public void completeFetch(FrontierQueueUrl claimedUrl, FrontierFetchOutcome outcome) {
     if (claimedUrl == null) {
@@ -354,6 +630,31 @@ public class FrontierRepository {
         hostParams);
   }
 
+  // Hands an unfetched claim back: the URL is due again at once and its host slot is freed.
+  @Transactional
+  public void releaseClaim(FrontierQueueUrl claimedUrl) {
+    if (claimedUrl == null) {
+      return;
+    }
+    int released =
+        jdbc.update(
+            """
+                UPDATE crawl_urls
+                SET status = 'QUEUED',
+                    locked_until = NULL,
+                    lock_owner = NULL,
+                    updated_at = :now
+                WHERE id = :id
+                  AND status = 'FETCHING'
+                """,
+            new MapSqlParameterSource()
+                .addValue("id", claimedUrl.id())
+                .addValue("now", toTimestamp(Instant.now())));
+    if (released > 0) {
+      releaseHostInflight(claimedUrl.host());
+    }
+  }
+
   public void releaseHostInflight(String host) {
     if (host == null || host.isBlank()) {
       return;
@@ -377,11 +678,12 @@ public class FrontierRepository {
                 SELECT COUNT(*)
                 FROM crawl_urls u
                 JOIN crawl_hosts h ON h.host = u.host
+                LEFT JOIN host_crawl_state hs ON hs.host = u.host
                 WHERE u.url_kind = :urlKind
                   AND u.status = 'QUEUED'
                   AND u.next_fetch_at <= :now
                   AND (u.locked_until IS NULL OR u.locked_until < :now)
-                  AND h.next_allowed_at > :now
+                  AND (h.next_allowed_at > :now OR hs.next_allowed_at > :now)
                 """,
             new MapSqlParameterSource()
                 .addValue("urlKind", kind.name())
@@ -460,4 +762,35 @@ public class FrontierRepository {
     }
     return host;
   }
+
+  // One distinct canonical URL of an enqueueUrls batch, with its duplicates folded in the way
+  // successive enqueueUrl calls would have updated the row.
+  private static final class PendingEnqueue {
+    private final String url;
+    private final String canonicalUrl;
+    private final String host;
+    private FrontierUrlKind urlKind;
+    private int priority = -1;
+    private Instant nextFetchAt;
+    private long id;
+    private boolean inserted;
+    private boolean reported;
+
+    private PendingEnqueue(String url, String canonicalUrl, String host) {
+      this.url = url;
+      this.canonicalUrl = canonicalUrl;
+      this.host = host;
+    }
+
+    private void merge(FrontierEnqueueRequest request, Instant now) {
+      Instant requestedAt = request.nextFetchAt() == null ? now : request.nextFetchAt();
+      if (urlKind == null || request.urlKind() == FrontierUrlKind.SITEMAP) {
+        urlKind = request.urlKind();
+      }
+      priority = Math.max(priority, Math.max(0, request.priority()));
+      if (nextFetchAt == null || nextFetchAt.isAfter(requestedAt)) {
+        nextFetchAt = requestedAt;
+      }
+    }
+  }
 }
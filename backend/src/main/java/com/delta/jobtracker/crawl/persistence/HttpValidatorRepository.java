@@ -0,0 +1,92 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import com.delta.jobtracker.crawl.model.HttpValidators;
+import com.delta.jobtracker.crawl.util.FrontierUrlCanonicalizer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class HttpValidatorRepository {
+  private final NamedParameterJdbcTemplate jdbc;
+  private final FrontierUrlCanonicalizer canonicalizer;
+
+  public HttpValidatorRepository(
+      NamedParameterJdbcTemplate jdbc, FrontierUrlCanonicalizer canonicalizer) {
+    this.jdbc = jdbc;
+    this.canonicalizer = canonicalizer;
+  }
+
+  public HttpValidators find(String url) {
+    String canonical = canonicalizer.canonicalize(url);
+    if (canonical == null) {
+      return null;
+    }
+    List<HttpValidators> rows =
+        jdbc.query(
+            """
+                SELECT etag, last_modified
+                FROM http_validators
+                WHERE canonical_url = :canonicalUrl
+                """,
+            new MapSqlParameterSource().addValue("canonicalUrl", canonical),
+            (rs, rowNum) -> HttpValidators.of(rs.getString("etag"), rs.getString("last_modified")));
+    return rows.isEmpty() ? null : rows.getFirst();
+  }
+
+  public void save(String url, HttpValidators validators) {
+    String canonical = canonicalizer.canonicalize(url);
+    if (canonical == null) {
+      return;
+    }
+    if (validators == null) {
+      delete(url);
+      return;
+    }
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("canonicalUrl", canonical)
+            .addValue("etag", validators.etag())
+            .addValue("lastModified", validators.lastModified())
+            .addValue("updatedAt", Timestamp.from(Instant.now()));
+    if (update(params) > 0) {
+      return;
+    }
+    try {
+      jdbc.update(
+          """
+              INSERT INTO http_validators (canonical_url, etag, last_modified, updated_at)
+              VALUES (:canonicalUrl, :etag, :lastModified, :updatedAt)
+              """,
+          params);
+    } catch (DataIntegrityViolationException ignored) {
+      update(params);
+    }
+  }
+
+  public void delete(String url) {
+    String canonical = canonicalizer.canonicalize(url);
+    if (canonical == null) {
+      return;
+    }
+    jdbc.update(
+        "DELETE FROM http_validators WHERE canonical_url = :canonicalUrl",
+        new MapSqlParameterSource().addValue("canonicalUrl", canonical));
+  }
+
+  private int update(MapSqlParameterSource params) {
+    return jdbc.update(
+        """
+            UPDATE http_validators
+            SET etag = :etag,
+                last_modified = :lastModified,
+                updated_at = :updatedAt
+            WHERE canonical_url = :canonicalUrl
+            """,
+        params);
+  }
+}
@@ -0,0 +1,111 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import com.delta.jobtracker.crawl.model.RobotsCacheRecord;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class RobotsRulesRepository {
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public RobotsRulesRepository(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public RobotsCacheRecord find(String host) {
+    List<RobotsCacheRecord> rows =
+        jdbc.query(
+            """
+                SELECT host, robots_text, unavailable, etag, last_modified, fetched_at, expires_at
+                FROM robots_rules_cache
+                WHERE host = :host
+                """,
+            new MapSqlParameterSource().addValue("host", host),
+            (rs, rowNum) -> mapRecord(rs));
+    return rows.isEmpty() ? null : rows.getFirst();
+  }
+
+  public List<RobotsCacheRecord> findUnexpired(Instant now, int limit) {
+    return jdbc.query(
+        """
+            SELECT host, robots_text, unavailable, etag, last_modified, fetched_at, expires_at
+            FROM robots_rules_cache
+            WHERE expires_at > :now
+            ORDER BY fetched_at DESC
+            LIMIT :limit
+            """,
+        new MapSqlParameterSource()
+            .addValue("now", Timestamp.from(now))
+            .addValue("limit", Math.max(0, limit)),
+        (rs, rowNum) -> mapRecord(rs));
+  }
+
+  public void save(RobotsCacheRecord record) {
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("host", record.host())
+            .addValue("robotsText", record.robotsText())
+            .addValue("unavailable", record.unavailable())
+            .addValue("etag", record.etag())
+            .addValue("lastModified", record.lastModified())
+            .addValue("fetchedAt", Timestamp.from(record.fetchedAt()))
+            .addValue("expiresAt", Timestamp.from(record.expiresAt()));
+    if (update(params) > 0) {
+      return;
+    }
+    try {
+      jdbc.update(
+          """
+              INSERT INTO robots_rules_cache (
+                  host, robots_text, unavailable, etag, last_modified, fetched_at, expires_at
+              )
+              VALUES (
+                  :host, :robotsText, :unavailable, :etag, :lastModified, :fetchedAt, :expiresAt
+              )
+              """,
+          params);
+    } catch (DataIntegrityViolationException ignored) {
+      // Concurrent insert for the same host; the newer fetch wins.
+      update(params);
+    }
+  }
+
+  public int deleteFetchedBefore(Instant cutoff) {
+    return jdbc.update(
+        "DELETE FROM robots_rules_cache WHERE fetched_at < :cutoff",
+        new MapSqlParameterSource().addValue("cutoff", Timestamp.from(cutoff)));
+  }
+
+  private int update(MapSqlParameterSource params) {
+    return jdbc.update(
+        """
+            UPDATE robots_rules_cache
+            SET robots_text = :robotsText,
+                unavailable = :unavailable,
+                etag = :etag,
+                last_modified = :lastModified,
+                fetched_at = :fetchedAt,
+                expires_at = :expiresAt
+            WHERE host = :host
+            """,
+        params);
+  }
+
+  private RobotsCacheRecord mapRecord(ResultSet rs) throws SQLException {
+    return new RobotsCacheRecord(
+        rs.getString("host"),
+        rs.getString("robots_text"),
+        rs.getBoolean("unavailable"),
+        rs.getString("etag"),
+        rs.getString("last_modified"),
+        rs.getTimestamp("fetched_at").toInstant(),
+        rs.getTimestamp("expires_at").toInstant());
+  }
+}
@@ -0,0 +1,151 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Last-seen <lastmod> values per company, for child sitemaps (as advertised by their index) and
+// for candidate pages (as listed in the sitemap when the page was last fetched). Page rows also
+// remember which sitemap listed the page, and are kept even when it gave no lastmod.
+@Repository
+public class SitemapLastmodRepository {
+  private static final int LOOKUP_CHUNK = 500;
+  private static final String UPDATE_SITEMAP_LASTMOD =
+      """
+          UPDATE sitemap_lastmods
+          SET lastmod = :lastmod,
+              updated_at = :updatedAt
+          WHERE company_id = :companyId
+            AND sitemap_url = :sitemapUrl
+          """;
+  private static final String INSERT_SITEMAP_LASTMOD =
+      """
+          INSERT INTO sitemap_lastmods (company_id, sitemap_url, lastmod, updated_at)
+          VALUES (:companyId, :sitemapUrl, :lastmod, :updatedAt)
+          """;
+  private static final String UPDATE_PAGE_LASTMOD =
+      """
+          UPDATE page_lastmods
+          SET sitemap_url = :sitemapUrl,
+              lastmod = :lastmod,
+              fetched_at = :fetchedAt
+          WHERE company_id = :companyId
+            AND url = :url
+          """;
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public SitemapLastmodRepository(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public Map<String, String> findSitemapLastmods(long companyId) {
+    Map<String, String> lastmods = new LinkedHashMap<>();
+    jdbc.query(
+        """
+            SELECT sitemap_url, lastmod
+            FROM sitemap_lastmods
+            WHERE company_id = :companyId
+            """,
+        new MapSqlParameterSource().addValue("companyId", companyId),
+        (RowCallbackHandler)
+            rs -> lastmods.put(rs.getString("sitemap_url"), rs.getString("lastmod")));
+    return lastmods;
+  }
+
+  public void saveSitemapLastmods(long companyId, Map<String, String> lastmods, Instant seenAt) {
+    List<MapSqlParameterSource> paramsList = new ArrayList<>();
+    lastmods.forEach(
+        (url, lastmod) -> {
+          if (url != null && lastmod != null && !lastmod.isBlank()) {
+            paramsList.add(
+                new MapSqlParameterSource()
+                    .addValue("companyId", companyId)
+                    .addValue("sitemapUrl", url)
+                    .addValue("lastmod", lastmod.trim())
+                    .addValue("updatedAt", Timestamp.from(seenAt)));
+          }
+        });
+    if (paramsList.isEmpty()) {
+      return;
+    }
+    MapSqlParameterSource[] batch = paramsList.toArray(new MapSqlParameterSource[0]);
+    int[] updated = jdbc.batchUpdate(UPDATE_SITEMAP_LASTMOD, batch);
+    List<MapSqlParameterSource> inserts = new ArrayList<>();
+    for (int i = 0; i < batch.length; i++) {
+      if (i >= updated.length || updated[i] == 0) {
+        inserts.add(batch[i]);
+      }
+    }
+    if (inserts.isEmpty()) {
+      return;
+    }
+    try {
+      jdbc.batchUpdate(INSERT_SITEMAP_LASTMOD, inserts.toArray(new MapSqlParameterSource[0]));
+    } catch (DataIntegrityViolationException ignored) {
+      // A concurrent crawl of the same company inserted some of these first; redo them one row
+      // at a time so the rest still land.
+      for (MapSqlParameterSource params : inserts) {
+        try {
+          jdbc.update(INSERT_SITEMAP_LASTMOD, params);
+        } catch (DataIntegrityViolationException duplicate) {
+          jdbc.update(UPDATE_SITEMAP_LASTMOD, params);
+        }
+      }
+    }
+  }
+
+  public Map<String, String> findPageLastmods(long companyId, Collection<String> urls) {
+    Map<String, String> lastmods = new LinkedHashMap<>();
+    List<String> pending = new ArrayList<>(urls);
+    for (int i = 0; i < pending.size(); i += LOOKUP_CHUNK) {
+      List<String> chunk = pending.subList(i, Math.min(pending.size(), i + LOOKUP_CHUNK));
+      jdbc.query(
+          """
+              SELECT url, lastmod
+              FROM page_lastmods
+              WHERE company_id = :companyId
+                AND url IN (:urls)
+              """,
+          new MapSqlParameterSource().addValue("companyId", companyId).addValue("urls", chunk),
+          (RowCallbackHandler) rs -> lastmods.put(rs.getString("url"), rs.getString("lastmod")));
+    }
+    return lastmods;
+  }
+
+  public void savePageLastmod(
+      long companyId, String url, String sitemapUrl, String lastmod, Instant fetchedAt) {
+    if (url == null) {
+      return;
+    }
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("url", url)
+            .addValue("sitemapUrl", sitemapUrl)
+            .addValue("lastmod", lastmod == null || lastmod.isBlank() ? null : lastmod.trim())
+            .addValue("fetchedAt", Timestamp.from(fetchedAt));
+    if (jdbc.update(UPDATE_PAGE_LASTMOD, params) > 0) {
+      return;
+    }
+    try {
+      jdbc.update(
+          """
+              INSERT INTO page_lastmods (company_id, url, sitemap_url, lastmod, fetched_at)
+              VALUES (:companyId, :url, :sitemapUrl, :lastmod, :fetchedAt)
+              """,
+          params);
+    } catch (DataIntegrityViolationException ignored) {
+      jdbc.update(UPDATE_PAGE_LASTMOD, params);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.delta.jobtracker.crawl.robots;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Rules compiled into a trie over their literal prefix (the path up to the first '*' or '$').
+// Plain rules end at a node; wildcard rules hang off the node of their prefix and only run their
+// glob match on the rest of the path when they could beat the current best. A lookup walks the
+// path once and allocates nothing.
+final class RobotsMatcher {
+  private static final Node[] NO_CHILDREN = new Node[0];
+  private static final char[] NO_KEYS = new char[0];
+  private static final Wildcard[] NO_WILDCARDS = new Wildcard[0];
+
+  private final Node root;
+  private final boolean empty;
+
+  private RobotsMatcher(Node root, boolean empty) {
+    this.root = root;
+    this.empty = empty;
+  }
+
+  static RobotsMatcher compile(List<RobotsRules.Rule> rules) {
+    Builder root = new Builder();
+    for (RobotsRules.Rule rule : rules) {
+      String pattern = normalize(rule.path());
+      int literalEnd = literalPrefixLength(pattern);
+      Builder node = root;
+      for (int i = 0; i < literalEnd; i++) {
+        node = node.child(pattern.charAt(i));
+      }
+      int length = rule.path().length();
+      if (literalEnd == pattern.length()) {
+        node.addTerminal(length, rule.allow());
+      } else {
+        node.wildcards.add(new Wildcard(pattern, literalEnd, length, rule.allow()));
+      }
+    }
+    return new RobotsMatcher(root.build(), rules.isEmpty());
+  }
+
+  boolean isAllowed(String subject) {
+    if (empty) {
+      return true;
+    }
+    int bestLength = -1;
+    boolean bestAllow = true;
+    Node node = root;
+    int depth = 0;
+    while (true) {
+      if (node.terminalLength > bestLength
+          || (node.terminalLength == bestLength && node.terminalAllow && !bestAllow)) {
+        bestLength = node.terminalLength;
+        bestAllow = node.terminalAllow;
+      }
+      for (Wildcard wildcard : node.wildcards) {
+        boolean better =
+            wildcard.length > bestLength
+                || (wildcard.length == bestLength && wildcard.allow && !bestAllow);
+        if (better && globMatches(wildcard.pattern, wildcard.offset, subject, depth)) {
+          bestLength = wildcard.length;
+          bestAllow = wildcard.allow;
+        }
+      }
+      if (depth == subject.length()) {
+        break;
+      }
+      node = node.child(subject.charAt(depth));
+      if (node == null) {
+        break;
+      }
+      depth++;
+    }
+    return bestLength < 0 || bestAllow;
+  }
+
+  static boolean matches(String rulePath, String subject) {
+    return globMatches(normalize(rulePath), 0, subject, 0);
+  }
+
+  static String normalize(String rulePath) {
+    return rulePath.startsWith("/") ? rulePath : "/" + rulePath;
+  }
+
+  private static int literalPrefixLength(String pattern) {
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '*' || c == '$') {
+        return i;
+      }
+    }
+    return pattern.length();
+  }
+
+  // Anchored at the start, open at the end unless the pattern says '$'. '*' backtracks one
+  // character at a time from the most recent star, which is enough for robots globs.
+  private static boolean globMatches(String pattern, int p, String subject, int s) {
+    int starP = -1;
+    int starS = -1;
+    while (true) {
+      if (p == pattern.length()) {
+        return true;
+      }
+      char c = pattern.charAt(p);
+      if (c == '*') {
+        starP = p++;
+        starS = s;
+        continue;
+      }
+      if (c == '$') {
+        if (s == subject.length() && onlyAnchorsFrom(pattern, p)) {
+          return true;
+        }
+      } else if (s < subject.length() && subject.charAt(s) == c) {
+        p++;
+        s++;
+        continue;
+      }
+      if (starP < 0 || starS >= subject.length()) {
+        return false;
+      }
+      s = ++starS;
+      p = starP + 1;
+    }
+  }
+
+  private static boolean onlyAnchorsFrom(String pattern, int from) {
+    for (int i = from; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c != '*' && c != '$') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private record Wildcard(String pattern, int offset, int length, boolean allow) {}
+
+  private static final class Node {
+    private final char[] keys;
+    private final Node[] children;
+    private final Wildcard[] wildcards;
+    private final int terminalLength;
+    private final boolean terminalAllow;
+
+    private Node(
+        char[] keys,
+        Node[] children,
+        Wildcard[] wildcards,
+        int terminalLength,
+        boolean terminalAllow) {
+      this.keys = keys;
+      this.children = children;
+      this.wildcards = wildcards;
+      this.terminalLength = terminalLength;
+      this.terminalAllow = terminalAllow;
+    }
+
+    private Node child(char c) {
+      int index = Arrays.binarySearch(keys, c);
+      return index < 0 ? null : children[index];
+    }
+  }
+
+  private static final class Builder {
+    private final List<Character> keys = new ArrayList<>();
+    private final List<Builder> children = new ArrayList<>();
+    private final List<Wildcard> wildcards = new ArrayList<>();
+    private int terminalLength = -1;
+    private boolean terminalAllow;
+
+    private Builder child(char c) {
+      int index = keys.indexOf(c);
+      if (index >= 0) {
+        return children.get(index);
+      }
+      Builder child = new Builder();
+      keys.add(c);
+      children.add(child);
+      return child;
+    }
+
+    // Rules that normalize to the same path always match together; keep the one that would win.
+    private void addTerminal(int length, boolean allow) {
+      if (length > terminalLength || (length == terminalLength && allow && !terminalAllow)) {
+        terminalLength = length;
+        terminalAllow = allow;
+      }
+    }
+
+    private Node build() {
+      Integer[] order = new Integer[keys.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (a, b) -> Character.compare(keys.get(a), keys.get(b)));
+      char[] sortedKeys = order.length == 0 ? NO_KEYS : new char[order.length];
+      Node[] sortedChildren = order.length == 0 ? NO_CHILDREN : new Node[order.length];
+      for (int i = 0; i < order.length; i++) {
+        sortedKeys[i] = keys.get(order[i]);
+        sortedChildren[i] = children.get(order[i]).build();
+      }
+      return new Node(
+          sortedKeys,
+          sortedChildren,
+          wildcards.isEmpty() ? NO_WILDCARDS : wildcards.toArray(new Wildcard[0]),
+          terminalLength,
+          terminalAllow);
+    }
+  }
+}
@@ -3,15 +3,16 @@ package com.delta.jobtracker.crawl.robots;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.regex.Pattern;
 
 public class RobotsRules {
   private final List<Rule> rules;
   private final List<String> sitemapUrls;
+  private final RobotsMatcher matcher;
 
   public RobotsRules(List<Rule> rules, List<String> sitemapUrls) {
     this.rules = rules;
     this.sitemapUrls = sitemapUrls;
+    this.matcher = RobotsMatcher.compile(rules);
   }
 
   public static RobotsRules allowAll() {
@@ -22,34 +23,29 @@ public class RobotsRules {
     return new RobotsRules(List.of(new Rule("/", false)), List.of());
   }
 
+  public List<Rule> getRules() {
+    return rules;
+  }
+
   public List<String> getSitemapUrls() {
     return sitemapUrls;
   }
 
   public boolean isAllowed(String pathAndQuery) {
-    if (rules.isEmpty()) {
-      return true;
-    }
-
-    Rule bestMatch = null;
-    int bestMatchLength = -1;
     String subject = pathAndQuery == null || pathAndQuery.isBlank() ? "/" : pathAndQuery;
+    return matcher.isAllowed(subject);
+  }
+
+  // A normalized robots.txt that parses back to the same rules and sitemaps.
+  public String toRobotsText() {
+    StringBuilder text = new StringBuilder("User-agent: *\n");
     for (Rule rule : rules) {
-      if (!rule.matches(subject)) {
-        continue;
-      }
-      int length = rule.path().length();
-      if (length > bestMatchLength) {
-        bestMatch = rule;
-        bestMatchLength = length;
-      } else if (length == bestMatchLength
-          && bestMatch != null
-          && rule.allow()
-          && !bestMatch.allow()) {
-        bestMatch = rule;
-      }
+      text.append(rule.allow() ? "Allow: " : "Disallow: ").append(rule.path()).append('\n');
+    }
+    for (String sitemapUrl : sitemapUrls) {
+      text.append("Sitemap: ").append(sitemapUrl).append('\n');
     }
-    return bestMatch == null || bestMatch.allow();
+    return text.toString();
   }
 
   public static RobotsRules parse(String robotsText) {
@@ -118,22 +114,7 @@ public class RobotsRules {
 
   public record Rule(String path, boolean allow) {
     public boolean matches(String testPath) {
-      String normalizedPath = path.startsWith("/") ? path : "/" + path;
-      if (!normalizedPath.contains("*") && !normalizedPath.contains("$")) {
-        return testPath.startsWith(normalizedPath);
-      }
-      StringBuilder regex = new StringBuilder("^");
-      for (int i = 0; i < normalizedPath.length(); i++) {
-        char c = normalizedPath.charAt(i);
-        if (c == '*') {
-          regex.append(".*");
-        } else if (c == '$') {
-          regex.append("$");
-        } else {
-          regex.append(Pattern.quote(Character.toString(c)));
-        }
-      }
-      return Pattern.compile(regex.toString()).matcher(testPath).find();
+      return RobotsMatcher.matches(path, testPath);
     }
   }
 }
@@ -0,0 +1,77 @@
+package com.delta.jobtracker.crawl.robots;
+
+import com.delta.jobtracker.crawl.model.HttpValidators;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory robots state bounded by host count. Reads only stamp the entry's access time; when a
+// put pushes the cache over its bound, the least recently used tenth is evicted in one pass.
+final class RobotsRulesCache {
+  private final int maxEntries;
+  private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+  private final Object evictionLock = new Object();
+
+  RobotsRulesCache(int maxEntries) {
+    this.maxEntries = Math.max(1, maxEntries);
+  }
+
+  CachedRobots get(String host) {
+    Slot slot = slots.get(host);
+    if (slot == null) {
+      return null;
+    }
+    slot.lastAccessNanos = System.nanoTime();
+    return slot.value;
+  }
+
+  void put(String host, CachedRobots value) {
+    slots.put(host, new Slot(value, System.nanoTime()));
+    if (slots.size() > maxEntries) {
+      evict();
+    }
+  }
+
+  int size() {
+    return slots.size();
+  }
+
+  private void evict() {
+    synchronized (evictionLock) {
+      int target = maxEntries - maxEntries / 10;
+      if (slots.size() <= maxEntries) {
+        return;
+      }
+      List<Map.Entry<String, Slot>> byAge = new ArrayList<>(slots.entrySet());
+      byAge.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos));
+      for (int i = 0; i < byAge.size() && slots.size() > target; i++) {
+        Map.Entry<String, Slot> entry = byAge.get(i);
+        slots.remove(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  record CachedRobots(
+      RobotsRules rules,
+      HttpValidators validators,
+      boolean unavailable,
+      Instant fetchedAt,
+      Instant expiresAt) {
+    boolean isExpired(Instant now) {
+      return !expiresAt.isAfter(now);
+    }
+  }
+
+  private static final class Slot {
+    private final CachedRobots value;
+    private volatile long lastAccessNanos;
+
+    private Slot(CachedRobots value, long lastAccessNanos) {
+      this.value = value;
+      this.lastAccessNanos = lastAccessNanos;
+    }
+  }
+}
@@ -1,42 +1,89 @@
 package com.delta.jobtracker.crawl.robots;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.CanaryAbortException;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudget;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudgetContext;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
+import com.delta.jobtracker.crawl.model.RobotsCacheRecord;
+import com.delta.jobtracker.crawl.persistence.RobotsRulesRepository;
+import com.delta.jobtracker.crawl.robots.RobotsRulesCache.CachedRobots;
+import jakarta.annotation.PostConstruct;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
 public class RobotsTxtService {
   private static final Logger log = LoggerFactory.getLogger(RobotsTxtService.class);
-  private static final Duration ROBOTS_UNAVAILABLE_TTL = Duration.ofHours(6);
-  private static final int MAX_UNAVAILABLE_HOSTS = 2048;
+  private static final String ROBOTS_ACCEPT = "text/plain,text/*;q=0.9,*/*;q=0.1";
 
   private final CrawlerProperties properties;
   private final PoliteHttpClient httpClient;
-  private final Map<String, RobotsRules> cache = new ConcurrentHashMap<>();
-  private final Map<String, Instant> robotsUnavailableAtByHost = new ConcurrentHashMap<>();
+  private final RobotsRulesRepository repository;
+  private final RobotsRulesCache cache;
+  private final Executor loadExecutor;
+  private final Map<LoadKey, CompletableFuture<CachedRobots>> loading = new ConcurrentHashMap<>();
 
-  public RobotsTxtService(CrawlerProperties properties, PoliteHttpClient httpClient) {
+  public RobotsTxtService(
+      CrawlerProperties properties,
+      PoliteHttpClient httpClient,
+      RobotsRulesRepository repository,
+      @Qualifier("robotsExecutor") Executor loadExecutor) {
     this.properties = properties;
     this.httpClient = httpClient;
+    this.repository = repository;
+    this.loadExecutor = loadExecutor;
+    this.cache = new RobotsRulesCache(properties.getRobots().getCacheMaxEntries());
+  }
+
+  // Warm the cache with what this or another node fetched recently, so a restart does not
+  // refetch robots.txt for every host.
+  @PostConstruct
+  public void warmFromStore() {
+    if (!properties.getRobots().isPersistentCache()) {
+      return;
+    }
+    try {
+      Instant now = Instant.now();
+      repository.deleteFetchedBefore(
+          now.minus(Duration.ofDays(properties.getRobots().getCacheRetentionDays())));
+      int loaded = 0;
+      for (RobotsCacheRecord record :
+          repository.findUnexpired(now, properties.getRobots().getCacheMaxEntries())) {
+        cache.put(record.host(), fromRecord(record));
+        loaded++;
+      }
+      log.info("Warmed robots cache with {} hosts", loaded);
+    } catch (Exception e) {
+      log.warn("Failed to warm robots cache; starting empty", e);
+    }
   }
 
   public RobotsRules getRulesForHost(String host) {
     if (host == null || host.isBlank()) {
       return RobotsRules.allowAll();
     }
-    String key = host.toLowerCase(Locale.ROOT);
-    return cache.computeIfAbsent(key, this::loadRulesForHost);
+    return cachedForHost(host.toLowerCase(Locale.ROOT)).rules();
   }
 
   public boolean isAllowed(String url) {
@@ -44,12 +91,7 @@ public class RobotsTxtService {
     if (uri == null || uri.getHost() == null) {
       return true;
     }
-    RobotsRules rules = getRulesForHost(uri.getHost());
-    String path = uri.getRawPath() == null || uri.getRawPath().isBlank() ? "/" : uri.getRawPath();
-    if (uri.getRawQuery() != null && !uri.getRawQuery().isBlank()) {
-      path = path + "?" + uri.getRawQuery();
-    }
-    return rules.isAllowed(path);
+    return getRulesForHost(uri.getHost()).isAllowed(pathOf(uri));
   }
 
   public boolean isAllowedForAtsAdapter(String url) {
@@ -74,16 +116,197 @@ public class RobotsTxtService {
     if (uri == null || uri.getHost() == null) {
       return false;
     }
-    String host = uri.getHost().toLowerCase(Locale.ROOT);
-    getRulesForHost(host);
-    return isRobotsUnavailableForHost(host);
+    return cachedForHost(uri.getHost().toLowerCase(Locale.ROOT)).unavailable();
+  }
+
+  public CompletableFuture<RobotsRules> getRulesForHostAsync(String host) {
+    if (host == null || host.isBlank()) {
+      return CompletableFuture.completedFuture(RobotsRules.allowAll());
+    }
+    return loadAsync(host.toLowerCase(Locale.ROOT)).thenApply(CachedRobots::rules);
+  }
+
+  // Waits at most maxWait for a load in progress; after that the caller gets the provisional
+  // rules instead. A zero wait never blocks.
+  public RobotsRules getRulesForHost(String host, Duration maxWait) {
+    if (host == null || host.isBlank()) {
+      return RobotsRules.allowAll();
+    }
+    return cachedForHost(host.toLowerCase(Locale.ROOT), maxWait).rules();
+  }
+
+  // The last rules we had for the host, or the fail-open decision if we have none. Starts a
+  // load in the background when they are missing or stale.
+  public RobotsRules provisionalRulesForHost(String host) {
+    return getRulesForHost(host, Duration.ZERO);
   }
 
-  private RobotsRules loadRulesForHost(String host) {
-    String robotsUrl = "https://" + host + "/robots.txt";
-    HttpFetchResult fetch = httpClient.get(robotsUrl, "text/plain,text/*;q=0.9,*/*;q=0.1");
+  public boolean isAllowed(String url, Duration maxWait) {
+    URI uri = toUri(url);
+    if (uri == null || uri.getHost() == null) {
+      return true;
+    }
+    return getRulesForHost(uri.getHost(), maxWait).isAllowed(pathOf(uri));
+  }
+
+  private CachedRobots cachedForHost(String host) {
+    long timeoutMs = properties.getRobots().getLoadTimeoutMs();
+    return cachedForHost(host, timeoutMs == 0 ? null : Duration.ofMillis(timeoutMs));
+  }
+
+  // A null maxWait waits for the load however long it takes.
+  private CachedRobots cachedForHost(String host, Duration maxWait) {
+    CachedRobots cached = cache.get(host);
+    if (cached != null && !cached.isExpired(Instant.now())) {
+      return cached;
+    }
+    CompletableFuture<CachedRobots> load = loadAsync(host);
+    try {
+      if (maxWait == null) {
+        return load.get();
+      }
+      if (maxWait.isZero() || maxWait.isNegative()) {
+        return load.isDone() ? load.get() : provisional(cached);
+      }
+      return load.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      log.debug("robots load still running host={}; using provisional rules", host);
+      return provisional(cached);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return provisional(cached);
+    } catch (ExecutionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof CanaryAbortException abort) {
+        throw abort;
+      }
+      return provisional(cached);
+    }
+  }
+
+  private CachedRobots provisional(CachedRobots stale) {
+    return stale != null ? stale : unavailable(Instant.now());
+  }
+
+  // One load per host and budget at a time; later callers share the leader's future. Callers
+  // under different budgets load separately, as coalesced GETs do, so one run's abort never
+  // reaches another run's callers. The map is only touched with putIfAbsent/remove, never held
+  // across the store read or the fetch.
+  private CompletableFuture<CachedRobots> loadAsync(String host) {
+    CachedRobots cached = cache.get(host);
+    if (cached != null && !cached.isExpired(Instant.now())) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    CanaryHttpBudget budget = CanaryHttpBudgetContext.current();
+    LoadKey key = new LoadKey(host, budget);
+    CompletableFuture<CachedRobots> leader = new CompletableFuture<>();
+    CompletableFuture<CachedRobots> shared = loading.putIfAbsent(key, leader);
+    if (shared != null) {
+      return shared;
+    }
+    // Re-check: a load may have finished between the cache read and claiming leadership.
+    cached = cache.get(host);
+    if (cached != null && !cached.isExpired(Instant.now())) {
+      loading.remove(key, leader);
+      leader.complete(cached);
+      return leader;
+    }
+    CachedRobots previous = cached;
+    TrafficClass trafficClass = TrafficClassContext.current();
+    CompletableFuture.supplyAsync(
+            () -> {
+              // The store read and the fetch start on the loader thread, under the caller's
+              // budget and traffic class.
+              try (CanaryHttpBudgetContext.Scope ignored = CanaryHttpBudgetContext.activate(budget);
+                  TrafficClassContext.Scope ignoredClass =
+                      TrafficClassContext.activate(trafficClass)) {
+                return load(host, previous);
+              }
+            },
+            loadExecutor)
+        .thenCompose(Function.identity())
+        .whenComplete(
+            (loaded, error) -> {
+              loading.remove(key, leader);
+              if (error != null) {
+                leader.completeExceptionally(unwrap(error));
+              } else {
+                leader.complete(loaded);
+              }
+            });
+    return leader;
+  }
+
+  private CompletableFuture<CachedRobots> load(String host, CachedRobots cached) {
+    CachedRobots stored = loadFromStore(host);
+    if (stored != null && !stored.isExpired(Instant.now())) {
+      // Another node (or an earlier run) already fetched it.
+      cache.put(host, stored);
+      return CompletableFuture.completedFuture(stored);
+    }
+    CachedRobots previous = cached != null ? cached : stored;
+    return refresh(host, previous)
+        .thenApplyAsync(
+            refreshed -> {
+              if (refreshed == null) {
+                // Never reached the host: serve what we had, and try again on the next call.
+                return provisional(previous);
+              }
+              cache.put(host, refreshed);
+              saveToStore(host, refreshed);
+              return refreshed;
+            },
+            loadExecutor);
+  }
+
+  // Null when the client refused the fetch itself (host cooldown, or shed for lack of time under
+  // the caller's budget); that says nothing about the host, so it is neither cached nor stored.
+  private CompletableFuture<CachedRobots> refresh(String host, CachedRobots previous) {
+    if (previous == null || previous.unavailable() || previous.validators() == null) {
+      return httpClient
+          .getAsync(robotsUrl(host), ROBOTS_ACCEPT)
+          .handle(
+              (fetch, error) ->
+                  error == null && PoliteHttpClient.isLocalRejection(fetch)
+                      ? null
+                      : fromFetch(host, fetch, error));
+    }
+    return httpClient
+        .getConditionalAsync(robotsUrl(host), ROBOTS_ACCEPT, previous.validators())
+        .handle(
+            (fetch, error) -> {
+              if (error == null && PoliteHttpClient.isLocalRejection(fetch)) {
+                return null;
+              }
+              if (error == null
+                  && (fetch.isNotModified()
+                      || fetch.errorCode() != null
+                      || fetch.statusCode() >= 500)) {
+                // Unchanged, or a transient failure: keep serving the rules we already have.
+                Instant now = Instant.now();
+                return new CachedRobots(
+                    previous.rules(), previous.validators(), false, now, now.plus(successTtl()));
+              }
+              return fromFetch(host, fetch, error);
+            });
+  }
+
+  private CachedRobots fromFetch(String host, HttpFetchResult fetch, Throwable error) {
+    if (error == null) {
+      return fromFetch(host, fetch);
+    }
+    Throwable cause = unwrap(error);
+    if (cause instanceof CanaryAbortException abort) {
+      throw abort;
+    }
+    log.warn(
+        "robots fetch failed host={} robots_unavailable=true error={}", host, cause.toString());
+    return unavailable(Instant.now());
+  }
+
+  private CachedRobots fromFetch(String host, HttpFetchResult fetch) {
+    Instant now = Instant.now();
     if (!fetch.isSuccessful()) {
-      markRobotsUnavailable(host);
       boolean failOpen = properties.getRobots().isFailOpen();
       boolean atsBypass = properties.getRobots().isAllowAtsAdapterWhenUnavailable();
       String decision = failOpen ? "allow_all" : "disallow_all";
@@ -95,64 +318,93 @@ public class RobotsTxtService {
           fetch.errorMessage(),
           decision,
           atsBypass);
-      return failOpen ? RobotsRules.allowAll() : RobotsRules.disallowAll();
+      return unavailable(now);
     }
-    clearRobotsUnavailable(host);
     RobotsRules rules = RobotsRules.parse(fetch.body());
     log.debug(
         "Loaded robots for host {} with {} sitemap hints", host, rules.getSitemapUrls().size());
-    return rules;
+    return new CachedRobots(rules, fetch.validators(), false, now, now.plus(successTtl()));
   }
 
-  private void markRobotsUnavailable(String host) {
-    Instant now = Instant.now();
-    robotsUnavailableAtByHost.put(host, now);
-    evictUnavailableHosts(now);
+  private CachedRobots unavailable(Instant fetchedAt) {
+    Duration ttl = Duration.ofHours(properties.getRobots().getUnavailableTtlHours());
+    return new CachedRobots(unavailableRules(), null, true, fetchedAt, fetchedAt.plus(ttl));
   }
 
-  private void clearRobotsUnavailable(String host) {
-    robotsUnavailableAtByHost.remove(host);
+  private RobotsRules unavailableRules() {
+    return properties.getRobots().isFailOpen() ? RobotsRules.allowAll() : RobotsRules.disallowAll();
   }
 
-  private boolean isRobotsUnavailableForHost(String host) {
-    Instant markedAt = robotsUnavailableAtByHost.get(host);
-    if (markedAt == null) {
-      return false;
+  private Duration successTtl() {
+    return Duration.ofHours(properties.getRobots().getCacheTtlHours());
+  }
+
+  private CachedRobots loadFromStore(String host) {
+    if (!properties.getRobots().isPersistentCache()) {
+      return null;
     }
-    if (markedAt.plus(ROBOTS_UNAVAILABLE_TTL).isBefore(Instant.now())) {
-      robotsUnavailableAtByHost.remove(host, markedAt);
-      cache.remove(host);
-      return false;
+    try {
+      RobotsCacheRecord record = repository.find(host);
+      return record == null ? null : fromRecord(record);
+    } catch (Exception e) {
+      log.warn("Failed to read stored robots rules host={}", host, e);
+      return null;
     }
-    return true;
   }
 
-  private void evictUnavailableHosts(Instant now) {
-    Instant cutoff = now.minus(ROBOTS_UNAVAILABLE_TTL);
-    Iterator<Map.Entry<String, Instant>> iterator = robotsUnavailableAtByHost.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<String, Instant> entry = iterator.next();
-      if (entry.getValue().isBefore(cutoff)) {
-        iterator.remove();
-        cache.remove(entry.getKey());
-      }
+  private void saveToStore(String host, CachedRobots cached) {
+    if (!properties.getRobots().isPersistentCache()) {
+      return;
+    }
+    HttpValidators validators = cached.validators();
+    try {
+      repository.save(
+          new RobotsCacheRecord(
+              host,
+              cached.unavailable() ? null : cached.rules().toRobotsText(),
+              cached.unavailable(),
+              validators == null ? null : validators.etag(),
+              validators == null ? null : validators.lastModified(),
+              cached.fetchedAt(),
+              cached.expiresAt()));
+    } catch (Exception e) {
+      log.warn("Failed to store robots rules host={}", host, e);
     }
+  }
 
-    while (robotsUnavailableAtByHost.size() > MAX_UNAVAILABLE_HOSTS) {
-      String oldestHost = null;
-      Instant oldestSeen = null;
-      for (Map.Entry<String, Instant> entry : robotsUnavailableAtByHost.entrySet()) {
-        if (oldestSeen == null || entry.getValue().isBefore(oldestSeen)) {
-          oldestSeen = entry.getValue();
-          oldestHost = entry.getKey();
-        }
-      }
-      if (oldestHost == null) {
-        break;
-      }
-      robotsUnavailableAtByHost.remove(oldestHost);
-      cache.remove(oldestHost);
+  // Unavailable hosts are stored without rules; the fail-open decision is this node's own.
+  private CachedRobots fromRecord(RobotsCacheRecord record) {
+    if (record.unavailable()) {
+      return new CachedRobots(
+          unavailableRules(), null, true, record.fetchedAt(), record.expiresAt());
+    }
+    return new CachedRobots(
+        RobotsRules.parse(record.robotsText()),
+        HttpValidators.of(record.etag(), record.lastModified()),
+        false,
+        record.fetchedAt(),
+        record.expiresAt());
+  }
+
+  private String robotsUrl(String host) {
+    return "https://" + host + "/robots.txt";
+  }
+
+  private static String pathOf(URI uri) {
+    String path = uri.getRawPath() == null || uri.getRawPath().isBlank() ? "/" : uri.getRawPath();
+    if (uri.getRawQuery() != null && !uri.getRawQuery().isBlank()) {
+      path = path + "?" + uri.getRawQuery();
     }
+    return path;
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    Throwable current = error;
+    while ((current instanceof CompletionException || current instanceof ExecutionException)
+        && current.getCause() != null) {
+      current = current.getCause();
+    }
+    return current;
   }
 
   private URI toUri(String url) {
@@ -162,4 +414,6 @@ public class RobotsTxtService {
       return null;
     }
   }
+
+  private record LoadKey(String host, CanaryHttpBudget budget) {}
 }
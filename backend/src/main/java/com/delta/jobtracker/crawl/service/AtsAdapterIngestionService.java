@@ -8,8 +8,10 @@ import com.delta.jobtracker.crawl.model.AtsType;
 import com.delta.jobtracker.crawl.model.CompanyTarget;
 import com.delta.jobtracker.crawl.model.DiscoveredUrlType;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
 import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.delta.jobtracker.crawl.util.HashUtils;
 import com.delta.jobtracker.crawl.util.JobUrlUtils;
@@ -45,6 +47,7 @@ public class AtsAdapterIngestionService {
   private static final int WORKDAY_URL_VALIDATION_LIMIT = 5;
   private static final String HTML_ACCEPT =
       "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+  private static final String JSON_ACCEPT = "application/json,*/*;q=0.8";
   private static final String STAGE_ATS_ADAPTER = "ATS_ADAPTER";
   private static final String STOP_REASON_HIT_MAX_JOBS = "HIT_MAX_JOBS";
   private static final String STOP_REASON_TIME_BUDGET = "TIME_BUDGET";
@@ -54,6 +57,7 @@ public class AtsAdapterIngestionService {
   private final PoliteHttpClient httpClient;
   private final RobotsTxtService robotsTxtService;
   private final CrawlJdbcRepository repository;
+  private final HttpValidatorRepository validatorRepository;
   private final ObjectMapper objectMapper;
   private final CrawlerProperties properties;
 
@@ -61,11 +65,13 @@ public class AtsAdapterIngestionService {
       PoliteHttpClient httpClient,
       RobotsTxtService robotsTxtService,
       CrawlJdbcRepository repository,
+      HttpValidatorRepository validatorRepository,
       ObjectMapper objectMapper,
       CrawlerProperties properties) {
     this.httpClient = httpClient;
     this.robotsTxtService = robotsTxtService;
     this.repository = repository;
+    this.validatorRepository = validatorRepository;
     this.objectMapper = objectMapper;
     this.properties = properties;
   }
@@ -204,9 +210,35 @@ public class AtsAdapterIngestionService {
       return new GreenhouseAttempt(0, 0, false, false, false);
     }
 
-    HttpFetchResult fetch = httpClient.get(normalizedFeedUrl, "application/json,*/*;q=0.8");
+    HttpFetchResult fetch = fetchFeed(normalizedFeedUrl);
+    if (fetch.isNotModified()) {
+      int carried = carryForwardPostings(crawlRunId, company, normalizedFeedUrl);
+      if (carried > 0) {
+        recordAtsAttempt(
+            crawlRunId,
+            company.companyId(),
+            AtsType.GREENHOUSE,
+            normalizedFeedUrl,
+            "ats_fetch_success",
+            fetch,
+            null);
+        recordAtsFinish(
+            crawlRunId,
+            company.companyId(),
+            AtsType.GREENHOUSE,
+            normalizedFeedUrl,
+            startedAt,
+            carried,
+            false,
+            null,
+            STOP_REASON_COMPLETE,
+            null);
+        return new GreenhouseAttempt(carried, 1, true, false, false);
+      }
+      fetch = httpClient.get(normalizedFeedUrl, JSON_ACCEPT);
+    }
     if (!fetch.isSuccessful()
-        || fetch.body() == null
+        || !fetch.hasBody()
         || fetch.statusCode() < 200
         || fetch.statusCode() >= 300) {
       String status = adapterFetchStatus("greenhouse", fetch);
@@ -235,7 +267,7 @@ public class AtsAdapterIngestionService {
     }
 
     try {
-      JsonNode root = objectMapper.readTree(fetch.body());
+      JsonNode root = objectMapper.readTree(fetch.bodyStream());
       JsonNode jobs = root.path("jobs");
       if (!jobs.isArray()) {
         String status = "greenhouse_invalid_payload";
@@ -282,6 +314,7 @@ public class AtsAdapterIngestionService {
         repository.upsertJobPostingsBatch(company.companyId(), crawlRunId, postings, Instant.now());
         extracted = postings.size();
       }
+      rememberValidators(normalizedFeedUrl, fetch, extracted);
       recordAtsAttempt(
           crawlRunId,
           company.companyId(),
@@ -387,9 +420,35 @@ public class AtsAdapterIngestionService {
       return new AdapterFetchResult(0, 0, errors, false);
     }
 
-    HttpFetchResult fetch = httpClient.get(feedUrl, "application/json,*/*;q=0.8");
+    HttpFetchResult fetch = fetchFeed(feedUrl);
+    if (fetch.isNotModified()) {
+      int carried = carryForwardPostings(crawlRunId, company, feedUrl);
+      if (carried > 0) {
+        recordAtsAttempt(
+            crawlRunId,
+            company.companyId(),
+            AtsType.LEVER,
+            feedUrl,
+            "ats_fetch_success",
+            fetch,
+            null);
+        recordAtsFinish(
+            crawlRunId,
+            company.companyId(),
+            AtsType.LEVER,
+            feedUrl,
+            startedAt,
+            carried,
+            false,
+            null,
+            STOP_REASON_COMPLETE,
+            null);
+        return new AdapterFetchResult(carried, 1, errors, true);
+      }
+      fetch = httpClient.get(feedUrl, JSON_ACCEPT);
+    }
     if (!fetch.isSuccessful()
-        || fetch.body() == null
+        || !fetch.hasBody()
         || fetch.statusCode() < 200
         || fetch.statusCode() >= 300) {
       String status = adapterFetchStatus("lever", fetch);
@@ -412,7 +471,7 @@ public class AtsAdapterIngestionService {
     }
 
     try {
-      JsonNode root = objectMapper.readTree(fetch.body());
+      JsonNode root = objectMapper.readTree(fetch.bodyStream());
       if (!root.isArray()) {
         String status = "lever_invalid_payload";
         recordAtsAttempt(
@@ -458,6 +517,7 @@ public class AtsAdapterIngestionService {
         repository.upsertJobPostingsBatch(company.companyId(), crawlRunId, postings, Instant.now());
         extracted = postings.size();
       }
+      rememberValidators(feedUrl, fetch, extracted);
       recordAtsAttempt(
           crawlRunId,
           company.companyId(),
@@ -586,7 +646,7 @@ public class AtsAdapterIngestionService {
       }
       HttpFetchResult fetch = fetchWorkdayPage(cxsUrl, offset);
       if (!fetch.isSuccessful()
-          || fetch.body() == null
+          || !fetch.hasBody()
           || fetch.statusCode() < 200
           || fetch.statusCode() >= 300) {
         String status = adapterFetchStatus("workday", fetch);
@@ -598,7 +658,7 @@ public class AtsAdapterIngestionService {
       }
 
       try {
-        JsonNode root = objectMapper.readTree(fetch.body());
+        JsonNode root = objectMapper.readTree(fetch.bodyStream());
         Integer pageTotal = extractWorkdayTotalJobs(root);
         if (pageTotal != null && pageTotal > 0) {
           totalJobsAvailable =
@@ -1542,6 +1602,30 @@ public class AtsAdapterIngestionService {
     source.forEach((key, value) -> target.put(key, target.getOrDefault(key, 0) + value));
   }
 
+  private HttpFetchResult fetchFeed(String feedUrl) {
+    HttpValidators validators = validatorRepository.find(feedUrl);
+    if (validators == null) {
+      return httpClient.get(feedUrl, JSON_ACCEPT);
+    }
+    return httpClient.getConditional(feedUrl, JSON_ACCEPT, validators);
+  }
+
+  private int carryForwardPostings(long crawlRunId, CompanyTarget company, String feedUrl) {
+    // An unchanged feed yields the postings stored from it last time; re-stamp them for this run
+    // so closeout does not deactivate them. With nothing to carry, fall back to a full fetch.
+    int carried =
+        repository.carryForwardActivePostings(
+            company.companyId(), feedUrl, crawlRunId, Instant.now());
+    if (carried <= 0) {
+      validatorRepository.delete(feedUrl);
+    }
+    return carried;
+  }
+
+  private void rememberValidators(String feedUrl, HttpFetchResult fetch, int extracted) {
+    validatorRepository.save(feedUrl, extracted > 0 ? fetch.validators() : null);
+  }
+
   private String adapterFetchStatus(String prefix, HttpFetchResult fetch) {
     if (fetch == null) {
       return prefix + "_unknown_error";
@@ -31,16 +31,19 @@ public class CareersDiscoveryRunService {
   private final CareersDiscoveryService discoveryService;
   private final ExecutorService discoveryExecutor;
   private final CrawlerProperties properties;
+  private final HostCrawlStateService hostCrawlStateService;
 
   public CareersDiscoveryRunService(
       CrawlJdbcRepository repository,
       CareersDiscoveryService discoveryService,
       @Qualifier("discoveryExecutor") ExecutorService discoveryExecutor,
-      CrawlerProperties properties) {
+      CrawlerProperties properties,
+      HostCrawlStateService hostCrawlStateService) {
     this.repository = repository;
     this.discoveryService = discoveryService;
     this.discoveryExecutor = discoveryExecutor;
     this.properties = properties;
+    this.hostCrawlStateService = hostCrawlStateService;
   }
 
   public CareersDiscoveryRunResponse startAsync(
@@ -508,13 +511,7 @@ public class CareersDiscoveryRunService {
     if (company == null || company.domain() == null || company.domain().isBlank()) {
       return false;
     }
-    try {
-      com.delta.jobtracker.crawl.model.HostCrawlState hostState =
-          repository.findHostCrawlState(company.domain().trim().toLowerCase());
-      return hostState != null && hostState.consecutiveFailures() >= Math.max(1, cutoff);
-    } catch (Exception ignored) {
-      return false;
-    }
+    return hostCrawlStateService.hasReachedFailureCutoff(company.domain().trim(), cutoff);
   }
 
   private record FailureMapping(
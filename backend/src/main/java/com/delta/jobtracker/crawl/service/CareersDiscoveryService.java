@@ -8,6 +8,8 @@ import com.delta.jobtracker.crawl.ats.AtsFingerprintFromSitemapsDetector;
 import com.delta.jobtracker.crawl.http.CanaryHttpBudget;
 import com.delta.jobtracker.crawl.http.CanaryHttpBudgetContext;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
 import com.delta.jobtracker.crawl.model.AtsDetectionRecord;
 import com.delta.jobtracker.crawl.model.AtsDiscoveryResult;
 import com.delta.jobtracker.crawl.model.AtsType;
@@ -171,6 +173,17 @@ public class CareersDiscoveryService {
       Instant deadline,
       boolean vendorProbeOnly,
       DiscoveryMetrics metrics) {
+    try (TrafficClassContext.Scope ignored =
+        TrafficClassContext.activate(TrafficClass.DISCOVERY)) {
+      return discoverEach(companies, deadline, vendorProbeOnly, metrics);
+    }
+  }
+
+  private CareersDiscoveryResult discoverEach(
+      List<CompanyTarget> companies,
+      Instant deadline,
+      boolean vendorProbeOnly,
+      DiscoveryMetrics metrics) {
     Map<String, Integer> discoveredCountByType = new LinkedHashMap<>();
     int failedCount = 0;
     int cooldownSkips = 0;
@@ -1068,10 +1081,15 @@ public class CareersDiscoveryService {
 
   private HttpFetchResult fetchTracked(
       String url, String accept, int maxBytes, DiscoveryMetrics metrics) {
-    if (metrics != null) {
+    Instant requestedAt = Instant.now();
+    HttpFetchResult fetch = httpClient.getCached(url, accept, maxBytes);
+    // A result fetched before this call came from the response cache and issued no request.
+    boolean fromCache =
+        fetch != null && fetch.fetchedAt() != null && fetch.fetchedAt().isBefore(requestedAt);
+    if (metrics != null && !fromCache) {
       metrics.incrementRequestsIssued();
     }
-    return httpClient.get(url, accept, maxBytes);
+    return fetch;
   }
 
   private List<String> buildSlugCandidates(CompanyTarget company) {
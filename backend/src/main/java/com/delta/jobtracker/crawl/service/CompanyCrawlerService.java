@@ -18,8 +18,10 @@ import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
 import com.delta.jobtracker.crawl.model.SitemapUrlEntry;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.SitemapLastmodRepository;
 import com.delta.jobtracker.crawl.robots.RobotsRules;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import com.delta.jobtracker.crawl.sitemap.SitemapLastmod;
 import com.delta.jobtracker.crawl.sitemap.SitemapService;
 import com.delta.jobtracker.crawl.util.ReasonCodeClassifier;
 import com.delta.jobtracker.crawl.util.UrlClassifier;
@@ -52,6 +54,7 @@ public class CompanyCrawlerService {
   private final PoliteHttpClient httpClient;
   private final JobPostingExtractor jobPostingExtractor;
   private final AtsAdapterIngestionService atsAdapterIngestionService;
+  private final SitemapLastmodRepository lastmodRepository;
 
   public CompanyCrawlerService(
       CrawlerProperties properties,
@@ -62,7 +65,8 @@ public class CompanyCrawlerService {
       AtsEndpointExtractor atsEndpointExtractor,
       PoliteHttpClient httpClient,
       JobPostingExtractor jobPostingExtractor,
-      AtsAdapterIngestionService atsAdapterIngestionService) {
+      AtsAdapterIngestionService atsAdapterIngestionService,
+      SitemapLastmodRepository lastmodRepository) {
     this.properties = properties;
     this.robotsTxtService = robotsTxtService;
     this.sitemapService = sitemapService;
@@ -72,6 +76,7 @@ public class CompanyCrawlerService {
     this.httpClient = httpClient;
     this.jobPostingExtractor = jobPostingExtractor;
     this.atsAdapterIngestionService = atsAdapterIngestionService;
+    this.lastmodRepository = lastmodRepository;
   }
 
   public CompanyCrawlSummary crawlCompany(
@@ -197,8 +202,10 @@ public class CompanyCrawlerService {
             seedSitemaps,
             properties.getSitemap().getMaxDepth(),
             properties.getSitemap().getMaxSitemaps(),
-            maxSitemapUrls);
+            maxSitemapUrls,
+            lastmodRepository.findSitemapLastmods(company.companyId()));
     mergeErrors(errors, sitemapResult.errors());
+    List<String> unchangedSitemaps = sitemapResult.unchangedSitemaps();
 
     for (var sitemap : sitemapResult.fetchedSitemaps()) {
       repository.insertDiscoveredSitemap(
@@ -206,25 +213,36 @@ public class CompanyCrawlerService {
           company.companyId(),
           sitemap.sitemapUrl(),
           sitemap.fetchedAt(),
-          sitemap.urlCount());
+          sitemap.urlCount(),
+          sitemap.bytesProcessed(),
+          sitemap.peakBufferedBytes());
     }
 
     LinkedHashSet<String> candidateUrls = new LinkedHashSet<>();
     LinkedHashSet<String> atsLandingUrls = new LinkedHashSet<>();
+    Map<String, SitemapUrlEntry> candidateEntries = new LinkedHashMap<>();
     for (SitemapUrlEntry entry : sitemapResult.discoveredUrls()) {
       DiscoveredUrlType type = UrlClassifier.classify(entry.url());
       repository.upsertDiscoveredUrl(
           crawlRunId, company.companyId(), entry.url(), type, "discovered", null);
       if (type == DiscoveredUrlType.CANDIDATE_JOB) {
         candidateUrls.add(entry.url());
+        candidateEntries.put(entry.url(), entry);
       } else if (type == DiscoveredUrlType.ATS_LANDING) {
         candidateUrls.add(entry.url());
+        candidateEntries.put(entry.url(), entry);
         atsLandingUrls.add(entry.url());
       }
     }
+    // An empty candidate set is expected when every child sitemap was skipped as unchanged.
+    boolean sitemapsUnchanged = candidateUrls.isEmpty() && !unchangedSitemaps.isEmpty();
+    if (!unchangedSitemaps.isEmpty()) {
+      repository.markPostingsSeenForSitemaps(
+          company.companyId(), crawlRunId, unchangedSitemaps, Instant.now());
+    }
 
     String robotsErrorKey = null;
-    if (candidateUrls.isEmpty()) {
+    if (candidateUrls.isEmpty() && !sitemapsUnchanged) {
       boolean robotsUnavailable =
           robotsTxtService.isRobotsUnavailableForUrl("https://" + company.domain() + "/");
       if (sitemapResult.fetchedSitemaps().isEmpty()) {
@@ -251,7 +269,7 @@ public class CompanyCrawlerService {
       }
     }
 
-    if (candidateUrls.isEmpty()) {
+    if (candidateUrls.isEmpty() && !sitemapsUnchanged) {
       StageFailure failure = stageFailure(robotsErrorKey);
       recordStageFinish(
           crawlRunId,
@@ -292,7 +310,9 @@ public class CompanyCrawlerService {
           0,
           0,
           adapterSuccess || fallbackSuccess,
-          topErrors(errors, 5));
+          topErrors(errors, 5),
+          unchangedSitemaps.size(),
+          0);
     }
 
     List<AtsDetectionRecord> discoveredAts =
@@ -308,7 +328,33 @@ public class CompanyCrawlerService {
     int jobsExtracted = 0;
     Map<String, Integer> jsonldErrors = new LinkedHashMap<>();
 
-    List<String> pagesToFetch = new ArrayList<>(candidateUrls);
+    // Fetch only pages that are new or whose lastmod moved, newest first, so the page budget goes
+    // to what changed.
+    Map<String, String> knownPageLastmods =
+        lastmodRepository.findPageLastmods(company.companyId(), candidateUrls);
+    List<String> pagesToFetch = new ArrayList<>();
+    List<String> unchangedPages = new ArrayList<>();
+    for (String url : candidateUrls) {
+      String lastmod = candidateEntries.get(url).lastmod();
+      String knownLastmod = knownPageLastmods.get(url);
+      if (knownLastmod != null && !SitemapLastmod.isNewer(lastmod, knownLastmod)) {
+        unchangedPages.add(url);
+      } else {
+        pagesToFetch.add(url);
+      }
+    }
+    pagesToFetch.sort(
+        Comparator.comparing(
+            (String url) -> SitemapLastmod.parse(candidateEntries.get(url).lastmod()),
+            Comparator.nullsLast(Comparator.reverseOrder())));
+    for (String url : unchangedPages) {
+      repository.updateDiscoveredUrlStatus(
+          crawlRunId, company.companyId(), url, "skipped_unchanged_lastmod", now);
+    }
+    repository.markPostingsSeenForUrls(company.companyId(), crawlRunId, unchangedPages, now);
+    // Sitemap lastmods are only recorded once every page they listed has been dealt with;
+    // otherwise the next crawl could skip a sitemap whose pages were never fetched.
+    boolean pagesSettled = pagesToFetch.size() <= maxJobPages;
     if (pagesToFetch.size() > maxJobPages) {
       pagesToFetch = pagesToFetch.subList(0, maxJobPages);
     }
@@ -324,6 +370,7 @@ public class CompanyCrawlerService {
         jsonldStartedAt,
         false);
 
+    boolean unchanged = !unchangedSitemaps.isEmpty() || !unchangedPages.isEmpty();
     if (pagesToFetch.isEmpty()) {
       recordStageFinish(
           crawlRunId,
@@ -333,15 +380,16 @@ public class CompanyCrawlerService {
           jsonldStartedAt,
           "SKIPPED",
           0,
-          ReasonCodeClassifier.SITEMAP_NOT_FOUND,
+          unchanged ? null : ReasonCodeClassifier.SITEMAP_NOT_FOUND,
           null,
-          "no_candidate_urls",
+          unchanged ? "unchanged_since_last_crawl" : "no_candidate_urls",
           false);
     } else {
       for (String url : pagesToFetch) {
         if (budgetExceeded(deadline)) {
           increment(errors, "company_time_budget_exceeded");
           increment(jsonldErrors, "company_time_budget_exceeded");
+          pagesSettled = false;
           break;
         }
         if (repository.seenNoStructuredData(company.companyId(), url)) {
@@ -357,7 +405,7 @@ public class CompanyCrawlerService {
           continue;
         }
 
-        HttpFetchResult fetch = httpClient.get(url, HTML_ACCEPT);
+        HttpFetchResult fetch = httpClient.getCached(url, HTML_ACCEPT);
         Instant fetchedAt = Instant.now();
         if (!fetch.isSuccessful()) {
           String status = errorKey(fetch);
@@ -365,6 +413,7 @@ public class CompanyCrawlerService {
               crawlRunId, company.companyId(), url, status, fetchedAt);
           increment(errors, status);
           increment(jsonldErrors, status);
+          pagesSettled = false;
           continue;
         }
 
@@ -374,12 +423,15 @@ public class CompanyCrawlerService {
               crawlRunId, company.companyId(), url, status, fetchedAt);
           increment(errors, status);
           increment(jsonldErrors, status);
+          pagesSettled = false;
           continue;
         }
 
         fallbackSuccess = true;
-        List<NormalizedJobPosting> postings =
-            jobPostingExtractor.extract(fetch.body(), fetch.finalUrlOrRequested());
+        SitemapUrlEntry entry = candidateEntries.get(url);
+        lastmodRepository.savePageLastmod(
+            company.companyId(), url, entry.sitemapUrl(), entry.lastmod(), fetchedAt);
+        List<NormalizedJobPosting> postings = jobPostingExtractor.extract(fetch);
         if (postings.isEmpty()) {
           repository.updateDiscoveredUrlStatus(
               crawlRunId, company.companyId(), url, "no_jobposting_structured_data", fetchedAt);
@@ -423,7 +475,19 @@ public class CompanyCrawlerService {
       }
     }
 
-    boolean closeoutSafe = adapterSuccess || fallbackSuccess;
+    if (pagesSettled) {
+      Map<String, String> sitemapLastmods = new LinkedHashMap<>();
+      for (var sitemap : sitemapResult.fetchedSitemaps()) {
+        if (sitemap.complete() && sitemap.lastmod() != null) {
+          sitemapLastmods.put(sitemap.sitemapUrl(), sitemap.lastmod());
+        }
+      }
+      lastmodRepository.saveSitemapLastmods(company.companyId(), sitemapLastmods, Instant.now());
+    }
+
+    // Nothing left to fetch because everything was unchanged is as good as a successful fetch.
+    boolean closeoutSafe =
+        adapterSuccess || fallbackSuccess || (unchanged && pagesToFetch.isEmpty());
     Map<String, Integer> topErrors = topErrors(errors, 5);
     return new CompanyCrawlSummary(
         company.companyId(),
@@ -435,7 +499,9 @@ public class CompanyCrawlerService {
         pagesWithJobPosting,
         jobsExtracted,
         closeoutSafe,
-        topErrors);
+        topErrors,
+        unchangedSitemaps.size(),
+        unchangedPages.size());
   }
 
   private List<AtsDetectionRecord> detectAtsEndpoints(
@@ -486,7 +552,7 @@ public class CompanyCrawlerService {
       if (!robotsTxtService.isAllowed(probe)) {
         continue;
       }
-      HttpFetchResult fetch = httpClient.get(probe, HTML_ACCEPT);
+      HttpFetchResult fetch = httpClient.getCached(probe, HTML_ACCEPT);
       String resolved = fetch.finalUrlOrRequested();
 
       List<AtsDetectionRecord> extracted = atsEndpointExtractor.extract(resolved, fetch.body());
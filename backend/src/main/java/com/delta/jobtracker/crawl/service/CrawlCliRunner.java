@@ -68,10 +68,13 @@ public class CrawlCliRunner implements ApplicationRunner {
     log.info("Crawl run {} completed with status {}", summary.crawlRunId(), summary.status());
     for (CompanyCrawlSummary company : summary.companies()) {
       log.info(
-          "Summary {}: sitemaps={}, candidates={}, ats={}, jobPages={}, jobs={}, errors={}",
+          "Summary {}: sitemaps={}, candidates={}, unchangedSitemaps={}, unchangedPages={}, ats={},"
+              + " jobPages={}, jobs={}, errors={}",
           company.ticker(),
           company.sitemapsFoundCount(),
           company.candidateUrlsCount(),
+          company.unchangedSitemapsSkippedCount(),
+          company.unchangedPagesSkippedCount(),
           company.atsDetected(),
           company.jobpostingPagesFoundCount(),
           company.jobsExtractedCount(),
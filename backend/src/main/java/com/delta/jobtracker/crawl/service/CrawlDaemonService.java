@@ -4,6 +4,9 @@ import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.http.CanaryAbortException;
 import com.delta.jobtracker.crawl.http.CanaryHttpBudget;
 import com.delta.jobtracker.crawl.http.CanaryHttpBudgetContext;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
+import com.delta.jobtracker.crawl.model.AtsEndpointRecord;
 import com.delta.jobtracker.crawl.model.CompanyCrawlSummary;
 import com.delta.jobtracker.crawl.model.CompanyTarget;
 import com.delta.jobtracker.crawl.model.CrawlDaemonBootstrapResponse;
@@ -16,9 +19,13 @@ import com.delta.jobtracker.crawl.persistence.CrawlQueueRepository;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.lang.management.ManagementFactory;
+import java.net.URI;
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadLocalRandom;
@@ -39,6 +46,7 @@ public class CrawlDaemonService {
   private final CrawlJdbcRepository repository;
   private final CompanyCrawlerService companyCrawlerService;
   private final UniverseIngestionService ingestionService;
+  private final HostCrawlStateService hostCrawlStateService;
   private final CrawlerProperties properties;
   private final AtomicBoolean running = new AtomicBoolean(false);
   private final Object lifecycleLock = new Object();
@@ -52,11 +60,13 @@ public class CrawlDaemonService {
       CrawlJdbcRepository repository,
       CompanyCrawlerService companyCrawlerService,
       UniverseIngestionService ingestionService,
+      HostCrawlStateService hostCrawlStateService,
       CrawlerProperties properties) {
     this.queueRepository = queueRepository;
     this.repository = repository;
     this.companyCrawlerService = companyCrawlerService;
     this.ingestionService = ingestionService;
+    this.hostCrawlStateService = hostCrawlStateService;
     this.properties = properties;
     this.instanceId = "daemon-" + ManagementFactory.getRuntimeMXBean().getName();
   }
@@ -161,13 +171,20 @@ public class CrawlDaemonService {
     }
   }
 
-  private void crawlCompany(long companyId) {
+  void crawlCompany(long companyId) {
+    CompanyTarget target = repository.findCompanyTargetById(companyId);
+    HostCooldowns cooldowns = target == null ? HostCooldowns.NONE : hostCooldowns(target);
+    if (cooldowns.deferUntil() != null) {
+      // Every request would fail with host_cooldown; come back when the first host can resume.
+      queueRepository.deferUntil(companyId, cooldowns.deferUntil());
+      return;
+    }
+
     int failuresSoFar = queueRepository.getConsecutiveFailures(companyId);
     Instant startedAt = Instant.now();
     long crawlRunId = repository.insertCrawlRun(startedAt, "RUNNING", "daemon");
     repository.updateCrawlRunProgress(crawlRunId, 1, 0, 0, 0, startedAt);
 
-    CompanyTarget target = repository.findCompanyTargetById(companyId);
     if (target == null) {
       String error = "missing_domain";
       repository.completeCrawlRun(crawlRunId, Instant.now(), "FAILED", error);
@@ -175,12 +192,25 @@ public class CrawlDaemonService {
       return;
     }
 
+    // A cooling site only leaves the ATS feeds to crawl.
     CrawlRunRequest request =
-        new CrawlRunRequest(List.of(), 1, null, null, null, null, null, false, false, null, null);
+        new CrawlRunRequest(
+            List.of(),
+            1,
+            null,
+            null,
+            null,
+            null,
+            null,
+            false,
+            false,
+            cooldowns.siteBlocked(),
+            null);
 
     CanaryHttpBudget budget = buildRunBudget(startedAt);
     try (CanaryHttpBudgetContext.Scope scope =
-        budget == null ? null : CanaryHttpBudgetContext.activate(budget)) {
+            budget == null ? null : CanaryHttpBudgetContext.activate(budget);
+        TrafficClassContext.Scope lane = TrafficClassContext.activate(TrafficClass.DAEMON_CRAWL)) {
       CompanyCrawlSummary summary = companyCrawlerService.crawlCompany(crawlRunId, target, request);
       Instant finishedAt = Instant.now();
       boolean success = summary.closeoutSafe();
@@ -192,7 +222,11 @@ public class CrawlDaemonService {
           summary.jobsExtractedCount(),
           finishedAt);
       if (success) {
-        repository.markPostingsInactiveNotSeenInRun(target.companyId(), crawlRunId);
+        // Postings behind a host that was cooling down were not refreshed; keep them until the
+        // next run that can reach it.
+        if (!cooldowns.siteBlocked() && !cooldowns.atsBlocked()) {
+          repository.markPostingsInactiveNotSeenInRun(target.companyId(), crawlRunId);
+        }
         queueRepository.markSuccess(companyId, nextSuccessRunAt());
         repository.completeCrawlRun(crawlRunId, finishedAt, "COMPLETED", "daemon");
       } else {
@@ -212,6 +246,67 @@ public class CrawlDaemonService {
     }
   }
 
+  // Shared ATS hosts cool down for every company using them, so only the stage that needs a
+  // cooling host is skipped; the company is deferred only when nothing it crawls can be reached.
+  private HostCooldowns hostCooldowns(CompanyTarget target) {
+    Set<String> siteHosts = new LinkedHashSet<>();
+    if (target.domain() != null && !target.domain().isBlank()) {
+      String domain = target.domain().trim().toLowerCase(Locale.ROOT);
+      siteHosts.add(domain);
+      siteHosts.add(domain.startsWith("www.") ? domain.substring(4) : "www." + domain);
+    }
+    addHost(siteHosts, target.careersHintUrl());
+    Set<String> atsHosts = new LinkedHashSet<>();
+    for (AtsEndpointRecord endpoint : repository.findAtsEndpoints(target.companyId())) {
+      addHost(atsHosts, endpoint.endpointUrl());
+    }
+
+    Instant earliestResumeAt = null;
+    int siteCooling = 0;
+    int atsCooling = 0;
+    for (String host : siteHosts) {
+      Instant nextAllowedAt = hostCrawlStateService.nextAllowedAt(host);
+      if (nextAllowedAt != null) {
+        siteCooling++;
+        earliestResumeAt = earliest(earliestResumeAt, nextAllowedAt);
+      }
+    }
+    for (String host : atsHosts) {
+      Instant nextAllowedAt = hostCrawlStateService.nextAllowedAt(host);
+      if (nextAllowedAt != null) {
+        atsCooling++;
+        earliestResumeAt = earliest(earliestResumeAt, nextAllowedAt);
+      }
+    }
+    boolean siteBlocked = !siteHosts.isEmpty() && siteCooling == siteHosts.size();
+    boolean allCooling =
+        siteCooling + atsCooling > 0
+            && siteCooling == siteHosts.size()
+            && atsCooling == atsHosts.size();
+    if (allCooling) {
+      return new HostCooldowns(earliestResumeAt, true, true);
+    }
+    return new HostCooldowns(null, siteBlocked, atsCooling > 0);
+  }
+
+  private static Instant earliest(Instant current, Instant candidate) {
+    return current == null || candidate.isBefore(current) ? candidate : current;
+  }
+
+  private void addHost(Set<String> hosts, String url) {
+    if (url == null || url.isBlank()) {
+      return;
+    }
+    try {
+      String host = URI.create(url.trim()).getHost();
+      if (host != null) {
+        hosts.add(host.toLowerCase(Locale.ROOT));
+      }
+    } catch (IllegalArgumentException ignored) {
+      // Malformed hint URLs are handled by the crawl itself.
+    }
+  }
+
   private void recordUnexpectedFailure(long companyId) {
     try {
       int failuresSoFar = queueRepository.getConsecutiveFailures(companyId);
@@ -270,4 +365,8 @@ public class CrawlDaemonService {
       Thread.currentThread().interrupt();
     }
   }
+
+  private record HostCooldowns(Instant deferUntil, boolean siteBlocked, boolean atsBlocked) {
+    private static final HostCooldowns NONE = new HostCooldowns(null, false, false);
+  }
 }
@@ -1050,9 +1050,9 @@ public class DomainResolutionService {
       if (fetch.isSuccessful()
           && fetch.statusCode() >= 200
           && fetch.statusCode() < 300
-          && fetch.body() != null) {
+          && fetch.hasBody()) {
         try {
-          return new WdqsQueryResult(objectMapper.readTree(fetch.body()), null);
+          return new WdqsQueryResult(objectMapper.readTree(fetch.bodyStream()), null);
         } catch (Exception e) {
           log.warn("Failed to parse WDQS response on attempt {}", attempt, e);
           return new WdqsQueryResult(null, "wdqs_error");
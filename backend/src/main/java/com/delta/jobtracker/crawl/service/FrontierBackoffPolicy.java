@@ -20,6 +20,24 @@ public class FrontierBackoffPolicy {
 
   public FrontierBackoffDecision onResult(
       int currentBackoffState, int httpStatus, String errorCode) {
+    return onResult(currentBackoffState, httpStatus, errorCode, null);
+  }
+
+  public FrontierBackoffDecision onResult(
+      int currentBackoffState, int httpStatus, String errorCode, Instant retryAfter) {
+    FrontierBackoffDecision decision = decide(currentBackoffState, httpStatus, errorCode);
+    if (retryAfter == null) {
+      return decision;
+    }
+    // Retry-After is authoritative for when the host may be contacted again, in either direction.
+    Instant floor = Instant.now().plusMillis(properties.getPerHostDelayMs());
+    Instant nextAllowedAt = retryAfter.isBefore(floor) ? floor : retryAfter;
+    return new FrontierBackoffDecision(
+        decision.statusBucket(), decision.nextBackoffState(), nextAllowedAt);
+  }
+
+  private FrontierBackoffDecision decide(
+      int currentBackoffState, int httpStatus, String errorCode) {
     Instant now = Instant.now();
     String bucket = classifyBucket(httpStatus, errorCode);
 
@@ -35,7 +53,7 @@ public class FrontierBackoffPolicy {
       return new FrontierBackoffDecision(bucket, nextState, now.plusSeconds(delaySeconds));
     }
 
-    if ("HTTP_2XX".equals(bucket)) {
+    if ("HTTP_2XX".equals(bucket) || "HTTP_304".equals(bucket)) {
       return new FrontierBackoffDecision(bucket, 0, now.plusMillis(properties.getPerHostDelayMs()));
     }
 
@@ -53,6 +71,9 @@ public class FrontierBackoffPolicy {
     if (httpStatus >= 200 && httpStatus < 300) {
       return "HTTP_2XX";
     }
+    if (httpStatus == 304) {
+      return "HTTP_304";
+    }
     if (httpStatus == 429) {
       return "HTTP_429";
     }
@@ -1,8 +1,13 @@
 package com.delta.jobtracker.crawl.service;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
 import com.delta.jobtracker.crawl.model.FrontierBackoffDecision;
+import com.delta.jobtracker.crawl.model.FrontierDrainStatusResponse;
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
 import com.delta.jobtracker.crawl.model.FrontierEnqueueResult;
 import com.delta.jobtracker.crawl.model.FrontierFetchOutcome;
 import com.delta.jobtracker.crawl.model.FrontierHostState;
@@ -12,18 +17,39 @@ import com.delta.jobtracker.crawl.model.FrontierSitemapParseResult;
 import com.delta.jobtracker.crawl.model.FrontierUrlKind;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.persistence.FrontierRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.delta.jobtracker.crawl.sitemap.FrontierSitemapParser;
 import com.delta.jobtracker.crawl.util.FrontierJobSignalHeuristics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class FrontierSchedulerService {
-  private static final int MAX_SITEMAP_BYTES = 2_000_000;
+  private static final Logger log = LoggerFactory.getLogger(FrontierSchedulerService.class);
+  // How soon an idle worker of a bounded run looks again while other workers are still fetching.
+  private static final long IDLE_RECHECK_MS = 200;
+  // How long stopDrain waits for workers to finish the URL they are on.
+  private static final long DRAIN_STOP_WAIT_SECONDS = 30;
 
   private final FrontierRepository frontierRepository;
   private final PoliteHttpClient httpClient;
@@ -31,7 +57,14 @@ public class FrontierSchedulerService {
   private final FrontierSitemapParser sitemapParser;
   private final FrontierJobSignalHeuristics jobSignalHeuristics;
   private final RobotsTxtService robotsTxtService;
+  private final HttpValidatorRepository validatorRepository;
   private final CrawlerProperties properties;
+  private final Object drainLock = new Object();
+
+  private ExecutorService drainExecutor;
+  private FrontierRun drainRun;
+  private Instant drainStartedAt;
+  private int drainWorkerCount;
 
   public FrontierSchedulerService(
       FrontierRepository frontierRepository,
@@ -40,6 +73,7 @@ public class FrontierSchedulerService {
       FrontierSitemapParser sitemapParser,
       FrontierJobSignalHeuristics jobSignalHeuristics,
       RobotsTxtService robotsTxtService,
+      HttpValidatorRepository validatorRepository,
       CrawlerProperties properties) {
     this.frontierRepository = frontierRepository;
     this.httpClient = httpClient;
@@ -47,53 +81,225 @@ public class FrontierSchedulerService {
     this.sitemapParser = sitemapParser;
     this.jobSignalHeuristics = jobSignalHeuristics;
     this.robotsTxtService = robotsTxtService;
+    this.validatorRepository = validatorRepository;
     this.properties = properties;
   }
 
+  @PostConstruct
+  public void startDrainIfEnabled() {
+    if (properties.getFrontier().isDrainEnabled()) {
+      startDrain();
+    }
+  }
+
+  @PreDestroy
+  public void stopDrainOnShutdown() {
+    stopDrain();
+  }
+
+  // Runs crawler.frontier.worker-count workers until maxFetches sitemaps were fetched or nothing
+  // is due and no worker is still fetching (and so possibly enqueueing more).
   public FrontierSchedulerResult fetchDueSitemaps(int maxFetches) {
-    int safeMaxFetches = Math.max(1, maxFetches);
-    int urlsFetched = 0;
-    int blockedByBackoff = 0;
-    int urlsEnqueued = 0;
-    int sitemapUrlsEnqueued = 0;
-    int candidateUrlsEnqueued = 0;
-    int httpRequestCount = 0;
-    int http429Count = 0;
-    Map<String, Integer> statusBucketCounts = new LinkedHashMap<>();
-
-    while (urlsFetched < safeMaxFetches) {
-      FrontierQueueUrl claimed =
-          frontierRepository.claimNextDueUrl(
-              "frontier-seeder",
-              properties.getFrontier().getUrlLeaseSeconds(),
-              FrontierUrlKind.SITEMAP);
-      if (claimed == null) {
-        blockedByBackoff +=
-            frontierRepository.countDueUrlsBlockedByBackoff(FrontierUrlKind.SITEMAP);
+    int budget = Math.max(1, maxFetches);
+    int workerCount = properties.getFrontier().getWorkerCount();
+    // Split small budgets across workers instead of letting the first claim take all of them.
+    int batchSize =
+        Math.min(
+            properties.getFrontier().getClaimBatchSize(),
+            Math.max(1, (budget + workerCount - 1) / workerCount));
+    FrontierRun run = new FrontierRun("frontier-seeder", budget, batchSize, false);
+    List<Future<?>> workers = new ArrayList<>(workerCount);
+    try (ExecutorService executor = newWorkerExecutor("frontier-worker-")) {
+      for (int i = 0; i < workerCount; i++) {
+        int workerIndex = i + 1;
+        workers.add(executor.submit(() -> runWorker(workerIndex, run)));
+      }
+    }
+    for (Future<?> worker : workers) {
+      try {
+        worker.get();
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+          throw runtime;
+        }
+        throw new IllegalStateException("Frontier worker failed", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
         break;
       }
+    }
+    int blockedByBackoff =
+        run.budgetSpent()
+            ? 0
+            : frontierRepository.countDueUrlsBlockedByBackoff(FrontierUrlKind.SITEMAP);
+    return run.totals().snapshot(blockedByBackoff);
+  }
 
-      urlsFetched++;
-      FrontierProcessingResult processingResult = processClaimedSitemap(claimed);
-      frontierRepository.completeFetch(claimed, processingResult.outcome());
+  public void startDrain() {
+    synchronized (drainLock) {
+      if (drainExecutor != null && !drainExecutor.isTerminated()) {
+        // Already running, or a stopped drain whose workers are still finishing their URLs.
+        return;
+      }
+      int workerCount = properties.getFrontier().getWorkerCount();
+      FrontierRun run =
+          new FrontierRun(
+              "frontier-drain",
+              Long.MAX_VALUE,
+              properties.getFrontier().getClaimBatchSize(),
+              true);
+      drainRun = run;
+      drainStartedAt = Instant.now();
+      drainWorkerCount = workerCount;
+      drainExecutor = newWorkerExecutor("frontier-drain-");
+      for (int i = 0; i < workerCount; i++) {
+        int workerIndex = i + 1;
+        drainExecutor.submit(() -> runWorker(workerIndex, run));
+      }
+      log.info("Frontier drain started with {} workers", workerCount);
+    }
+  }
 
-      urlsEnqueued += processingResult.urlsEnqueued();
-      sitemapUrlsEnqueued += processingResult.sitemapUrlsEnqueued();
-      candidateUrlsEnqueued += processingResult.candidateUrlsEnqueued();
-      httpRequestCount += processingResult.httpRequestCount();
-      http429Count += processingResult.http429Count();
-      increment(statusBucketCounts, processingResult.outcome().hostStatusBucket());
+  // Workers are not interrupted: each finishes the URL it is fetching and hands the rest of its
+  // batch back to the queue. The executor is kept until they are done, so a new drain cannot
+  // start alongside them.
+  public void stopDrain() {
+    synchronized (drainLock) {
+      if (drainExecutor == null) {
+        return;
+      }
+      drainRun.stop();
+      drainExecutor.shutdown();
+      try {
+        if (!drainExecutor.awaitTermination(DRAIN_STOP_WAIT_SECONDS, TimeUnit.SECONDS)) {
+          log.warn("Frontier drain workers are still finishing their current URLs");
+          return;
+        }
+      } catch (InterruptedException ignored) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      drainExecutor = null;
+      log.info("Frontier drain stopped");
+    }
+  }
+
+  // Totals cover the current drain, or the last one once it has stopped; blockedByBackoff is the
+  // number of due sitemap URLs waiting on host backoff right now.
+  public FrontierDrainStatusResponse getDrainStatus() {
+    FrontierRun run;
+    boolean running;
+    int workerCount;
+    Instant startedAt;
+    synchronized (drainLock) {
+      run = drainRun;
+      running = drainExecutor != null && run.active();
+      workerCount = running ? drainWorkerCount : 0;
+      startedAt = drainStartedAt;
+    }
+    int blockedByBackoff = frontierRepository.countDueUrlsBlockedByBackoff(FrontierUrlKind.SITEMAP);
+    RunTotals totals = run == null ? new RunTotals() : run.totals();
+    return new FrontierDrainStatusResponse(
+        running,
+        workerCount,
+        startedAt,
+        totals.snapshot(blockedByBackoff),
+        frontierRepository.countQueueStatuses());
+  }
+
+  private void runWorker(int workerIndex, FrontierRun run) {
+    String lockOwner = run.lockOwnerPrefix() + "-" + workerIndex;
+    try (TrafficClassContext.Scope ignored = TrafficClassContext.activate(TrafficClass.FRONTIER)) {
+      while (run.active() && !Thread.currentThread().isInterrupted()) {
+        int processed;
+        try {
+          processed = claimAndProcessBatch(lockOwner, run);
+        } catch (RuntimeException e) {
+          if (!run.continuous()) {
+            run.stop();
+            throw e;
+          }
+          log.warn("Frontier worker {} failed to process a batch", lockOwner, e);
+          run.pause(properties.getFrontier().getDrainPollIntervalMs());
+          continue;
+        }
+        if (processed < 0) {
+          // The budget is spoken for, but a busy worker may still hand back what it did not claim.
+          if (run.busyWorkers() == 0) {
+            return;
+          }
+          run.pause(IDLE_RECHECK_MS);
+          continue;
+        }
+        if (processed == 0) {
+          if (!run.continuous() && run.busyWorkers() == 0) {
+            return;
+          }
+          run.pause(
+              run.continuous()
+                  ? properties.getFrontier().getDrainPollIntervalMs()
+                  : IDLE_RECHECK_MS);
+        }
+      }
     }
+  }
 
-    return new FrontierSchedulerResult(
-        urlsFetched,
-        blockedByBackoff,
-        urlsEnqueued,
-        sitemapUrlsEnqueued,
-        candidateUrlsEnqueued,
-        httpRequestCount,
-        http429Count,
-        statusBucketCounts);
+  // Claims and processes one batch. Returns how many URLs it processed, or -1 once the run's
+  // fetch budget is spoken for. Claims it does not get to, because the run stopped or a URL
+  // failed to complete, go back to the queue and their budget back to the run.
+  private int claimAndProcessBatch(String lockOwner, FrontierRun run) {
+    int reserved = run.reserve();
+    if (reserved == 0) {
+      return -1;
+    }
+    run.markBusy();
+    try {
+      List<FrontierQueueUrl> claimedBatch = List.of();
+      try {
+        claimedBatch =
+            frontierRepository.claimDueUrls(
+                lockOwner,
+                properties.getFrontier().getUrlLeaseSeconds(),
+                FrontierUrlKind.SITEMAP,
+                reserved);
+      } finally {
+        run.release(reserved - claimedBatch.size());
+      }
+      int processed = 0;
+      try {
+        for (FrontierQueueUrl claimed : claimedBatch) {
+          if (!run.active() || Thread.currentThread().isInterrupted()) {
+            break;
+          }
+          FrontierProcessingResult processingResult = processClaimedSitemap(claimed);
+          frontierRepository.completeFetch(claimed, processingResult.outcome());
+          processed++;
+          run.totals().record(processingResult);
+        }
+      } finally {
+        releaseClaims(claimedBatch.subList(processed, claimedBatch.size()));
+        run.release(claimedBatch.size() - processed);
+      }
+      return processed;
+    } finally {
+      run.markIdle();
+    }
+  }
+
+  private void releaseClaims(List<FrontierQueueUrl> unprocessed) {
+    for (FrontierQueueUrl claimed : unprocessed) {
+      try {
+        frontierRepository.releaseClaim(claimed);
+      } catch (RuntimeException e) {
+        // The lease expires and the URL is claimed again; the host slot is not freed until then.
+        log.warn("Failed to release frontier claim {}", claimed.url(), e);
+      }
+    }
+  }
+
+  private ExecutorService newWorkerExecutor(String threadNamePrefix) {
+    return Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name(threadNamePrefix, 1).factory());
   }
 
   private FrontierProcessingResult processClaimedSitemap(FrontierQueueUrl claimed) {
@@ -127,12 +333,21 @@ public class FrontierSchedulerService {
             sitemapUrlsEnqueued,
             candidateUrlsEnqueued,
             httpRequestCount,
-            http429Count);
+            http429Count,
+            false);
       }
 
+      CrawlerProperties.Sitemap sitemapSettings = properties.getSitemap();
+      String spillDirectory = sitemapSettings.getSpillDirectory();
       HttpFetchResult fetch =
-          httpClient.get(
-              claimed.url(), "application/xml,text/xml;q=0.9,*/*;q=0.1", MAX_SITEMAP_BYTES);
+          httpClient.getConditional(
+              claimed.url(),
+              "application/xml,text/xml;q=0.9,*/*;q=0.1",
+              sitemapSettings.getMaxBytes(),
+              validatorRepository.find(claimed.url()),
+              new BodySpill(
+                  sitemapSettings.getSpillThresholdBytes(),
+                  spillDirectory.isBlank() ? null : Path.of(spillDirectory)));
       httpRequestCount++;
       if (fetch.statusCode() == 429) {
         http429Count++;
@@ -140,9 +355,34 @@ public class FrontierSchedulerService {
 
       String errorBucket = fetchErrorBucket(fetch);
       FrontierBackoffDecision decision =
-          backoffPolicy.onResult(currentBackoffState, fetch.statusCode(), fetch.errorCode());
+          backoffPolicy.onResult(
+              currentBackoffState, fetch.statusCode(), fetch.errorCode(), fetch.retryAfter());
+
+      if (fetch.isNotModified()) {
+        // Children and candidates were enqueued when this version was last parsed.
+        FrontierFetchOutcome outcome =
+            new FrontierFetchOutcome(
+                "FETCHED",
+                fetch.fetchedAt() == null ? now : fetch.fetchedAt(),
+                fetch.statusCode(),
+                fetch.duration() == null ? null : fetch.duration().toMillis(),
+                errorBucket,
+                "not_modified",
+                decision.statusBucket(),
+                decision.nextAllowedAt(),
+                decision.nextBackoffState());
+        return new FrontierProcessingResult(
+            outcome,
+            urlsEnqueued,
+            sitemapUrlsEnqueued,
+            candidateUrlsEnqueued,
+            httpRequestCount,
+            http429Count,
+            true);
+      }
 
       if (!fetch.isSuccessful()) {
+        fetch.discardBody();
         FrontierFetchOutcome outcome =
             new FrontierFetchOutcome(
                 "FAILED",
@@ -160,12 +400,14 @@ public class FrontierSchedulerService {
             sitemapUrlsEnqueued,
             candidateUrlsEnqueued,
             httpRequestCount,
-            http429Count);
+            http429Count,
+            false);
       }
 
-      String xmlPayload;
+      FrontierSitemapParseResult parsed;
       try {
-        xmlPayload = sitemapParser.extractXmlPayload(claimed.url(), fetch);
+        parsed =
+            sitemapParser.parse(fetch, properties.getFrontier().getMaxUrlsParsedPerSitemap());
       } catch (IOException e) {
         FrontierBackoffDecision parseDecision =
             backoffPolicy.onResult(currentBackoffState, 0, "gzip_decode_error");
@@ -186,10 +428,13 @@ public class FrontierSchedulerService {
             sitemapUrlsEnqueued,
             candidateUrlsEnqueued,
             httpRequestCount,
-            http429Count);
+            http429Count,
+            false);
+      } finally {
+        fetch.discardBody();
       }
 
-      if (xmlPayload == null || xmlPayload.isBlank()) {
+      if (parsed == null) {
         FrontierBackoffDecision parseDecision =
             backoffPolicy.onResult(currentBackoffState, 0, "empty_sitemap_payload");
         FrontierFetchOutcome outcome =
@@ -209,21 +454,17 @@ public class FrontierSchedulerService {
             sitemapUrlsEnqueued,
             candidateUrlsEnqueued,
             httpRequestCount,
-            http429Count);
+            http429Count,
+            false);
       }
 
-      FrontierSitemapParseResult parsed =
-          sitemapParser.parse(xmlPayload, properties.getFrontier().getMaxUrlsParsedPerSitemap());
-
+      Instant enqueuedAt = Instant.now();
+      List<FrontierEnqueueRequest> enqueueRequests = new ArrayList<>();
       for (String childSitemap : parsed.childSitemaps()) {
-        FrontierEnqueueResult enqueue =
-            frontierRepository.enqueueUrl(childSitemap, FrontierUrlKind.SITEMAP, 90, Instant.now());
-        if (enqueue.inserted()) {
-          urlsEnqueued++;
-          sitemapUrlsEnqueued++;
-        }
+        enqueueRequests.add(
+            new FrontierEnqueueRequest(childSitemap, FrontierUrlKind.SITEMAP, 90, enqueuedAt));
       }
-
+      int childSitemapCount = enqueueRequests.size();
       int candidateBudget = properties.getFrontier().getMaxJobCandidatesPerSitemap();
       for (String candidate : parsed.urls()) {
         if (candidateBudget <= 0) {
@@ -232,14 +473,23 @@ public class FrontierSchedulerService {
         if (!jobSignalHeuristics.isJobLike(candidate)) {
           continue;
         }
-        FrontierEnqueueResult enqueue =
-            frontierRepository.enqueueUrl(candidate, FrontierUrlKind.CANDIDATE, 50, Instant.now());
-        if (enqueue.inserted()) {
-          urlsEnqueued++;
+        enqueueRequests.add(
+            new FrontierEnqueueRequest(candidate, FrontierUrlKind.CANDIDATE, 50, enqueuedAt));
+        candidateBudget--;
+      }
+      List<FrontierEnqueueResult> enqueued = frontierRepository.enqueueUrls(enqueueRequests);
+      for (int i = 0; i < enqueued.size(); i++) {
+        if (!enqueued.get(i).inserted()) {
+          continue;
+        }
+        urlsEnqueued++;
+        if (i < childSitemapCount) {
+          sitemapUrlsEnqueued++;
+        } else {
           candidateUrlsEnqueued++;
         }
-        candidateBudget--;
       }
+      validatorRepository.save(claimed.url(), fetch.validators());
 
       FrontierFetchOutcome outcome =
           new FrontierFetchOutcome(
@@ -258,7 +508,8 @@ public class FrontierSchedulerService {
           sitemapUrlsEnqueued,
           candidateUrlsEnqueued,
           httpRequestCount,
-          http429Count);
+          http429Count,
+          false);
 
     } catch (Exception e) {
       FrontierBackoffDecision decision =
@@ -280,7 +531,8 @@ public class FrontierSchedulerService {
           sitemapUrlsEnqueued,
           candidateUrlsEnqueued,
           httpRequestCount,
-          http429Count);
+          http429Count,
+          false);
     }
   }
 
@@ -297,18 +549,139 @@ public class FrontierSchedulerService {
     return "unknown_error";
   }
 
-  private void increment(Map<String, Integer> target, String key) {
-    if (key == null || key.isBlank()) {
-      return;
-    }
-    target.put(key, target.getOrDefault(key, 0) + 1);
-  }
-
   private record FrontierProcessingResult(
       FrontierFetchOutcome outcome,
       int urlsEnqueued,
       int sitemapUrlsEnqueued,
       int candidateUrlsEnqueued,
       int httpRequestCount,
-      int http429Count) {}
+      int http429Count,
+      boolean notModified) {}
+
+  // One bounded run or drain: the fetch budget left to claim, the workers currently claiming or
+  // fetching, and the totals they add to.
+  private static final class FrontierRun {
+    private final String lockOwnerPrefix;
+    private final int batchSize;
+    private final boolean continuous;
+    private final AtomicLong remaining;
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+    private final RunTotals totals = new RunTotals();
+
+    private FrontierRun(
+        String lockOwnerPrefix, long maxFetches, int batchSize, boolean continuous) {
+      this.lockOwnerPrefix = lockOwnerPrefix;
+      this.remaining = new AtomicLong(maxFetches);
+      this.batchSize = Math.max(1, batchSize);
+      this.continuous = continuous;
+    }
+
+    private String lockOwnerPrefix() {
+      return lockOwnerPrefix;
+    }
+
+    private boolean continuous() {
+      return continuous;
+    }
+
+    private RunTotals totals() {
+      return totals;
+    }
+
+    private boolean active() {
+      return !stopped.get();
+    }
+
+    private void stop() {
+      stopped.set(true);
+      stopSignal.countDown();
+    }
+
+    // Sleeps between polls, waking early when the run is stopped.
+    private void pause(long millis) {
+      try {
+        stopSignal.await(millis, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException ignored) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    private void markBusy() {
+      busyWorkers.incrementAndGet();
+    }
+
+    private void markIdle() {
+      busyWorkers.decrementAndGet();
+    }
+
+    private int busyWorkers() {
+      return busyWorkers.get();
+    }
+
+    private boolean budgetSpent() {
+      return remaining.get() <= 0;
+    }
+
+    private int reserve() {
+      while (true) {
+        long left = remaining.get();
+        int granted = (int) Math.min(left, batchSize);
+        if (granted <= 0) {
+          return 0;
+        }
+        if (remaining.compareAndSet(left, left - granted)) {
+          return granted;
+        }
+      }
+    }
+
+    private void release(int unused) {
+      if (unused > 0) {
+        remaining.addAndGet(unused);
+      }
+    }
+  }
+
+  // Aggregated across workers; snapshots may be taken while they are still recording.
+  private static final class RunTotals {
+    private int urlsFetched;
+    private int urlsEnqueued;
+    private int sitemapUrlsEnqueued;
+    private int candidateUrlsEnqueued;
+    private int httpRequestCount;
+    private int http429Count;
+    private int notModifiedCount;
+    private final Map<String, Integer> statusBucketCounts = new LinkedHashMap<>();
+
+    private synchronized void record(FrontierProcessingResult processingResult) {
+      urlsFetched++;
+      urlsEnqueued += processingResult.urlsEnqueued();
+      sitemapUrlsEnqueued += processingResult.sitemapUrlsEnqueued();
+      candidateUrlsEnqueued += processingResult.candidateUrlsEnqueued();
+      httpRequestCount += processingResult.httpRequestCount();
+      http429Count += processingResult.http429Count();
+      if (processingResult.notModified()) {
+        notModifiedCount++;
+      }
+      String bucket = processingResult.outcome().hostStatusBucket();
+      if (bucket != null && !bucket.isBlank()) {
+        statusBucketCounts.merge(bucket, 1, Integer::sum);
+      }
+    }
+
+    private synchronized FrontierSchedulerResult snapshot(int blockedByBackoff) {
+      return new FrontierSchedulerResult(
+          urlsFetched,
+          blockedByBackoff,
+          urlsEnqueued,
+          sitemapUrlsEnqueued,
+          candidateUrlsEnqueued,
+          httpRequestCount,
+          http429Count,
+          notModifiedCount,
+          new LinkedHashMap<>(statusBucketCounts));
+    }
+  }
 }
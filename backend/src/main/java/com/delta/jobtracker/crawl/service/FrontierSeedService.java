@@ -1,6 +1,7 @@
 package com.delta.jobtracker.crawl.service;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
 import com.delta.jobtracker.crawl.model.FrontierEnqueueResult;
 import com.delta.jobtracker.crawl.model.FrontierSchedulerResult;
 import com.delta.jobtracker.crawl.model.FrontierSeedResponse;
@@ -9,6 +10,7 @@ import com.delta.jobtracker.crawl.persistence.FrontierRepository;
 import com.delta.jobtracker.crawl.robots.RobotsRules;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -70,9 +72,13 @@ public class FrontierSeedService {
         sitemapSeeds.add("https://" + host + "/sitemap.xml");
       }
 
+      Instant enqueuedAt = Instant.now();
+      List<FrontierEnqueueRequest> seedRequests = new ArrayList<>();
       for (String sitemapUrl : sitemapSeeds) {
-        FrontierEnqueueResult enqueueResult =
-            frontierRepository.enqueueUrl(sitemapUrl, FrontierUrlKind.SITEMAP, 100, Instant.now());
+        seedRequests.add(
+            new FrontierEnqueueRequest(sitemapUrl, FrontierUrlKind.SITEMAP, 100, enqueuedAt));
+      }
+      for (FrontierEnqueueResult enqueueResult : frontierRepository.enqueueUrls(seedRequests)) {
         if (enqueueResult.inserted()) {
           seededUrlsEnqueued++;
           seededSitemapUrlsEnqueued++;
@@ -1,15 +1,31 @@
 package com.delta.jobtracker.crawl.service;
 
+import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.model.HostCrawlState;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 @Service
 public class HostCrawlStateService {
+  private static final Logger log = LoggerFactory.getLogger(HostCrawlStateService.class);
   private static final List<Duration> BACKOFF_STEPS =
       List.of(
           Duration.ofMinutes(5),
@@ -19,9 +35,49 @@ public class HostCrawlStateService {
           Duration.ofMinutes(1440));
 
   private final CrawlJdbcRepository repository;
+  private final CrawlerProperties properties;
+  private final Map<String, HostCrawlState> states = new ConcurrentHashMap<>();
+  private final Set<String> dirtyHosts = ConcurrentHashMap.newKeySet();
+  private final Object flushLock = new Object();
 
-  public HostCrawlStateService(CrawlJdbcRepository repository) {
+  private ScheduledExecutorService flusher;
+
+  public HostCrawlStateService(CrawlJdbcRepository repository, CrawlerProperties properties) {
     this.repository = repository;
+    this.properties = properties;
+  }
+
+  @PostConstruct
+  public void start() {
+    try {
+      for (HostCrawlState state : repository.findAllHostCrawlStates()) {
+        if (state != null && state.host() != null && !state.host().isBlank()) {
+          states.putIfAbsent(normalizeHost(state.host()), state);
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Failed to load host crawl state; starting with an empty cache", e);
+    }
+    long intervalMs = properties.getHostState().getFlushIntervalMs();
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable);
+              thread.setName("host-crawl-state-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    flusher.scheduleWithFixedDelay(
+        this::flushQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (flusher != null) {
+      flusher.shutdownNow();
+      flusher = null;
+    }
+    flushQuietly();
   }
 
   public boolean isInCooldown(String host) {
@@ -32,7 +88,7 @@ public class HostCrawlStateService {
     if (host == null || host.isBlank()) {
       return null;
     }
-    HostCrawlState state = repository.findHostCrawlState(normalizeHost(host));
+    HostCrawlState state = states.get(normalizeHost(host));
     if (state == null || state.nextAllowedAt() == null) {
       return null;
     }
@@ -47,7 +103,7 @@ public class HostCrawlStateService {
     if (host == null || host.isBlank()) {
       return 0;
     }
-    HostCrawlState state = repository.findHostCrawlState(normalizeHost(host));
+    HostCrawlState state = states.get(normalizeHost(host));
     return state == null ? 0 : Math.max(0, state.consecutiveFailures());
   }
 
@@ -57,17 +113,31 @@ public class HostCrawlStateService {
   }
 
   public void recordFailure(String host, String errorCategory) {
+    recordFailure(host, errorCategory, null);
+  }
+
+  public void recordFailure(String host, String errorCategory, Instant resumeAt) {
     if (host == null || host.isBlank()) {
       return;
     }
     String normalized = normalizeHost(host);
-    HostCrawlState existing = repository.findHostCrawlState(normalized);
-    int failures = existing == null ? 0 : existing.consecutiveFailures();
-    int nextFailures = Math.max(1, failures + 1);
-    Duration backoff = backoffFor(nextFailures);
     Instant now = Instant.now();
-    Instant nextAllowedAt = backoff == null ? null : now.plus(backoff);
-    repository.upsertHostCrawlState(normalized, nextFailures, errorCategory, now, nextAllowedAt);
+    states.compute(
+        normalized,
+        (key, existing) -> {
+          int failures = existing == null ? 0 : existing.consecutiveFailures();
+          int nextFailures = Math.max(1, failures + 1);
+          Instant nextAllowedAt;
+          if (resumeAt != null) {
+            // A server-provided resume time (Retry-After) replaces the local ladder.
+            nextAllowedAt = resumeAt;
+          } else {
+            Duration backoff = backoffFor(nextFailures);
+            nextAllowedAt = backoff == null ? null : now.plus(backoff);
+          }
+          return new HostCrawlState(key, nextFailures, errorCategory, now, nextAllowedAt);
+        });
+    dirtyHosts.add(normalized);
   }
 
   public void recordSuccess(String host) {
@@ -75,17 +145,76 @@ public class HostCrawlStateService {
       return;
     }
     String normalized = normalizeHost(host);
-    HostCrawlState existing = repository.findHostCrawlState(normalized);
-    if (existing == null) {
-      return;
+    AtomicBoolean changed = new AtomicBoolean(false);
+    states.computeIfPresent(
+        normalized,
+        (key, existing) -> {
+          if (existing.consecutiveFailures() == 0 && existing.nextAllowedAt() == null) {
+            return existing;
+          }
+          changed.set(true);
+          return new HostCrawlState(key, 0, existing.lastErrorCategory(), Instant.now(), null);
+        });
+    if (changed.get()) {
+      dirtyHosts.add(normalized);
     }
-    repository.upsertHostCrawlState(
-        normalized, 0, existing.lastErrorCategory(), Instant.now(), null);
   }
 
   public List<HostCrawlState> listCooldownHosts(Integer limit) {
     int safeLimit = limit == null ? 100 : Math.max(1, Math.min(limit, 500));
-    return repository.findHostsInCooldown(Instant.now(), safeLimit);
+    Instant now = Instant.now();
+    return states.values().stream()
+        .filter(state -> state.nextAllowedAt() != null && state.nextAllowedAt().isAfter(now))
+        .sorted(Comparator.comparing(HostCrawlState::nextAllowedAt))
+        .limit(safeLimit)
+        .toList();
+  }
+
+  public int pendingWrites() {
+    return dirtyHosts.size();
+  }
+
+  public void flush() {
+    synchronized (flushLock) {
+      int batchSize = properties.getHostState().getFlushBatchSize();
+      List<HostCrawlState> batch = new ArrayList<>();
+      Iterator<String> iterator = dirtyHosts.iterator();
+      while (iterator.hasNext()) {
+        String host = iterator.next();
+        iterator.remove();
+        HostCrawlState state = states.get(host);
+        if (state != null) {
+          batch.add(state);
+        }
+        if (batch.size() >= batchSize) {
+          writeBatch(batch);
+          batch = new ArrayList<>();
+        }
+      }
+      writeBatch(batch);
+    }
+  }
+
+  private void writeBatch(List<HostCrawlState> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      repository.upsertHostCrawlStates(batch);
+    } catch (RuntimeException e) {
+      for (HostCrawlState state : batch) {
+        dirtyHosts.add(state.host());
+      }
+      throw e;
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.warn("Failed to flush host crawl state; {} hosts pending", dirtyHosts.size(), e);
+    }
   }
 
   private Duration backoffFor(int failures) {
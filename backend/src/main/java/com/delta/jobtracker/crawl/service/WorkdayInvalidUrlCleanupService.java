@@ -1,6 +1,8 @@
 package com.delta.jobtracker.crawl.service;
 
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.model.JobPostingUrlRef;
 import com.delta.jobtracker.crawl.model.WorkdayInvalidUrlCleanupResponse;
@@ -31,6 +33,15 @@ public class WorkdayInvalidUrlCleanupService {
 
   public WorkdayInvalidUrlCleanupResponse cleanupInvalidWorkdayUrls(
       Integer limit, Integer batchSize, boolean dryRun) {
+    // Bulk cleanup yields to crawl and discovery traffic for global HTTP permits.
+    try (TrafficClassContext.Scope ignored =
+        TrafficClassContext.activate(TrafficClass.MAINTENANCE)) {
+      return cleanup(limit, batchSize, dryRun);
+    }
+  }
+
+  private WorkdayInvalidUrlCleanupResponse cleanup(
+      Integer limit, Integer batchSize, boolean dryRun) {
     int safeLimit = limit == null || limit <= 0 ? Integer.MAX_VALUE : Math.max(1, limit);
     int safeBatchSize =
         batchSize == null || batchSize <= 0 ? DEFAULT_BATCH_SIZE : Math.max(1, batchSize);
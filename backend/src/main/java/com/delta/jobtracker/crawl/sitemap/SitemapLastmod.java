@@ -0,0 +1,57 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+// <lastmod> values are W3C datetimes (YYYY, YYYY-MM, YYYY-MM-DD or a full timestamp). Sites also
+// publish timestamps without an offset; those are read as UTC.
+public final class SitemapLastmod {
+  private SitemapLastmod() {}
+
+  // Null when the value is blank or not a W3C datetime.
+  public static Instant parse(String lastmod) {
+    if (lastmod == null || lastmod.isBlank()) {
+      return null;
+    }
+    String value = lastmod.trim();
+    try {
+      if (value.contains("T")) {
+        return hasOffset(value)
+            ? OffsetDateTime.parse(value).toInstant()
+            : LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+      }
+      return switch (value.length()) {
+        case 4 -> Year.parse(value).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        case 7 -> YearMonth.parse(value).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        default -> LocalDate.parse(value).atStartOfDay().toInstant(ZoneOffset.UTC);
+      };
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  // True unless both values are known and current is not later than previous. Values that do not
+  // parse count as changed whenever their text differs.
+  public static boolean isNewer(String current, String previous) {
+    if (current == null || current.isBlank() || previous == null || previous.isBlank()) {
+      return true;
+    }
+    Instant currentInstant = parse(current);
+    Instant previousInstant = parse(previous);
+    if (currentInstant == null || previousInstant == null) {
+      return !current.trim().equals(previous.trim());
+    }
+    return currentInstant.isAfter(previousInstant);
+  }
+
+  private static boolean hasOffset(String value) {
+    int time = value.indexOf('T');
+    return value.endsWith("Z") || value.indexOf('+', time) >= 0 || value.indexOf('-', time) >= 0;
+  }
+}
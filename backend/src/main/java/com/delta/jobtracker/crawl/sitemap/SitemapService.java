@@ -1,182 +1,354 @@
 package com.delta.jobtracker.crawl.sitemap;
 
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudget;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudgetContext;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
 import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
 import com.delta.jobtracker.crawl.model.SitemapFetchRecord;
 import com.delta.jobtracker.crawl.model.SitemapUrlEntry;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
-import java.io.ByteArrayInputStream;
+import com.delta.jobtracker.crawl.sitemap.SitemapXmlReader.SitemapXml;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.zip.GZIPInputStream;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.parser.Parser;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SitemapService {
   private static final Logger log = LoggerFactory.getLogger(SitemapService.class);
-  private static final int MAX_SITEMAP_BYTES = 2_000_000;
+  private static final String SITEMAP_ACCEPT = "application/xml,text/xml;q=0.9,*/*;q=0.1";
+  private static final int MAX_CACHED_SITEMAPS = 512;
+  private static final int MAX_CACHED_URLS_PER_SITEMAP = 5_000;
+  private final CrawlerProperties.Sitemap settings;
   private final PoliteHttpClient httpClient;
   private final RobotsTxtService robotsTxtService;
+  private final Executor fetchExecutor;
+  private final Map<String, CachedSitemap> parsedSitemaps =
+      Collections.synchronizedMap(
+          new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSitemap> eldest) {
+              return size() > MAX_CACHED_SITEMAPS;
+            }
+          });
 
-  public SitemapService(PoliteHttpClient httpClient, RobotsTxtService robotsTxtService) {
+  public SitemapService(
+      CrawlerProperties properties,
+      PoliteHttpClient httpClient,
+      RobotsTxtService robotsTxtService,
+      @Qualifier("sitemapExecutor") Executor fetchExecutor) {
+    this.settings = properties.getSitemap();
     this.httpClient = httpClient;
     this.robotsTxtService = robotsTxtService;
+    this.fetchExecutor = fetchExecutor;
   }
 
   public SitemapDiscoveryResult discover(
       List<String> seedSitemaps, int maxDepth, int maxSitemaps, int maxUrls) {
-    ArrayDeque<SitemapTask> queue = new ArrayDeque<>();
+    return discover(seedSitemaps, maxDepth, maxSitemaps, maxUrls, Map.of());
+  }
+
+  // knownSitemapLastmods maps child sitemap URLs to the index lastmod seen on the last complete
+  // crawl. Children whose index lastmod has not moved past it are skipped; seeds are always read.
+  // Discovered entries carry the sitemap that listed them.
+  //
+  // Each depth level is fetched concurrently, but outcomes are merged in queue order, so the
+  // result is the same breadth-first walk a one-at-a-time crawl would produce.
+  public SitemapDiscoveryResult discover(
+      List<String> seedSitemaps,
+      int maxDepth,
+      int maxSitemaps,
+      int maxUrls,
+      Map<String, String> knownSitemapLastmods) {
+    LinkedHashMap<String, SitemapTask> level = new LinkedHashMap<>();
     for (String seed : seedSitemaps) {
       String normalized = normalizeSitemapUrl(seed);
       if (normalized != null) {
-        queue.addLast(new SitemapTask(normalized, 0));
+        level.putIfAbsent(normalized, new SitemapTask(normalized, 0, null));
       }
     }
 
     LinkedHashSet<String> visitedSitemaps = new LinkedHashSet<>();
-    LinkedHashMap<String, String> discoveredUrls = new LinkedHashMap<>();
+    LinkedHashSet<String> unchangedSitemaps = new LinkedHashSet<>();
+    LinkedHashMap<String, SitemapUrlEntry> discoveredUrls = new LinkedHashMap<>();
     List<SitemapFetchRecord> fetchedRecords = new ArrayList<>();
     Map<String, Integer> errors = new LinkedHashMap<>();
+    FetchContext context =
+        new FetchContext(
+            bodySpill(),
+            maxUrls,
+            Thread.currentThread(),
+            CanaryHttpBudgetContext.current(),
+            TrafficClassContext.current(),
+            new AtomicBoolean());
 
-    while (!queue.isEmpty() && visitedSitemaps.size() < maxSitemaps) {
-      SitemapTask current = queue.removeFirst();
-      if (current.depth() > maxDepth || visitedSitemaps.contains(current.url())) {
-        continue;
+    while (!level.isEmpty() && visitedSitemaps.size() < maxSitemaps) {
+      List<SitemapTask> batch = new ArrayList<>();
+      for (SitemapTask task : level.values()) {
+        if (visitedSitemaps.size() >= maxSitemaps) {
+          break;
+        }
+        if (task.depth() <= maxDepth && visitedSitemaps.add(task.url())) {
+          batch.add(task);
+        }
       }
-      visitedSitemaps.add(current.url());
 
-      if (!robotsTxtService.isAllowed(current.url())) {
-        log.debug("Sitemap blocked by robots: {}", current.url());
-        increment(errors, "blocked_by_robots");
-        continue;
-      }
+      LinkedHashMap<String, SitemapTask> nextLevel = new LinkedHashMap<>();
+      boolean stopped =
+          fetchLevel(
+              batch,
+              context,
+              outcome -> {
+                if (outcome.errorKey() != null) {
+                  increment(errors, outcome.errorKey());
+                  return false;
+                }
+                SitemapTask current = outcome.task();
+                ParsedSitemap parsed = outcome.parsed();
+                if (!parsed.childSitemaps().isEmpty() && current.depth() < maxDepth) {
+                  for (SitemapUrlEntry child : parsed.childSitemaps()) {
+                    if (visitedSitemaps.contains(child.url())
+                        || nextLevel.containsKey(child.url())) {
+                      continue;
+                    }
+                    String knownLastmod = knownSitemapLastmods.get(child.url());
+                    if (knownLastmod != null
+                        && !SitemapLastmod.isNewer(child.lastmod(), knownLastmod)) {
+                      unchangedSitemaps.add(child.url());
+                      continue;
+                    }
+                    if (visitedSitemaps.size() + nextLevel.size() < maxSitemaps) {
+                      nextLevel.put(
+                          child.url(),
+                          new SitemapTask(child.url(), current.depth() + 1, child.lastmod()));
+                    }
+                  }
+                }
 
-      HttpFetchResult fetch =
-          httpClient.get(
-              current.url(), "application/xml,text/xml;q=0.9,*/*;q=0.1", MAX_SITEMAP_BYTES);
-      if (!fetch.isSuccessful()) {
-        increment(errors, errorKey(fetch));
-        continue;
-      }
-      String xmlPayload;
-      try {
-        xmlPayload = extractXmlPayload(current.url(), fetch);
-      } catch (IOException e) {
-        increment(errors, "gzip_decode_error");
-        continue;
-      }
-      if (xmlPayload == null || xmlPayload.isBlank()) {
-        increment(errors, "empty_sitemap_payload");
-        continue;
-      }
+                boolean complete = outcome.complete();
+                int urlCountFromCurrent = 0;
+                for (SitemapUrlEntry entry : parsed.urls()) {
+                  String loc = entry.url();
+                  if (discoveredUrls.containsKey(loc)) {
+                    continue;
+                  }
+                  if (discoveredUrls.size() >= maxUrls) {
+                    complete = false;
+                    break;
+                  }
+                  discoveredUrls.put(loc, new SitemapUrlEntry(loc, entry.lastmod(), current.url()));
+                  urlCountFromCurrent++;
+                }
 
-      int urlCountFromCurrent = 0;
-      Document xml = Jsoup.parse(xmlPayload, "", Parser.xmlParser());
-
-      List<Element> childSitemaps = xml.select("sitemap > loc");
-      if (!childSitemaps.isEmpty() && current.depth() < maxDepth) {
-        for (Element loc : childSitemaps) {
-          String child = normalizeSitemapUrl(loc.text());
-          if (child != null
-              && !visitedSitemaps.contains(child)
-              && visitedSitemaps.size() + queue.size() < maxSitemaps) {
-            queue.addLast(new SitemapTask(child, current.depth() + 1));
-          }
-        }
+                fetchedRecords.add(
+                    new SitemapFetchRecord(
+                        current.url(),
+                        outcome.fetchedAt(),
+                        urlCountFromCurrent,
+                        outcome.bytesProcessed(),
+                        outcome.peakBufferedBytes(),
+                        current.lastmod(),
+                        complete));
+                return discoveredUrls.size() >= maxUrls;
+              });
+      if (stopped) {
+        break;
       }
+      level = nextLevel;
+    }
 
-      for (Element urlElement : xml.select("url")) {
-        Element locElement = urlElement.selectFirst("loc");
-        if (locElement == null) {
-          continue;
-        }
-        String loc = normalizeSitemapUrl(locElement.text());
-        if (loc == null || discoveredUrls.containsKey(loc) || discoveredUrls.size() >= maxUrls) {
+    return new SitemapDiscoveryResult(
+        fetchedRecords,
+        new ArrayList<>(discoveredUrls.values()),
+        errors,
+        new ArrayList<>(unchangedSitemaps));
+  }
+
+  // Runs the batch on fetchExecutor with at most fetchConcurrency fetches in flight, and at most
+  // perHostFetchConcurrency per host, handing outcomes to merge in batch order. Returns true once
+  // merge asks to stop: tasks not yet started are dropped, and running ones skip whatever work
+  // is left and discard their bodies.
+  private boolean fetchLevel(
+      List<SitemapTask> batch, FetchContext context, Predicate<SitemapOutcome> merge) {
+    int size = batch.size();
+    SitemapOutcome[] outcomes = new SitemapOutcome[size];
+    boolean[] started = new boolean[size];
+    boolean[] finished = new boolean[size];
+    BlockingQueue<Integer> completions = new LinkedBlockingQueue<>();
+    Map<String, Integer> hostsInFlight = new HashMap<>();
+    int inFlight = 0;
+    int nextToMerge = 0;
+    while (nextToMerge < size) {
+      for (int i = 0; i < size && inFlight < settings.getFetchConcurrency(); i++) {
+        String host = hostOf(batch.get(i).url());
+        if (started[i]
+            || hostsInFlight.getOrDefault(host, 0) >= settings.getPerHostFetchConcurrency()) {
           continue;
         }
-        Element lastmodElement = urlElement.selectFirst("lastmod");
-        String lastmod = lastmodElement == null ? null : lastmodElement.text().trim();
-        discoveredUrls.put(loc, lastmod);
-        urlCountFromCurrent++;
+        started[i] = true;
+        inFlight++;
+        hostsInFlight.merge(host, 1, Integer::sum);
+        int index = i;
+        SitemapTask task = batch.get(i);
+        fetchExecutor.execute(
+            () -> {
+              try {
+                outcomes[index] = fetchInContext(task, context);
+              } catch (RuntimeException e) {
+                outcomes[index] = SitemapOutcome.failed(task, e);
+              } finally {
+                completions.add(index);
+              }
+            });
       }
 
-      fetchedRecords.add(new SitemapFetchRecord(current.url(), Instant.now(), urlCountFromCurrent));
-      if (discoveredUrls.size() >= maxUrls) {
-        break;
+      int done;
+      try {
+        done = completions.take();
+      } catch (InterruptedException e) {
+        context.stopped().set(true);
+        Thread.currentThread().interrupt();
+        return true;
+      }
+      finished[done] = true;
+      inFlight--;
+      hostsInFlight.merge(hostOf(batch.get(done).url()), -1, Integer::sum);
+      if (outcomes[done].failure() != null) {
+        // A canary abort (or a bug) ends the whole discovery, as it did when fetches ran inline.
+        context.stopped().set(true);
+        throw outcomes[done].failure();
+      }
+      while (nextToMerge < size && finished[nextToMerge]) {
+        if (merge.test(outcomes[nextToMerge++])) {
+          context.stopped().set(true);
+          return true;
+        }
       }
     }
-
-    List<SitemapUrlEntry> entries =
-        discoveredUrls.entrySet().stream()
-            .map(entry -> new SitemapUrlEntry(entry.getKey(), entry.getValue()))
-            .toList();
-    return new SitemapDiscoveryResult(fetchedRecords, entries, errors);
+    return false;
   }
 
-  private String errorKey(HttpFetchResult fetch) {
-    if (fetch.errorCode() != null) {
-      return fetch.errorCode();
+  // Executor threads take on the caller's canary budget and traffic class; inline runs already
+  // have them.
+  private SitemapOutcome fetchInContext(SitemapTask task, FetchContext context) {
+    if (Thread.currentThread() == context.caller()) {
+      return fetch(task, context);
     }
-    if (fetch.statusCode() > 0) {
-      return "http_" + fetch.statusCode();
+    try (CanaryHttpBudgetContext.Scope ignored = CanaryHttpBudgetContext.activate(context.budget());
+        TrafficClassContext.Scope ignoredClass =
+            TrafficClassContext.activate(context.trafficClass())) {
+      return fetch(task, context);
     }
-    return "unknown_error";
-  }
-
-  private void increment(Map<String, Integer> errors, String key) {
-    errors.put(key, errors.getOrDefault(key, 0) + 1);
   }
 
-  private String extractXmlPayload(String sitemapUrl, HttpFetchResult fetch) throws IOException {
-    byte[] bodyBytes = fetch.bodyBytes();
-    if (bodyBytes == null && fetch.body() != null) {
-      bodyBytes = fetch.body().getBytes(StandardCharsets.UTF_8);
+  private SitemapOutcome fetch(SitemapTask task, FetchContext context) {
+    AtomicBoolean stopped = context.stopped();
+    if (stopped.get()) {
+      return SitemapOutcome.error(task, "discovery_stopped");
+    }
+    if (!robotsTxtService.isAllowed(task.url())) {
+      log.debug("Sitemap blocked by robots: {}", task.url());
+      return SitemapOutcome.error(task, "blocked_by_robots");
     }
-    if (bodyBytes == null) {
-      return fetch.body();
+    if (stopped.get()) {
+      return SitemapOutcome.error(task, "discovery_stopped");
     }
 
-    if (isGzipPayload(sitemapUrl, fetch, bodyBytes)) {
-      try (GZIPInputStream gzipInputStream =
-          new GZIPInputStream(new ByteArrayInputStream(bodyBytes))) {
-        return new String(gzipInputStream.readAllBytes(), StandardCharsets.UTF_8);
+    CachedSitemap cached = parsedSitemaps.get(task.url());
+    HttpFetchResult fetch =
+        cached == null
+            ? httpClient.getCached(
+                task.url(), SITEMAP_ACCEPT, settings.getMaxBytes(), context.spill())
+            : httpClient.getConditional(
+                task.url(),
+                SITEMAP_ACCEPT,
+                settings.getMaxBytes(),
+                cached.validators(),
+                context.spill());
+    if (cached != null && fetch.isNotModified()) {
+      ParsedSitemap parsed = cached.sitemap();
+      return SitemapOutcome.success(task, parsed, parsed.childSitemaps().isEmpty(), 0L, fetch);
+    }
+    if (!fetch.isSuccessful()) {
+      fetch.discardBody();
+      return SitemapOutcome.error(task, errorKey(fetch));
+    }
+    SitemapXml xml;
+    try {
+      if (stopped.get()) {
+        return SitemapOutcome.error(task, "discovery_stopped");
       }
+      // No single sitemap can contribute more than maxUrls, so stop reading there.
+      xml = SitemapXmlReader.read(fetch, this::normalizeSitemapUrl, context.maxUrls());
+    } catch (IOException e) {
+      return SitemapOutcome.error(task, "gzip_decode_error");
+    } finally {
+      fetch.discardBody();
+    }
+    if (xml == null) {
+      return SitemapOutcome.error(task, "empty_sitemap_payload");
+    }
+    ParsedSitemap parsed = new ParsedSitemap(xml.childSitemapEntries(), xml.urls());
+    if (xml.truncated()) {
+      // A cut-short parse must not answer a later discover with a larger maxUrls.
+      parsedSitemaps.remove(task.url());
+    } else {
+      remember(task.url(), fetch, parsed);
+    }
+    boolean complete = !xml.truncated() && xml.childSitemapEntries().isEmpty();
+    return SitemapOutcome.success(task, parsed, complete, xml.decodedBytes(), fetch);
+  }
+
+  private BodySpill bodySpill() {
+    String directory = settings.getSpillDirectory();
+    return new BodySpill(
+        settings.getSpillThresholdBytes(), directory.isBlank() ? null : Path.of(directory));
+  }
+
+  private void remember(String sitemapUrl, HttpFetchResult fetch, ParsedSitemap parsed) {
+    HttpValidators validators = fetch.validators();
+    if (validators == null || parsed.urls().size() > MAX_CACHED_URLS_PER_SITEMAP) {
+      parsedSitemaps.remove(sitemapUrl);
+      return;
     }
-    return new String(bodyBytes, StandardCharsets.UTF_8);
+    parsedSitemaps.put(sitemapUrl, new CachedSitemap(validators, parsed));
   }
 
-  private boolean isGzipPayload(String sitemapUrl, HttpFetchResult fetch, byte[] bodyBytes) {
-    String requestedUrl = sitemapUrl == null ? "" : sitemapUrl.toLowerCase(Locale.ROOT);
-    String resolvedUrl =
-        fetch.finalUrlOrRequested() == null
-            ? ""
-            : fetch.finalUrlOrRequested().toLowerCase(Locale.ROOT);
-    if (requestedUrl.endsWith(".gz") || resolvedUrl.endsWith(".gz")) {
-      return true;
+  private String errorKey(HttpFetchResult fetch) {
+    if (fetch.errorCode() != null) {
+      return fetch.errorCode();
     }
-    if (containsIgnoreCase(fetch.contentEncoding(), "gzip")) {
-      return true;
+    if (fetch.statusCode() > 0) {
+      return "http_" + fetch.statusCode();
     }
-    return bodyBytes.length >= 2 && (bodyBytes[0] & 0xFF) == 0x1f && (bodyBytes[1] & 0xFF) == 0x8b;
+    return "unknown_error";
   }
 
-  private boolean containsIgnoreCase(String value, String token) {
-    return value != null && value.toLowerCase(Locale.ROOT).contains(token);
+  private void increment(Map<String, Integer> errors, String key) {
+    errors.put(key, errors.getOrDefault(key, 0) + 1);
   }
 
   private String normalizeSitemapUrl(String url) {
@@ -193,5 +365,62 @@ public class SitemapService {
     return normalized.toLowerCase(Locale.ROOT).startsWith("http") ? normalized : null;
   }
 
-  private record SitemapTask(String url, int depth) {}
+  private String hostOf(String url) {
+    try {
+      String host = URI.create(url).getHost();
+      return host == null ? "" : host.toLowerCase(Locale.ROOT);
+    } catch (IllegalArgumentException e) {
+      return "";
+    }
+  }
+
+  private record SitemapTask(String url, int depth, String lastmod) {}
+
+  private record ParsedSitemap(List<SitemapUrlEntry> childSitemaps, List<SitemapUrlEntry> urls) {}
+
+  private record CachedSitemap(HttpValidators validators, ParsedSitemap sitemap) {}
+
+  private record FetchContext(
+      BodySpill spill,
+      int maxUrls,
+      Thread caller,
+      CanaryHttpBudget budget,
+      TrafficClass trafficClass,
+      AtomicBoolean stopped) {}
+
+  // Exactly one of errorKey, failure, parsed is set.
+  private record SitemapOutcome(
+      SitemapTask task,
+      ParsedSitemap parsed,
+      boolean complete,
+      long bytesProcessed,
+      long peakBufferedBytes,
+      Instant fetchedAt,
+      String errorKey,
+      RuntimeException failure) {
+    static SitemapOutcome success(
+        SitemapTask task,
+        ParsedSitemap parsed,
+        boolean complete,
+        long bytesProcessed,
+        HttpFetchResult fetch) {
+      return new SitemapOutcome(
+          task,
+          parsed,
+          complete,
+          bytesProcessed,
+          fetch.peakBufferedBytes(),
+          Instant.now(),
+          null,
+          null);
+    }
+
+    static SitemapOutcome error(SitemapTask task, String errorKey) {
+      return new SitemapOutcome(task, null, false, 0L, 0L, Instant.now(), errorKey, null);
+    }
+
+    static SitemapOutcome failed(SitemapTask task, RuntimeException failure) {
+      return new SitemapOutcome(task, null, false, 0L, 0L, Instant.now(), null, failure);
+    }
+  }
 }
@@ -0,0 +1,327 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.SitemapUrlEntry;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Pulls <loc>/<lastmod> of <sitemap> and <url> entries out of a sitemap without building a
+// document.
+// Reading stops once maxUrls distinct page URLs have been seen. Payloads the StAX parser rejects
+// (bad declarations, several root elements) fall back to Jsoup's lenient XML parser, unless the
+// body was spilled to disk; those keep whatever streamed before the error.
+final class SitemapXmlReader {
+  // The sitemap protocol caps an uncompressed sitemap at 50MB; stop inflating gzip past that.
+  static final long MAX_DECODED_BYTES = 52_428_800L;
+
+  private static final Logger log = LoggerFactory.getLogger(SitemapXmlReader.class);
+  private static final XMLInputFactory XML_INPUT_FACTORY = newInputFactory();
+  private static final int GZIP_BUFFER = 16 * 1024;
+
+  private SitemapXmlReader() {}
+
+  // Null when the payload is empty.
+  static SitemapXml read(HttpFetchResult fetch, UnaryOperator<String> normalizer, int maxUrls)
+      throws IOException {
+    byte[] bodyBytes = fetch.bodyBytes();
+    if (bodyBytes == null && !fetch.isSpilled()) {
+      return read(fetch.body(), normalizer, maxUrls);
+    }
+    if (bodyBytes != null && bodyBytes.length == 0) {
+      return null;
+    }
+    Collector collector = new Collector(normalizer, maxUrls);
+    CountingInputStream counted = null;
+    try (InputStream raw = new BufferedInputStream(fetch.bodyStream())) {
+      counted = new CountingInputStream(isGzip(raw) ? new GZIPInputStream(raw, GZIP_BUFFER) : raw);
+      readStreaming(XML_INPUT_FACTORY.createXMLStreamReader(counted), collector);
+      return collector.result(counted.count());
+    } catch (XMLStreamException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      if (counted != null && counted.capped()) {
+        log.debug("Sitemap passed {} decoded bytes; keeping what was read", MAX_DECODED_BYTES);
+        collector.markTruncated();
+        return collector.result(counted.count());
+      }
+      if (fetch.isSpilled()) {
+        log.debug("Streaming parse of spilled sitemap failed: {}", e.getMessage());
+        collector.markTruncated();
+        return collector.result(counted == null ? 0L : counted.count());
+      }
+      log.debug("Streaming sitemap parse failed, using lenient parse: {}", e.getMessage());
+    }
+    return readLenient(decode(bodyBytes, isGzipPayload(bodyBytes), fetch), normalizer, maxUrls);
+  }
+
+  static SitemapXml read(String xmlPayload, UnaryOperator<String> normalizer, int maxUrls) {
+    if (xmlPayload == null || xmlPayload.isBlank()) {
+      return null;
+    }
+    try (Reader in = new StringReader(xmlPayload)) {
+      Collector collector = new Collector(normalizer, maxUrls);
+      readStreaming(XML_INPUT_FACTORY.createXMLStreamReader(in), collector);
+      return collector.result(xmlPayload.length());
+    } catch (XMLStreamException | IOException e) {
+      log.debug("Streaming sitemap parse failed, using lenient parse: {}", e.getMessage());
+    }
+    return readLenient(xmlPayload, normalizer, maxUrls);
+  }
+
+  private static void readStreaming(XMLStreamReader xml, Collector collector)
+      throws XMLStreamException {
+    try {
+      String parent = null;
+      List<String> open = new ArrayList<>();
+      while (xml.hasNext()) {
+        int event = xml.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String name = xml.getLocalName();
+          boolean inEntry = "url".equals(parent) || "sitemap".equals(parent);
+          if ("loc".equals(name) && inEntry) {
+            collector.loc(xml.getElementText());
+            continue;
+          }
+          if ("lastmod".equals(name) && inEntry) {
+            collector.lastmod(xml.getElementText());
+            continue;
+          }
+          if ("url".equals(name) || "sitemap".equals(name)) {
+            collector.startEntry();
+          }
+          open.add(name);
+          parent = name;
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          String name = xml.getLocalName();
+          if ("sitemap".equals(name)) {
+            collector.endSitemap();
+          }
+          if ("url".equals(name) && !collector.endUrl()) {
+            return;
+          }
+          if (!open.isEmpty()) {
+            open.remove(open.size() - 1);
+          }
+          parent = open.isEmpty() ? null : open.get(open.size() - 1);
+        }
+      }
+    } finally {
+      xml.close();
+    }
+  }
+
+  // The previous DOM-based extraction, kept for payloads that are not well-formed XML.
+  private static SitemapXml readLenient(
+      String xmlPayload, UnaryOperator<String> normalizer, int maxUrls) {
+    if (xmlPayload == null || xmlPayload.isBlank()) {
+      return null;
+    }
+    Document xml = Jsoup.parse(xmlPayload, "", Parser.xmlParser());
+    Collector collector = new Collector(normalizer, maxUrls);
+    for (Element sitemapElement : xml.select("sitemap")) {
+      if (readLenientEntry(sitemapElement, collector)) {
+        collector.endSitemap();
+      }
+    }
+    for (Element urlElement : xml.select("url")) {
+      if (readLenientEntry(urlElement, collector) && !collector.endUrl()) {
+        break;
+      }
+    }
+    return collector.result(xmlPayload.length());
+  }
+
+  private static boolean readLenientEntry(Element entry, Collector collector) {
+    Element locElement = entry.selectFirst("loc");
+    if (locElement == null) {
+      return false;
+    }
+    collector.startEntry();
+    collector.loc(locElement.text());
+    Element lastmodElement = entry.selectFirst("lastmod");
+    if (lastmodElement != null) {
+      collector.lastmod(lastmodElement.text());
+    }
+    return true;
+  }
+
+  private static InputStream open(byte[] bodyBytes, boolean gzip) throws IOException {
+    InputStream in = new ByteArrayInputStream(bodyBytes);
+    return gzip ? new GZIPInputStream(in) : in;
+  }
+
+  private static String decode(byte[] bodyBytes, boolean gzip, HttpFetchResult fetch)
+      throws IOException {
+    if (gzip) {
+      try (InputStream in = open(bodyBytes, true)) {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+      }
+    }
+    return new String(bodyBytes, fetch.charset());
+  }
+
+  // Peeks at the magic bytes; the stream must support mark/reset.
+  private static boolean isGzip(InputStream in) throws IOException {
+    in.mark(2);
+    int first = in.read();
+    int second = in.read();
+    in.reset();
+    return first == 0x1f && second == 0x8b;
+  }
+
+  private static boolean isGzipPayload(byte[] bodyBytes) {
+    // Transfer encodings are already decoded by the HTTP client, so a .gz URL or a gzip
+    // Content-Encoding alone no longer means the body is still compressed.
+    return bodyBytes.length >= 2 && (bodyBytes[0] & 0xFF) == 0x1f && (bodyBytes[1] & 0xFF) == 0x8b;
+  }
+
+  private static XMLInputFactory newInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    // Sitemaps never need a DTD; refusing them also rules out external entity expansion.
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return factory;
+  }
+
+  // decodedBytes counts the (inflated) XML bytes the parser consumed. Child sitemap entries
+  // carry the lastmod the index advertised for them.
+  record SitemapXml(
+      List<SitemapUrlEntry> childSitemapEntries,
+      List<SitemapUrlEntry> urls,
+      boolean truncated,
+      long decodedBytes) {
+    List<String> childSitemaps() {
+      return childSitemapEntries.stream().map(SitemapUrlEntry::url).toList();
+    }
+  }
+
+  // Counts what the parser pulls and refuses to go past MAX_DECODED_BYTES.
+  private static final class CountingInputStream extends FilterInputStream {
+    private final byte[] single = new byte[1];
+    private long count;
+    private boolean capped;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      long room = MAX_DECODED_BYTES - count;
+      if (room <= 0) {
+        capped = true;
+        return -1;
+      }
+      int read = super.read(b, off, (int) Math.min(len, room));
+      if (read > 0) {
+        count += read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      throw new IOException("skip not supported");
+    }
+
+    private long count() {
+      return count;
+    }
+
+    private boolean capped() {
+      return capped;
+    }
+  }
+
+  private static final class Collector {
+    private final UnaryOperator<String> normalizer;
+    private final int maxUrls;
+    private final Map<String, String> childSitemaps = new LinkedHashMap<>();
+    private final Map<String, String> urls = new LinkedHashMap<>();
+    private boolean truncated;
+    private String loc;
+    private String lastmod;
+
+    private Collector(UnaryOperator<String> normalizer, int maxUrls) {
+      this.normalizer = normalizer;
+      this.maxUrls = Math.max(1, maxUrls);
+    }
+
+    private void markTruncated() {
+      truncated = true;
+    }
+
+    private void startEntry() {
+      loc = null;
+      lastmod = null;
+    }
+
+    private void loc(String text) {
+      if (loc == null) {
+        loc = normalizer.apply(text);
+      }
+    }
+
+    private void lastmod(String text) {
+      if (lastmod == null && text != null) {
+        lastmod = text.trim();
+      }
+    }
+
+    private void endSitemap() {
+      if (loc != null) {
+        childSitemaps.putIfAbsent(loc, lastmod);
+      }
+    }
+
+    // False once the URL budget is spent and reading should stop.
+    private boolean endUrl() {
+      if (loc == null || urls.containsKey(loc)) {
+        return true;
+      }
+      if (urls.size() >= maxUrls) {
+        truncated = true;
+        return false;
+      }
+      urls.put(loc, lastmod);
+      return true;
+    }
+
+    private SitemapXml result(long decodedBytes) {
+      List<SitemapUrlEntry> entries = new ArrayList<>(urls.size());
+      urls.forEach((url, modified) -> entries.add(new SitemapUrlEntry(url, modified)));
+      List<SitemapUrlEntry> children = new ArrayList<>(childSitemaps.size());
+      childSitemaps.forEach((url, modified) -> children.add(new SitemapUrlEntry(url, modified)));
+      return new SitemapXml(children, entries, truncated, decodedBytes);
+    }
+  }
+}
@@ -8,9 +8,13 @@ public final class HashUtils {
   private HashUtils() {}
 
   public static String sha256Hex(String value) {
+    return sha256Hex(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static String sha256Hex(byte[] value) {
     try {
       MessageDigest digest = MessageDigest.getInstance("SHA-256");
-      byte[] hash = digest.digest(value.getBytes(StandardCharsets.UTF_8));
+      byte[] hash = digest.digest(value);
       StringBuilder out = new StringBuilder();
       for (byte b : hash) {
         out.append(String.format("%02x", b));
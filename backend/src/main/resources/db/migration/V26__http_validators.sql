@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS http_validators (
+    canonical_url TEXT PRIMARY KEY,
+    etag TEXT,
+    last_modified TEXT,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
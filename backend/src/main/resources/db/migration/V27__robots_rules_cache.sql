@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS robots_rules_cache (
+    host TEXT PRIMARY KEY,
+    robots_text TEXT,
+    unavailable BOOLEAN NOT NULL DEFAULT FALSE,
+    etag TEXT,
+    last_modified TEXT,
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_robots_rules_cache_expires_at
+    ON robots_rules_cache (expires_at);
@@ -0,0 +1,5 @@
+ALTER TABLE discovered_sitemaps
+    ADD COLUMN bytes_processed BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE discovered_sitemaps
+    ADD COLUMN peak_buffered_bytes BIGINT NOT NULL DEFAULT 0;
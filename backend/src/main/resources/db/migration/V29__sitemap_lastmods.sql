@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS sitemap_lastmods (
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    sitemap_url TEXT NOT NULL,
+    lastmod TEXT NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (company_id, sitemap_url)
+);
+
+CREATE TABLE IF NOT EXISTS page_lastmods (
+    company_id BIGINT NOT NULL REFERENCES companies(id) ON DELETE CASCADE,
+    url TEXT NOT NULL,
+    sitemap_url TEXT,
+    lastmod TEXT,
+    fetched_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (company_id, url)
+);
+
+CREATE INDEX IF NOT EXISTS idx_page_lastmods_company_sitemap
+    ON page_lastmods (company_id, sitemap_url);
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.when;
 import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.api.CrawlApiRunRequest;
 import com.delta.jobtracker.crawl.api.CrawlController;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.CrawlRunRequest;
 import com.delta.jobtracker.crawl.model.CrawlRunSummary;
 import com.delta.jobtracker.crawl.service.CareersDiscoveryRunService;
@@ -39,6 +40,7 @@ class CrawlControllerRunRequestDefaultsTest {
   @Mock private WorkdayInvalidUrlCleanupService workdayInvalidUrlCleanupService;
   @Mock private SecCanaryService secCanaryService;
   @Mock private HostCrawlStateService hostCrawlStateService;
+  @Mock private PoliteHttpClient httpClient;
 
   @Test
   void appliesApiDefaultCompanyLimitWhenMissingFromRequest() {
@@ -58,7 +60,8 @@ class CrawlControllerRunRequestDefaultsTest {
             workdayInvalidUrlCleanupService,
             properties,
             secCanaryService,
-            hostCrawlStateService);
+            hostCrawlStateService,
+            httpClient);
     controller.runCrawl(
         new CrawlApiRunRequest(
             List.of("AAPL"), null, 200, 150, null, null, null, false, true, true, null));
@@ -3,10 +3,16 @@ package com.delta.jobtracker.crawl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.delta.jobtracker.crawl.jobs.JobPostingExtractor;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -48,4 +54,37 @@ class JobPostingExtractorTest {
     assertNotNull(posting.datePosted());
     assertFalse(posting.contentHash().isBlank());
   }
+
+  @Test
+  void extractsFromResponseBytesUsingContentTypeCharset() {
+    String html =
+        """
+        <html><head><script type="application/ld+json">
+        {"@type":"JobPosting","title":"Ingénieur logiciel",
+         "hiringOrganization":{"name":"Société Exemple"}}
+        </script></head><body></body></html>
+        """;
+    byte[] bytes = html.getBytes(StandardCharsets.ISO_8859_1);
+    HttpFetchResult fetch =
+        new HttpFetchResult(
+            "https://example.fr/jobs/1",
+            URI.create("https://example.fr/jobs/1"),
+            200,
+            null,
+            bytes,
+            "text/html; charset=ISO-8859-1",
+            null,
+            Instant.now(),
+            Duration.ofMillis(5),
+            null,
+            null);
+
+    List<NormalizedJobPosting> jobs = extractor.extract(fetch);
+
+    assertEquals(1, jobs.size());
+    assertEquals("Ingénieur logiciel", jobs.getFirst().title());
+    assertEquals("Société Exemple", jobs.getFirst().orgName());
+    assertTrue(fetch.body().contains("Ingénieur"));
+    assertEquals(bytes.length, fetch.bodyBuffer().remaining());
+  }
 }
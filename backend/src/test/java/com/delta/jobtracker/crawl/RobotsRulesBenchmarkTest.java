@@ -0,0 +1,154 @@
+package com.delta.jobtracker.crawl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.robots.RobotsRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+class RobotsRulesBenchmarkTest {
+  private static final int RULES = 1500;
+  private static final int PATHS = 5000;
+  private static final int ROUNDS = 20;
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "RUN_ROBOTS_BENCHMARK", matches = "(?i)true|1|yes")
+  void benchmarksCompiledMatcherAgainstPerCallRegex() {
+    Random random = new Random(7);
+    String robotsText = largeRobotsTxt(random);
+    RobotsRules compiled = RobotsRules.parse(robotsText);
+    List<RobotsRules.Rule> rules = compiled.getRules();
+    List<String> paths = candidatePaths(random);
+
+    for (String path : paths) {
+      assertThat(compiled.isAllowed(path)).as(path).isEqualTo(legacyIsAllowed(rules, path));
+    }
+
+    long legacyNanos = time(paths, path -> legacyIsAllowed(rules, path));
+    long compiledNanos = time(paths, compiled::isAllowed);
+
+    long checks = (long) PATHS * ROUNDS;
+    System.out.println("=== Robots Matcher Benchmark ===");
+    System.out.println("rules=" + rules.size() + " paths=" + PATHS + " checks=" + checks);
+    System.out.println("legacy_regex_checks_per_sec=" + perSecond(checks, legacyNanos));
+    System.out.println("compiled_trie_checks_per_sec=" + perSecond(checks, compiledNanos));
+  }
+
+  // Shaped after large retail and job-board robots.txt files: long lists of plain prefixes,
+  // faceted-search wildcards, extension anchors and allow carve-outs, plus a second group that
+  // must be ignored.
+  private static String largeRobotsTxt(Random random) {
+    StringBuilder text = new StringBuilder();
+    text.append("User-agent: Googlebot\nDisallow: /nogoogle\n\n");
+    text.append("User-agent: *\n");
+    String[] sections = {"jobs", "careers", "search", "account", "cart", "p", "c", "store"};
+    String[] params = {"sort", "page", "filter", "ref", "utm_source", "sessionid", "q"};
+    for (int i = 0; i < RULES; i++) {
+      String section = sections[random.nextInt(sections.length)];
+      switch (i % 6) {
+        case 0 -> text.append("Disallow: /").append(section).append("/").append(i).append("/\n");
+        case 1 ->
+            text.append("Disallow: /")
+                .append(section)
+                .append("/*?")
+                .append(params[random.nextInt(params.length)])
+                .append("=\n");
+        case 2 -> text.append("Disallow: /*.").append(i).append("$\n");
+        case 3 -> text.append("Allow: /").append(section).append("/").append(i).append("/public\n");
+        case 4 -> text.append("Disallow: /*/").append(section).append("-").append(i).append("*\n");
+        default ->
+            text.append("Disallow: /")
+                .append(section)
+                .append("-archive-")
+                .append(i)
+                .append("\n");
+      }
+    }
+    text.append("Sitemap: https://example.com/sitemap.xml\n");
+    return text.toString();
+  }
+
+  private static List<String> candidatePaths(Random random) {
+    String[] sections = {"jobs", "careers", "search", "account", "cart", "p", "c", "about"};
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < PATHS; i++) {
+      String section = sections[random.nextInt(sections.length)];
+      int id = random.nextInt(RULES * 2);
+      String path =
+          switch (i % 4) {
+            case 0 -> "/" + section + "/" + id + "/detail";
+            case 1 -> "/" + section + "/listing?page=" + id + "&sort=date";
+            case 2 -> "/" + section + "/" + id + "/public/apply";
+            default -> "/en-us/" + section + "-" + id + "/engineer-" + id;
+          };
+      paths.add(path);
+    }
+    return paths;
+  }
+
+  private static long time(List<String> paths, Predicate<String> isAllowed) {
+    long sink = 0;
+    for (String path : paths) {
+      sink += isAllowed.test(path) ? 1 : 0;
+    }
+    long startedAt = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      for (String path : paths) {
+        sink += isAllowed.test(path) ? 1 : 0;
+      }
+    }
+    long elapsed = System.nanoTime() - startedAt;
+    assertThat(sink).isNotNegative();
+    return elapsed;
+  }
+
+  private static long perSecond(long ops, long nanos) {
+    return Math.round(ops / (nanos / 1_000_000_000.0));
+  }
+
+  // The previous linear scan, which compiled a regex per wildcard rule on every call.
+  private static boolean legacyIsAllowed(List<RobotsRules.Rule> rules, String subject) {
+    RobotsRules.Rule bestMatch = null;
+    int bestMatchLength = -1;
+    for (RobotsRules.Rule rule : rules) {
+      if (!legacyMatches(rule.path(), subject)) {
+        continue;
+      }
+      int length = rule.path().length();
+      if (length > bestMatchLength) {
+        bestMatch = rule;
+        bestMatchLength = length;
+      } else if (length == bestMatchLength
+          && bestMatch != null
+          && rule.allow()
+          && !bestMatch.allow()) {
+        bestMatch = rule;
+      }
+    }
+    return bestMatch == null || bestMatch.allow();
+  }
+
+  private static boolean legacyMatches(String path, String testPath) {
+    String normalizedPath = path.startsWith("/") ? path : "/" + path;
+    if (!normalizedPath.contains("*") && !normalizedPath.contains("$")) {
+      return testPath.startsWith(normalizedPath);
+    }
+    StringBuilder regex = new StringBuilder("^");
+    for (int i = 0; i < normalizedPath.length(); i++) {
+      char c = normalizedPath.charAt(i);
+      if (c == '*') {
+        regex.append(".*");
+      } else if (c == '$') {
+        regex.append("$");
+      } else {
+        regex.append(Pattern.quote(Character.toString(c)));
+      }
+    }
+    return Pattern.compile(regex.toString()).matcher(testPath).find();
+  }
+}
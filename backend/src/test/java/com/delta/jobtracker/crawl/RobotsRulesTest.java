@@ -24,4 +24,29 @@ class RobotsRulesTest {
     assertTrue(rules.isAllowed("/private/public/page"));
     assertTrue(rules.isAllowed("/other"));
   }
+
+  @Test
+  void appliesLongestMatchAcrossWildcardAndAnchoredRules() {
+    String robots =
+        """
+                User-agent: *
+                Disallow: /*.pdf$
+                Disallow: /search*q=
+                Allow: /search/help
+                Disallow: /jobs/*/apply
+                Allow: /jobs/*/apply/status
+                Disallow: /tmp
+                Allow: /tmp
+                """;
+
+    RobotsRules rules = RobotsRules.parse(robots);
+    assertFalse(rules.isAllowed("/files/report.pdf"));
+    assertTrue(rules.isAllowed("/files/report.pdf?download=1"));
+    assertFalse(rules.isAllowed("/search/results?q=engineer"));
+    assertTrue(rules.isAllowed("/search/help?q=faq"));
+    assertFalse(rules.isAllowed("/jobs/123/apply"));
+    assertTrue(rules.isAllowed("/jobs/123/apply/status"));
+    assertTrue(rules.isAllowed("/tmp/file"));
+    assertTrue(rules.isAllowed("/jobs/123"));
+  }
 }
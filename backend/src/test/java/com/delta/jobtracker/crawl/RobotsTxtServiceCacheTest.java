@@ -0,0 +1,170 @@
+package com.delta.jobtracker.crawl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
+import com.delta.jobtracker.crawl.model.RobotsCacheRecord;
+import com.delta.jobtracker.crawl.persistence.RobotsRulesRepository;
+import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RobotsTxtServiceCacheTest {
+  private static final String ROBOTS = "User-agent: *\nDisallow: /private\n";
+
+  @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsRulesRepository repository;
+
+  @Test
+  void usesRulesAnotherNodeStoredInsteadOfFetching() {
+    CrawlerProperties properties = persistentProperties();
+    when(repository.find("example.com"))
+        .thenReturn(record("example.com", ROBOTS, Instant.now().plusSeconds(3600), null));
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
+
+    assertFalse(service.isAllowed("https://example.com/private/page"));
+    assertTrue(service.isAllowed("https://example.com/jobs"));
+    verify(httpClient, never()).getAsync(anyString(), anyString());
+  }
+
+  @Test
+  void revalidatesExpiredStoredRulesAndSharesTheNewExpiry() {
+    CrawlerProperties properties = persistentProperties();
+    when(repository.find("example.com"))
+        .thenReturn(record("example.com", ROBOTS, Instant.now().minusSeconds(60), "\"v1\""));
+    when(httpClient.getConditionalAsync(
+            eq("https://example.com/robots.txt"), anyString(), any(HttpValidators.class)))
+        .thenReturn(CompletableFuture.completedFuture(fetch(304, null, "\"v1\"")));
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
+
+    assertFalse(service.isAllowed("https://example.com/private/page"));
+
+    ArgumentCaptor<RobotsCacheRecord> saved = ArgumentCaptor.forClass(RobotsCacheRecord.class);
+    verify(repository).save(saved.capture());
+    assertEquals("\"v1\"", saved.getValue().etag());
+    assertTrue(saved.getValue().expiresAt().isAfter(Instant.now().plus(Duration.ofHours(23))));
+    assertFalse(saved.getValue().unavailable());
+  }
+
+  @Test
+  void warmsFromStoreAtStartup() {
+    CrawlerProperties properties = persistentProperties();
+    when(repository.findUnexpired(any(Instant.class), anyInt()))
+        .thenReturn(
+            List.of(record("warm.example.com", ROBOTS, Instant.now().plusSeconds(3600), null)));
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
+
+    service.warmFromStore();
+
+    assertFalse(service.isAllowed("https://warm.example.com/private"));
+    verify(repository, never()).find(anyString());
+    verify(httpClient, never()).getAsync(anyString(), anyString());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedHostsBeyondTheBound() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getRobots().setCacheMaxEntries(2);
+    when(httpClient.getAsync(anyString(), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(fetch(200, ROBOTS, null)));
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
+
+    service.getRulesForHost("a.example.com");
+    service.getRulesForHost("b.example.com");
+    service.getRulesForHost("a.example.com");
+    service.getRulesForHost("c.example.com");
+    service.getRulesForHost("a.example.com");
+    service.getRulesForHost("b.example.com");
+
+    verify(httpClient, times(1)).getAsync(eq("https://a.example.com/robots.txt"), anyString());
+    verify(httpClient, times(2)).getAsync(eq("https://b.example.com/robots.txt"), anyString());
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  void fetchShedBeforeReachingTheHostIsNeitherStoredNorCached() {
+    CrawlerProperties properties = persistentProperties();
+    when(httpClient.getAsync(eq("https://shed.example.com/robots.txt"), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(rejected("deadline_shed")));
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
+
+    service.getRulesForHost("shed.example.com");
+    service.getRulesForHost("shed.example.com");
+
+    verify(repository, never()).save(any());
+    verify(httpClient, times(2)).getAsync(eq("https://shed.example.com/robots.txt"), anyString());
+  }
+
+  private static CrawlerProperties persistentProperties() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getRobots().setPersistentCache(true);
+    return properties;
+  }
+
+  private static RobotsCacheRecord record(
+      String host, String robotsText, Instant expiresAt, String etag) {
+    return new RobotsCacheRecord(
+        host, robotsText, false, etag, null, expiresAt.minus(Duration.ofHours(24)), expiresAt);
+  }
+
+  private static HttpFetchResult fetch(int status, String body, String etag) {
+    return new HttpFetchResult(
+        "https://example.com/robots.txt",
+        URI.create("https://example.com/robots.txt"),
+        status,
+        body,
+        null,
+        "text/plain",
+        null,
+        Instant.now(),
+        Duration.ofMillis(5),
+        null,
+        null,
+        etag,
+        null,
+        0L,
+        body == null ? 0L : body.length());
+  }
+
+  private static HttpFetchResult rejected(String errorCode) {
+    return new HttpFetchResult(
+        "https://shed.example.com/robots.txt",
+        null,
+        0,
+        null,
+        null,
+        null,
+        null,
+        Instant.now(),
+        Duration.ZERO,
+        errorCode,
+        "refused locally");
+  }
+}
@@ -8,9 +8,11 @@ import static org.mockito.Mockito.when;
 import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.persistence.RobotsRulesRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -20,15 +22,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class RobotsTxtServiceDecisionTest {
 
   @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsRulesRepository repository;
 
   @Test
   void failClosedDisallowsCrawlButAllowsAtsAdapterWhenRobotsUnavailable() {
-    when(httpClient.get(anyString(), anyString())).thenReturn(errorFetch());
+    when(httpClient.getAsync(anyString(), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(errorFetch()));
 
     CrawlerProperties properties = new CrawlerProperties();
     properties.getRobots().setFailOpen(false);
     properties.getRobots().setAllowAtsAdapterWhenUnavailable(true);
-    RobotsTxtService service = new RobotsTxtService(properties, httpClient);
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
 
     assertFalse(service.isAllowed("https://example.com/careers"));
     assertTrue(service.isRobotsUnavailableForUrl("https://example.com/careers"));
@@ -38,11 +43,13 @@ class RobotsTxtServiceDecisionTest {
 
   @Test
   void failOpenAllowsCrawlWhenRobotsUnavailable() {
-    when(httpClient.get(anyString(), anyString())).thenReturn(errorFetch());
+    when(httpClient.getAsync(anyString(), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(errorFetch()));
 
     CrawlerProperties properties = new CrawlerProperties();
     properties.getRobots().setFailOpen(true);
-    RobotsTxtService service = new RobotsTxtService(properties, httpClient);
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
 
     assertTrue(service.isAllowed("https://example.com/careers"));
     assertTrue(service.isRobotsUnavailableForUrl("https://example.com/careers"));
@@ -50,12 +57,14 @@ class RobotsTxtServiceDecisionTest {
 
   @Test
   void failClosedCanDisableAtsAdapterBypassWhenRobotsUnavailable() {
-    when(httpClient.get(anyString(), anyString())).thenReturn(errorFetch());
+    when(httpClient.getAsync(anyString(), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(errorFetch()));
 
     CrawlerProperties properties = new CrawlerProperties();
     properties.getRobots().setFailOpen(false);
     properties.getRobots().setAllowAtsAdapterWhenUnavailable(false);
-    RobotsTxtService service = new RobotsTxtService(properties, httpClient);
+    RobotsTxtService service =
+        new RobotsTxtService(properties, httpClient, repository, Runnable::run);
 
     assertFalse(service.isAllowed("https://example.com/careers"));
     assertTrue(service.isRobotsUnavailableForUrl("https://example.com/careers"));
@@ -0,0 +1,222 @@
+package com.delta.jobtracker.crawl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.CanaryAbortException;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudget;
+import com.delta.jobtracker.crawl.http.CanaryHttpBudgetContext;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.persistence.RobotsRulesRepository;
+import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RobotsTxtServiceLoadingTest {
+  private static final String ROBOTS = "User-agent: *\nDisallow: /private\n";
+
+  @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsRulesRepository repository;
+
+  private final ExecutorService loadExecutor = Executors.newFixedThreadPool(2);
+  private final ExecutorService callers = Executors.newFixedThreadPool(32);
+  private final List<CompletableFuture<HttpFetchResult>> slowFetches =
+      new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    slowFetches.forEach(fetch -> fetch.complete(fetch(200, ROBOTS)));
+    callers.shutdownNow();
+    loadExecutor.shutdownNow();
+  }
+
+  @Test
+  void slowRobotsHostsDoNotBlockOtherHosts() throws Exception {
+    stubSlowHosts();
+    when(httpClient.getAsync(eq("https://fast.example.com/robots.txt"), anyString()))
+        .thenReturn(CompletableFuture.completedFuture(fetch(200, ROBOTS)));
+    RobotsTxtService service = service(failOpen());
+
+    CountDownLatch slowCallersStarted = new CountDownLatch(64);
+    List<Future<Boolean>> slowCallers = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      String host = "slow" + i + ".example.com";
+      slowCallers.add(
+          callers.submit(
+              () -> {
+                slowCallersStarted.countDown();
+                return service.isAllowed("https://" + host + "/private", Duration.ofSeconds(30));
+              }));
+    }
+    assertTrue(slowCallersStarted.await(5, TimeUnit.SECONDS));
+
+    long startedAt = System.nanoTime();
+    assertFalse(service.isAllowed("https://fast.example.com/private"));
+    assertTrue(service.isAllowed("https://fast.example.com/jobs"));
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    assertTrue(elapsedMs < 2_000, "fast host waited " + elapsedMs + "ms behind slow hosts");
+    for (Future<Boolean> slow : slowCallers) {
+      assertFalse(slow.isDone());
+    }
+  }
+
+  @Test
+  void concurrentCallersForOneHostShareASingleFetch() throws Exception {
+    stubSlowHosts();
+    RobotsTxtService service = service(failOpen());
+
+    List<Future<Boolean>> waiters = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      waiters.add(
+          callers.submit(
+              () -> service.isAllowed("https://slow.example.com/private", Duration.ofSeconds(30))));
+    }
+    awaitSlowFetches(1);
+    slowFetches.get(0).complete(fetch(200, ROBOTS));
+
+    for (Future<Boolean> waiter : waiters) {
+      assertFalse(waiter.get(5, TimeUnit.SECONDS));
+    }
+    verify(httpClient, times(1)).getAsync(eq("https://slow.example.com/robots.txt"), anyString());
+  }
+
+  @Test
+  void oneBudgetAbortingDoesNotFailCallersUnderAnotherBudget() throws Exception {
+    CanaryHttpBudget aborting = budget();
+    CanaryHttpBudget healthy = budget();
+    when(httpClient.getAsync(eq("https://shared.example.com/robots.txt"), anyString()))
+        .thenAnswer(
+            invocation -> {
+              if (CanaryHttpBudgetContext.current() == aborting) {
+                CompletableFuture<HttpFetchResult> pending = new CompletableFuture<>();
+                slowFetches.add(pending);
+                return pending;
+              }
+              return CompletableFuture.completedFuture(fetch(200, ROBOTS));
+            });
+    RobotsTxtService service = service(failOpen());
+
+    Future<Boolean> abortedCaller =
+        callers.submit(() -> isAllowedUnder(service, aborting, "https://shared.example.com/jobs"));
+    awaitSlowFetches(1);
+    // The first budget's load is still in flight; the second budget must not join it.
+    Future<Boolean> healthyCaller =
+        callers.submit(
+            () -> isAllowedUnder(service, healthy, "https://shared.example.com/private"));
+    assertFalse(healthyCaller.get(5, TimeUnit.SECONDS));
+
+    slowFetches.get(0).completeExceptionally(new CanaryAbortException("max_total_requests"));
+    ExecutionException aborted =
+        assertThrows(ExecutionException.class, () -> abortedCaller.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(CanaryAbortException.class, aborted.getCause());
+  }
+
+  @Test
+  void timedOutCallersGetTheProvisionalDecision() throws Exception {
+    stubSlowHosts();
+    CrawlerProperties properties = failOpen();
+    properties.getRobots().setLoadTimeoutMs(50);
+    RobotsTxtService service = service(properties);
+
+    assertTrue(service.isAllowed("https://slow.example.com/private"));
+    assertTrue(service.provisionalRulesForHost("slow.example.com").isAllowed("/private"));
+
+    awaitSlowFetches(1);
+    slowFetches.get(0).complete(fetch(200, ROBOTS));
+
+    assertFalse(
+        service
+            .getRulesForHostAsync("slow.example.com")
+            .get(5, TimeUnit.SECONDS)
+            .isAllowed("/private"));
+    assertFalse(service.provisionalRulesForHost("slow.example.com").isAllowed("/private"));
+    assertEquals(1, slowFetches.size());
+  }
+
+  private void stubSlowHosts() {
+    when(httpClient.getAsync(startsWith("https://slow"), anyString()))
+        .thenAnswer(
+            invocation -> {
+              CompletableFuture<HttpFetchResult> pending = new CompletableFuture<>();
+              slowFetches.add(pending);
+              return pending;
+            });
+  }
+
+  private void awaitSlowFetches(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (slowFetches.size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(count, slowFetches.size());
+  }
+
+  private static boolean isAllowedUnder(
+      RobotsTxtService service, CanaryHttpBudget budget, String url) {
+    try (CanaryHttpBudgetContext.Scope ignored = CanaryHttpBudgetContext.activate(budget)) {
+      return service.isAllowed(url, Duration.ofSeconds(30));
+    }
+  }
+
+  private static CanaryHttpBudget budget() {
+    return new CanaryHttpBudget(10, 10, 1.0, 1, 3, 1, 5, Duration.ofMinutes(1));
+  }
+
+  private RobotsTxtService service(CrawlerProperties properties) {
+    return new RobotsTxtService(properties, httpClient, repository, loadExecutor);
+  }
+
+  private static CrawlerProperties failOpen() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getRobots().setFailOpen(true);
+    return properties;
+  }
+
+  private static HttpFetchResult fetch(int status, String body) {
+    return new HttpFetchResult(
+        "https://example.com/robots.txt",
+        URI.create("https://example.com/robots.txt"),
+        status,
+        body,
+        null,
+        "text/plain",
+        null,
+        Instant.now(),
+        Duration.ofMillis(5),
+        null,
+        null,
+        null,
+        null,
+        0L,
+        body == null ? 0L : body.length());
+  }
+}
@@ -2,11 +2,14 @@ package com.delta.jobtracker.crawl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
@@ -72,10 +75,15 @@ class SitemapServiceGzipTest {
             null);
 
     when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
-    when(httpClient.get(eq(seedUrl), eq("application/xml,text/xml;q=0.9,*/*;q=0.1"), anyInt()))
+    when(httpClient.getCached(
+            eq(seedUrl),
+            eq("application/xml,text/xml;q=0.9,*/*;q=0.1"),
+            anyInt(),
+            any(BodySpill.class)))
         .thenReturn(fetchResult);
 
-    SitemapService service = new SitemapService(httpClient, robotsTxtService);
+    SitemapService service =
+        new SitemapService(new CrawlerProperties(), httpClient, robotsTxtService, Runnable::run);
     return service.discover(List.of(seedUrl), 1, 10, 10);
   }
 
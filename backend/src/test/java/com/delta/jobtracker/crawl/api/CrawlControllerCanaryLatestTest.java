@@ -5,6 +5,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.CanaryRunStatusResponse;
 import com.delta.jobtracker.crawl.service.CareersDiscoveryRunService;
 import com.delta.jobtracker.crawl.service.CareersDiscoveryService;
@@ -34,6 +35,7 @@ class CrawlControllerCanaryLatestTest {
   @Mock private WorkdayInvalidUrlCleanupService workdayInvalidUrlCleanupService;
   @Mock private SecCanaryService secCanaryService;
   @Mock private HostCrawlStateService hostCrawlStateService;
+  @Mock private PoliteHttpClient httpClient;
 
   @Test
   void latestCanaryEndpointAcceptsMissingType() {
@@ -61,7 +63,8 @@ class CrawlControllerCanaryLatestTest {
             workdayInvalidUrlCleanupService,
             properties,
             secCanaryService,
-            hostCrawlStateService);
+            hostCrawlStateService,
+            httpClient);
 
     CanaryRunStatusResponse result = controller.getLatestCanaryRun(null);
     assertEquals(10L, result.runId());
@@ -0,0 +1,217 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.AdmissionStats;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AdmissionQueueTest {
+  private static final TrafficClass LANE = TrafficClass.INTERACTIVE;
+
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rejectsCallersWhoseDeadlineLeavesLessThanMinimumServiceTime() {
+    AtomicLong clock = new AtomicLong(0);
+    AdmissionQueue queue = new AdmissionQueue(4, 1000, Map.of(), Runnable::run, clock::get);
+
+    CompletableFuture<Void> tooLate = queue.acquire(LANE, TimeUnit.MILLISECONDS.toNanos(500), 0);
+    CompletableFuture<Void> inTime = queue.acquire(LANE, TimeUnit.SECONDS.toNanos(5), 0);
+
+    assertThat(tooLate).isCompletedExceptionally();
+    assertThat(rejectionCode(tooLate)).isEqualTo(AdmissionQueue.DEADLINE_REJECTED_ERROR);
+    assertThat(inTime).isCompleted();
+    AdmissionStats stats = queue.stats();
+    assertThat(stats.rejected()).isEqualTo(1);
+    assertThat(stats.admitted()).isEqualTo(1);
+    assertThat(stats.inFlight()).isEqualTo(1);
+  }
+
+  @Test
+  void servesRetriesFirstThenEarliestDeadline() {
+    AtomicLong clock = new AtomicLong(0);
+    AdmissionQueue queue = new AdmissionQueue(1, 0, Map.of(), Runnable::run, clock::get);
+    assertThat(queue.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0)).isCompleted();
+
+    List<String> order = new ArrayList<>();
+    queue.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0).thenRun(() -> order.add("open"));
+    queue.acquire(LANE, TimeUnit.MINUTES.toNanos(5), 0).thenRun(() -> order.add("late"));
+    queue.acquire(LANE, TimeUnit.MINUTES.toNanos(1), 0).thenRun(() -> order.add("soon"));
+    queue
+        .acquire(LANE, AdmissionQueue.NO_DEADLINE, AdmissionQueue.RETRY_PRIORITY)
+        .thenRun(() -> order.add("retry"));
+    assertThat(queue.stats().queued()).isEqualTo(4);
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+    for (int i = 0; i < 4; i++) {
+      queue.release(LANE);
+    }
+
+    assertThat(order).containsExactly("retry", "soon", "late", "open");
+    assertThat(queue.stats().maxQueueWaitMs()).isEqualTo(20.0);
+  }
+
+  @Test
+  void sharesPermitsBetweenBackloggedClassesByWeight() {
+    AdmissionQueue queue =
+        new AdmissionQueue(
+            1,
+            0,
+            Map.of(TrafficClass.DAEMON_CRAWL, 3, TrafficClass.MAINTENANCE, 1),
+            Runnable::run,
+            () -> 0L);
+    assertThat(queue.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0)).isCompleted();
+
+    List<TrafficClass> grants = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      queue
+          .acquire(TrafficClass.MAINTENANCE, AdmissionQueue.NO_DEADLINE, 0)
+          .thenRun(() -> grants.add(TrafficClass.MAINTENANCE));
+    }
+    for (int i = 0; i < 8; i++) {
+      queue
+          .acquire(TrafficClass.DAEMON_CRAWL, AdmissionQueue.NO_DEADLINE, 0)
+          .thenRun(() -> grants.add(TrafficClass.DAEMON_CRAWL));
+    }
+
+    queue.release(LANE);
+    for (int i = 0; i < 7; i++) {
+      queue.release(grants.get(i));
+    }
+
+    // Both lanes backlogged: daemon crawl gets three grants for every maintenance grant.
+    assertThat(grants)
+        .containsExactly(
+            TrafficClass.DAEMON_CRAWL,
+            TrafficClass.MAINTENANCE,
+            TrafficClass.DAEMON_CRAWL,
+            TrafficClass.DAEMON_CRAWL,
+            TrafficClass.DAEMON_CRAWL,
+            TrafficClass.MAINTENANCE,
+            TrafficClass.DAEMON_CRAWL,
+            TrafficClass.DAEMON_CRAWL);
+    AdmissionStats stats = queue.stats();
+    assertThat(stats.queued()).isEqualTo(8);
+    assertThat(stats.inFlight()).isEqualTo(1);
+    assertThat(stats.classes())
+        .filteredOn(c -> c.trafficClass().equals("MAINTENANCE"))
+        .singleElement()
+        .satisfies(
+            c -> {
+              assertThat(c.weight()).isEqualTo(1);
+              assertThat(c.queued()).isEqualTo(6);
+              assertThat(c.admitted()).isEqualTo(2);
+              assertThat(c.completed()).isEqualTo(2);
+            });
+  }
+
+  @Test
+  void shedsQueuedCallersOnceTheirLatestStartPasses() throws Exception {
+    AtomicLong clock = new AtomicLong(0);
+    AdmissionQueue queue = new AdmissionQueue(1, 1000, Map.of(), Runnable::run, clock::get);
+    assertThat(queue.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0)).isCompleted();
+    CompletableFuture<Void> waiting = queue.acquire(LANE, TimeUnit.MILLISECONDS.toNanos(1500), 0);
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+    queue.release(LANE);
+
+    assertThat(rejectionCode(waiting)).isEqualTo(AdmissionQueue.DEADLINE_SHED_ERROR);
+    assertThat(queue.stats().shed()).isEqualTo(1);
+    assertThat(queue.stats().inFlight()).isZero();
+
+    AdmissionQueue timed = new AdmissionQueue(1, 100, Map.of(), Runnable::run);
+    assertThat(timed.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0)).isCompleted();
+    CompletableFuture<Void> expiring =
+        timed.acquire(LANE, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(150), 0);
+    assertThat(rejectionCode(expiring.completeOnTimeout(null, 5, TimeUnit.SECONDS)))
+        .isEqualTo(AdmissionQueue.DEADLINE_SHED_ERROR);
+    assertThat(timed.stats().queued()).isZero();
+  }
+
+  @Test
+  void cancelsTheShedTimerOnceAQueuedCallerIsAdmitted() {
+    ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1);
+    timer.setRemoveOnCancelPolicy(true);
+    try {
+      AdmissionQueue queue =
+          new AdmissionQueue(1, 0, Map.of(), Runnable::run, System::nanoTime, timer);
+      assertThat(queue.acquire(LANE, AdmissionQueue.NO_DEADLINE, 0)).isCompleted();
+      CompletableFuture<Void> waiting =
+          queue.acquire(LANE, System.nanoTime() + TimeUnit.HOURS.toNanos(2), 0);
+      assertThat(timer.getQueue()).hasSize(1);
+
+      queue.release(LANE);
+
+      assertThat(waiting).isCompleted();
+      assertThat(timer.getQueue()).isEmpty();
+    } finally {
+      timer.shutdownNow();
+    }
+  }
+
+  @Test
+  void clientCapsRequestTimeoutAtRemainingBudget() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(
+        new MockResponse().setResponseCode(200).setHeadersDelay(10, TimeUnit.SECONDS));
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1);
+    properties.getAdmission().setMinServiceMs(100);
+    executor = Executors.newFixedThreadPool(2);
+    PoliteHttpClient client =
+        new PoliteHttpClient(properties, executor, Mockito.mock(HostCrawlStateService.class));
+    CanaryHttpBudget budget =
+        new CanaryHttpBudget(10, 100, 1.0, 1, 5, 1, 30, Instant.now().plusMillis(1500));
+
+    long startedAt = System.nanoTime();
+    try (CanaryHttpBudgetContext.Scope ignored = CanaryHttpBudgetContext.activate(budget)) {
+      HttpFetchResult result = client.get(server.url("/slow").toString(), "text/html");
+      assertThat(result.errorCode()).isEqualTo("timeout");
+    } catch (CanaryAbortException expected) {
+      // The capped timeout lands on the deadline itself, so the run may abort instead.
+    }
+
+    assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(5));
+  }
+
+  private static String rejectionCode(CompletableFuture<Void> future) {
+    try {
+      future.join();
+      return null;
+    } catch (CompletionException e) {
+      return e.getCause() instanceof AdmissionRejectedException rejected ? rejected.code() : null;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+class CanaryHttpBudgetBenchmarkTest {
+  private static final int HOSTS = 500;
+  private static final int THREADS = 64;
+  private static final int CALLS_PER_THREAD = 200_000;
+
+  @Test
+  @EnabledIfEnvironmentVariable(
+      named = "RUN_CANARY_BUDGET_BENCHMARK",
+      matches = "(?i)true|1|yes")
+  void benchmarksBudgetAccountingUnderContention() throws Exception {
+    List<String> hosts = new ArrayList<>();
+    for (int i = 0; i < HOSTS; i++) {
+      hosts.add("host-" + i + ".example");
+    }
+    HttpFetchResult ok = result(200);
+    HttpFetchResult limited = result(429);
+
+    LegacySynchronizedBudget warmLegacy = newLegacy();
+    run(hosts, warmLegacy::beforeRequest, warmLegacy::recordResult, ok, limited);
+    CanaryHttpBudget warmBudget = newBudget();
+    run(hosts, warmBudget::beforeRequest, warmBudget::recordResult, ok, limited);
+
+    LegacySynchronizedBudget legacy = newLegacy();
+    long legacyNanos = run(hosts, legacy::beforeRequest, legacy::recordResult, ok, limited);
+    CanaryHttpBudget budget = newBudget();
+    long budgetNanos = run(hosts, budget::beforeRequest, budget::recordResult, ok, limited);
+
+    long total = (long) THREADS * CALLS_PER_THREAD;
+    System.out.println("=== Canary HTTP Budget Contention Benchmark ===");
+    System.out.println("hosts=" + HOSTS + " threads=" + THREADS + " requests=" + total);
+    System.out.println("legacy_synchronized_ops_per_sec=" + opsPerSecond(total, legacyNanos));
+    System.out.println("lock_free_ops_per_sec=" + opsPerSecond(total, budgetNanos));
+
+    assertThat(budget.isAborted()).isFalse();
+    assertThat((long) budget.totalRequests()).isEqualTo(total);
+    assertThat(legacy.totalRequests).isEqualTo(total);
+  }
+
+  // One request's worth of accounting: reserve the slot, then record what came back.
+  private long run(
+      List<String> hosts,
+      Consumer<String> beforeRequest,
+      Consumer<HttpFetchResult> recordResult,
+      HttpFetchResult ok,
+      HttpFetchResult limited)
+      throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                    beforeRequest.accept(hosts.get(random.nextInt(hosts.size())));
+                    recordResult.accept(i % 100 == 0 ? limited : ok);
+                  }
+                  return null;
+                }));
+      }
+      long startedAt = System.nanoTime();
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      return System.nanoTime() - startedAt;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static CanaryHttpBudget newBudget() {
+    return new CanaryHttpBudget(
+        Integer.MAX_VALUE, Integer.MAX_VALUE, 0.5, 100, 0, 1, 30, Duration.ofHours(1));
+  }
+
+  private static LegacySynchronizedBudget newLegacy() {
+    return new LegacySynchronizedBudget(Instant.now().plus(Duration.ofHours(1)));
+  }
+
+  private static HttpFetchResult result(int status) {
+    return new HttpFetchResult(
+        "https://example.com/",
+        URI.create("https://example.com/"),
+        status,
+        "",
+        new byte[0],
+        "text/html",
+        null,
+        Instant.now(),
+        Duration.ofMillis(1),
+        null,
+        null);
+  }
+
+  private long opsPerSecond(long ops, long nanos) {
+    return Math.round(ops / (nanos / 1_000_000_000.0));
+  }
+
+  // Mirrors the previous synchronized accounting with the same limits as newBudget().
+  private static final class LegacySynchronizedBudget {
+    private final Instant deadline;
+    private final Map<String, Integer> hostCounts = new ConcurrentHashMap<>();
+    private long totalRequests;
+    private long total429;
+    private int consecutiveErrors;
+    private boolean aborted;
+
+    private LegacySynchronizedBudget(Instant deadline) {
+      this.deadline = deadline;
+    }
+
+    synchronized void checkDeadline() {
+      if (aborted || Instant.now().isAfter(deadline)) {
+        aborted = true;
+        throw new CanaryAbortException("canary_aborted");
+      }
+    }
+
+    synchronized void beforeRequest(String host) {
+      checkDeadline();
+      hostCounts.put(host, hostCounts.getOrDefault(host, 0) + 1);
+      totalRequests++;
+    }
+
+    synchronized void recordResult(HttpFetchResult result) {
+      checkDeadline();
+      if (result.statusCode() == 429) {
+        total429++;
+        consecutiveErrors++;
+      } else {
+        consecutiveErrors = 0;
+      }
+      if (totalRequests >= 100 && total429 / (double) totalRequests >= 0.5) {
+        aborted = true;
+        throw new CanaryAbortException("rate_limit_threshold_exceeded");
+      }
+    }
+  }
+}
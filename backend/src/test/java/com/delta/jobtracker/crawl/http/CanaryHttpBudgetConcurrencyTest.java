@@ -0,0 +1,82 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CanaryHttpBudgetConcurrencyTest {
+  private static final int THREADS = 16;
+
+  private ExecutorService pool;
+
+  @AfterEach
+  void tearDown() {
+    if (pool != null) {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void neverGrantsMoreThanTheTotalBudgetUnderContention() throws Exception {
+    CanaryHttpBudget budget =
+        new CanaryHttpBudget(0, 1000, 0.0, 1, 0, 1, 5, Instant.now().plusSeconds(60));
+
+    List<Integer> granted = race(budget, i -> "host-" + (i % 7) + ".example", 200);
+
+    assertThat(granted.stream().mapToInt(Integer::intValue).sum()).isEqualTo(1000);
+    assertThat(budget.totalRequests()).isEqualTo(1000);
+    assertThat(budget.abortReason()).isEqualTo("total_request_budget_exceeded");
+  }
+
+  @Test
+  void perHostRejectionsDoNotConsumeTheTotalBudget() throws Exception {
+    CanaryHttpBudget budget =
+        new CanaryHttpBudget(50, 10_000, 0.0, 1, 0, 1, 5, Instant.now().plusSeconds(60));
+
+    List<Integer> granted = race(budget, i -> "same.example", 100);
+
+    assertThat(granted.stream().mapToInt(Integer::intValue).sum()).isEqualTo(50);
+    assertThat(budget.totalRequests()).isEqualTo(50);
+    assertThat(budget.isAborted()).isTrue();
+  }
+
+  private List<Integer> race(
+      CanaryHttpBudget budget, IntFunction<String> host, int attemptsPerThread)
+      throws Exception {
+    pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                int granted = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                  try {
+                    budget.beforeRequest(host.apply(i));
+                    granted++;
+                  } catch (CanaryAbortException ignored) {
+                    // Once aborted every later call fails fast; keep going to stress the flag.
+                  }
+                }
+                return granted;
+              }));
+    }
+    start.countDown();
+    List<Integer> granted = new ArrayList<>();
+    for (Future<Integer> future : futures) {
+      granted.add(future.get());
+    }
+    return granted;
+  }
+}
@@ -1,7 +1,9 @@
 package com.delta.jobtracker.crawl.http;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.time.Duration;
 import java.time.Instant;
 import org.junit.jupiter.api.Test;
 
@@ -16,4 +18,18 @@ class CanaryHttpBudgetDeadlineTest {
         .isInstanceOf(CanaryAbortException.class)
         .hasMessageContaining("canary_time_budget_exceeded");
   }
+
+  @Test
+  void capsRequestTimeoutAtRemainingBudget() {
+    CanaryHttpBudget budget =
+        new CanaryHttpBudget(10, 100, 0.5, 1, 5, 1, 30, Instant.now().plusSeconds(10));
+    CanaryHttpBudget expired =
+        new CanaryHttpBudget(10, 100, 0.5, 1, 5, 1, 30, Instant.now().minusSeconds(1));
+
+    assertThat(budget.capToRemaining(Duration.ofSeconds(5))).isEqualTo(Duration.ofSeconds(5));
+    assertThat(budget.capToRemaining(Duration.ofSeconds(30)))
+        .isLessThanOrEqualTo(Duration.ofSeconds(10))
+        .isGreaterThan(Duration.ofSeconds(8));
+    assertThat(expired.capToRemaining(Duration.ofSeconds(30))).isEqualTo(Duration.ofMillis(1));
+  }
 }
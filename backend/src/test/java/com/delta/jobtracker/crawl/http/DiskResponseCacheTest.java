@@ -0,0 +1,109 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskResponseCacheTest {
+  private static final String ACCEPT = "text/html";
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  @TempDir Path root;
+
+  @Test
+  void storesIdenticalBodiesOnceAndSurvivesReopen() throws Exception {
+    DiskResponseCache cache = open(NOW, 1_000_000);
+    String body = "<html>same</html>".repeat(50);
+    cache.put("https://a.example/1", ACCEPT, null, success("https://a.example/1", body, NOW));
+    cache.put("https://a.example/2", ACCEPT, null, success("https://a.example/2", body, NOW));
+
+    assertThat(countFiles(root.resolve("blobs"))).isEqualTo(1);
+    assertThat(countFiles(root.resolve("meta"))).isEqualTo(2);
+
+    DiskResponseCache reopened = open(NOW.plusSeconds(30), 1_000_000);
+    HttpFetchResult hit = reopened.get("https://a.example/2", ACCEPT, null, null);
+    assertThat(hit).isNotNull();
+    assertThat(hit.body()).isEqualTo(body);
+    assertThat(hit.etag()).isEqualTo("\"v1\"");
+    assertThat(hit.finalUri()).isEqualTo(URI.create("https://a.example/2"));
+    assertThat(reopened.get("https://a.example/2", "application/json", null, null)).isNull();
+    assertThat(reopened.get("https://a.example/2", ACCEPT, null, 10)).isNull();
+    assertThat(reopened.stats().entries()).isEqualTo(2);
+    assertThat(reopened.stats().hits()).isEqualTo(1);
+  }
+
+  @Test
+  void ignoresEntriesOlderThanMaxAge() throws Exception {
+    DiskResponseCache cache = open(NOW, 1_000_000);
+    cache.put("https://a.example/", ACCEPT, null, success("https://a.example/", "body", NOW));
+
+    DiskResponseCache later = open(NOW.plus(Duration.ofMinutes(11)), 1_000_000);
+    assertThat(later.get("https://a.example/", ACCEPT, null, null)).isNull();
+    assertThat(countFiles(root.resolve("meta"))).isZero();
+    assertThat(countFiles(root.resolve("blobs"))).isZero();
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesOverByteBudget() throws Exception {
+    DiskResponseCache probe = open(root.resolve("probe"), NOW, 1_000_000);
+    probe.put("https://probe.example/", ACCEPT, null, success("https://probe.example/", "p", NOW));
+    long blobBytes = probe.stats().bytes();
+
+    DiskResponseCache cache = open(root, NOW, blobBytes * 2 + blobBytes / 2);
+    cache.put("https://a.example/1", ACCEPT, null, success("https://a.example/1", "1", NOW));
+    cache.put("https://a.example/2", ACCEPT, null, success("https://a.example/2", "2", NOW));
+    assertThat(cache.get("https://a.example/1", ACCEPT, null, null)).isNotNull();
+    cache.put("https://a.example/3", ACCEPT, null, success("https://a.example/3", "3", NOW));
+
+    assertThat(cache.get("https://a.example/2", ACCEPT, null, null)).isNull();
+    assertThat(cache.get("https://a.example/1", ACCEPT, null, null)).isNotNull();
+    assertThat(cache.get("https://a.example/3", ACCEPT, null, null)).isNotNull();
+    assertThat(cache.stats().evictions()).isEqualTo(1);
+    assertThat(countFiles(root.resolve("blobs"))).isEqualTo(2);
+  }
+
+  private DiskResponseCache open(Instant now, long maxBytes) throws Exception {
+    return open(root, now, maxBytes);
+  }
+
+  private static DiskResponseCache open(Path dir, Instant now, long maxBytes) throws Exception {
+    return DiskResponseCache.open(
+        dir, maxBytes, Duration.ofMinutes(10), Clock.fixed(now, ZoneOffset.UTC));
+  }
+
+  private static long countFiles(Path dir) throws Exception {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+
+  private static HttpFetchResult success(String url, String body, Instant fetchedAt) {
+    return new HttpFetchResult(
+        url,
+        URI.create(url),
+        200,
+        body,
+        body.getBytes(StandardCharsets.UTF_8),
+        "text/html",
+        null,
+        fetchedAt,
+        Duration.ofMillis(5),
+        null,
+        null,
+        "\"v1\"",
+        null,
+        body.length(),
+        body.length());
+  }
+}
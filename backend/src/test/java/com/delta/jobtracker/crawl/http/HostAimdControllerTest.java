@@ -0,0 +1,88 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class HostAimdControllerTest {
+  private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  void healthyResponsesIncreaseAdditivelyUpToCeiling() {
+    AtomicLong clock = new AtomicLong(0);
+    HostAimdController controller = controller(2, clock);
+
+    for (int i = 0; i < 3; i++) {
+      controller.onResponse("a.example", clock.get(), 10 * MS, HostAimdController.Signal.HEALTHY);
+    }
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(3);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(850 * MS);
+
+    for (int i = 0; i < 200; i++) {
+      controller.onResponse("a.example", clock.get(), 10 * MS, HostAimdController.Signal.HEALTHY);
+    }
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(8);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(100 * MS);
+    assertThat(controller.concurrencyLimit("b.example")).isEqualTo(2);
+  }
+
+  @Test
+  void overloadDecreasesOncePerWindowDownToFloor() {
+    AtomicLong clock = new AtomicLong(100 * MS);
+    HostAimdController controller = controller(4, clock);
+
+    controller.onResponse("a.example", 50 * MS, 5 * MS, HostAimdController.Signal.OVERLOAD);
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(2);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(2000 * MS);
+
+    // Sent before the last decrease: part of the same congestion event.
+    controller.onResponse("a.example", 60 * MS, 5 * MS, HostAimdController.Signal.OVERLOAD);
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(2);
+
+    clock.set(200 * MS);
+    controller.onResponse("a.example", 150 * MS, 5 * MS, HostAimdController.Signal.OVERLOAD);
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(1);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(4000 * MS);
+
+    for (int i = 0; i < 10; i++) {
+      clock.addAndGet(100 * MS);
+      controller.onResponse("a.example", clock.get(), 5 * MS, HostAimdController.Signal.OVERLOAD);
+    }
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(1);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(60_000 * MS);
+    assertThat(controller.snapshot(10).get(0).decreaseCount()).isEqualTo(12);
+  }
+
+  @Test
+  void slowAndNeutralSignalsHoldLimitsAndIdleHostsAreEvicted() {
+    AtomicLong clock = new AtomicLong(0);
+    HostAimdController controller = controller(4, clock);
+
+    controller.onResponse("a.example", 0, 5_000 * MS, HostAimdController.Signal.SLOW);
+    controller.onResponse("b.example", 0, 5 * MS, HostAimdController.Signal.NEUTRAL);
+    assertThat(controller.concurrencyLimit("a.example")).isEqualTo(4);
+    assertThat(controller.intervalNanos("a.example")).isEqualTo(1000 * MS);
+    assertThat(controller.trackedHosts()).isEqualTo(1);
+    assertThat(controller.snapshot(10).get(0).latencyEwmaNanos()).isEqualTo(5_000 * MS);
+
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(11));
+    assertThat(controller.evictIdle()).isEqualTo(1);
+    assertThat(controller.trackedHosts()).isZero();
+  }
+
+  private HostAimdController controller(int initialConcurrency, AtomicLong clock) {
+    CrawlerProperties.Adaptive settings = new CrawlerProperties.Adaptive();
+    settings.setMinConcurrency(1);
+    settings.setMaxConcurrency(8);
+    settings.setMinDelayMs(100);
+    settings.setMaxDelayMs(60_000);
+    settings.setDelayStepMs(50);
+    settings.setDecreaseFactor(0.5);
+    return new HostAimdController(
+        settings, initialConcurrency, 1000 * MS, Duration.ofMinutes(10), clock::get);
+  }
+}
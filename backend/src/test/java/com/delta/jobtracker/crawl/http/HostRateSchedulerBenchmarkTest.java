@@ -0,0 +1,105 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+class HostRateSchedulerBenchmarkTest {
+  private static final int HOSTS = 1000;
+  private static final int THREADS = 64;
+  private static final int RESERVATIONS_PER_THREAD = 200_000;
+
+  @Test
+  @EnabledIfEnvironmentVariable(
+      named = "RUN_HOST_RATE_SCHEDULER_BENCHMARK",
+      matches = "(?i)true|1|yes")
+  void benchmarksReservationThroughputUnderContention() throws Exception {
+    List<String> hosts = new ArrayList<>();
+    for (int i = 0; i < HOSTS; i++) {
+      hosts.add("host-" + i + ".example");
+    }
+
+    LegacyHostLocks legacy = new LegacyHostLocks();
+    HostRateScheduler scheduler = new HostRateScheduler(Duration.ofMinutes(10));
+    long intervalNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+    run(hosts, host -> legacy.reserve(host, Duration.ofNanos(intervalNanos)));
+    run(hosts, host -> scheduler.reserve(host, intervalNanos));
+
+    long legacyNanos = run(hosts, host -> legacy.reserve(host, Duration.ofNanos(intervalNanos)));
+    long schedulerNanos = run(hosts, host -> scheduler.reserve(host, intervalNanos));
+
+    long total = (long) THREADS * RESERVATIONS_PER_THREAD;
+    System.out.println("=== Host Rate Scheduler Contention Benchmark ===");
+    System.out.println("hosts=" + HOSTS + " threads=" + THREADS + " reservations=" + total);
+    System.out.println("legacy_synchronized_ops_per_sec=" + opsPerSecond(total, legacyNanos));
+    System.out.println("host_rate_scheduler_ops_per_sec=" + opsPerSecond(total, schedulerNanos));
+    System.out.println("tracked_hosts=" + scheduler.trackedHosts());
+
+    assertThat(scheduler.trackedHosts()).isEqualTo(HOSTS);
+  }
+
+  private long run(List<String> hosts, ToLongFunction<String> reserve) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Long>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  long sink = 0;
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                    sink += reserve.applyAsLong(hosts.get(random.nextInt(hosts.size())));
+                  }
+                  return sink;
+                }));
+      }
+      long startedAt = System.nanoTime();
+      start.countDown();
+      for (Future<Long> future : futures) {
+        future.get();
+      }
+      return System.nanoTime() - startedAt;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private long opsPerSecond(long ops, long nanos) {
+    return Math.round(ops / (nanos / 1_000_000_000.0));
+  }
+
+  // Mirrors the previous hostLocks/hostNextAllowed bookkeeping, minus the sleep.
+  private static final class LegacyHostLocks {
+    private final Map<String, Object> hostLocks = new ConcurrentHashMap<>();
+    private final Map<String, Instant> hostNextAllowed = new ConcurrentHashMap<>();
+
+    long reserve(String host, Duration interval) {
+      Object lock = hostLocks.computeIfAbsent(host, ignored -> new Object());
+      synchronized (lock) {
+        Instant now = Instant.now();
+        Instant allowedAt = hostNextAllowed.getOrDefault(host, now);
+        Instant startAt = allowedAt.isAfter(now) ? allowedAt : now;
+        hostNextAllowed.put(host, startAt.plus(interval));
+        return Duration.between(now, startAt).toNanos();
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class HostRateSchedulerTest {
+
+  @Test
+  void reservesConsecutiveSlotsPerHostWithoutBlocking() {
+    AtomicLong clock = new AtomicLong(0);
+    HostRateScheduler scheduler = new HostRateScheduler(Duration.ofMinutes(10), clock::get);
+    long interval = TimeUnit.MILLISECONDS.toNanos(100);
+
+    assertThat(scheduler.reserve("a.example", interval)).isZero();
+    assertThat(scheduler.reserve("a.example", interval)).isEqualTo(interval);
+    assertThat(scheduler.reserve("a.example", interval)).isEqualTo(2 * interval);
+    assertThat(scheduler.reserve("b.example", interval)).isZero();
+
+    clock.addAndGet(5 * interval);
+    assertThat(scheduler.reserve("a.example", interval)).isZero();
+  }
+
+  @Test
+  void supportsFractionalRates() {
+    AtomicLong clock = new AtomicLong(0);
+    HostRateScheduler scheduler = new HostRateScheduler(Duration.ofMinutes(10), clock::get);
+    long interval = HostRateScheduler.intervalNanosForRate(0.5);
+
+    assertThat(interval).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+    scheduler.reserve("slow.example", interval);
+    assertThat(scheduler.reserve("slow.example", interval)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+  }
+
+  @Test
+  void delayPushesNextSlotButNeverPullsItIn() {
+    AtomicLong clock = new AtomicLong(0);
+    HostRateScheduler scheduler = new HostRateScheduler(Duration.ofMinutes(10), clock::get);
+
+    scheduler.delay("a.example", Duration.ofSeconds(30));
+    scheduler.delay("a.example", Duration.ofSeconds(5));
+
+    assertThat(scheduler.nanosUntilNextSlot("a.example")).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+    assertThat(scheduler.reserve("a.example", 1)).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+  }
+
+  @Test
+  void evictsHostsIdleLongerThanTtl() {
+    AtomicLong clock = new AtomicLong(0);
+    HostRateScheduler scheduler = new HostRateScheduler(Duration.ofSeconds(60), clock::get);
+    long interval = TimeUnit.SECONDS.toNanos(1);
+    scheduler.reserve("idle.example", interval);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    scheduler.reserve("busy.example", interval);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(45));
+
+    assertThat(scheduler.evictIdle()).isEqualTo(1);
+    assertThat(scheduler.trackedHosts()).isEqualTo(1);
+    assertThat(scheduler.reserve("idle.example", interval)).isZero();
+  }
+}
@@ -0,0 +1,185 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpClientGroupStats;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+// Stands in for an ATS API host over TLS so HTTP/1.1 keep-alive and HTTP/2 multiplexing can be
+// compared on handshakes and latency with the same politeness settings.
+class Http2ConnectionBenchmarkTest {
+  private static final int REQUESTS = 400;
+  private static final int PER_HOST_CONCURRENCY = 8;
+  private static final char[] PASSWORD = "changeit".toCharArray();
+
+  @TempDir Path tempDir;
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "RUN_HTTP2_BENCHMARK", matches = "(?i)true|1|yes")
+  void benchmarksHandshakesAndLatencyForHttp1VersusHttp2() throws Exception {
+    KeyStore keyStore = selfSignedKeyStore();
+    SSLContext serverContext = SSLContext.getInstance("TLS");
+    KeyManagerFactory keyManagers =
+        KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+    keyManagers.init(keyStore, PASSWORD);
+    serverContext.init(keyManagers.getKeyManagers(), null, null);
+    SSLContext clientContext = SSLContext.getInstance("TLS");
+    TrustManagerFactory trustManagers =
+        TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+    trustManagers.init(keyStore);
+    clientContext.init(null, trustManagers.getTrustManagers(), null);
+
+    SSLContext previousDefault = SSLContext.getDefault();
+    SSLContext.setDefault(clientContext);
+    try {
+      Run http1 = run(serverContext, false);
+      Run http2 = run(serverContext, true);
+
+      System.out.println("=== HTTP/2 Connection Benchmark ===");
+      System.out.println(
+          "requests=" + REQUESTS + " per_host_concurrency=" + PER_HOST_CONCURRENCY);
+      http1.print("http1");
+      http2.print("http2");
+
+      assertThat(http2.group().http2Responses()).isEqualTo(REQUESTS);
+      assertThat(http2.serverHandshakes()).isLessThanOrEqualTo(http1.serverHandshakes());
+    } finally {
+      SSLContext.setDefault(previousDefault);
+    }
+  }
+
+  private Run run(SSLContext serverContext, boolean http2) throws Exception {
+    MockWebServer server = new MockWebServer();
+    server.useHttps(serverContext.getSocketFactory(), false);
+    server.setProtocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1));
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                .setResponseCode(200)
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"jobs\":[]}")
+                .setHeadersDelay(5, TimeUnit.MILLISECONDS);
+          }
+        });
+    server.start(InetAddress.getByName("localhost"), 0);
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1);
+    properties.setPerHostConcurrency(PER_HOST_CONCURRENCY);
+    properties.setGlobalConcurrency(PER_HOST_CONCURRENCY * 2);
+    properties.setRequestTimeoutSeconds(10);
+    properties.setRequestMaxRetries(0);
+    properties.getHttp2().setEnabled(http2);
+    properties.getHttp2().setHosts(List.of("localhost"));
+    ExecutorService executor = Executors.newFixedThreadPool(PER_HOST_CONCURRENCY * 2);
+    try {
+      PoliteHttpClient client =
+          new PoliteHttpClient(properties, executor, Mockito.mock(HostCrawlStateService.class));
+      String base = "https://localhost:" + server.getPort();
+      List<CompletableFuture<HttpFetchResult>> futures = new ArrayList<>();
+      for (int i = 0; i < REQUESTS; i++) {
+        futures.add(client.getAsync(base + "/api/postings/" + i, "application/json"));
+      }
+      long[] latencies = new long[REQUESTS];
+      for (int i = 0; i < REQUESTS; i++) {
+        HttpFetchResult result = futures.get(i).get(60, TimeUnit.SECONDS);
+        assertThat(result.statusCode()).isEqualTo(200);
+        latencies[i] = result.duration().toNanos();
+      }
+      Arrays.sort(latencies);
+
+      int handshakes = 0;
+      for (int i = 0; i < server.getRequestCount(); i++) {
+        RecordedRequest recorded = server.takeRequest();
+        if (recorded.getSequenceNumber() == 0) {
+          handshakes++;
+        }
+      }
+      List<HttpClientGroupStats> groups = client.stats().clientGroups();
+      HttpClientGroupStats group = groups.get(groups.size() - 1);
+      return new Run(
+          handshakes, group, percentileMillis(latencies, 50), percentileMillis(latencies, 99));
+    } finally {
+      executor.shutdownNow();
+      server.shutdown();
+    }
+  }
+
+  private KeyStore selfSignedKeyStore() throws Exception {
+    Path file = tempDir.resolve("localhost.p12");
+    Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+    Process process =
+        new ProcessBuilder(
+                keytool.toString(),
+                "-genkeypair",
+                "-alias",
+                "localhost",
+                "-keyalg",
+                "EC",
+                "-dname",
+                "CN=localhost",
+                "-ext",
+                "SAN=dns:localhost,ip:127.0.0.1",
+                "-validity",
+                "1",
+                "-storetype",
+                "PKCS12",
+                "-keystore",
+                file.toString(),
+                "-storepass",
+                new String(PASSWORD))
+            .redirectErrorStream(true)
+            .start();
+    assertThat(process.waitFor(60, TimeUnit.SECONDS)).isTrue();
+    assertThat(process.exitValue()).isZero();
+    KeyStore keyStore = KeyStore.getInstance("PKCS12");
+    try (InputStream in = Files.newInputStream(file)) {
+      keyStore.load(in, PASSWORD);
+    }
+    return keyStore;
+  }
+
+  private static double percentileMillis(long[] sorted, int percentile) {
+    int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1_000_000.0;
+  }
+
+  private record Run(
+      int serverHandshakes, HttpClientGroupStats group, double p50Millis, double p99Millis) {
+    void print(String label) {
+      System.out.println(label + "_server_connections=" + serverHandshakes);
+      System.out.println(label + "_client_tls_connections=" + group.tlsConnections());
+      System.out.println(label + "_http2_responses=" + group.http2Responses());
+      System.out.println(label + "_p50_ms=" + String.format("%.2f", p50Millis));
+      System.out.println(label + "_p99_ms=" + String.format("%.2f", p99Millis));
+    }
+  }
+}
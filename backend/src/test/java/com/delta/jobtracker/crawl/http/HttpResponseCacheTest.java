@@ -0,0 +1,112 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.ResponseCacheStats;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class HttpResponseCacheTest {
+  private static final String ACCEPT = "text/html";
+
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void expiresEntriesAfterTtlAndRespectsRequestedBodyLimit() {
+    AtomicLong clock = new AtomicLong(0);
+    HttpResponseCache cache = new HttpResponseCache(10_000, Duration.ofSeconds(60), clock::get);
+    cache.put("https://a.example/", ACCEPT, null, success("https://a.example/", "x".repeat(100)));
+
+    assertThat(cache.get("https://a.example/", ACCEPT, null, null)).isNotNull();
+    assertThat(cache.get("https://a.example/", ACCEPT, null, 50)).isNull();
+    assertThat(cache.get("https://a.example/", "application/json", null, null)).isNull();
+
+    clock.addAndGet(Duration.ofSeconds(61).toNanos());
+    assertThat(cache.get("https://a.example/", ACCEPT, null, null)).isNull();
+
+    ResponseCacheStats stats = cache.stats();
+    assertThat(stats.hits()).isEqualTo(1);
+    assertThat(stats.misses()).isEqualTo(3);
+    assertThat(stats.expirations()).isEqualTo(1);
+    assertThat(stats.entries()).isZero();
+    assertThat(stats.bytes()).isZero();
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntriesWhenOverByteBudget() {
+    HttpResponseCache cache = new HttpResponseCache(2_000, Duration.ofMinutes(5));
+    String body = "y".repeat(200);
+    cache.put("https://a.example/1", ACCEPT, null, success("https://a.example/1", body));
+    cache.put("https://a.example/2", ACCEPT, null, success("https://a.example/2", body));
+    cache.get("https://a.example/1", ACCEPT, null, null);
+    cache.put("https://a.example/3", ACCEPT, null, success("https://a.example/3", body));
+
+    assertThat(cache.get("https://a.example/2", ACCEPT, null, null)).isNull();
+    assertThat(cache.get("https://a.example/1", ACCEPT, null, null)).isNotNull();
+    assertThat(cache.get("https://a.example/3", ACCEPT, null, null)).isNotNull();
+    assertThat(cache.stats().evictions()).isEqualTo(1);
+    assertThat(cache.stats().bytes()).isLessThanOrEqualTo(2_000);
+  }
+
+  @Test
+  void clientServesOptedInGetsFromCache() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("home"));
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("fresh"));
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+    properties.getResponseCache().setEnabled(true);
+    executor = Executors.newFixedThreadPool(1);
+    PoliteHttpClient client =
+        new PoliteHttpClient(properties, executor, Mockito.mock(HostCrawlStateService.class));
+
+    String url = server.url("/").toString();
+    assertThat(client.getCached(url, ACCEPT, 1024).body()).isEqualTo("home");
+    assertThat(client.getCached(url, ACCEPT).body()).isEqualTo("home");
+    assertThat(client.get(url, ACCEPT).body()).isEqualTo("fresh");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+    assertThat(client.stats().responseCache().hits()).isEqualTo(1);
+  }
+
+  private HttpFetchResult success(String url, String body) {
+    return new HttpFetchResult(
+        url,
+        null,
+        200,
+        body,
+        body.getBytes(StandardCharsets.UTF_8),
+        "text/html",
+        null,
+        Instant.now(),
+        Duration.ofMillis(5),
+        null,
+        null);
+  }
+}
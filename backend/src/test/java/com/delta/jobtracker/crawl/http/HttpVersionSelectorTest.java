@@ -0,0 +1,40 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HttpVersionSelectorTest {
+
+  @Test
+  void selectsHttp2OnlyForConfiguredHttpsHostsAndSubdomains() {
+    CrawlerProperties.Http2 settings = new CrawlerProperties.Http2();
+    settings.setEnabled(true);
+    settings.setHosts(List.of(" .MyWorkdayJobs.com ", "api.lever.co", ""));
+    HttpVersionSelector selector = new HttpVersionSelector(settings);
+
+    assertThat(settings.getHosts()).containsExactly("myworkdayjobs.com", "api.lever.co");
+    assertThat(selector.useHttp2(URI.create("https://acme.wd5.myworkdayjobs.com/wday/cxs")))
+        .isTrue();
+    assertThat(selector.useHttp2(URI.create("https://api.lever.co/v0/postings/acme"))).isTrue();
+    assertThat(selector.useHttp2(URI.create("https://jobs.lever.co/acme"))).isFalse();
+    assertThat(selector.useHttp2(URI.create("https://notmyworkdayjobs.com/"))).isFalse();
+    assertThat(selector.useHttp2(URI.create("http://api.lever.co/v0/postings/acme"))).isFalse();
+  }
+
+  @Test
+  void honorsAllHostsAndDisabledSwitch() {
+    CrawlerProperties.Http2 settings = new CrawlerProperties.Http2();
+    URI uri = URI.create("https://www.example.com/careers");
+    assertThat(new HttpVersionSelector(settings).useHttp2(uri)).isFalse();
+
+    settings.setEnabled(true);
+    assertThat(new HttpVersionSelector(settings).useHttp2(uri)).isFalse();
+
+    settings.setAllHosts(true);
+    assertThat(new HttpVersionSelector(settings).useHttp2(uri)).isTrue();
+  }
+}
@@ -0,0 +1,148 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PoliteHttpClientAsyncTest {
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void schedulesPerHostDelayWithoutBlockingCaller() throws Exception {
+    server = new MockWebServer();
+    for (int i = 0; i < 3; i++) {
+      server.enqueue(new MockResponse().setResponseCode(200).setBody("ok-" + i));
+    }
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostConcurrency(1);
+    properties.setPerHostDelayMs(200);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+
+    executor = Executors.newFixedThreadPool(2);
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    PoliteHttpClient client = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+
+    long startedAt = System.nanoTime();
+    List<CompletableFuture<HttpFetchResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(client.getAsync(server.url("/async-" + i).toString(), "text/plain"));
+    }
+    long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+    assertThat(submitMillis).isLessThan(200);
+    assertThat(totalMillis).isGreaterThanOrEqualTo(400);
+    assertThat(futures).allSatisfy(future -> assertThat(future.join().statusCode()).isEqualTo(200));
+    assertThat(server.getRequestCount()).isEqualTo(3);
+  }
+
+  @Test
+  void spacesDispatchesToAHostEvenAfterWaitingInASaturatedGlobalQueue() throws Exception {
+    Map<String, Long> receivedAt = new ConcurrentHashMap<>();
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            receivedAt.put(request.getPath(), System.nanoTime());
+            MockResponse response = new MockResponse().setResponseCode(200).setBody("ok");
+            return request.getPath().equals("/slow")
+                ? response.setHeadersDelay(500, TimeUnit.MILLISECONDS)
+                : response;
+          }
+        });
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostConcurrency(2);
+    properties.setPerHostDelayMs(300);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+
+    executor = Executors.newFixedThreadPool(4);
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    PoliteHttpClient client = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+
+    // Another host holds the only global permit while both requests to this host queue up.
+    CompletableFuture<HttpFetchResult> slow =
+        client.getAsync("http://127.0.0.1:" + server.getPort() + "/slow", "text/plain");
+    server.takeRequest(5, TimeUnit.SECONDS);
+    List<CompletableFuture<HttpFetchResult>> queued = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      queued.add(
+          client.getAsync("http://localhost:" + server.getPort() + "/queued-" + i, "text/plain"));
+    }
+
+    CompletableFuture.allOf(queued.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+    slow.get(5, TimeUnit.SECONDS);
+
+    long gapMillis =
+        TimeUnit.NANOSECONDS.toMillis(
+            Math.abs(receivedAt.get("/queued-1") - receivedAt.get("/queued-0")));
+    assertThat(gapMillis).isGreaterThanOrEqualTo(250);
+  }
+
+  @Test
+  void postJsonAsyncSendsBodyAndContentType() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"ok\":true}"));
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+
+    executor = Executors.newFixedThreadPool(1);
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    PoliteHttpClient client = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+
+    HttpFetchResult result =
+        client
+            .postJsonAsync(server.url("/jobs").toString(), "{\"limit\":20}", "application/json")
+            .get(5, TimeUnit.SECONDS);
+
+    RecordedRequest recorded = server.takeRequest(1, TimeUnit.SECONDS);
+    assertThat(result.isSuccessful()).isTrue();
+    assertThat(result.body()).isEqualTo("{\"ok\":true}");
+    assertThat(recorded.getMethod()).isEqualTo("POST");
+    assertThat(recorded.getHeader("Content-Type")).startsWith("application/json");
+    assertThat(recorded.getBody().readUtf8()).isEqualTo("{\"limit\":20}");
+  }
+}
@@ -0,0 +1,141 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpClientStats;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class PoliteHttpClientCoalescingTest {
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void concurrentIdenticalGetsShareOneRequest() throws Exception {
+    AtomicInteger plainRequests = new AtomicInteger();
+    server = new MockWebServer();
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            if ("text/html".equals(request.getHeader("Accept"))) {
+              return new MockResponse().setResponseCode(200).setBody("other");
+            }
+            if (plainRequests.getAndIncrement() == 0) {
+              return new MockResponse()
+                  .setResponseCode(200)
+                  .setBody("shared")
+                  .setHeadersDelay(300, TimeUnit.MILLISECONDS);
+            }
+            return new MockResponse().setResponseCode(200).setBody("later");
+          }
+        });
+    server.start();
+
+    executor = Executors.newFixedThreadPool(2);
+    PoliteHttpClient client =
+        new PoliteHttpClient(properties(), executor, Mockito.mock(HostCrawlStateService.class));
+
+    String url = server.url("/robots.txt").toString();
+    List<CompletableFuture<HttpFetchResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(client.getAsync(url, "text/plain"));
+    }
+    CompletableFuture<HttpFetchResult> differentAccept = client.getAsync(url, "text/html");
+    futures.getFirst().cancel(true);
+
+    for (CompletableFuture<HttpFetchResult> future : futures.subList(1, futures.size())) {
+      assertThat(future.get(10, TimeUnit.SECONDS).body()).isEqualTo("shared");
+    }
+    assertThat(differentAccept.get(10, TimeUnit.SECONDS).body()).isEqualTo("other");
+
+    HttpFetchResult later = client.get(url, "text/plain");
+    assertThat(later.body()).isEqualTo("later");
+    assertThat(server.getRequestCount()).isEqualTo(3);
+
+    HttpClientStats stats = client.stats();
+    assertThat(stats.getRequests()).isEqualTo(7);
+    assertThat(stats.coalescedGets()).isEqualTo(4);
+    assertThat(stats.inFlightGets()).isZero();
+  }
+
+  @Test
+  void coalescedCachedGetsAreStoredOnce(@TempDir Path cacheDir) throws Exception {
+    server = new MockWebServer();
+    server.enqueue(
+        new MockResponse()
+            .setResponseCode(200)
+            .setBody("shared")
+            .setHeadersDelay(300, TimeUnit.MILLISECONDS));
+    server.start();
+
+    CrawlerProperties properties = properties();
+    properties.getResponseCache().setEnabled(true);
+    properties.getDiskCache().setEnabled(true);
+    properties.getDiskCache().setDirectory(cacheDir.toString());
+    executor = Executors.newFixedThreadPool(2);
+    PoliteHttpClient client =
+        new PoliteHttpClient(properties, executor, Mockito.mock(HostCrawlStateService.class));
+
+    String url = server.url("/feed.json").toString();
+    ExecutorService callerPool = Executors.newFixedThreadPool(5);
+    try {
+      List<Future<HttpFetchResult>> callers = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        callers.add(callerPool.submit(() -> client.getCached(url, "application/json")));
+      }
+      for (Future<HttpFetchResult> caller : callers) {
+        assertThat(caller.get(10, TimeUnit.SECONDS).body()).isEqualTo("shared");
+      }
+    } finally {
+      callerPool.shutdownNow();
+    }
+
+    assertThat(server.getRequestCount()).isEqualTo(1);
+    assertThat(client.getCached(url, "application/json").body()).isEqualTo("shared");
+    assertThat(client.stats().responseCache().entries()).isEqualTo(1);
+    // Written in the background, off the HTTP completion thread.
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (client.stats().diskCache().entries() == 0 && System.nanoTime() < deadline) {
+      Thread.sleep(20);
+    }
+    assertThat(client.stats().diskCache().entries()).isEqualTo(1);
+  }
+
+  private CrawlerProperties properties() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostConcurrency(2);
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+    return properties;
+  }
+}
@@ -0,0 +1,87 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PoliteHttpClientCompressionTest {
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void decodesGzipBodiesAndReportsBothByteCounts() throws Exception {
+    String html = "<html><body>" + "<p>open role</p>".repeat(2000) + "</body></html>";
+    server = new MockWebServer();
+    server.enqueue(gzipResponse(html));
+    server.start();
+
+    PoliteHttpClient client = newClient();
+    HttpFetchResult result = client.get(server.url("/jobs").toString(), "text/html");
+
+    assertThat(result.isSuccessful()).isTrue();
+    assertThat(result.body()).isEqualTo(html);
+    assertThat(result.contentEncoding()).isNull();
+    assertThat(result.decodedBytes()).isEqualTo(html.getBytes(StandardCharsets.UTF_8).length);
+    assertThat(result.compressedBytes()).isLessThan(result.decodedBytes() / 10);
+    assertThat(server.takeRequest().getHeader("Accept-Encoding")).contains("gzip");
+  }
+
+  @Test
+  void appliesMaxBytesToDecodedSize() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(gzipResponse("a".repeat(100_000)));
+    server.start();
+
+    PoliteHttpClient client = newClient();
+    HttpFetchResult result = client.get(server.url("/big").toString(), "text/plain", 10_000);
+
+    assertThat(result.errorCode()).isEqualTo("body_too_large");
+    assertThat(result.body()).isNull();
+    assertThat(result.decodedBytes()).isEqualTo(10_000);
+  }
+
+  private MockResponse gzipResponse(String body) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(body.getBytes(StandardCharsets.UTF_8));
+    }
+    return new MockResponse()
+        .setResponseCode(200)
+        .setHeader("Content-Encoding", "gzip")
+        .setBody(new Buffer().write(bytes.toByteArray()));
+  }
+
+  private PoliteHttpClient newClient() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+    executor = Executors.newFixedThreadPool(2);
+    return new PoliteHttpClient(
+        properties, executor, Mockito.mock(HostCrawlStateService.class));
+  }
+}
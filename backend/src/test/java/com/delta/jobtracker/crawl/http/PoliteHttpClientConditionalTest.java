@@ -0,0 +1,79 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
+import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class PoliteHttpClientConditionalTest {
+  private MockWebServer server;
+  private ExecutorService executor;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (server != null) {
+      server.shutdown();
+    }
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void sendsStoredValidatorsAndReportsNotModified() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(
+        new MockResponse()
+            .setResponseCode(200)
+            .setHeader("ETag", "\"v1\"")
+            .setHeader("Last-Modified", "Wed, 01 Jan 2025 00:00:00 GMT")
+            .setBody("<urlset/>"));
+    server.enqueue(new MockResponse().setResponseCode(304));
+    server.start();
+
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    PoliteHttpClient client = newClient(hostCrawlStateService);
+    String url = server.url("/sitemap.xml").toString();
+
+    HttpFetchResult first = client.getConditional(url, "application/xml", 4096, null);
+    assertThat(first.isSuccessful()).isTrue();
+    HttpValidators validators = first.validators();
+    assertThat(validators.etag()).isEqualTo("\"v1\"");
+    assertThat(validators.lastModified()).isEqualTo("Wed, 01 Jan 2025 00:00:00 GMT");
+
+    HttpFetchResult second = client.getConditional(url, "application/xml", 4096, validators);
+    assertThat(second.isNotModified()).isTrue();
+    assertThat(second.isSuccessful()).isFalse();
+    assertThat(second.errorCode()).isNull();
+
+    RecordedRequest plain = server.takeRequest();
+    assertThat(plain.getHeader("If-None-Match")).isNull();
+    RecordedRequest conditional = server.takeRequest();
+    assertThat(conditional.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+    assertThat(conditional.getHeader("If-Modified-Since"))
+        .isEqualTo("Wed, 01 Jan 2025 00:00:00 GMT");
+    assertThat(server.getRequestCount()).isEqualTo(2);
+    Mockito.verify(hostCrawlStateService, Mockito.never())
+        .recordFailure(Mockito.anyString(), Mockito.any());
+  }
+
+  private PoliteHttpClient newClient(HostCrawlStateService hostCrawlStateService) {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+    executor = Executors.newFixedThreadPool(2);
+    return new PoliteHttpClient(properties, executor, hostCrawlStateService);
+  }
+}
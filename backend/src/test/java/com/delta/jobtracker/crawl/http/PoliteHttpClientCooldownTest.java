@@ -2,11 +2,15 @@ package com.delta.jobtracker.crawl.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
 import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import com.delta.jobtracker.crawl.util.ReasonCodeClassifier;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -14,6 +18,7 @@ import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 class PoliteHttpClientCooldownTest {
@@ -56,6 +61,69 @@ class PoliteHttpClientCooldownTest {
 
     assertThat(result.errorCode()).isEqualTo("host_cooldown");
     assertThat(result.errorMessage()).contains("cooldown_until=");
+    assertThat(result.retryAfter()).isAfter(Instant.now());
     assertThat(server.getRequestCount()).isEqualTo(0);
   }
+
+  @Test
+  void retryAfterSetsHostResumeTimeWithoutRetrying() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "120"));
+    server.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(2);
+    properties.setRequestRetryBaseDelayMs(1);
+    properties.setRequestRetryMaxDelayMs(5);
+
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    executor = Executors.newFixedThreadPool(1);
+    PoliteHttpClient client = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+
+    Instant before = Instant.now();
+    HttpFetchResult result = client.get(server.url("/limited").toString(), "text/plain");
+
+    assertThat(result.statusCode()).isEqualTo(429);
+    assertThat(result.retryAfter())
+        .isBetween(before.plus(Duration.ofSeconds(119)), Instant.now().plusSeconds(121));
+    assertThat(server.getRequestCount()).isEqualTo(1);
+
+    ArgumentCaptor<Instant> resumeAt = ArgumentCaptor.forClass(Instant.class);
+    verify(hostCrawlStateService)
+        .recordFailure(
+            eq(server.getHostName().toLowerCase()),
+            eq(ReasonCodeClassifier.HTTP_429_RATE_LIMIT),
+            resumeAt.capture());
+    assertThat(resumeAt.getValue()).isEqualTo(result.retryAfter());
+  }
+
+  @Test
+  void retryAfterOnForbiddenIsRecordedAsForbidden() throws Exception {
+    server = new MockWebServer();
+    server.enqueue(new MockResponse().setResponseCode(403).setHeader("Retry-After", "60"));
+    server.start();
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(5);
+    properties.setRequestMaxRetries(0);
+    properties.setRequestRetryBaseDelayMs(1);
+    properties.setRequestRetryMaxDelayMs(5);
+
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    executor = Executors.newFixedThreadPool(1);
+    PoliteHttpClient client = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+
+    HttpFetchResult result = client.get(server.url("/forbidden").toString(), "text/plain");
+
+    assertThat(result.statusCode()).isEqualTo(403);
+    verify(hostCrawlStateService)
+        .recordFailure(
+            eq(server.getHostName().toLowerCase()),
+            eq(ReasonCodeClassifier.HTTP_401_403),
+            eq(result.retryAfter()));
+  }
 }
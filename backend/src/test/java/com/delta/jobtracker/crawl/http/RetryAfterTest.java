@@ -0,0 +1,38 @@
+package com.delta.jobtracker.crawl.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class RetryAfterTest {
+  private static final Instant NOW = Instant.parse("1994-11-06T08:49:00Z");
+  private static final Duration MAX = Duration.ofHours(24);
+
+  @Test
+  void parsesDelaySeconds() {
+    assertThat(RetryAfter.parse("120", NOW, MAX)).isEqualTo(NOW.plusSeconds(120));
+    assertThat(RetryAfter.parse(" 0 ", NOW, MAX)).isEqualTo(NOW);
+    assertThat(RetryAfter.parse("99999999999999", NOW, MAX)).isEqualTo(NOW.plus(MAX));
+  }
+
+  @Test
+  void parsesAllHttpDateFormats() {
+    Instant expected = Instant.parse("1994-11-06T08:49:37Z");
+
+    assertThat(RetryAfter.parse("Sun, 06 Nov 1994 08:49:37 GMT", NOW, MAX)).isEqualTo(expected);
+    assertThat(RetryAfter.parse("Sunday, 06-Nov-94 08:49:37 GMT", NOW, MAX)).isEqualTo(expected);
+    assertThat(RetryAfter.parse("Sun Nov  6 08:49:37 1994", NOW, MAX)).isEqualTo(expected);
+  }
+
+  @Test
+  void clampsPastDatesAndIgnoresGarbage() {
+    assertThat(RetryAfter.parse("Sat, 05 Nov 1994 08:49:37 GMT", NOW, MAX)).isEqualTo(NOW);
+    assertThat(RetryAfter.parse("Mon, 07 Nov 1994 09:00:00 GMT", NOW, MAX))
+        .isEqualTo(NOW.plus(MAX));
+    assertThat(RetryAfter.parse("-5", NOW, MAX)).isNull();
+    assertThat(RetryAfter.parse("soon", NOW, MAX)).isNull();
+    assertThat(RetryAfter.parse(null, NOW, MAX)).isNull();
+  }
+}
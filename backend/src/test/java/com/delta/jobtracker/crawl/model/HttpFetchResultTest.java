@@ -0,0 +1,78 @@
+package com.delta.jobtracker.crawl.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HttpFetchResultTest {
+  private static final String URL = "https://example.com/sitemap.xml";
+  private static final Instant FETCHED_AT = Instant.parse("2026-01-05T10:15:30Z");
+
+  @Test
+  void resultsWithTheSameResponseAreEqual() {
+    HttpFetchResult first = result("<urlset/>".getBytes(StandardCharsets.UTF_8));
+    HttpFetchResult second = result("<urlset/>".getBytes(StandardCharsets.UTF_8));
+    // Decoding the String view on one side does not change equality.
+    first.body();
+
+    assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+    assertThat(first).isNotEqualTo(result("<sitemapindex/>".getBytes(StandardCharsets.UTF_8)));
+    assertThat(first.toString()).contains(URL).contains("statusCode=200");
+  }
+
+  @Test
+  void spilledBodyIsOnlyReadableAsAStream(@TempDir Path dir) throws Exception {
+    Path bodyFile = Files.writeString(dir.resolve("body.xml"), "<urlset/>");
+    HttpFetchResult spilled =
+        new HttpFetchResult(
+            URL,
+            URI.create(URL),
+            200,
+            null,
+            null,
+            "application/xml",
+            null,
+            FETCHED_AT,
+            Duration.ofMillis(5),
+            null,
+            null,
+            null,
+            null,
+            9L,
+            9L,
+            null,
+            bodyFile,
+            4096L);
+
+    assertThatThrownBy(spilled::body)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("bodyStream()");
+    try (InputStream in = spilled.bodyStream()) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("<urlset/>");
+    }
+  }
+
+  private static HttpFetchResult result(byte[] bodyBytes) {
+    return new HttpFetchResult(
+        URL,
+        URI.create(URL),
+        200,
+        null,
+        bodyBytes,
+        "application/xml",
+        null,
+        FETCHED_AT,
+        Duration.ofMillis(5),
+        null,
+        null);
+  }
+}
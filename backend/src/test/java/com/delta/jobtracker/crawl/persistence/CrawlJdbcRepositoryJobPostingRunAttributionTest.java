@@ -64,4 +64,63 @@ class CrawlJdbcRepositoryJobPostingRunAttributionTest {
 
     assertEquals(secondRunId, storedRunId);
   }
+
+  @Test
+  void carryForwardOnlyRestampsPostingsFromTheUnchangedFeed() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    long companyId =
+        repository.upsertCompany("ZY" + suffix, "Carry Forward Co " + suffix, "Technology");
+    long firstRunId =
+        repository.insertCrawlRun(Instant.now().minusSeconds(120), "RUNNING", "first run");
+    long secondRunId =
+        repository.insertCrawlRun(Instant.now().minusSeconds(60), "RUNNING", "second run");
+    String feedUrl = "https://boards-api.greenhouse.io/v1/boards/carry" + suffix + "/jobs";
+
+    String feedHash = "hash-" + UUID.randomUUID();
+    String pageHash = "hash-" + UUID.randomUUID();
+    Instant firstSeen = Instant.now().minusSeconds(30);
+    repository.upsertJobPosting(
+        companyId, firstRunId, posting(feedUrl, "https://example.com/jobs/1", feedHash), firstSeen);
+    repository.upsertJobPosting(
+        companyId,
+        firstRunId,
+        posting("https://example.com/jobs/2", "https://example.com/jobs/2", pageHash),
+        firstSeen);
+
+    int carried =
+        repository.carryForwardActivePostings(companyId, feedUrl, secondRunId, Instant.now());
+    repository.markPostingsInactiveNotSeenInRun(companyId, secondRunId);
+
+    assertEquals(1, carried);
+    assertEquals(Boolean.TRUE, isActive(companyId, feedHash));
+    assertEquals(Boolean.FALSE, isActive(companyId, pageHash));
+  }
+
+  private static NormalizedJobPosting posting(String sourceUrl, String url, String contentHash) {
+    return new NormalizedJobPosting(
+        sourceUrl,
+        url,
+        "Senior Engineer",
+        "Carry Forward Co",
+        "Remote",
+        "FULL_TIME",
+        LocalDate.parse("2026-01-01"),
+        "example description",
+        null,
+        contentHash);
+  }
+
+  private Boolean isActive(long companyId, String contentHash) {
+    return jdbc.queryForObject(
+        """
+            SELECT is_active
+            FROM job_postings
+            WHERE company_id = :companyId
+              AND content_hash = :contentHash
+            """,
+        new MapSqlParameterSource()
+            .addValue("companyId", companyId)
+            .addValue("contentHash", contentHash),
+        Boolean.class);
+  }
 }
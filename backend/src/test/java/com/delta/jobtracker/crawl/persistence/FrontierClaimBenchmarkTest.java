@@ -0,0 +1,160 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
+import com.delta.jobtracker.crawl.model.FrontierQueueUrl;
+import com.delta.jobtracker.crawl.model.FrontierUrlKind;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// Runs against whatever database the test profile resolves to; point SPRING_DATASOURCE_URL (and
+// credentials) at Postgres to measure the SKIP LOCKED path rather than the H2 fallback.
+@SpringBootTest
+@ActiveProfiles("test")
+class FrontierClaimBenchmarkTest {
+  private static final int HOSTS = 2_000;
+  private static final int URLS_PER_HOST = 2;
+  private static final int WORKERS = 8;
+  private static final int BATCH_SIZE = 16;
+
+  @Autowired private FrontierRepository frontierRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private final String hostPrefix =
+      "claim-bench-" + UUID.randomUUID().toString().substring(0, 8).toLowerCase(Locale.ROOT);
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM crawl_hosts WHERE host LIKE ?", hostPrefix + "-%");
+  }
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "RUN_FRONTIER_CLAIM_BENCHMARK", matches = "(?i)true|1|yes")
+  void benchmarksSingleClaimsAgainstBatchClaims() throws Exception {
+    seed("single");
+    Measurement single =
+        drain(
+            worker -> {
+              FrontierQueueUrl next =
+                  frontierRepository.claimNextDueUrl(worker, 300, FrontierUrlKind.CANDIDATE);
+              return next == null ? List.of() : List.of(next);
+            });
+    seed("batch");
+    Measurement batch =
+        drain(
+            worker ->
+                frontierRepository.claimDueUrls(
+                    worker, 300, FrontierUrlKind.CANDIDATE, BATCH_SIZE));
+
+    System.out.println("=== Frontier Claim Benchmark ===");
+    System.out.println("hosts=" + HOSTS + " workers=" + WORKERS + " batch_size=" + BATCH_SIZE);
+    System.out.println("claim_next_due_url " + single);
+    System.out.println("claim_due_urls " + batch);
+
+    // Each host hands out one URL until its fetch completes, which this benchmark never does. A
+    // worker also stops when claimNextDueUrl gives up after repeated contention, so a round may
+    // end before every host has been claimed.
+    assertThat(single.claims()).isPositive().isLessThanOrEqualTo(HOSTS);
+    assertThat(batch.claims()).isPositive().isLessThanOrEqualTo(HOSTS);
+    assertThat(single.duplicateHosts()).isZero();
+    assertThat(batch.duplicateHosts()).isZero();
+  }
+
+  private void seed(String round) {
+    cleanUp();
+    Instant due = Instant.now().minusSeconds(60);
+    List<FrontierEnqueueRequest> requests = new ArrayList<>(HOSTS * URLS_PER_HOST);
+    for (int host = 0; host < HOSTS; host++) {
+      for (int url = 0; url < URLS_PER_HOST; url++) {
+        requests.add(
+            new FrontierEnqueueRequest(
+                "https://" + hostPrefix + "-" + round + "-" + host + ".example/jobs/" + url,
+                FrontierUrlKind.CANDIDATE,
+                50 + url,
+                due));
+      }
+    }
+    frontierRepository.enqueueUrls(requests);
+  }
+
+  private Measurement drain(Function<String, List<FrontierQueueUrl>> claim) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+    Set<String> hosts = ConcurrentHashMap.newKeySet();
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<int[]>> futures = new ArrayList<>();
+      for (int i = 0; i < WORKERS; i++) {
+        String worker = "bench-worker-" + i;
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  int claims = 0;
+                  int duplicates = 0;
+                  int calls = 0;
+                  while (true) {
+                    List<FrontierQueueUrl> claimed = claim.apply(worker);
+                    calls++;
+                    if (claimed.isEmpty()) {
+                      return new int[] {claims, duplicates, calls};
+                    }
+                    for (FrontierQueueUrl url : claimed) {
+                      claims++;
+                      if (!hosts.add(url.host())) {
+                        duplicates++;
+                      }
+                    }
+                  }
+                }));
+      }
+      long startedAt = System.nanoTime();
+      start.countDown();
+      int claims = 0;
+      int duplicates = 0;
+      int calls = 0;
+      for (Future<int[]> future : futures) {
+        int[] counts = future.get(10, TimeUnit.MINUTES);
+        claims += counts[0];
+        duplicates += counts[1];
+        calls += counts[2];
+      }
+      return new Measurement(claims, duplicates, calls, System.nanoTime() - startedAt);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private record Measurement(int claims, int duplicateHosts, int calls, long elapsedNanos) {
+    @Override
+    public String toString() {
+      double seconds = elapsedNanos / 1_000_000_000.0;
+      return "claims="
+          + claims
+          + " calls="
+          + calls
+          + " elapsed_ms="
+          + elapsedNanos / 1_000_000
+          + " claims_per_sec="
+          + Math.round(claims / Math.max(seconds, 1e-9));
+    }
+  }
+}
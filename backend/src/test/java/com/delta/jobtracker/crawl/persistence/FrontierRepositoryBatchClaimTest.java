@@ -0,0 +1,57 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.FrontierFetchOutcome;
+import com.delta.jobtracker.crawl.model.FrontierQueueUrl;
+import com.delta.jobtracker.crawl.model.FrontierUrlKind;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class FrontierRepositoryBatchClaimTest {
+
+  @Autowired private FrontierRepository frontierRepository;
+
+  @Test
+  void batchClaimTakesOneDueUrlPerHostInPriorityOrder() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8).toLowerCase(Locale.ROOT);
+    String busyHost = "frontier-claim-a-" + suffix + ".example.com";
+    String quietHost = "frontier-claim-b-" + suffix + ".example.com";
+    Instant due = Instant.now().minusSeconds(60);
+    frontierRepository.enqueueUrl(
+        "https://" + busyHost + "/jobs/first", FrontierUrlKind.CANDIDATE, 100, due);
+    frontierRepository.enqueueUrl(
+        "https://" + busyHost + "/jobs/second", FrontierUrlKind.CANDIDATE, 90, due);
+    frontierRepository.enqueueUrl(
+        "https://" + quietHost + "/jobs/only", FrontierUrlKind.CANDIDATE, 80, due);
+
+    List<FrontierQueueUrl> claimed =
+        frontierRepository.claimDueUrls("batch-worker", 60, FrontierUrlKind.CANDIDATE, 5);
+
+    assertThat(claimed)
+        .extracting(FrontierQueueUrl::canonicalUrl)
+        .containsExactly(
+            "https://" + busyHost + "/jobs/first", "https://" + quietHost + "/jobs/only");
+    assertThat(frontierRepository.claimDueUrls("batch-worker", 60, FrontierUrlKind.CANDIDATE, 5))
+        .isEmpty();
+
+    frontierRepository.completeFetch(
+        claimed.getFirst(),
+        new FrontierFetchOutcome(
+            "FETCHED", Instant.now(), 200, 15L, null, null, "HTTP_2XX", Instant.now(), 0));
+
+    assertThat(frontierRepository.claimDueUrls("batch-worker", 60, FrontierUrlKind.CANDIDATE, 5))
+        .extracting(FrontierQueueUrl::canonicalUrl)
+        .containsExactly("https://" + busyHost + "/jobs/second");
+  }
+}
@@ -0,0 +1,80 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
+import com.delta.jobtracker.crawl.model.FrontierEnqueueResult;
+import com.delta.jobtracker.crawl.model.FrontierUrlKind;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class FrontierRepositoryBatchEnqueueTest {
+
+  @Autowired private FrontierRepository frontierRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void batchEnqueueReportsInsertedPerRequestLikeSingleEnqueue() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8).toLowerCase(Locale.ROOT);
+    String host = "frontier-batch-" + suffix + ".example.com";
+    String otherHost = "frontier-batch-other-" + suffix + ".example.com";
+    Instant due = Instant.now().minusSeconds(60);
+    FrontierEnqueueResult existing =
+        frontierRepository.enqueueUrl(
+            "https://" + host + "/jobs/existing", FrontierUrlKind.CANDIDATE, 10, due);
+
+    List<FrontierEnqueueResult> results =
+        frontierRepository.enqueueUrls(
+            List.of(
+                new FrontierEnqueueRequest(
+                    "https://" + host + "/sitemap-jobs.xml", FrontierUrlKind.CANDIDATE, 50, due),
+                new FrontierEnqueueRequest(
+                    "HTTPS://" + host.toUpperCase(Locale.ROOT) + "/sitemap-jobs.xml?utm_source=x",
+                    FrontierUrlKind.SITEMAP,
+                    90,
+                    due),
+                new FrontierEnqueueRequest(
+                    "https://" + host + "/jobs/existing", FrontierUrlKind.CANDIDATE, 70, due),
+                new FrontierEnqueueRequest("not a url", FrontierUrlKind.CANDIDATE, 50, due),
+                new FrontierEnqueueRequest(
+                    "https://" + otherHost + "/jobs/1", FrontierUrlKind.CANDIDATE, 50, due)));
+
+    assertThat(results)
+        .extracting(FrontierEnqueueResult::inserted)
+        .containsExactly(true, false, false, false, true);
+    assertThat(results.get(1).urlId()).isEqualTo(results.get(0).urlId()).isPositive();
+    assertThat(results.get(1).canonicalUrl()).isEqualTo("https://" + host + "/sitemap-jobs.xml");
+    assertThat(results.get(2).urlId()).isEqualTo(existing.urlId());
+    assertThat(results.get(3)).isEqualTo(new FrontierEnqueueResult(false, 0L, null, null));
+    assertThat(results.get(4).host()).isEqualTo(otherHost);
+
+    Map<String, Object> merged =
+        jdbcTemplate.queryForMap(
+            "SELECT url_kind, priority FROM crawl_urls WHERE id = ?", results.get(0).urlId());
+    assertThat(merged.get("url_kind")).isEqualTo("SITEMAP");
+    assertThat(((Number) merged.get("priority")).intValue()).isEqualTo(90);
+    Integer existingPriority =
+        jdbcTemplate.queryForObject(
+            "SELECT priority FROM crawl_urls WHERE id = ?", Integer.class, existing.urlId());
+    assertThat(existingPriority).isEqualTo(70);
+    Integer hosts =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM crawl_hosts WHERE host IN (?, ?)",
+            Integer.class,
+            host,
+            otherHost);
+    assertThat(hosts).isEqualTo(2);
+  }
+}
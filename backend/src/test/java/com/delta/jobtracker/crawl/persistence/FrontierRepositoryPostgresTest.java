@@ -0,0 +1,136 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.FrontierEnqueueRequest;
+import com.delta.jobtracker.crawl.model.FrontierEnqueueResult;
+import com.delta.jobtracker.crawl.model.FrontierQueueUrl;
+import com.delta.jobtracker.crawl.model.FrontierUrlKind;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+// The multi-row upsert and the SKIP LOCKED claim only run on Postgres; H2 takes the portable
+// paths covered by the batch enqueue and claim tests. Not transactional, so concurrent claimers
+// see the seeded rows.
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class FrontierRepositoryPostgresTest {
+
+  @Autowired private FrontierRepository frontierRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+  private final String hostPrefix =
+      "frontier-pg-" + UUID.randomUUID().toString().substring(0, 8).toLowerCase(Locale.ROOT);
+
+  @BeforeEach
+  void requirePostgres() {
+    assertThat(DatabaseDialect.isPostgres(namedJdbcTemplate)).isTrue();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    jdbcTemplate.update("DELETE FROM crawl_hosts WHERE host LIKE ?", hostPrefix + "-%");
+  }
+
+  @Test
+  void upsertReportsInsertedAndExistingRowsFromReturning() {
+    String host = hostPrefix + "-a.example.com";
+    Instant due = Instant.now().minusSeconds(60);
+    FrontierEnqueueResult existing =
+        frontierRepository.enqueueUrl(
+            "https://" + host + "/jobs/existing", FrontierUrlKind.CANDIDATE, 10, due);
+
+    List<FrontierEnqueueResult> results =
+        frontierRepository.enqueueUrls(
+            List.of(
+                new FrontierEnqueueRequest(
+                    "https://" + host + "/jobs/new", FrontierUrlKind.CANDIDATE, 50, due),
+                new FrontierEnqueueRequest(
+                    "https://" + host + "/jobs/existing", FrontierUrlKind.CANDIDATE, 70, due),
+                new FrontierEnqueueRequest(
+                    "https://" + host + "/jobs/new?utm_source=x",
+                    FrontierUrlKind.SITEMAP,
+                    90,
+                    due)));
+
+    assertThat(results)
+        .extracting(FrontierEnqueueResult::inserted)
+        .containsExactly(true, false, false);
+    assertThat(results.get(1).urlId()).isEqualTo(existing.urlId());
+    assertThat(results.get(2).urlId()).isEqualTo(results.get(0).urlId());
+    Integer existingPriority =
+        jdbcTemplate.queryForObject(
+            "SELECT priority FROM crawl_urls WHERE id = ?", Integer.class, existing.urlId());
+    assertThat(existingPriority).isEqualTo(70);
+  }
+
+  @Test
+  void concurrentBatchClaimsTakeOneUrlPerHostWithoutOverlap() throws Exception {
+    Instant due = Instant.now().minusSeconds(60);
+    List<FrontierEnqueueRequest> requests = new ArrayList<>();
+    for (int h = 0; h < 3; h++) {
+      for (int u = 0; u < 2; u++) {
+        requests.add(
+            new FrontierEnqueueRequest(
+                "https://" + hostPrefix + "-" + h + ".example.com/jobs/" + u,
+                FrontierUrlKind.CANDIDATE,
+                100 - u,
+                due));
+      }
+    }
+    frontierRepository.enqueueUrls(requests);
+
+    ExecutorService workers = Executors.newFixedThreadPool(2);
+    List<FrontierQueueUrl> claimed = new ArrayList<>();
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<List<FrontierQueueUrl>>> claims = new ArrayList<>();
+      for (int w = 0; w < 2; w++) {
+        String worker = "pg-worker-" + w;
+        claims.add(
+            workers.submit(
+                () -> {
+                  start.await();
+                  return frontierRepository.claimDueUrls(
+                      worker, 60, FrontierUrlKind.CANDIDATE, 100);
+                }));
+      }
+      start.countDown();
+      for (Future<List<FrontierQueueUrl>> claim : claims) {
+        claimed.addAll(claim.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+
+    List<FrontierQueueUrl> ours =
+        claimed.stream().filter(url -> url.host().startsWith(hostPrefix)).toList();
+    assertThat(ours)
+        .extracting(FrontierQueueUrl::host)
+        .doesNotHaveDuplicates()
+        .containsExactlyInAnyOrder(
+            hostPrefix + "-0.example.com",
+            hostPrefix + "-1.example.com",
+            hostPrefix + "-2.example.com");
+    assertThat(ours).extracting(FrontierQueueUrl::url).allMatch(url -> url.endsWith("/jobs/0"));
+  }
+}
@@ -0,0 +1,68 @@
+package com.delta.jobtracker.crawl.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.RobotsCacheRecord;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RobotsRulesRepositoryTest {
+  private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+  @Autowired private RobotsRulesRepository repository;
+
+  @Test
+  void upsertsByHostAndWarmsOnlyUnexpiredRows() {
+    repository.save(
+        new RobotsCacheRecord(
+            "fresh.example.com",
+            "User-agent: *\nDisallow: /old\n",
+            false,
+            null,
+            null,
+            NOW.minusSeconds(600),
+            NOW.plusSeconds(3600)));
+    repository.save(
+        new RobotsCacheRecord(
+            "fresh.example.com",
+            "User-agent: *\nDisallow: /new\n",
+            false,
+            "\"v2\"",
+            null,
+            NOW,
+            NOW.plusSeconds(7200)));
+    repository.save(
+        new RobotsCacheRecord(
+            "down.example.com", null, true, null, null, NOW.minusSeconds(60), NOW.plusSeconds(60)));
+    repository.save(
+        new RobotsCacheRecord(
+            "stale.example.com",
+            "User-agent: *\n",
+            false,
+            null,
+            null,
+            NOW.minusSeconds(90_000),
+            NOW.minusSeconds(3600)));
+
+    RobotsCacheRecord fresh = repository.find("fresh.example.com");
+    assertThat(fresh.robotsText()).contains("/new");
+    assertThat(fresh.etag()).isEqualTo("\"v2\"");
+    assertThat(fresh.expiresAt()).isEqualTo(NOW.plusSeconds(7200));
+    assertThat(repository.find("down.example.com").unavailable()).isTrue();
+
+    assertThat(repository.findUnexpired(NOW, 10))
+        .extracting(RobotsCacheRecord::host)
+        .containsExactly("fresh.example.com", "down.example.com");
+    assertThat(repository.findUnexpired(NOW, 1)).hasSize(1);
+
+    assertThat(repository.deleteFetchedBefore(NOW.minusSeconds(3600))).isEqualTo(1);
+    assertThat(repository.find("stale.example.com")).isNull();
+  }
+}
@@ -2,6 +2,7 @@ package com.delta.jobtracker.crawl.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
@@ -16,8 +17,10 @@ import com.delta.jobtracker.crawl.model.AtsEndpointRecord;
 import com.delta.jobtracker.crawl.model.AtsType;
 import com.delta.jobtracker.crawl.model.CompanyTarget;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.HttpValidators;
 import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +41,7 @@ class AtsAdapterIngestionServiceTest {
   @Mock private PoliteHttpClient httpClient;
   @Mock private RobotsTxtService robotsTxtService;
   @Mock private CrawlJdbcRepository repository;
+  @Mock private HttpValidatorRepository validatorRepository;
 
   private final ObjectMapper objectMapper = new ObjectMapper();
   private AtsAdapterIngestionService service;
@@ -46,7 +50,12 @@ class AtsAdapterIngestionServiceTest {
   void setUp() {
     service =
         new AtsAdapterIngestionService(
-            httpClient, robotsTxtService, repository, objectMapper, new CrawlerProperties());
+            httpClient,
+            robotsTxtService,
+            repository,
+            validatorRepository,
+            objectMapper,
+            new CrawlerProperties());
   }
 
   @Test
@@ -76,6 +85,30 @@ class AtsAdapterIngestionServiceTest {
     verify(httpClient, never()).get(eq(fallbackUrl), anyString());
   }
 
+  @Test
+  void carriesForwardGreenhousePostingsWhenFeedIsNotModified() {
+    CompanyTarget company = new CompanyTarget(1L, "UBER", "Uber", null, "uber.com", null);
+    AtsEndpointRecord endpoint =
+        new AtsEndpointRecord(
+            1L, AtsType.GREENHOUSE, "https://boards.greenhouse.io/uber", null, 0.9, Instant.now());
+    String feedUrl = "https://boards-api.greenhouse.io/v1/boards/uber/jobs?content=true";
+    HttpValidators validators = new HttpValidators("\"v1\"", null);
+    when(robotsTxtService.isAllowedForAtsAdapter(anyString())).thenReturn(true);
+    when(validatorRepository.find(feedUrl)).thenReturn(validators);
+    when(httpClient.getConditional(eq(feedUrl), anyString(), eq(validators)))
+        .thenReturn(notModifiedFetch(feedUrl));
+    when(repository.carryForwardActivePostings(eq(1L), eq(feedUrl), eq(10L), any(Instant.class)))
+        .thenReturn(3);
+
+    AtsAdapterResult result = service.ingestIfSupported(10L, company, List.of(endpoint), null);
+
+    assertThat(result).isNotNull();
+    assertThat(result.jobsExtractedCount()).isEqualTo(3);
+    verify(repository, never())
+        .upsertJobPostingsBatch(anyLong(), anyLong(), any(List.class), any(Instant.class));
+    verify(httpClient, never()).get(anyString(), anyString());
+  }
+
   @Test
   void greenhouseApiEndpointUsesBoardsApiFeed() {
     CompanyTarget company = new CompanyTarget(4L, "AIRB", "Airbnb", null, "airbnb.com", null);
@@ -182,6 +215,25 @@ class AtsAdapterIngestionServiceTest {
         null);
   }
 
+  private HttpFetchResult notModifiedFetch(String url) {
+    return new HttpFetchResult(
+        url,
+        null,
+        304,
+        "",
+        new byte[0],
+        null,
+        null,
+        Instant.now(),
+        Duration.ZERO,
+        null,
+        null,
+        "\"v1\"",
+        null,
+        0L,
+        0L);
+  }
+
   private String greenhousePayload() {
     return """
             {"jobs":[
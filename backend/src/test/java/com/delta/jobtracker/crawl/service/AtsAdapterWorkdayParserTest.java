@@ -7,6 +7,7 @@ import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.NormalizedJobPosting;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,6 +25,7 @@ class AtsAdapterWorkdayParserTest {
   @Mock private PoliteHttpClient httpClient;
   @Mock private RobotsTxtService robotsTxtService;
   @Mock private CrawlJdbcRepository repository;
+  @Mock private HttpValidatorRepository validatorRepository;
 
   private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -31,7 +33,12 @@ class AtsAdapterWorkdayParserTest {
   void parsesWorkdayCxsPayloadIntoNormalizedJobs() throws Exception {
     AtsAdapterIngestionService service =
         new AtsAdapterIngestionService(
-            httpClient, robotsTxtService, repository, objectMapper, new CrawlerProperties());
+            httpClient,
+            robotsTxtService,
+            repository,
+            validatorRepository,
+            objectMapper,
+            new CrawlerProperties());
 
     String fixture =
         Files.readString(Path.of("src/test/resources/fixtures/workday-cxs-response.json"));
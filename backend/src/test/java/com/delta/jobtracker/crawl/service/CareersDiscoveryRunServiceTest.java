@@ -14,7 +14,6 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.delta.jobtracker.config.CrawlerProperties;
-import com.delta.jobtracker.crawl.model.HostCrawlState;
 import com.delta.jobtracker.crawl.model.CompanyTarget;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
 import java.time.Instant;
@@ -34,6 +33,7 @@ class CareersDiscoveryRunServiceTest {
 
   @Mock private CrawlJdbcRepository repository;
   @Mock private CareersDiscoveryService discoveryService;
+  @Mock private HostCrawlStateService hostCrawlStateService;
 
   @Test
   void discoveryRunAbortsWhenTimeBudgetExceeded() {
@@ -63,7 +63,8 @@ class CareersDiscoveryRunServiceTest {
 
     ExecutorService executor = new DirectExecutorService();
     CareersDiscoveryRunService service =
-        new CareersDiscoveryRunService(repository, discoveryService, executor, properties);
+        new CareersDiscoveryRunService(
+            repository, discoveryService, executor, properties, hostCrawlStateService);
 
     service.startAsync(1, 1, false);
 
@@ -131,7 +132,11 @@ class CareersDiscoveryRunServiceTest {
 
     CareersDiscoveryRunService service =
         new CareersDiscoveryRunService(
-            repository, discoveryService, new DirectExecutorService(), properties);
+            repository,
+            discoveryService,
+            new DirectExecutorService(),
+            properties,
+            hostCrawlStateService);
 
     service.startAsync(2, 2, false);
 
@@ -187,7 +192,11 @@ class CareersDiscoveryRunServiceTest {
 
     CareersDiscoveryRunService service =
         new CareersDiscoveryRunService(
-            repository, discoveryService, new DirectExecutorService(), properties);
+            repository,
+            discoveryService,
+            new DirectExecutorService(),
+            properties,
+            hostCrawlStateService);
 
     service.startAsync(1, 1, false);
 
@@ -213,12 +222,15 @@ class CareersDiscoveryRunServiceTest {
     when(repository.insertCareersDiscoveryRun(
             eq(1), eq(1), eq(1), eq(1), anyInt(), anyInt(), anyInt()))
         .thenReturn(102L);
-    when(repository.findHostCrawlState("alpha.com"))
-        .thenReturn(new HostCrawlState("alpha.com", 6, "timeout", Instant.now(), Instant.now()));
+    when(hostCrawlStateService.hasReachedFailureCutoff("alpha.com", 6)).thenReturn(true);
 
     CareersDiscoveryRunService service =
         new CareersDiscoveryRunService(
-            repository, discoveryService, new DirectExecutorService(), properties);
+            repository,
+            discoveryService,
+            new DirectExecutorService(),
+            properties,
+            hostCrawlStateService);
 
     service.startAsync(1, 1, false);
 
@@ -94,7 +94,7 @@ class CareersDiscoveryServiceTest {
     String homepage = "https://acme.com/";
     when(repository.findCareersDiscoveryState(1L)).thenReturn(null);
     when(robotsTxtService.isAllowed(homepage)).thenReturn(true);
-    when(httpClient.get(eq(homepage), anyString(), anyInt()))
+    when(httpClient.getCached(eq(homepage), anyString(), anyInt()))
         .thenReturn(
             successHtml(homepage, "<a href=\"https://boards.greenhouse.io/acme\">Careers</a>"));
 
@@ -115,6 +115,27 @@ class CareersDiscoveryServiceTest {
     verify(httpClient, never()).get(eq("https://acme.com/careers"), anyString());
   }
 
+  @Test
+  void homepageServedFromTheResponseCacheIsNotCountedAsARequest() {
+    CompanyTarget company = new CompanyTarget(1L, "ACME", "Acme Corp", null, "acme.com", null);
+    String homepage = "https://acme.com/";
+    String html = "<a href=\"https://boards.greenhouse.io/acme\">Careers</a>";
+    when(repository.findCareersDiscoveryState(1L)).thenReturn(null);
+    when(httpClient.getCached(eq(homepage), anyString(), anyInt()))
+        .thenReturn(fetchedAt(successHtml(homepage, html), Instant.now().minusSeconds(60)))
+        .thenAnswer(invocation -> fetchedAt(successHtml(homepage, html), Instant.now()));
+
+    CareersDiscoveryService.DiscoveryMetrics cached =
+        new CareersDiscoveryService.DiscoveryMetrics();
+    service.discoverForCompany(company, null, cached, null, false);
+    CareersDiscoveryService.DiscoveryMetrics fetched =
+        new CareersDiscoveryService.DiscoveryMetrics();
+    service.discoverForCompany(company, null, fetched, null, false);
+
+    assertThat(cached.requestsIssuedCount()).isZero();
+    assertThat(fetched.requestsIssuedCount()).isEqualTo(1);
+  }
+
   @Test
   void vendorProbeOnlyPersistsEndpoint() {
     CompanyTarget company = new CompanyTarget(2L, "ACME", "Acme Corp", null, "acme.com", null);
@@ -122,7 +143,7 @@ class CareersDiscoveryServiceTest {
     String homepage = "https://acme.com/";
     when(repository.findCareersDiscoveryState(2L)).thenReturn(null);
     lenient()
-        .when(httpClient.get(eq(homepage), anyString(), anyInt()))
+        .when(httpClient.getCached(eq(homepage), anyString(), anyInt()))
         .thenReturn(successHtml(homepage, "<html>No careers link</html>"));
     lenient()
         .when(httpClient.get(eq(vendorUrl), anyString()))
@@ -142,7 +163,7 @@ class CareersDiscoveryServiceTest {
             any(Instant.class),
             eq("vendor_probe"),
             eq(true));
-    verify(httpClient).get(eq("https://acme.com/"), anyString(), anyInt());
+    verify(httpClient).getCached(eq("https://acme.com/"), anyString(), anyInt());
   }
 
   @Test
@@ -151,7 +172,7 @@ class CareersDiscoveryServiceTest {
     String homepage = "https://sitemapco.com/";
     when(repository.findCareersDiscoveryState(4L)).thenReturn(null);
     lenient()
-        .when(httpClient.get(eq(homepage), anyString(), anyInt()))
+        .when(httpClient.getCached(eq(homepage), anyString(), anyInt()))
         .thenReturn(successHtml(homepage, "<html><body>No links</body></html>"));
     SitemapDiscoveryResult sitemapResult =
         new SitemapDiscoveryResult(
@@ -188,7 +209,7 @@ class CareersDiscoveryServiceTest {
     when(robotsTxtService.isAllowed("https://acme.com/careers")).thenReturn(false);
     lenient().when(httpClient.get(anyString(), anyString())).thenReturn(failureFetch(homepage));
     lenient()
-        .when(httpClient.get(eq(homepage), anyString(), anyInt()))
+        .when(httpClient.getCached(eq(homepage), anyString(), anyInt()))
         .thenReturn(successHtml(homepage, "<html>No ATS</html>"));
 
     service.discoverForCompany(company, null, null, null, false);
@@ -228,6 +249,21 @@ class CareersDiscoveryServiceTest {
         null);
   }
 
+  private HttpFetchResult fetchedAt(HttpFetchResult result, Instant fetchedAt) {
+    return new HttpFetchResult(
+        result.requestedUrl(),
+        result.finalUri(),
+        result.statusCode(),
+        result.body(),
+        result.bodyBytes(),
+        result.contentType(),
+        result.contentEncoding(),
+        fetchedAt,
+        result.duration(),
+        result.errorCode(),
+        result.errorMessage());
+  }
+
   private HttpFetchResult failureFetch(String url) {
     return new HttpFetchResult(
         url,
@@ -0,0 +1,140 @@
+package com.delta.jobtracker.crawl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.AtsEndpointRecord;
+import com.delta.jobtracker.crawl.model.AtsType;
+import com.delta.jobtracker.crawl.model.CompanyCrawlSummary;
+import com.delta.jobtracker.crawl.model.CompanyTarget;
+import com.delta.jobtracker.crawl.model.CrawlRunRequest;
+import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.CrawlQueueRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CrawlDaemonServiceTest {
+  private static final long COMPANY_ID = 7L;
+  private static final String ATS_HOST = "boards-api.greenhouse.io";
+
+  @Mock private CrawlQueueRepository queueRepository;
+  @Mock private CrawlJdbcRepository repository;
+  @Mock private CompanyCrawlerService companyCrawlerService;
+  @Mock private UniverseIngestionService ingestionService;
+  @Mock private HostCrawlStateService hostCrawlStateService;
+
+  private CrawlDaemonService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new CrawlDaemonService(
+            queueRepository,
+            repository,
+            companyCrawlerService,
+            ingestionService,
+            hostCrawlStateService,
+            new CrawlerProperties());
+    when(repository.findCompanyTargetById(COMPANY_ID))
+        .thenReturn(new CompanyTarget(COMPANY_ID, "ACME", "Acme", null, "acme.com", null));
+    when(repository.findAtsEndpoints(COMPANY_ID))
+        .thenReturn(
+            List.of(
+                new AtsEndpointRecord(
+                    COMPANY_ID,
+                    AtsType.GREENHOUSE,
+                    "https://" + ATS_HOST + "/v1/boards/acme/jobs",
+                    null,
+                    0.9,
+                    Instant.now())));
+  }
+
+  @Test
+  void coolingSharedAtsHostOnlySkipsThatStage() {
+    when(hostCrawlStateService.nextAllowedAt(anyString())).thenReturn(null);
+    when(hostCrawlStateService.nextAllowedAt(ATS_HOST))
+        .thenReturn(Instant.now().plusSeconds(86_400));
+    stubCrawl();
+
+    service.crawlCompany(COMPANY_ID);
+
+    verify(queueRepository, never()).deferUntil(anyLong(), any(Instant.class));
+    assertThat(crawledRequest().atsOnly()).isFalse();
+    verify(queueRepository).markSuccess(eq(COMPANY_ID), any(Instant.class));
+    // The feed's postings were not refreshed, so closeout waits for a run that can reach it.
+    verify(repository, never()).markPostingsInactiveNotSeenInRun(anyLong(), anyLong());
+  }
+
+  @Test
+  void coolingSiteLeavesOnlyTheAtsFeedsToCrawl() {
+    Instant resumeAt = Instant.now().plusSeconds(600);
+    when(hostCrawlStateService.nextAllowedAt("acme.com")).thenReturn(resumeAt);
+    when(hostCrawlStateService.nextAllowedAt("www.acme.com")).thenReturn(resumeAt);
+    when(hostCrawlStateService.nextAllowedAt(ATS_HOST)).thenReturn(null);
+    stubCrawl();
+
+    service.crawlCompany(COMPANY_ID);
+
+    verify(queueRepository, never()).deferUntil(anyLong(), any(Instant.class));
+    assertThat(crawledRequest().atsOnly()).isTrue();
+    verify(repository, never()).markPostingsInactiveNotSeenInRun(anyLong(), anyLong());
+  }
+
+  @Test
+  void defersUntilTheEarliestResumeWhenEveryHostIsCooling() {
+    Instant earliest = Instant.now().plusSeconds(300);
+    when(hostCrawlStateService.nextAllowedAt("acme.com")).thenReturn(earliest.plusSeconds(60));
+    when(hostCrawlStateService.nextAllowedAt("www.acme.com")).thenReturn(earliest);
+    when(hostCrawlStateService.nextAllowedAt(ATS_HOST))
+        .thenReturn(Instant.now().plusSeconds(86_400));
+
+    service.crawlCompany(COMPANY_ID);
+
+    verify(queueRepository).deferUntil(COMPANY_ID, earliest);
+    verify(companyCrawlerService, never())
+        .crawlCompany(anyLong(), any(CompanyTarget.class), any(CrawlRunRequest.class));
+  }
+
+  @Test
+  void closesOutWhenNoHostIsCooling() {
+    when(hostCrawlStateService.nextAllowedAt(anyString())).thenReturn(null);
+    stubCrawl();
+
+    service.crawlCompany(COMPANY_ID);
+
+    assertThat(crawledRequest().atsOnly()).isFalse();
+    verify(repository).markPostingsInactiveNotSeenInRun(eq(COMPANY_ID), anyLong());
+  }
+
+  private void stubCrawl() {
+    when(repository.insertCrawlRun(any(Instant.class), eq("RUNNING"), eq("daemon")))
+        .thenReturn(11L);
+    when(companyCrawlerService.crawlCompany(
+            eq(11L), any(CompanyTarget.class), any(CrawlRunRequest.class)))
+        .thenReturn(
+            new CompanyCrawlSummary(
+                COMPANY_ID, "ACME", "acme.com", 0, 0, List.of(), 0, 0, true, Map.of()));
+  }
+
+  private CrawlRunRequest crawledRequest() {
+    ArgumentCaptor<CrawlRunRequest> request = ArgumentCaptor.forClass(CrawlRunRequest.class);
+    verify(companyCrawlerService)
+        .crawlCompany(eq(11L), any(CompanyTarget.class), request.capture());
+    return request.getValue();
+  }
+}
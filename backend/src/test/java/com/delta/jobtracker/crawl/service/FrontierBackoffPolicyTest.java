@@ -34,4 +34,20 @@ class FrontierBackoffPolicyTest {
     assertThat(reset.statusBucket()).isEqualTo("HTTP_2XX");
     assertThat(reset.nextBackoffState()).isEqualTo(0);
   }
+
+  @Test
+  void retryAfterDeterminesNextAllowedTime() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setPerHostDelayMs(1000);
+    FrontierBackoffPolicy policy = new FrontierBackoffPolicy(properties);
+    Instant retryAfter = Instant.now().plusSeconds(7200);
+
+    FrontierBackoffDecision longer = policy.onResult(0, 429, null, retryAfter);
+    assertThat(longer.nextAllowedAt()).isEqualTo(retryAfter);
+    assertThat(longer.nextBackoffState()).isEqualTo(1);
+
+    FrontierBackoffDecision shorter = policy.onResult(0, 503, null, Instant.now().plusSeconds(2));
+    assertThat(Duration.between(Instant.now(), shorter.nextAllowedAt()))
+        .isLessThanOrEqualTo(Duration.ofSeconds(2));
+  }
 }
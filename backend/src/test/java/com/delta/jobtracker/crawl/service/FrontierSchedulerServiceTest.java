@@ -0,0 +1,266 @@
+package com.delta.jobtracker.crawl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.http.TrafficClass;
+import com.delta.jobtracker.crawl.http.TrafficClassContext;
+import com.delta.jobtracker.crawl.model.FrontierDrainStatusResponse;
+import com.delta.jobtracker.crawl.model.FrontierFetchOutcome;
+import com.delta.jobtracker.crawl.model.FrontierQueueUrl;
+import com.delta.jobtracker.crawl.model.FrontierSchedulerResult;
+import com.delta.jobtracker.crawl.model.FrontierUrlKind;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.persistence.FrontierRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
+import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import com.delta.jobtracker.crawl.sitemap.FrontierSitemapParser;
+import com.delta.jobtracker.crawl.util.FrontierJobSignalHeuristics;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FrontierSchedulerServiceTest {
+  private static final long FETCH_MILLIS = 100;
+
+  @Mock private FrontierRepository frontierRepository;
+  @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsTxtService robotsTxtService;
+  @Mock private HttpValidatorRepository validatorRepository;
+
+  private final CrawlerProperties properties = new CrawlerProperties();
+  private final Deque<FrontierQueueUrl> due = new ArrayDeque<>();
+  private final List<TrafficClass> fetchTrafficClasses = new ArrayList<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private final AtomicInteger nextId = new AtomicInteger();
+  private final AtomicInteger interruptedFetches = new AtomicInteger();
+
+  @BeforeEach
+  void stubFrontier() {
+    properties.getFrontier().setClaimBatchSize(2);
+    when(frontierRepository.claimDueUrls(
+            anyString(), anyLong(), eq(FrontierUrlKind.SITEMAP), anyInt()))
+        .thenAnswer(invocation -> claim(invocation.getArgument(3)));
+    when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
+    when(httpClient.getConditional(anyString(), anyString(), anyInt(), any(), any(BodySpill.class)))
+        .thenAnswer(invocation -> fetch(invocation.getArgument(0)));
+  }
+
+  @Test
+  void fetchesDueSitemapsOnParallelWorkersWithinTheBudget() {
+    properties.getFrontier().setWorkerCount(4);
+    enqueue(20);
+    when(frontierRepository.countDueUrlsBlockedByBackoff(FrontierUrlKind.SITEMAP)).thenReturn(3);
+
+    long startedAt = System.nanoTime();
+    FrontierSchedulerResult result = service().fetchDueSitemaps(16);
+    long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+    assertThat(result.urlsFetched()).isEqualTo(16);
+    assertThat(result.notModifiedCount()).isEqualTo(16);
+    assertThat(result.httpRequestCount()).isEqualTo(16);
+    // The budget was spent, so nothing is reported as held back by backoff.
+    assertThat(result.blockedByBackoff()).isZero();
+    assertThat(peakInFlight.get()).isBetween(2, 4);
+    // Sequentially this is 16 fetches of 100ms each.
+    assertThat(elapsedMs).isLessThan(16 * FETCH_MILLIS);
+    assertThat(remaining()).isEqualTo(4);
+    assertThat(fetchTrafficClasses).containsOnly(TrafficClass.FRONTIER);
+  }
+
+  @Test
+  void stopsOnceNothingIsDueAndReportsBackoffBlockedUrls() {
+    properties.getFrontier().setWorkerCount(3);
+    enqueue(5);
+    when(frontierRepository.countDueUrlsBlockedByBackoff(FrontierUrlKind.SITEMAP)).thenReturn(3);
+
+    FrontierSchedulerResult result = service().fetchDueSitemaps(50);
+
+    assertThat(result.urlsFetched()).isEqualTo(5);
+    assertThat(result.blockedByBackoff()).isEqualTo(3);
+    assertThat(result.statusBucketCounts()).isNotEmpty();
+  }
+
+  @Test
+  void drainKeepsClaimingUntilStoppedAndPublishesTotals() throws InterruptedException {
+    properties.getFrontier().setWorkerCount(2);
+    properties.getFrontier().setDrainPollIntervalMs(100);
+    when(frontierRepository.countQueueStatuses()).thenReturn(Map.of("QUEUED", 0));
+    FrontierSchedulerService service = service();
+
+    service.startDrain();
+    try {
+      enqueue(4);
+      waitFor(() -> service.getDrainStatus().totals().urlsFetched() == 4);
+      // URLs enqueued while the drain idles are picked up on its next poll.
+      enqueue(2);
+      waitFor(() -> service.getDrainStatus().totals().urlsFetched() == 6);
+
+      FrontierDrainStatusResponse status = service.getDrainStatus();
+      assertThat(status.running()).isTrue();
+      assertThat(status.workerCount()).isEqualTo(2);
+      assertThat(status.startedAt()).isNotNull();
+      assertThat(status.queueStatusCounts()).containsEntry("QUEUED", 0);
+    } finally {
+      service.stopDrain();
+    }
+
+    FrontierDrainStatusResponse stopped = service.getDrainStatus();
+    assertThat(stopped.running()).isFalse();
+    assertThat(stopped.totals().urlsFetched()).isEqualTo(6);
+  }
+
+  @Test
+  void claimsLeftUnprocessedWhenCompletingFailsGoBackToTheQueue() {
+    properties.getFrontier().setWorkerCount(1);
+    enqueue(2);
+    doThrow(new IllegalStateException("database unavailable"))
+        .when(frontierRepository)
+        .completeFetch(any(FrontierQueueUrl.class), any(FrontierFetchOutcome.class));
+    FrontierSchedulerService service = service();
+
+    assertThatThrownBy(() -> service.fetchDueSitemaps(2))
+        .isInstanceOf(IllegalStateException.class);
+
+    ArgumentCaptor<FrontierQueueUrl> released = ArgumentCaptor.forClass(FrontierQueueUrl.class);
+    verify(frontierRepository, times(2)).releaseClaim(released.capture());
+    assertThat(released.getAllValues()).extracting(FrontierQueueUrl::id).containsExactly(0L, 1L);
+  }
+
+  @Test
+  void stoppingTheDrainLetsWorkersFinishTheirUrlAndReleasesTheRest() throws InterruptedException {
+    properties.getFrontier().setWorkerCount(1);
+    FrontierSchedulerService service = service();
+    enqueue(2);
+
+    service.startDrain();
+    waitFor(() -> inFlight.get() == 1);
+    service.stopDrain();
+
+    FrontierDrainStatusResponse stopped = service.getDrainStatus();
+    assertThat(stopped.running()).isFalse();
+    assertThat(stopped.totals().urlsFetched()).isEqualTo(1);
+    assertThat(stopped.totals().notModifiedCount()).isEqualTo(1);
+    assertThat(interruptedFetches.get()).isZero();
+    verify(frontierRepository).releaseClaim(any(FrontierQueueUrl.class));
+
+    // The stopped drain's workers are done, so a new drain can start right away.
+    service.startDrain();
+    try {
+      assertThat(service.getDrainStatus().running()).isTrue();
+    } finally {
+      service.stopDrain();
+    }
+  }
+
+  private FrontierSchedulerService service() {
+    return new FrontierSchedulerService(
+        frontierRepository,
+        httpClient,
+        new FrontierBackoffPolicy(properties),
+        new FrontierSitemapParser(),
+        new FrontierJobSignalHeuristics(),
+        robotsTxtService,
+        validatorRepository,
+        properties);
+  }
+
+  private void enqueue(int count) {
+    synchronized (due) {
+      for (int n = 0; n < count; n++) {
+        int i = nextId.getAndIncrement();
+        String url = "https://host-" + i + ".example.com/sitemap.xml";
+        due.add(
+            new FrontierQueueUrl(
+                i,
+                url,
+                "host-" + i + ".example.com",
+                url,
+                FrontierUrlKind.SITEMAP,
+                100,
+                Instant.now(),
+                "QUEUED"));
+      }
+    }
+  }
+
+  private int remaining() {
+    synchronized (due) {
+      return due.size();
+    }
+  }
+
+  private List<FrontierQueueUrl> claim(int limit) {
+    synchronized (due) {
+      List<FrontierQueueUrl> claimed = new ArrayList<>();
+      while (claimed.size() < limit && !due.isEmpty()) {
+        claimed.add(due.poll());
+      }
+      return claimed;
+    }
+  }
+
+  private HttpFetchResult fetch(String url) throws InterruptedException {
+    synchronized (fetchTrafficClasses) {
+      fetchTrafficClasses.add(TrafficClassContext.current());
+    }
+    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      try {
+        Thread.sleep(FETCH_MILLIS);
+      } catch (InterruptedException e) {
+        interruptedFetches.incrementAndGet();
+        throw e;
+      }
+      return new HttpFetchResult(
+          url,
+          URI.create(url),
+          304,
+          null,
+          null,
+          "application/xml",
+          null,
+          Instant.now(),
+          Duration.ofMillis(FETCH_MILLIS),
+          null,
+          null);
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.delta.jobtracker.crawl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.model.HostCrawlState;
+import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.util.ReasonCodeClassifier;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HostCrawlStateServiceTest {
+  @Mock private CrawlJdbcRepository repository;
+
+  private HostCrawlStateService service;
+
+  @AfterEach
+  void tearDown() {
+    if (service != null) {
+      service.stop();
+    }
+  }
+
+  @Test
+  void servesCooldownFromMemoryLoadedAtStartup() {
+    Instant cooldownUntil = Instant.now().plusSeconds(600);
+    when(repository.findAllHostCrawlStates())
+        .thenReturn(
+            List.of(
+                new HostCrawlState(
+                    "slow.example.com", 2, "timeout", Instant.now(), cooldownUntil)));
+    service = startService();
+
+    assertThat(service.nextAllowedAt("SLOW.example.com")).isEqualTo(cooldownUntil);
+    assertThat(service.consecutiveFailures("slow.example.com")).isEqualTo(2);
+    assertThat(service.nextAllowedAt("fast.example.com")).isNull();
+    verify(repository).findAllHostCrawlStates();
+    verifyNoMoreInteractions(repository);
+  }
+
+  @Test
+  void flushesOnlyChangedHostsInOneBatch() {
+    when(repository.findAllHostCrawlStates()).thenReturn(List.of());
+    service = startService();
+
+    service.recordSuccess("unknown.example.com");
+    service.recordFailure("a.example.com", ReasonCodeClassifier.TIMEOUT);
+    service.recordFailure("b.example.com", ReasonCodeClassifier.HTTP_429_RATE_LIMIT);
+    service.recordFailure("a.example.com", ReasonCodeClassifier.TIMEOUT);
+    assertThat(service.pendingWrites()).isEqualTo(2);
+
+    service.flush();
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<HostCrawlState>> captor = ArgumentCaptor.forClass(List.class);
+    verify(repository, times(1)).upsertHostCrawlStates(captor.capture());
+    assertThat(captor.getValue())
+        .extracting(HostCrawlState::host)
+        .containsExactlyInAnyOrder("a.example.com", "b.example.com");
+    assertThat(service.consecutiveFailures("a.example.com")).isEqualTo(2);
+    assertThat(service.pendingWrites()).isZero();
+
+    service.recordSuccess("b.example.com");
+    service.recordSuccess("b.example.com");
+    assertThat(service.nextAllowedAt("b.example.com")).isNull();
+    assertThat(service.pendingWrites()).isEqualTo(1);
+
+    service.flush();
+    service.recordSuccess("b.example.com");
+    service.flush();
+    verify(repository, times(2)).upsertHostCrawlStates(anyList());
+  }
+
+  @Test
+  void retryAfterOverridesBackoffLadder() {
+    when(repository.findAllHostCrawlStates()).thenReturn(List.of());
+    service = startService();
+    Instant resumeAt = Instant.now().plusSeconds(42);
+
+    service.recordFailure(
+        "limited.example.com", ReasonCodeClassifier.HTTP_429_RATE_LIMIT, resumeAt);
+
+    assertThat(service.nextAllowedAt("limited.example.com")).isEqualTo(resumeAt);
+    assertThat(service.consecutiveFailures("limited.example.com")).isEqualTo(1);
+    service.flush();
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<HostCrawlState>> captor = ArgumentCaptor.forClass(List.class);
+    verify(repository).upsertHostCrawlStates(captor.capture());
+    assertThat(captor.getValue().getFirst().nextAllowedAt()).isEqualTo(resumeAt);
+  }
+
+  private HostCrawlStateService startService() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getHostState().setFlushIntervalMs(60_000);
+    HostCrawlStateService created = new HostCrawlStateService(repository, properties);
+    created.start();
+    return created;
+  }
+}
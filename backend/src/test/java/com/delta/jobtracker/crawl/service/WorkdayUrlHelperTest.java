@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.persistence.CrawlJdbcRepository;
+import com.delta.jobtracker.crawl.persistence.HttpValidatorRepository;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
@@ -20,6 +21,7 @@ class WorkdayUrlHelperTest {
   @Mock private PoliteHttpClient httpClient;
   @Mock private RobotsTxtService robotsTxtService;
   @Mock private CrawlJdbcRepository repository;
+  @Mock private HttpValidatorRepository validatorRepository;
 
   private AtsAdapterIngestionService service;
 
@@ -27,7 +29,12 @@ class WorkdayUrlHelperTest {
   void setUp() {
     service =
         new AtsAdapterIngestionService(
-            httpClient, robotsTxtService, repository, new ObjectMapper(), new CrawlerProperties());
+            httpClient,
+            robotsTxtService,
+            repository,
+            validatorRepository,
+            new ObjectMapper(),
+            new CrawlerProperties());
   }
 
   @Test
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.delta.jobtracker.crawl.model.FrontierSitemapParseResult;
 import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.Test;
 
 class FrontierSitemapParserTest {
@@ -40,26 +43,64 @@ class FrontierSitemapParserTest {
   }
 
   @Test
-  void extractXmlPayloadDecodesGzipSitemapFixture() throws Exception {
+  void parseDecodesGzipSitemapFixture() throws Exception {
     byte[] gzipped =
         Files.readAllBytes(Path.of("src/test/resources/fixtures/sitemap-urlset.xml.gz"));
-    HttpFetchResult fetchResult =
-        new HttpFetchResult(
-            "https://example.com/sitemap.xml.gz",
-            new URI("https://example.com/sitemap.xml.gz"),
-            200,
-            null,
-            gzipped,
-            "application/xml",
-            null,
-            Instant.now(),
-            Duration.ofMillis(12),
-            null,
-            null);
 
-    String xml = parser.extractXmlPayload("https://example.com/sitemap.xml.gz", fetchResult);
+    FrontierSitemapParseResult result = parser.parse(fetch(gzipped), 100);
 
-    assertThat(xml).contains("<urlset");
-    assertThat(xml).contains("<loc>");
+    assertThat(result.childSitemaps()).isEmpty();
+    assertThat(result.urls())
+        .containsExactly("https://example.com/jobs/alpha", "https://example.com/careers/beta");
+  }
+
+  @Test
+  void parseStreamsGzipFetchAndStopsAtMaxUrls() throws Exception {
+    StringBuilder xml =
+        new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\""
+                + " xmlns:image=\"http://www.google.com/schemas/sitemap-image/1.1\">\n");
+    for (int i = 0; i < 10; i++) {
+      xml.append("<url><loc>https://example.com/jobs/")
+          .append(i)
+          .append("</loc><image:image><image:loc>https://cdn.example.com/")
+          .append(i)
+          .append(".png</image:loc></image:image></url>\n");
+    }
+    xml.append("</urlset>");
+    ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+      out.write(xml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    FrontierSitemapParseResult result = parser.parse(fetch(gzipped.toByteArray()), 3);
+
+    assertThat(result.childSitemaps()).isEmpty();
+    assertThat(result.urls())
+        .containsExactly(
+            "https://example.com/jobs/0",
+            "https://example.com/jobs/1",
+            "https://example.com/jobs/2");
+  }
+
+  @Test
+  void parseReturnsNullForEmptyPayload() throws Exception {
+    assertThat(parser.parse(fetch(" \n ".getBytes(StandardCharsets.UTF_8)), 10)).isNull();
+  }
+
+  private static HttpFetchResult fetch(byte[] body) throws Exception {
+    return new HttpFetchResult(
+        "https://example.com/sitemap.xml",
+        new URI("https://example.com/sitemap.xml"),
+        200,
+        null,
+        body,
+        "application/xml",
+        null,
+        Instant.now(),
+        Duration.ofMillis(12),
+        null,
+        null);
   }
 }
@@ -0,0 +1,40 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class SitemapLastmodTest {
+
+  @Test
+  void parsesW3cDatetimeGranularities() {
+    assertThat(SitemapLastmod.parse("2026")).isEqualTo(Instant.parse("2026-01-01T00:00:00Z"));
+    assertThat(SitemapLastmod.parse("2026-03")).isEqualTo(Instant.parse("2026-03-01T00:00:00Z"));
+    assertThat(SitemapLastmod.parse(" 2026-03-04 "))
+        .isEqualTo(Instant.parse("2026-03-04T00:00:00Z"));
+    assertThat(SitemapLastmod.parse("2026-03-04T10:15+02:00"))
+        .isEqualTo(Instant.parse("2026-03-04T08:15:00Z"));
+    assertThat(SitemapLastmod.parse("2026-03-04T10:15:30.5Z"))
+        .isEqualTo(Instant.parse("2026-03-04T10:15:30.5Z"));
+    assertThat(SitemapLastmod.parse("2026-03-04T10:15:30"))
+        .isEqualTo(Instant.parse("2026-03-04T10:15:30Z"));
+    assertThat(SitemapLastmod.parse("yesterday")).isNull();
+    assertThat(SitemapLastmod.parse(" ")).isNull();
+  }
+
+  @Test
+  void onlyALaterLastmodCountsAsNewer() {
+    assertThat(SitemapLastmod.isNewer("2026-03-05", "2026-03-04T23:00:00Z")).isTrue();
+    assertThat(SitemapLastmod.isNewer("2026-03-04", "2026-03-04T00:00:00+00:00")).isFalse();
+    assertThat(SitemapLastmod.isNewer("2026-03-03", "2026-03-04")).isFalse();
+  }
+
+  @Test
+  void missingOrUnparseableValuesCountAsChanged() {
+    assertThat(SitemapLastmod.isNewer(null, "2026-03-04")).isTrue();
+    assertThat(SitemapLastmod.isNewer("2026-03-04", null)).isTrue();
+    assertThat(SitemapLastmod.isNewer("build-42", "build-41")).isTrue();
+    assertThat(SitemapLastmod.isNewer("build-42", "build-42")).isFalse();
+  }
+}
@@ -0,0 +1,143 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+class SitemapParserBenchmarkTest {
+  private static final int URLS = 50_000;
+  private static final int ROUNDS = 5;
+
+  private final FrontierSitemapParser parser = new FrontierSitemapParser();
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "RUN_SITEMAP_BENCHMARK", matches = "(?i)true|1|yes")
+  void benchmarksStreamingParserAgainstJsoupDom() throws Exception {
+    byte[] gzipped = gzip(largeSitemap());
+    HttpFetchResult fetch = fetch(gzipped);
+
+    List<String> legacy = legacyParse(gzipped, URLS);
+    assertThat(parser.parse(fetch, URLS).urls()).isEqualTo(legacy);
+
+    Measurement legacyFull = measure(() -> legacyParse(gzipped, URLS).size());
+    Measurement streamingFull = measure(() -> parser.parse(fetch, URLS).urls().size());
+    Measurement legacyCapped = measure(() -> legacyParse(gzipped, 1_000).size());
+    Measurement streamingCapped = measure(() -> parser.parse(fetch, 1_000).urls().size());
+
+    System.out.println("=== Sitemap Parser Benchmark ===");
+    System.out.println("urls=" + URLS + " gzip_bytes=" + gzipped.length + " rounds=" + ROUNDS);
+    System.out.println("legacy_jsoup_full " + legacyFull);
+    System.out.println("streaming_stax_full " + streamingFull);
+    System.out.println("legacy_jsoup_max_urls_1000 " + legacyCapped);
+    System.out.println("streaming_stax_max_urls_1000 " + streamingCapped);
+  }
+
+  private static String largeSitemap() {
+    StringBuilder xml = new StringBuilder(URLS * 160);
+    xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+    for (int i = 0; i < URLS; i++) {
+      xml.append("  <url>\n    <loc>https://careers.example.com/en-us/jobs/")
+          .append(i)
+          .append("/software-engineer-")
+          .append(i % 97)
+          .append("</loc>\n    <lastmod>2026-0")
+          .append(1 + i % 9)
+          .append("-1")
+          .append(i % 10)
+          .append("</lastmod>\n    <changefreq>daily</changefreq>\n  </url>\n");
+    }
+    xml.append("</urlset>\n");
+    return xml.toString();
+  }
+
+  // What FrontierSitemapParser did before: inflate to a String, build a Jsoup DOM, select.
+  private static List<String> legacyParse(byte[] gzipped, int maxUrls) throws Exception {
+    String payload;
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+      payload = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    Document xml = Jsoup.parse(payload, "", Parser.xmlParser());
+    List<String> urls = new ArrayList<>();
+    Set<String> seen = new LinkedHashSet<>();
+    for (Element loc : xml.select("url > loc")) {
+      if (urls.size() >= maxUrls) {
+        break;
+      }
+      String url = loc.text().trim();
+      if (seen.add(url)) {
+        urls.add(url);
+      }
+    }
+    return urls;
+  }
+
+  private static Measurement measure(ParseRun run) throws Exception {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long sink = run.parse();
+    long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+    long startedAt = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      sink += run.parse();
+    }
+    long elapsed = System.nanoTime() - startedAt;
+    long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+    assertThat(sink).isPositive();
+    return new Measurement(elapsed / ROUNDS / 1_000_000, allocated / ROUNDS / (1024 * 1024));
+  }
+
+  private static byte[] gzip(String xml) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(xml.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  private static HttpFetchResult fetch(byte[] body) throws Exception {
+    return new HttpFetchResult(
+        "https://careers.example.com/sitemap.xml.gz",
+        new URI("https://careers.example.com/sitemap.xml.gz"),
+        200,
+        null,
+        body,
+        "application/xml",
+        null,
+        Instant.now(),
+        Duration.ofMillis(5),
+        null,
+        null);
+  }
+
+  private interface ParseRun {
+    long parse() throws Exception;
+  }
+
+  private record Measurement(long millisPerParse, long allocatedMbPerParse) {
+    @Override
+    public String toString() {
+      return "ms_per_parse=" + millisPerParse + " allocated_mb_per_parse=" + allocatedMbPerParse;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
+import com.delta.jobtracker.crawl.model.SitemapFetchRecord;
+import com.delta.jobtracker.crawl.model.SitemapUrlEntry;
+import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SitemapServiceFanOutTest {
+  private static final String INDEX = "https://example.com/sitemap.xml";
+  private static final List<String> HOSTS =
+      List.of("a.example-cdn.com", "b.example-cdn.com", "c.example-cdn.com");
+  private static final int CHILDREN = 12;
+  private static final long FETCH_MILLIS = 100;
+
+  @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsTxtService robotsTxtService;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(16);
+  private final Map<String, AtomicInteger> inFlightByHost = new ConcurrentHashMap<>();
+  private final Map<String, Integer> peakByHost = new ConcurrentHashMap<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+  private final AtomicInteger fetches = new AtomicInteger();
+
+  @BeforeEach
+  void stubFetches() {
+    when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
+    when(httpClient.getCached(anyString(), anyString(), anyInt(), any(BodySpill.class)))
+        .thenAnswer(invocation -> fetch(invocation.getArgument(0)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void fetchesChildSitemapsConcurrentlyWithinHostAndRunLimits() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getSitemap().setFetchConcurrency(4);
+    properties.getSitemap().setPerHostFetchConcurrency(2);
+    SitemapService service =
+        new SitemapService(properties, httpClient, robotsTxtService, executor);
+
+    long startedAt = System.nanoTime();
+    SitemapDiscoveryResult result = service.discover(List.of(INDEX), 1, 50, 1_000);
+    long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+    // Sequentially this is 13 fetches of 100ms each.
+    assertThat(elapsedMs).isLessThan(CHILDREN * FETCH_MILLIS);
+    assertThat(peakInFlight.get()).isBetween(2, 4);
+    assertThat(peakByHost.values()).allSatisfy(peak -> assertThat(peak).isLessThanOrEqualTo(2));
+
+    // Merged in index order, whatever order the fetches finished in.
+    List<String> expectedSitemaps = new ArrayList<>(List.of(INDEX));
+    List<String> expectedUrls = new ArrayList<>();
+    for (int i = 0; i < CHILDREN; i++) {
+      expectedSitemaps.add(child(i));
+      expectedUrls.add(job(i, 0));
+      expectedUrls.add(job(i, 1));
+    }
+    assertThat(result.fetchedSitemaps())
+        .extracting(SitemapFetchRecord::sitemapUrl)
+        .containsExactlyElementsOf(expectedSitemaps);
+    assertThat(result.discoveredUrls())
+        .extracting(SitemapUrlEntry::url)
+        .containsExactlyElementsOf(expectedUrls);
+  }
+
+  @Test
+  void reachingMaxUrlsStopsOutstandingFetches() {
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.getSitemap().setFetchConcurrency(2);
+    properties.getSitemap().setPerHostFetchConcurrency(2);
+    SitemapService service =
+        new SitemapService(properties, httpClient, robotsTxtService, executor);
+
+    SitemapDiscoveryResult result = service.discover(List.of(INDEX), 1, 50, 3);
+
+    assertThat(result.discoveredUrls())
+        .extracting(SitemapUrlEntry::url)
+        .containsExactly(job(0, 0), job(0, 1), job(1, 0));
+    assertThat(result.fetchedSitemaps())
+        .extracting(SitemapFetchRecord::sitemapUrl)
+        .containsExactly(INDEX, child(0), child(1));
+    // The index, the first two children, and at most the two launched as those finished.
+    assertThat(fetches.get()).isLessThanOrEqualTo(5);
+  }
+
+  private HttpFetchResult fetch(String url) throws InterruptedException {
+    fetches.incrementAndGet();
+    String host = URI.create(url).getHost();
+    AtomicInteger hostInFlight = inFlightByHost.computeIfAbsent(host, key -> new AtomicInteger());
+    peakByHost.merge(host, hostInFlight.incrementAndGet(), Math::max);
+    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      Thread.sleep(FETCH_MILLIS);
+      return result(url, INDEX.equals(url) ? index() : urlset(url));
+    } finally {
+      inFlight.decrementAndGet();
+      hostInFlight.decrementAndGet();
+    }
+  }
+
+  private static String index() {
+    StringBuilder xml =
+        new StringBuilder("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">");
+    for (int i = 0; i < CHILDREN; i++) {
+      xml.append("<sitemap><loc>").append(child(i)).append("</loc></sitemap>");
+    }
+    return xml.append("</sitemapindex>").toString();
+  }
+
+  private static String urlset(String childUrl) {
+    int i = Integer.parseInt(childUrl.replaceAll("\\D+(\\d+)\\.xml$", "$1"));
+    return "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">"
+        + "<url><loc>"
+        + job(i, 0)
+        + "</loc></url><url><loc>"
+        + job(i, 1)
+        + "</loc></url></urlset>";
+  }
+
+  private static String child(int i) {
+    return "https://" + HOSTS.get(i % HOSTS.size()) + "/sitemap-jobs-" + i + ".xml";
+  }
+
+  private static String job(int child, int index) {
+    return "https://example.com/jobs/" + child + "-" + index;
+  }
+
+  private static HttpFetchResult result(String url, String xml) {
+    return new HttpFetchResult(
+        url,
+        URI.create(url),
+        200,
+        xml,
+        null,
+        "application/xml",
+        null,
+        Instant.now(),
+        Duration.ofMillis(FETCH_MILLIS),
+        null,
+        null);
+  }
+}
@@ -0,0 +1,136 @@
+package com.delta.jobtracker.crawl.sitemap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.delta.jobtracker.config.CrawlerProperties;
+import com.delta.jobtracker.crawl.http.BodySpill;
+import com.delta.jobtracker.crawl.http.PoliteHttpClient;
+import com.delta.jobtracker.crawl.model.HttpFetchResult;
+import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
+import com.delta.jobtracker.crawl.model.SitemapFetchRecord;
+import com.delta.jobtracker.crawl.model.SitemapUrlEntry;
+import com.delta.jobtracker.crawl.robots.RobotsTxtService;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SitemapServiceLastmodTest {
+  private static final String INDEX = "https://example.com/sitemap.xml";
+  private static final String OLD_JOBS = "https://example.com/sitemap-jobs-2025.xml";
+  private static final String NEW_JOBS = "https://example.com/sitemap-jobs-2026.xml";
+
+  @Mock private PoliteHttpClient httpClient;
+  @Mock private RobotsTxtService robotsTxtService;
+
+  @Test
+  void skipsChildSitemapsWhoseIndexLastmodHasNotMoved() {
+    when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
+    stub(
+        INDEX,
+        """
+        <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+          <sitemap><loc>%s</loc><lastmod>2025-12-31</lastmod></sitemap>
+          <sitemap><lastmod>2026-02-01T08:00:00+00:00</lastmod><loc>%s</loc></sitemap>
+        </sitemapindex>
+        """
+            .formatted(OLD_JOBS, NEW_JOBS));
+    stub(
+        NEW_JOBS,
+        """
+        <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+          <url><loc>https://example.com/jobs/1</loc><lastmod>2026-02-01</lastmod></url>
+        </urlset>
+        """);
+
+    SitemapDiscoveryResult result =
+        service()
+            .discover(
+                List.of(INDEX),
+                2,
+                10,
+                100,
+                Map.of(OLD_JOBS, "2025-12-31", NEW_JOBS, "2026-01-15T00:00:00Z"));
+
+    assertThat(result.unchangedSitemaps()).containsExactly(OLD_JOBS);
+    assertThat(result.discoveredUrls())
+        .containsExactly(new SitemapUrlEntry("https://example.com/jobs/1", "2026-02-01", NEW_JOBS));
+    assertThat(result.fetchedSitemaps())
+        .extracting(SitemapFetchRecord::sitemapUrl, SitemapFetchRecord::lastmod)
+        .containsExactly(
+            tuple(INDEX, null), tuple(NEW_JOBS, "2026-02-01T08:00:00+00:00"));
+    // Only leaf sitemaps whose URLs were all taken may be skipped next time.
+    assertThat(result.fetchedSitemaps())
+        .extracting(SitemapFetchRecord::complete)
+        .containsExactly(false, true);
+    verify(httpClient, never()).getCached(eq(OLD_JOBS), anyString(), anyInt(), any());
+  }
+
+  @Test
+  void readsEveryChildWithoutKnownLastmods() {
+    when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
+    stub(
+        INDEX,
+        """
+        <sitemapindex xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+          <sitemap><loc>%s</loc><lastmod>2025-12-31</lastmod></sitemap>
+        </sitemapindex>
+        """
+            .formatted(OLD_JOBS));
+    stub(
+        OLD_JOBS,
+        """
+        <urlset xmlns="http://www.sitemaps.org/schemas/sitemap/0.9">
+          <url><loc>https://example.com/jobs/1</loc></url>
+          <url><loc>https://example.com/jobs/2</loc></url>
+        </urlset>
+        """);
+
+    SitemapDiscoveryResult result = service().discover(List.of(INDEX), 2, 10, 1);
+
+    assertThat(result.unchangedSitemaps()).isEmpty();
+    assertThat(result.discoveredUrls())
+        .extracting(SitemapUrlEntry::url)
+        .containsExactly("https://example.com/jobs/1");
+    // The URL budget cut the child short, so it must be read again next time.
+    assertThat(result.fetchedSitemaps())
+        .extracting(SitemapFetchRecord::complete)
+        .containsExactly(false, false);
+  }
+
+  private void stub(String url, String xml) {
+    when(httpClient.getCached(eq(url), anyString(), anyInt(), any(BodySpill.class)))
+        .thenReturn(
+            new HttpFetchResult(
+                url,
+                URI.create(url),
+                200,
+                xml,
+                null,
+                "application/xml",
+                null,
+                Instant.now(),
+                Duration.ofMillis(5),
+                null,
+                null));
+  }
+
+  private SitemapService service() {
+    return new SitemapService(
+        new CrawlerProperties(), httpClient, robotsTxtService, Runnable::run);
+  }
+}
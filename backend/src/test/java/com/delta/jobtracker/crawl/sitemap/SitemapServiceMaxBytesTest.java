@@ -7,15 +7,22 @@ import static org.mockito.Mockito.when;
 import com.delta.jobtracker.config.CrawlerProperties;
 import com.delta.jobtracker.crawl.http.PoliteHttpClient;
 import com.delta.jobtracker.crawl.model.SitemapDiscoveryResult;
+import com.delta.jobtracker.crawl.model.SitemapFetchRecord;
 import com.delta.jobtracker.crawl.robots.RobotsTxtService;
 import com.delta.jobtracker.crawl.service.HostCrawlStateService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 class SitemapServiceMaxBytesTest {
@@ -35,7 +42,7 @@ class SitemapServiceMaxBytesTest {
   @Test
   void recordsBodyTooLargeWhenSitemapExceedsClientCap() throws Exception {
     server = new MockWebServer();
-    // Default sitemap cap is 2,000,000 bytes; exceed it slightly.
+    // Cap sitemaps at 2,000,000 bytes and exceed it slightly.
     server.enqueue(new MockResponse().setResponseCode(200).setBody("a".repeat(2_000_100)));
     server.start();
 
@@ -47,11 +54,13 @@ class SitemapServiceMaxBytesTest {
     properties.setPerHostDelayMs(1);
     properties.setRequestTimeoutSeconds(5);
     properties.setRequestMaxRetries(0);
+    properties.getSitemap().setMaxBytes(2_000_000);
 
     executor = Executors.newFixedThreadPool(1);
     HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
     PoliteHttpClient httpClient = new PoliteHttpClient(properties, executor, hostCrawlStateService);
-    SitemapService sitemapService = new SitemapService(httpClient, robotsTxtService);
+    SitemapService sitemapService =
+        new SitemapService(properties, httpClient, robotsTxtService, Runnable::run);
 
     String sitemapUrl = server.url("/sitemap.xml").toString();
     SitemapDiscoveryResult result = sitemapService.discover(List.of(sitemapUrl), 0, 1, 50);
@@ -59,4 +68,58 @@ class SitemapServiceMaxBytesTest {
     assertThat(result.errors()).containsEntry("body_too_large", 1);
     assertThat(result.discoveredUrls()).isEmpty();
   }
+
+  @Test
+  void streamsSitemapsPastTheOldCapThroughASpillFile(@TempDir Path spillDir) throws Exception {
+    int urls = 30_000;
+    StringBuilder xml =
+        new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+    for (int i = 0; i < urls; i++) {
+      xml.append("  <url><loc>https://careers.example.com/jobs/")
+          .append(i)
+          .append("/senior-software-engineer</loc><lastmod>2026-01-01</lastmod></url>\n");
+    }
+    xml.append("</urlset>\n");
+    byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+    assertThat(body.length).isGreaterThan(2_000_000);
+
+    server = new MockWebServer();
+    server.enqueue(
+        new MockResponse()
+            .setResponseCode(200)
+            .setHeader("Content-Type", "application/xml")
+            .setBody(new Buffer().write(body)));
+    server.start();
+
+    RobotsTxtService robotsTxtService = Mockito.mock(RobotsTxtService.class);
+    when(robotsTxtService.isAllowed(anyString())).thenReturn(true);
+
+    CrawlerProperties properties = new CrawlerProperties();
+    properties.setGlobalConcurrency(1);
+    properties.setPerHostDelayMs(1);
+    properties.setRequestTimeoutSeconds(30);
+    properties.setRequestMaxRetries(0);
+    properties.getSitemap().setSpillThresholdBytes(64 * 1024);
+    properties.getSitemap().setSpillDirectory(spillDir.toString());
+
+    executor = Executors.newFixedThreadPool(1);
+    HostCrawlStateService hostCrawlStateService = Mockito.mock(HostCrawlStateService.class);
+    PoliteHttpClient httpClient = new PoliteHttpClient(properties, executor, hostCrawlStateService);
+    SitemapService sitemapService =
+        new SitemapService(properties, httpClient, robotsTxtService, Runnable::run);
+
+    String sitemapUrl = server.url("/sitemap.xml").toString();
+    SitemapDiscoveryResult result = sitemapService.discover(List.of(sitemapUrl), 0, 1, urls);
+
+    assertThat(result.errors()).isEmpty();
+    assertThat(result.discoveredUrls()).hasSize(urls);
+    SitemapFetchRecord record = result.fetchedSitemaps().get(0);
+    assertThat(record.bytesProcessed()).isEqualTo(body.length);
+    assertThat(record.peakBufferedBytes()).isLessThanOrEqualTo(128 * 1024);
+    try (Stream<Path> leftovers = Files.list(spillDir)) {
+      assertThat(leftovers).isEmpty();
+    }
+  }
 }